@@ -6,11 +6,15 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.github.jmchilton.blend4j.galaxy.JobsClient;
 import com.github.jmchilton.blend4j.galaxy.ToolsClient;
@@ -105,6 +109,15 @@ public class AnalysisExecutionServiceConfig {
 	@Autowired
 	private List<AnalysisSampleUpdater> defaultAnalysisSampleUpdaters;
 
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * The number of analysis output files to download from Galaxy at once.
+	 */
+	@Value("${irida.workflow.analysis.download.threads:4}")
+	private int downloadThreads;
+
 	private List<AnalysisSampleUpdater> loadPluginAnalysisSampleUpdaters() {
 		List<AnalysisSampleUpdater> pluginUpdaters = Lists.newLinkedList();
 
@@ -143,7 +156,8 @@ public class AnalysisExecutionServiceConfig {
 	@Bean
 	public AnalysisExecutionServiceGalaxyAsync analysisExecutionServiceGalaxyAsync() {
 		return new AnalysisExecutionServiceGalaxyAsync(analysisSubmissionService, analysisService,
-				galaxyWorkflowService, analysisWorkspaceService(), iridaWorkflowsService, analysisSubmissionSampleProcessor());
+				galaxyWorkflowService, analysisWorkspaceService(), iridaWorkflowsService, analysisSubmissionSampleProcessor(),
+				transactionManager);
 	}
 	
 	@Lazy
@@ -156,10 +170,31 @@ public class AnalysisExecutionServiceConfig {
 	@Lazy
 	@Bean
 	public AnalysisWorkspaceServiceGalaxy analysisWorkspaceService() {
-		return new AnalysisWorkspaceServiceGalaxy(galaxyHistoriesService, galaxyWorkflowService,
-				galaxyLibrariesService, iridaWorkflowsService, analysisCollectionServiceGalaxy(),
-				analysisProvenanceService(), analysisParameterServiceGalaxy,
-				sequencingObjectService);
+		AnalysisWorkspaceServiceGalaxy workspaceService = new AnalysisWorkspaceServiceGalaxy(galaxyHistoriesService,
+				galaxyWorkflowService, galaxyLibrariesService, iridaWorkflowsService, analysisCollectionServiceGalaxy(),
+				analysisProvenanceService(), analysisParameterServiceGalaxy, sequencingObjectService);
+
+		if (downloadThreads > 1) {
+			logger.info("Analysis output files will be downloaded concurrently [irida.workflow.analysis.download.threads="
+					+ downloadThreads + "]");
+			workspaceService.setDownloadExecutor(analysisDownloadExecutor());
+		}
+
+		return workspaceService;
+	}
+
+	/**
+	 * @return A {@link ThreadPoolTaskExecutor} for downloading analysis output files from Galaxy.
+	 */
+	@Lazy
+	@Bean
+	public ThreadPoolTaskExecutor analysisDownloadExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(Math.max(downloadThreads, 1));
+		taskExecutor.setMaxPoolSize(Math.max(downloadThreads, 1));
+		taskExecutor.setThreadNamePrefix("analysis-download-");
+		taskExecutor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+		return taskExecutor;
 	}
 
 	@Lazy
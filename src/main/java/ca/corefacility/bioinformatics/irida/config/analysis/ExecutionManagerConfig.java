@@ -275,7 +275,8 @@ public class ExecutionManagerConfig {
 	@Lazy
 	@Bean
 	public GalaxyHistoriesService galaxyHistoriesService() throws ExecutionManagerConfigurationException {
-		return new GalaxyHistoriesService(historiesClient(), toolsClient(), galaxyLibrariesService());
+		return new GalaxyHistoriesService(historiesClient(), toolsClient(), galaxyLibrariesService(),
+				executionManager().getAPIKey());
 	}
 
 	/**
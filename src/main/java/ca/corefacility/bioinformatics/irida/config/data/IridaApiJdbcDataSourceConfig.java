@@ -153,6 +153,13 @@ public class IridaApiJdbcDataSourceConfig implements DataConfig {
 
 		properties.setProperty("org.hibernate.envers.store_data_at_delete",
 				environment.getProperty("org.hibernate.envers.store_data_at_delete"));
+		// group inserts by table so sessions that turn on JDBC batching (see pipeline.launch.jdbc.batch.size) can batch
+		// their join, collection and audit rows.  Hibernate only allows this for the whole application, sessions that
+		// don't batch still send their inserts one at a time.
+		properties.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+		// load the eager collections and associations of a page of entities in batches instead of one query per entity
+		properties.setProperty(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE,
+				environment.getProperty(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, "50"));
 		properties.setProperty("show_sql", "false");
 		return properties;
 	}
@@ -4,7 +4,9 @@ import ca.corefacility.bioinformatics.irida.model.assembly.UploadedAssembly;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisOutputFile;
+import ca.corefacility.bioinformatics.irida.repositories.filesystem.ContentAddressedFileStore;
 import ca.corefacility.bioinformatics.irida.repositories.filesystem.FilesystemSupplementedRepositoryImpl.RelativePathTranslatorListener;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepositoryImpl.StoredContentReleaseListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +41,9 @@ public class IridaApiFilesystemRepositoryConfig {
 	private @Value("${assembly.file.base.directory}")
 	String assemblyFileBaseDirectory;
 
+	private @Value("${sequence.file.deduplicate:true}")
+	boolean deduplicateSequenceFiles;
+
 	@Autowired
 	private ApplicationContext applicationContext;
 
@@ -72,6 +77,15 @@ public class IridaApiFilesystemRepositoryConfig {
 		return getExistingPathOrThrow(sequenceFileBaseDirectory);
 	}
 
+	@Bean(name = "sequenceFileContentStore")
+	public ContentAddressedFileStore sequenceFileContentStore(
+			final @Qualifier("sequenceFileBaseDirectory") Path sequenceFileBaseDirectory) {
+		ContentAddressedFileStore contentStore = new ContentAddressedFileStore(sequenceFileBaseDirectory,
+				deduplicateSequenceFiles);
+		StoredContentReleaseListener.setContentStore(contentStore);
+		return contentStore;
+	}
+
 	@Bean(name = "outputFileBaseDirectory")
 	public Path outputFileBaseDirectory() throws IOException {
 		if (applicationContext.getEnvironment().acceptsProfiles("dev", "it", "test")) {
@@ -5,6 +5,7 @@ import ca.corefacility.bioinformatics.irida.security.IgnoreExpiredCredentialsFor
 import ca.corefacility.bioinformatics.irida.security.PasswordExpiryChecker;
 import ca.corefacility.bioinformatics.irida.security.permissions.BasePermission;
 import ca.corefacility.bioinformatics.irida.security.permissions.IridaPermissionEvaluator;
+import ca.corefacility.bioinformatics.irida.security.permissions.IridaMethodSecurityExpressionHandler;
 import com.google.common.base.Joiner;
 import org.apache.oltu.oauth2.client.OAuthClient;
 import org.apache.oltu.oauth2.client.URLConnectionClient;
@@ -65,10 +66,9 @@ public class IridaApiSecurityConfig extends GlobalMethodSecurityConfiguration {
 
 	@Override
 	protected MethodSecurityExpressionHandler createExpressionHandler() {
-		DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
 		IridaPermissionEvaluator permissionEvaluator = new IridaPermissionEvaluator(basePermissions);
 		permissionEvaluator.init();
-		handler.setPermissionEvaluator(permissionEvaluator);
+		DefaultMethodSecurityExpressionHandler handler = new IridaMethodSecurityExpressionHandler(permissionEvaluator);
 		RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
 		roleHierarchy.setHierarchy(ROLE_HIERARCHY);
 		handler.setRoleHierarchy(roleHierarchy);
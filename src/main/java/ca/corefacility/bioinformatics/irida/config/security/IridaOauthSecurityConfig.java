@@ -94,6 +94,7 @@ public class IridaOauthSecurityConfig {
 		public void configure(final HttpSecurity httpSecurity) throws Exception {
 			httpSecurity.antMatcher("/api/**").authorizeRequests()
 					.regexMatchers(HttpMethod.GET, "/api.*").access("#oauth2.hasScope('read')")
+					.regexMatchers(HttpMethod.HEAD, "/api.*").access("#oauth2.hasScope('read')")
 					.regexMatchers("/api.*").access("#oauth2.hasScope('read') and #oauth2.hasScope('write')");
 			httpSecurity.antMatcher("/api/**").headers().frameOptions().disable();
 			httpSecurity.antMatcher("/api/**").csrf().requireCsrfProtectionMatcher(new AntPathRequestMatcher("/api/oauth/authorize"))
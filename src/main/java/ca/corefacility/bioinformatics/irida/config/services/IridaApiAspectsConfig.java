@@ -2,6 +2,7 @@ package ca.corefacility.bioinformatics.irida.config.services;
 
 import javax.validation.Validator;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -34,8 +35,10 @@ public class IridaApiAspectsConfig {
 	@Bean
 	public ProjectEventAspect projectEventAspect(final ProjectEventRepository eventRepository,
 			final ProjectSampleJoinRepository psjRepository, final ProjectRepository projectRepository,
-			final SampleRepository sampleRepository) {
-		return new ProjectEventAspect(new ProjectEventHandler(eventRepository, psjRepository, projectRepository, sampleRepository));
+			final SampleRepository sampleRepository, final ApplicationEventPublisher eventPublisher) {
+		return new ProjectEventAspect(
+				new ProjectEventHandler(eventRepository, psjRepository, projectRepository, sampleRepository),
+				eventPublisher);
 	}
 
 	@Bean
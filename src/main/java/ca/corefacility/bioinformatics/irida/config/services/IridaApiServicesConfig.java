@@ -22,6 +22,7 @@ import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionCleanupSer
 import ca.corefacility.bioinformatics.irida.service.TaxonomyService;
 import ca.corefacility.bioinformatics.irida.service.impl.InMemoryTaxonomyService;
 import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisSubmissionCleanupServiceImpl;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 import ca.corefacility.bioinformatics.irida.service.user.UserService;
 import ca.corefacility.bioinformatics.irida.util.IridaPluginMessageSource;
 import com.google.common.collect.ImmutableList;
@@ -45,6 +46,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -96,6 +98,9 @@ public class IridaApiServicesConfig {
 	@Value("${file.processing.decompress.remove.compressed.file}")
 	private Boolean removeCompressedFiles;
 
+	@Value("${file.processing.fused}")
+	private Boolean fusedFileProcessing;
+
 	// the key + colon syntax allows default values. we use `false` here so we can conditionally show tags on the page with thymeleaf
 	@Value("${help.page.title:false}")
 	private String helpPageTitle;
@@ -118,11 +123,23 @@ public class IridaApiServicesConfig {
 	@Value("${file.processing.queue.capacity}")
 	private int fpQueueCapacity;
 
+	@Value("${file.processing.fastqc.threads}")
+	private int fastqcThreads;
+
+	@Value("${file.processing.decompress.threads}")
+	private int decompressThreads;
+
 	@Value("${irida.debug.nrepl.server.port:#{null}}")
 	private Integer nreplPort;
 
 	@Value("${irida.workflow.analysis.threads}")
 	private int analysisTaskThreads;
+
+	@Value("${project.sync.threads:4}")
+	private int projectSyncThreads;
+
+	@Value("${ncbi.upload.threads:4}")
+	private int ncbiUploadThreads;
 	@Value("${locales.enabled}")
 	private String availableLocales;
 	@Autowired
@@ -286,19 +303,64 @@ public class IridaApiServicesConfig {
 	public FileProcessingChain fileProcessorChain(SequencingObjectRepository sequencingObjectRepository,
 			QCEntryRepository qcRepository, GzipFileProcessor gzipFileProcessor,
 			FastqcFileProcessor fastQcFileProcessor, ChecksumFileProcessor checksumProcessor,
-			CoverageFileProcessor coverageProcessor, AutomatedAnalysisFileProcessor automatedAnalysisFileProcessor) {
+			CoverageFileProcessor coverageProcessor, AutomatedAnalysisFileProcessor automatedAnalysisFileProcessor,
+			FusedFileProcessor fusedFileProcessor, SampleQCSummaryUpdater qcSummaryUpdater) {
 
 		gzipFileProcessor.setRemoveCompressedFiles(removeCompressedFiles);
 
+		if (!decompressFiles) {
+			logger.info("File decompression is disabled, compressed files are kept compressed [file.processing.decompress=false]");
+			gzipFileProcessor.setKeepCompressedFiles(true);
+		}
+
+		if (decompressThreads > 1) {
+			logger.info("BGZF files will be decompressed in parallel [file.processing.decompress.threads="
+					+ decompressThreads + "]");
+			gzipFileProcessor.setDecompressionExecutor(gzipDecompressionExecutor());
+		}
+
+		if (fastqcThreads > 1) {
+			logger.info("FastQC will analyze the files of a sequencing object concurrently [file.processing.fastqc.threads="
+					+ fastqcThreads + "]");
+			fastQcFileProcessor.setFileExecutor(fastqcFileExecutor());
+		}
+
+		if (fusedFileProcessing) {
+			logger.info("Checksum, decompression, and FastQC will run in a single pass [file.processing.fused=true]");
+			fusedFileProcessor.setDecompressFiles(decompressFiles);
+
+			DefaultFileProcessingChain fusedChain = new DefaultFileProcessingChain(sequencingObjectRepository,
+					qcRepository,
+					Lists.newArrayList(fusedFileProcessor, coverageProcessor, automatedAnalysisFileProcessor));
+			fusedChain.setSampleQCSummaryUpdater(qcSummaryUpdater);
+			return fusedChain;
+		}
+
 		final List<FileProcessor> fileProcessors = Lists.newArrayList(checksumProcessor, gzipFileProcessor,
 				fastQcFileProcessor, coverageProcessor, automatedAnalysisFileProcessor);
 
-		if (!decompressFiles) {
-			logger.info("File decompression is disabled [file.processing.decompress=false]");
-			fileProcessors.remove(gzipFileProcessor);
-		}
+		DefaultFileProcessingChain chain = new DefaultFileProcessingChain(sequencingObjectRepository, qcRepository,
+				fileProcessors);
+		chain.setSampleQCSummaryUpdater(qcSummaryUpdater);
+		return chain;
+	}
 
-		return new DefaultFileProcessingChain(sequencingObjectRepository, qcRepository, fileProcessors);
+	@Bean(name = "fastqcFileExecutor")
+	public ThreadPoolTaskExecutor fastqcFileExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(Math.max(fastqcThreads, 1));
+		taskExecutor.setMaxPoolSize(Math.max(fastqcThreads, 1));
+		taskExecutor.setThreadPriority(Thread.MIN_PRIORITY);
+		return taskExecutor;
+	}
+
+	@Bean(name = "gzipDecompressionExecutor")
+	public ThreadPoolTaskExecutor gzipDecompressionExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(Math.max(decompressThreads, 1));
+		taskExecutor.setMaxPoolSize(Math.max(decompressThreads, 1));
+		taskExecutor.setThreadPriority(Thread.MIN_PRIORITY);
+		return taskExecutor;
 	}
 
 	@Bean(name = "fileProcessingChainExecutor")
@@ -311,6 +373,37 @@ public class IridaApiServicesConfig {
 		return taskExecutor;
 	}
 
+	/**
+	 * Executor downloading the samples of a remote project while it's synchronized. Tasks run with the security
+	 * context of the thread that submitted them, the user the project is synchronized as.
+	 *
+	 * @return a new {@link ThreadPoolTaskExecutor} for project synchronization
+	 */
+	@Bean(name = "projectSyncExecutor")
+	public ThreadPoolTaskExecutor projectSyncExecutor() {
+		checkArgument(projectSyncThreads > 0, "project.sync.threads=" + projectSyncThreads + " must be > 0");
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(projectSyncThreads);
+		taskExecutor.setMaxPoolSize(projectSyncThreads);
+		taskExecutor.setThreadNamePrefix("project-sync-");
+		taskExecutor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+		return taskExecutor;
+	}
+
+	/**
+	 * Executor uploading the sequence files of NCBI SRA exports, each thread over its own FTP session.
+	 *
+	 * @return a new {@link ThreadPoolTaskExecutor} for NCBI uploads
+	 */
+	@Bean(name = "ncbiUploadExecutor")
+	public ThreadPoolTaskExecutor ncbiUploadExecutor() {
+		checkArgument(ncbiUploadThreads > 0, "ncbi.upload.threads=" + ncbiUploadThreads + " must be > 0");
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(ncbiUploadThreads);
+		taskExecutor.setMaxPoolSize(ncbiUploadThreads);
+		taskExecutor.setThreadNamePrefix("ncbi-upload-");
+		return taskExecutor;
+	}
 
 	@Bean
 	public Validator validator() {
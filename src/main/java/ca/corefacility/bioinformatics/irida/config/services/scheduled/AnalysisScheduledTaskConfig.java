@@ -3,12 +3,18 @@ package ca.corefacility.bioinformatics.irida.config.services.scheduled;
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyJobErrorsService;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.JobErrorRepository;
+import ca.corefacility.bioinformatics.irida.service.AnalysisAdmissionScheduler;
 import ca.corefacility.bioinformatics.irida.service.AnalysisExecutionScheduledTask;
 import ca.corefacility.bioinformatics.irida.service.CleanupAnalysisSubmissionCondition;
 import ca.corefacility.bioinformatics.irida.service.analysis.execution.AnalysisExecutionService;
 import ca.corefacility.bioinformatics.irida.service.impl.AnalysisExecutionScheduledTaskImpl;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisMonitoringSchedule;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
 import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.CleanupAnalysisSubmissionConditionAge;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.FairShareAdmissionScheduler;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.FairShareAdmissionScheduler.Share;
 import ca.corefacility.bioinformatics.irida.service.EmailController;
+import com.google.common.base.Splitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,10 +24,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Scheduled task configuration for running analysis pipelines
  */
@@ -46,12 +60,57 @@ public class AnalysisScheduledTaskConfig {
 	@Autowired
 	private EmailController emailController;
 
+	@Autowired
+	private AnalysisProgressCache analysisProgressCache;
+
 	/**
 	 * Defines the time to clean up in number of days a submission must exist before it is cleaned up.
 	 */
 	@Value("${irida.analysis.cleanup.days}")
 	private Double daysToCleanup;
 
+	/**
+	 * The number of Galaxy status checks for running submissions to make at once.
+	 */
+	@Value("${irida.analysis.monitor.threads:8}")
+	private int monitorThreads;
+
+	/**
+	 * The shortest time in seconds to wait between status checks of a running submission.
+	 */
+	@Value("${irida.analysis.monitor.interval.min:15}")
+	private long monitorMinInterval;
+
+	/**
+	 * The longest time in seconds to wait between status checks of a running submission.
+	 */
+	@Value("${irida.analysis.monitor.interval.max:120}")
+	private long monitorMaxInterval;
+
+	/**
+	 * Who to share capacity for new submissions between: submitter, project, or none.
+	 */
+	@Value("${irida.analysis.admission.share:submitter}")
+	private String admissionShare;
+
+	/**
+	 * The number of hours a new submission waits before its priority is raised by one level, 0 to never raise it.
+	 */
+	@Value("${irida.analysis.admission.aging.hours:24}")
+	private double admissionAgingHours;
+
+	/**
+	 * The most submissions of any one workflow that may run at once, 0 for no limit.
+	 */
+	@Value("${irida.analysis.admission.workflow.max-running:0}")
+	private int workflowMaxRunning;
+
+	/**
+	 * Limits for individual workflows as a comma separated list of workflow-id:limit.
+	 */
+	@Value("${irida.analysis.admission.workflow.limits:}")
+	private String workflowLimits;
+
 	/**
 	 * Rate in milliseconds of the analysis execution tasks.
 	 */
@@ -119,8 +178,74 @@ public class AnalysisScheduledTaskConfig {
 	@DependsOn("analysisSubmissionCleanupService")
 	@Bean
 	public AnalysisExecutionScheduledTask analysisExecutionScheduledTask() {
-		return new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository, analysisExecutionService,
-				cleanupAnalysisSubmissionCondition(), galaxyJobErrorsService, jobErrorRepository, emailController);
+		AnalysisExecutionScheduledTaskImpl task = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
+				analysisExecutionService, cleanupAnalysisSubmissionCondition(), galaxyJobErrorsService,
+				jobErrorRepository, emailController, analysisProgressCache);
+		task.setStatusCheckExecutor(analysisMonitorExecutor());
+		task.setMonitoringSchedule(analysisMonitoringSchedule());
+		task.setAdmissionScheduler(analysisAdmissionScheduler());
+		return task;
+	}
+
+	/**
+	 * Builds the {@link ThreadPoolTaskExecutor} used to check the status of running submissions in Galaxy. Checks run
+	 * as the user of the monitoring task.
+	 *
+	 * @return A {@link ThreadPoolTaskExecutor} with irida.analysis.monitor.threads threads.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor analysisMonitorExecutor() {
+		checkArgument(monitorThreads > 0, "irida.analysis.monitor.threads=" + monitorThreads + " must be > 0");
+		logger.info("Checking the status of up to " + monitorThreads + " running analyses at once");
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(monitorThreads);
+		taskExecutor.setMaxPoolSize(monitorThreads);
+		taskExecutor.setThreadNamePrefix("analysis-monitor-");
+		taskExecutor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+		return taskExecutor;
+	}
+
+	/**
+	 * Builds the schedule deciding when the status of each running submission is checked.
+	 *
+	 * @return An {@link AnalysisMonitoringSchedule}.
+	 */
+	@Bean
+	public AnalysisMonitoringSchedule analysisMonitoringSchedule() {
+		return new AnalysisMonitoringSchedule(Duration.ofSeconds(monitorMinInterval),
+				Duration.ofSeconds(monitorMaxInterval));
+	}
+
+	/**
+	 * Builds the scheduler choosing which new submissions are prepared when there is capacity for more.
+	 *
+	 * @return A {@link FairShareAdmissionScheduler}.
+	 */
+	@Bean
+	public AnalysisAdmissionScheduler analysisAdmissionScheduler() {
+		Share share = Share.valueOf(admissionShare.trim()
+				.toUpperCase());
+		checkArgument(admissionAgingHours >= 0,
+				"irida.analysis.admission.aging.hours=" + admissionAgingHours + " must be >= 0");
+
+		Map<UUID, Integer> limits = new HashMap<>();
+		for (String limit : Splitter.on(',')
+				.trimResults()
+				.omitEmptyStrings()
+				.split(workflowLimits)) {
+			List<String> parts = Splitter.on(':')
+					.trimResults()
+					.splitToList(limit);
+			checkArgument(parts.size() == 2,
+					"irida.analysis.admission.workflow.limits entry [" + limit + "] must be workflow-id:limit");
+			limits.put(UUID.fromString(parts.get(0)), Integer.valueOf(parts.get(1)));
+		}
+
+		logger.info("Sharing analysis capacity by " + share + ", raising priorities every " + admissionAgingHours
+				+ " hours, with workflow limits " + limits + " and a default limit of " + workflowMaxRunning);
+		return new FairShareAdmissionScheduler(analysisSubmissionRepository, share,
+				Duration.ofMillis(Math.round(admissionAgingHours * TimeUnit.HOURS.toMillis(1))), workflowMaxRunning,
+				limits);
 	}
 
 	/**
@@ -1,13 +1,19 @@
 package ca.corefacility.bioinformatics.irida.config.services.scheduled;
 
+import ca.corefacility.bioinformatics.irida.events.SequencingObjectCreatedEvent;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectProcessingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Executor;
 
 /**
  * Scheduled task configuration for running file processors
@@ -20,13 +26,21 @@ public class FileProcessingScheduledTaskConfig {
 	@Autowired
 	private SequencingObjectProcessingService fileProcessingService;
 
+	@Autowired
+	@Qualifier("scheduledTaskExecutor")
+	private Executor taskExecutor;
+
 	@Value("${file.processing.process}")
 	private boolean processFiles;
 
+	@Value("${file.processing.dispatch}")
+	private boolean dispatchFiles;
+
 	/**
-	 * Check for newly uploaded files to process
+	 * Check for newly uploaded files to process.  When upload dispatch is enabled this only picks up files that
+	 * couldn't be dispatched, so the delay can be raised with file.processing.poll.delay.
 	 */
-	@Scheduled(fixedDelay = 5000)
+	@Scheduled(fixedDelayString = "${file.processing.poll.delay}")
 	public void processFiles() {
 		if (processFiles) {
 			fileProcessingService.runProcessingJob();
@@ -34,4 +48,18 @@ public class FileProcessingScheduledTaskConfig {
 			logger.trace("Skipping file processing.  It is disabled on this server.");
 		}
 	}
+
+	/**
+	 * Dispatch a newly uploaded file straight to the file processors once its upload transaction has committed.
+	 * The dispatch is handed to the scheduled task executor so it runs with the scheduler's security context and
+	 * outside of the uploading request.
+	 *
+	 * @param event the {@link SequencingObjectCreatedEvent} for the upload
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void dispatchUploadedFiles(SequencingObjectCreatedEvent event) {
+		if (processFiles && dispatchFiles) {
+			taskExecutor.execute(() -> fileProcessingService.dispatchSequencingObject(event.getSequencingObjectId()));
+		}
+	}
 }
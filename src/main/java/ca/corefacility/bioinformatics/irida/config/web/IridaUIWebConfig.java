@@ -19,6 +19,8 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.*;
@@ -63,6 +65,12 @@ public class IridaUIWebConfig implements WebMvcConfigurer, ApplicationContextAwa
 	@Value("${locales.default}")
 	private String defaultLocaleValue;
 
+	@Value("${pipeline.launch.threads:2}")
+	private int pipelineLaunchThreads;
+
+	@Value("${project.download.prefetch.threads:4}")
+	private int downloadPrefetchThreads;
+
 	@Autowired
 	private Environment env;
 
@@ -113,6 +121,50 @@ public class IridaUIWebConfig implements WebMvcConfigurer, ApplicationContextAwa
 		return new UserSecurityInterceptor();
 	}
 
+	/**
+	 * Scheduler for pushing the progress of analyses open in the web interface to browsers
+	 *
+	 * @return a single threaded {@link ThreadPoolTaskScheduler}
+	 */
+	@Bean(name = "analysisProgressScheduler")
+	public ThreadPoolTaskScheduler analysisProgressScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix("analysis-progress-");
+		scheduler.setWaitForTasksToCompleteOnShutdown(false);
+		return scheduler;
+	}
+
+	/**
+	 * Executor for creating the analysis submissions of pipelines launched in the web interface. Launches that have
+	 * started are allowed to finish when the application is shut down.
+	 *
+	 * @return a {@link ThreadPoolTaskExecutor} with {@code pipeline.launch.threads} threads
+	 */
+	@Bean(name = "pipelineLaunchExecutor")
+	public ThreadPoolTaskExecutor pipelineLaunchExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(Math.max(pipelineLaunchThreads, 1));
+		taskExecutor.setMaxPoolSize(Math.max(pipelineLaunchThreads, 1));
+		taskExecutor.setThreadNamePrefix("pipeline-launch-");
+		taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+		return taskExecutor;
+	}
+
+	/**
+	 * Executor for preparing the next file of a project sample file download while the current file is sent
+	 *
+	 * @return a {@link ThreadPoolTaskExecutor} with {@code project.download.prefetch.threads} threads
+	 */
+	@Bean(name = "projectDownloadPrefetchExecutor")
+	public ThreadPoolTaskExecutor projectDownloadPrefetchExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(Math.max(downloadPrefetchThreads, 1));
+		taskExecutor.setMaxPoolSize(Math.max(downloadPrefetchThreads, 1));
+		taskExecutor.setThreadNamePrefix("download-prefetch-");
+		return taskExecutor;
+	}
+
 	@Bean(name = "localeResolver")
 	public LocaleResolver localeResolver() {
 		logger.debug("Configuring LocaleResolver");
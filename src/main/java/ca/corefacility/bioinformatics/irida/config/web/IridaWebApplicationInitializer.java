@@ -1,6 +1,7 @@
 package ca.corefacility.bioinformatics.irida.config.web;
 
 import javax.servlet.Filter;
+import javax.servlet.FilterRegistration;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 
@@ -32,8 +33,11 @@ public class IridaWebApplicationInitializer extends AbstractAnnotationConfigDisp
 		final DelegatingFilterProxy springSecurityFilterChain = new DelegatingFilterProxy("springSecurityFilterChain");
 		springSecurityFilterChain
 				.setContextAttribute("org.springframework.web.servlet.FrameworkServlet.CONTEXT.dispatcher");
-		servletContext.addFilter("springSecurityFilterChain", springSecurityFilterChain).addMappingForUrlPatterns(null,
-				false, "/*");
+		final FilterRegistration.Dynamic securityFilterRegistration = servletContext.addFilter(
+				"springSecurityFilterChain", springSecurityFilterChain);
+		// asynchronous requests such as server-sent events go through the security filter chain
+		securityFilterRegistration.setAsyncSupported(true);
+		securityFilterRegistration.addMappingForUrlPatterns(null, false, "/*");
 	}
 
 	@Override
@@ -0,0 +1,28 @@
+package ca.corefacility.bioinformatics.irida.events;
+
+/**
+ * Application event published when a change may have altered which users are allowed to access which objects, such as
+ * a change to project membership, user group membership, or the samples in a project. Listeners should bind to the
+ * commit of the changing transaction as the change won't be visible to other threads before then.
+ */
+public class PermissionsChangedEvent {
+	private final String reason;
+
+	public PermissionsChangedEvent(String reason) {
+		this.reason = reason;
+	}
+
+	/**
+	 * Get a description of the change that altered permissions
+	 *
+	 * @return the description of the change
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		return "PermissionsChangedEvent[ reason= " + reason + " ]";
+	}
+}
@@ -1,14 +1,21 @@
 package ca.corefacility.bioinformatics.irida.events;
 
+import java.util.Set;
+
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.Ordered;
 
+import com.google.common.collect.ImmutableSet;
+
 import ca.corefacility.bioinformatics.irida.config.repository.IridaApiRepositoriesConfig;
 import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.enums.UserGroupRemovedProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.*;
 
 /**
  * Aspect used to create project events for methods annotated with event
@@ -20,10 +27,20 @@ import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEv
 @Aspect
 public class ProjectEventAspect implements Ordered {
 	private static final Logger logger = LoggerFactory.getLogger(ProjectEventAspect.class);
+
+	/**
+	 * Project events that change which users can read a project or its samples.
+	 */
+	private static final Set<Class<? extends ProjectEvent>> PERMISSION_EVENTS = ImmutableSet.of(
+			UserRoleSetProjectEvent.class, UserRemovedProjectEvent.class, UserGroupRoleSetProjectEvent.class,
+			UserGroupRemovedProjectEvent.class, SampleAddedProjectEvent.class, SampleRemovedProjectEvent.class);
+
 	private ProjectEventHandler eventHandler;
+	private ApplicationEventPublisher eventPublisher;
 
-	public ProjectEventAspect(ProjectEventHandler eventListener) {
+	public ProjectEventAspect(ProjectEventHandler eventListener, ApplicationEventPublisher eventPublisher) {
 		this.eventHandler = eventListener;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -37,6 +54,7 @@ public class ProjectEventAspect implements Ordered {
 	public void handleProjectEvent(JoinPoint jp, LaunchesProjectEvent eventAnnotation, Object returnValue) {
 		logger.trace("Intercepted method annotated with LaunchesProjectEvent " + jp.toString());
 		eventHandler.delegate(new MethodEvent(eventAnnotation.value(), returnValue, jp.getArgs()));
+		publishPermissionsChanged(eventAnnotation);
 	}
 
 	/**
@@ -49,6 +67,20 @@ public class ProjectEventAspect implements Ordered {
 	public void handleProjectEventWithoutReturn(JoinPoint jp, LaunchesProjectEvent eventAnnotation) {
 		logger.trace("Intercepted void method annotated with LaunchesProjectEvent " + jp.toString());
 		eventHandler.delegate(new MethodEvent(eventAnnotation.value(), null, jp.getArgs()));
+		publishPermissionsChanged(eventAnnotation);
+	}
+
+	/**
+	 * Publish a {@link PermissionsChangedEvent} if the project event changes project membership or the samples in a
+	 * project.
+	 *
+	 * @param eventAnnotation The LaunchesProjectEvent annotation arguments
+	 */
+	private void publishPermissionsChanged(LaunchesProjectEvent eventAnnotation) {
+		if (PERMISSION_EVENTS.contains(eventAnnotation.value())) {
+			eventPublisher.publishEvent(new PermissionsChangedEvent(eventAnnotation.value()
+					.getSimpleName()));
+		}
 	}
 
 	/**
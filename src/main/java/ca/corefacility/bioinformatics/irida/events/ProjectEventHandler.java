@@ -5,10 +5,14 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEvent;
 import ca.corefacility.bioinformatics.irida.model.enums.UserGroupRemovedProjectEvent;
@@ -37,6 +41,11 @@ import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository
  * Handles the creation of {@link ProjectEvent}s from methods annotated with
  * {@link LaunchesProjectEvent}
  * 
+ * Events launched within a transaction are collected and recorded together
+ * just before the transaction commits, so a method that adds many samples or
+ * files inserts its events in one batch and updates the modified date of each
+ * {@link Project} and {@link Sample} once. Events launched outside of a
+ * transaction are recorded immediately.
  * 
  * @see LaunchesProjectEvent
  *
@@ -68,9 +77,9 @@ public class ProjectEventHandler {
 	 */
 	public void delegate(MethodEvent methodEvent) {
 		Class<? extends ProjectEvent> eventClass = methodEvent.getEventClass();
-		final Date eventDate = new Date();
 
 		Collection<ProjectEvent> events = new ArrayList<>();
+		Collection<Sample> modifiedSamples = new ArrayList<>();
 
 		if (eventClass.equals(SampleAddedProjectEvent.class)) {
 			events.addAll(handleSampleAddedProjectEvent(methodEvent));
@@ -80,15 +89,13 @@ public class ProjectEventHandler {
 			events.add(handleUserRoleSetProjectEvent(methodEvent));
 		} else if (eventClass.equals(DataAddedToSampleProjectEvent.class)) {
 			final Collection<DataAddedToSampleProjectEvent> dataAddedEvents = handleSequenceFileAddedEvent(methodEvent);
-			
+
 			/*
 			 * We want the sample to show modification when these events are
 			 * added, so update mod date
 			 */
 			for (final DataAddedToSampleProjectEvent e : dataAddedEvents) {
-				final Sample s = e.getSample();
-				s.setModifiedDate(eventDate);
-				sampleRepository.save(s);
+				modifiedSamples.add(e.getSample());
 			}
 			events.addAll(dataAddedEvents);
 		} else if (eventClass.equals(UserGroupRoleSetProjectEvent.class)) {
@@ -101,13 +108,80 @@ public class ProjectEventHandler {
 			logger.warn("No handler found for event class " + eventClass.getName());
 		}
 
-		for (ProjectEvent e : events) {
-			Project project = e.getProject();
+		if (events.isEmpty()) {
+			return;
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			getTransactionBatch().add(events, modifiedSamples);
+		} else {
+			EventBatch batch = new EventBatch();
+			batch.add(events, modifiedSamples);
+			record(batch);
+		}
+	}
+
+	/**
+	 * Get the {@link EventBatch} collecting the events of the current
+	 * transaction, creating it and registering it to be recorded before the
+	 * transaction commits if this is the first event of the transaction.
+	 * 
+	 * @return the {@link EventBatch} for the current transaction
+	 */
+	private EventBatch getTransactionBatch() {
+		EventBatch batch = (EventBatch) TransactionSynchronizationManager.getResource(this);
+		if (batch == null) {
+			final EventBatch transactionBatch = new EventBatch();
+			TransactionSynchronizationManager.bindResource(this, transactionBatch);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(ProjectEventHandler.this);
+					record(transactionBatch);
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(ProjectEventHandler.this);
+				}
+			});
+			batch = transactionBatch;
+		}
+		return batch;
+	}
+
+	/**
+	 * Record a batch of events. Each distinct {@link Project} and
+	 * {@link Sample} they touched is saved once with a new modified date, and
+	 * then the events are inserted together.
+	 * 
+	 * The projects and samples are saved in identifier order before the events
+	 * are inserted, so their rows are locked for update before the event
+	 * inserts take shared locks on them as foreign keys. Updating a row after
+	 * inserting a reference to it lets two transactions recording events for
+	 * the same project deadlock.
+	 * 
+	 * @param batch
+	 *            the {@link EventBatch} to record
+	 */
+	private void record(EventBatch batch) {
+		final Date eventDate = new Date();
+		logger.trace("Recording " + batch.events.size() + " project events for " + batch.projects.size()
+				+ " projects and " + batch.samples.size() + " samples");
+
+		for (Project project : batch.projects.values()) {
 			project.setModifiedDate(eventDate);
 			projectRepository.save(project);
 		}
+
+		for (Sample sample : batch.samples.values()) {
+			sample.setModifiedDate(eventDate);
+			sampleRepository.save(sample);
+		}
+
+		eventRepository.insertEvents(batch.events);
 	}
-	
+
 	/**
 	 * Create one or more {@link SampleAddedProjectEvent}. Can be run on methods
 	 * which return a {@link ProjectSampleJoin} or collection of joins.
@@ -128,7 +202,7 @@ public class ProjectEventHandler {
 				}
 				logger.trace("Adding multi sample " + singleElement.toString());
 
-				events.add(eventRepository.save(new SampleAddedProjectEvent((ProjectSampleJoin) singleElement)));
+				events.add(new SampleAddedProjectEvent((ProjectSampleJoin) singleElement));
 			}
 
 		} else {
@@ -139,7 +213,7 @@ public class ProjectEventHandler {
 
 			logger.trace("Adding single sample " + returnValue.toString());
 
-			events.add(eventRepository.save(new SampleAddedProjectEvent((ProjectSampleJoin) returnValue)));
+			events.add(new SampleAddedProjectEvent((ProjectSampleJoin) returnValue));
 		}
 
 		return events;
@@ -167,7 +241,7 @@ public class ProjectEventHandler {
 			throw new IllegalArgumentException(
 					"Project or user cannot be found on method annotated with @LaunchesProjectEvent(UserRemovedProjectEvent.class)");
 		}
-		return eventRepository.save(new UserRemovedProjectEvent(project, user));
+		return new UserRemovedProjectEvent(project, user);
 	}
 
 	/**
@@ -184,7 +258,7 @@ public class ProjectEventHandler {
 			throw new IllegalArgumentException(
 					"Project or user group cannot be found on method annotated with @LaunchesProjectEvent(UserGroupRemovedProjectEvent.class)");
 		}
-		return eventRepository.save(new UserGroupRemovedProjectEvent((Project) project.get(), (UserGroup) user.get()));
+		return new UserGroupRemovedProjectEvent((Project) project.get(), (UserGroup) user.get());
 	}
 
 	/**
@@ -201,7 +275,7 @@ public class ProjectEventHandler {
 					"Method annotated with @LaunchesProjectEvent(UserRoleSetProjectEvent.class) method must return ProjectUserJoin");
 		}
 		ProjectUserJoin join = (ProjectUserJoin) returnValue;
-		return eventRepository.save(new UserRoleSetProjectEvent(join));
+		return new UserRoleSetProjectEvent(join);
 
 	}
 
@@ -219,7 +293,7 @@ public class ProjectEventHandler {
 					"Method annotated with @LaunchesProjectEvent(UserGroupRoleSetProjectEvent.class) method must return UserGroupProjectJoin");
 		}
 		UserGroupProjectJoin join = (UserGroupProjectJoin) returnValue;
-		return eventRepository.save(new UserGroupRoleSetProjectEvent(join));
+		return new UserGroupRoleSetProjectEvent(join);
 
 	}
 
@@ -270,7 +344,7 @@ public class ProjectEventHandler {
 
 		List<Join<Project, Sample>> projectForSample = psjRepository.getProjectForSample(subject);
 		for (Join<Project, Sample> psj : projectForSample) {
-			events.add(eventRepository.save(new DataAddedToSampleProjectEvent(psj.getSubject(), subject)));
+			events.add(new DataAddedToSampleProjectEvent(psj.getSubject(), subject));
 		}
 		return events;
 	}
@@ -294,16 +368,37 @@ public class ProjectEventHandler {
 			if (sampleOpt.isPresent()) {
 				Sample sample = (Sample) sampleOpt.get();
 
-				events.add(eventRepository.save(new SampleRemovedProjectEvent(project, sample.getSampleName())));
+				events.add(new SampleRemovedProjectEvent(project, sample.getSampleName()));
 			} else if (sampleListOpt.isPresent()) {
 				@SuppressWarnings("unchecked")
 				Iterable<Sample> samples = (Iterable<Sample>) sampleListOpt.get();
 				for (Sample sample : samples) {
-					events.add(eventRepository.save(new SampleRemovedProjectEvent(project, sample.getSampleName())));
+					events.add(new SampleRemovedProjectEvent(project, sample.getSampleName()));
 				}
 			}
 		}
 
 		return events;
 	}
+
+	/**
+	 * Events waiting to be recorded together, and the distinct {@link Project}s
+	 * and {@link Sample}s they modified sorted by identifier.
+	 */
+	private static class EventBatch {
+		private final List<ProjectEvent> events = new ArrayList<>();
+		private final Map<Long, Project> projects = new TreeMap<>();
+		private final Map<Long, Sample> samples = new TreeMap<>();
+
+		void add(Collection<ProjectEvent> newEvents, Collection<Sample> modifiedSamples) {
+			for (ProjectEvent event : newEvents) {
+				events.add(event);
+				projects.putIfAbsent(event.getProject()
+						.getId(), event.getProject());
+			}
+			for (Sample sample : modifiedSamples) {
+				samples.putIfAbsent(sample.getId(), sample);
+			}
+		}
+	}
 }
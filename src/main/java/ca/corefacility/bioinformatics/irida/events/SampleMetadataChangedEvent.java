@@ -0,0 +1,33 @@
+package ca.corefacility.bioinformatics.irida.events;
+
+import java.util.Collection;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+
+/**
+ * Application event published when the metadata of {@link Sample}s may have changed, including when samples are
+ * added to or removed from a {@link Project}. Listeners should bind to the commit of the changing transaction as the
+ * change won't be visible to other threads before then.
+ */
+public class SampleMetadataChangedEvent {
+	private final Collection<Long> sampleIds;
+
+	public SampleMetadataChangedEvent(Collection<Long> sampleIds) {
+		this.sampleIds = sampleIds;
+	}
+
+	/**
+	 * Get the ids of the changed {@link Sample}s
+	 *
+	 * @return the ids of the {@link Sample}s
+	 */
+	public Collection<Long> getSampleIds() {
+		return sampleIds;
+	}
+
+	@Override
+	public String toString() {
+		return "SampleMetadataChangedEvent[ samples= " + sampleIds + " ]";
+	}
+}
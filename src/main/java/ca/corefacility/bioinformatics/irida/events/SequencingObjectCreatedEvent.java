@@ -0,0 +1,24 @@
+package ca.corefacility.bioinformatics.irida.events;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+
+/**
+ * Application event published when a new {@link SequencingObject} has been created. Listeners should bind to the
+ * commit of the creating transaction as the object won't be visible to other threads before then.
+ */
+public class SequencingObjectCreatedEvent {
+	private final Long sequencingObjectId;
+
+	public SequencingObjectCreatedEvent(Long sequencingObjectId) {
+		this.sequencingObjectId = sequencingObjectId;
+	}
+
+	/**
+	 * Get the id of the created {@link SequencingObject}
+	 *
+	 * @return the id of the {@link SequencingObject}
+	 */
+	public Long getSequencingObjectId() {
+		return sequencingObjectId;
+	}
+}
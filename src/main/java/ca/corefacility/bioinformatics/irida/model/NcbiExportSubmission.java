@@ -1,10 +1,15 @@
 package ca.corefacility.bioinformatics.irida.model;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
@@ -16,13 +21,17 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToOne;
+import javax.persistence.MapKeyColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -92,9 +101,20 @@ public class NcbiExportSubmission implements MutableIridaThing {
 	@Column(name = "directory_path")
 	private String directoryPath;
 
+	// sizes of the files already uploaded into the directory, by uploaded file name, so an interrupted upload only
+	// sends the files that are missing
+	@ElementCollection(fetch = FetchType.EAGER)
+	@Fetch(FetchMode.SELECT)
+	@MapKeyColumn(name = "file_name", nullable = false)
+	@Column(name = "bytes_uploaded", nullable = false)
+	@CollectionTable(name = "ncbi_export_submission_upload", joinColumns = @JoinColumn(name = "ncbi_export_submission_id"))
+	@NotAudited
+	private Map<String, Long> uploadedFiles;
+
 	public NcbiExportSubmission() {
 		uploadState = ExportUploadState.NEW;
 		createdDate = new Date();
+		uploadedFiles = new HashMap<>();
 	}
 
 	public NcbiExportSubmission(Project project, User submitter, String bioProjectId, String organization,
@@ -199,4 +219,24 @@ public class NcbiExportSubmission implements MutableIridaThing {
 	public void setDirectoryPath(String directoryPath) {
 		this.directoryPath = directoryPath;
 	}
+
+	/**
+	 * Get the files already uploaded into the submission's directory
+	 *
+	 * @return the size in bytes of each uploaded file, by the name it was uploaded as
+	 */
+	@JsonIgnore
+	public Map<String, Long> getUploadedFiles() {
+		return Collections.unmodifiableMap(uploadedFiles);
+	}
+
+	/**
+	 * Record that a file has been completely uploaded into the submission's directory
+	 *
+	 * @param fileName the name the file was uploaded as
+	 * @param bytes    the size of the uploaded file
+	 */
+	public void addUploadedFile(String fileName, long bytes) {
+		uploadedFiles.put(fileName, bytes);
+	}
 }
@@ -13,6 +13,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -31,10 +33,16 @@ import ca.corefacility.bioinformatics.irida.model.sample.Sample;
  * 
  */
 @Entity
+@NamedEntityGraph(name = ProjectSampleJoin.PROJECT_AND_SAMPLE_GRAPH, attributeNodes = { @NamedAttributeNode("project"),
+		@NamedAttributeNode("sample") })
 @Table(name = "project_sample", uniqueConstraints = @UniqueConstraint(columnNames = { "project_id", "sample_id" }))
 @Audited
 @EntityListeners(AuditingEntityListener.class)
 public class ProjectSampleJoin implements Join<Project, Sample> {
+	/**
+	 * Fetch plan loading the {@link Project} and {@link Sample} of each join in the same query as the joins.
+	 */
+	public static final String PROJECT_AND_SAMPLE_GRAPH = "ProjectSampleJoin.projectAndSample";
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
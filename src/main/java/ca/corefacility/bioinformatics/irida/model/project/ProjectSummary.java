@@ -0,0 +1,86 @@
+package ca.corefacility.bioinformatics.irida.model.project;
+
+import java.util.Date;
+
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectUserJoin;
+
+/**
+ * A read-only summary of a {@link Project} for project listings, with the number of samples and members of the
+ * project read together with the project's fields instead of counted one project at a time.
+ */
+public class ProjectSummary {
+	/**
+	 * Sort property of the number of samples in a project.
+	 */
+	public static final String SAMPLES_SORT_PROPERTY = "samples";
+
+	private final Long id;
+	private final String name;
+	private final String organism;
+	private final Date createdDate;
+	private final Date modifiedDate;
+	private final boolean remote;
+	private final long samples;
+	private final long members;
+
+	public ProjectSummary(Long id, String name, String organism, Date createdDate, Date modifiedDate,
+			boolean remote, long samples, long members) {
+		this.id = id;
+		this.name = name;
+		this.organism = organism;
+		this.createdDate = createdDate;
+		this.modifiedDate = modifiedDate;
+		this.remote = remote;
+		this.samples = samples;
+		this.members = members;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getOrganism() {
+		return organism;
+	}
+
+	public Date getCreatedDate() {
+		return createdDate;
+	}
+
+	/**
+	 * Get the date of the latest activity in the project. The modified date is updated whenever an event is recorded
+	 * for the project, such as samples being added or members changing.
+	 *
+	 * @return the modified date
+	 */
+	public Date getModifiedDate() {
+		return modifiedDate;
+	}
+
+	public boolean isRemote() {
+		return remote;
+	}
+
+	/**
+	 * Get the number of {@link ProjectSampleJoin}s of the project
+	 *
+	 * @return the number of samples
+	 */
+	public long getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Get the number of {@link ProjectUserJoin}s of the project, not counting users who are members through a group
+	 *
+	 * @return the number of members
+	 */
+	public long getMembers() {
+		return members;
+	}
+}
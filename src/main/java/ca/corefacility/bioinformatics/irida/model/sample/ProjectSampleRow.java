@@ -0,0 +1,77 @@
+package ca.corefacility.bioinformatics.irida.model.sample;
+
+import java.util.Date;
+
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+
+/**
+ * A read-only row of a {@link ProjectSampleJoin} holding the columns that listings of the {@link Sample}s in
+ * {@link Project}s show, read without loading the {@link Sample} and {@link Project} entities and their eagerly
+ * fetched metadata, files and remote status.
+ */
+public class ProjectSampleRow {
+	private final Long joinId;
+	private final Long projectId;
+	private final String projectName;
+	private final Long sampleId;
+	private final String sampleName;
+	private final String organism;
+	private final Date createdDate;
+	private final Date modifiedDate;
+	private final boolean owner;
+
+	public ProjectSampleRow(Long joinId, Long projectId, String projectName, Long sampleId, String sampleName,
+			String organism, Date createdDate, Date modifiedDate, boolean owner) {
+		this.joinId = joinId;
+		this.projectId = projectId;
+		this.projectName = projectName;
+		this.sampleId = sampleId;
+		this.sampleName = sampleName;
+		this.organism = organism;
+		this.createdDate = createdDate;
+		this.modifiedDate = modifiedDate;
+		this.owner = owner;
+	}
+
+	public Long getJoinId() {
+		return joinId;
+	}
+
+	public Long getProjectId() {
+		return projectId;
+	}
+
+	public String getProjectName() {
+		return projectName;
+	}
+
+	public Long getSampleId() {
+		return sampleId;
+	}
+
+	public String getSampleName() {
+		return sampleName;
+	}
+
+	public String getOrganism() {
+		return organism;
+	}
+
+	public Date getCreatedDate() {
+		return createdDate;
+	}
+
+	public Date getModifiedDate() {
+		return modifiedDate;
+	}
+
+	/**
+	 * Whether the {@link Project} owns the {@link Sample}
+	 *
+	 * @return true if the project owns the sample
+	 */
+	public boolean isOwner() {
+		return owner;
+	}
+}
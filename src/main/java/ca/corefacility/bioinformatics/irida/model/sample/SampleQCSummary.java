@@ -0,0 +1,138 @@
+package ca.corefacility.bioinformatics.irida.model.sample;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+
+/**
+ * Summary of the sequencing data and {@link QCEntry}s of a {@link Sample}, kept up to date as its
+ * {@link SequencingObject}s are processed so listings of samples don't have to read every file of every sample. The
+ * coverage and QC status of a sample depend on the settings of the {@link Project} it's viewed in, so the summary
+ * keeps what's needed to decide them for any project.
+ */
+@Entity
+@Table(name = "sample_qc_summary")
+public class SampleQCSummary {
+
+	@Id
+	@Column(name = "sample_id")
+	private Long sampleId;
+
+	@Column(name = "file_count", nullable = false)
+	private int fileCount;
+
+	@Column(name = "total_bases")
+	private Long totalBases;
+
+	@Column(name = "min_coverage_bases")
+	private Long minCoverageBases;
+
+	@Column(name = "max_coverage_bases")
+	private Long maxCoverageBases;
+
+	@Column(name = "processing_error", nullable = false)
+	private boolean processingError;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "modified_date", nullable = false)
+	private Date modifiedDate;
+
+	public SampleQCSummary() {
+	}
+
+	public SampleQCSummary(Long sampleId) {
+		this.sampleId = sampleId;
+	}
+
+	/**
+	 * Replace the summarized values
+	 *
+	 * @param fileCount        the number of {@link SequenceFile}s in the sample
+	 * @param totalBases       the total bases of the files, or null if any file has no FastQC results
+	 * @param minCoverageBases the fewest bases of a {@link CoverageQCEntry} in the sample, or null if there are none
+	 * @param maxCoverageBases the most bases of a {@link CoverageQCEntry} in the sample, or null if there are none
+	 * @param processingError  whether any file in the sample failed processing
+	 */
+	public void update(int fileCount, Long totalBases, Long minCoverageBases, Long maxCoverageBases,
+			boolean processingError) {
+		this.fileCount = fileCount;
+		this.totalBases = totalBases;
+		this.minCoverageBases = minCoverageBases;
+		this.maxCoverageBases = maxCoverageBases;
+		this.processingError = processingError;
+		this.modifiedDate = new Date();
+	}
+
+	public Long getSampleId() {
+		return sampleId;
+	}
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public Long getTotalBases() {
+		return totalBases;
+	}
+
+	public Long getMinCoverageBases() {
+		return minCoverageBases;
+	}
+
+	public Long getMaxCoverageBases() {
+		return maxCoverageBases;
+	}
+
+	public boolean isProcessingError() {
+		return processingError;
+	}
+
+	public Date getModifiedDate() {
+		return modifiedDate;
+	}
+
+	/**
+	 * Estimate the coverage of the sample for a genome size
+	 *
+	 * @param genomeSize the genome size, usually the one set for a {@link Project}
+	 * @return the estimated coverage, or null if there is no genome size or any file has no FastQC results
+	 */
+	public Double getCoverage(Long genomeSize) {
+		if (genomeSize == null || genomeSize <= 0 || totalBases == null) {
+			return null;
+		}
+		return totalBases / (double) genomeSize;
+	}
+
+	/**
+	 * Get the {@link QCEntry}s deciding the worst QC status of the sample: a {@link FileProcessorErrorQCEntry} if any
+	 * file failed processing, and the {@link CoverageQCEntry}s with the lowest and highest coverage. Add
+	 * {@link Project} settings to the entries to get their status.
+	 *
+	 * @return the entries, not attached to any {@link SequencingObject}
+	 */
+	public List<QCEntry> getWorstQCEntries() {
+		List<QCEntry> entries = new ArrayList<>();
+		if (processingError) {
+			entries.add(new FileProcessorErrorQCEntry());
+		}
+		if (minCoverageBases != null) {
+			entries.add(new CoverageQCEntry(null, minCoverageBases));
+		}
+		if (maxCoverageBases != null && !maxCoverageBases.equals(minCoverageBases)) {
+			entries.add(new CoverageQCEntry(null, maxCoverageBases));
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,381 @@
+package ca.corefacility.bioinformatics.irida.model.sample.metadata;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+
+/**
+ * Column oriented copy of the metadata of the {@link Sample}s in a {@link Project}. There is one column for each
+ * {@link MetadataTemplateField} used in the project, and each {@link Sample} is a row. Each column stores its distinct
+ * values once in a dictionary and keeps an integer code for every row, so a project where many samples share values
+ * (e.g. organism or health authority) takes a fraction of the memory of the entities.
+ * <p>
+ * Rows can be replaced as samples change. Each column counts the rows using every value, so values no longer used by
+ * any row are dropped from its dictionary and their codes reused, and columns left without any values are dropped. All
+ * methods are safe to call from multiple threads.
+ */
+public class ProjectMetadataColumns {
+	private static final int INITIAL_ROWS = 16;
+
+	private final Long projectId;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, Column> columns = new LinkedHashMap<>();
+	private final Map<Long, Integer> rowBySample = new HashMap<>();
+	private final Deque<Integer> freeRows = new ArrayDeque<>();
+	private int rowCapacity = INITIAL_ROWS;
+	private int nextRow = 0;
+
+	private String version;
+
+	/**
+	 * Create empty columns for a {@link Project}
+	 *
+	 * @param projectId the identifier of the {@link Project}
+	 * @param version   the version of the project's sample metadata the columns will be filled from
+	 */
+	public ProjectMetadataColumns(Long projectId, String version) {
+		this.projectId = projectId;
+		this.version = version;
+	}
+
+	/**
+	 * Add a value to the columns, replacing any existing value for the same sample and field.
+	 *
+	 * @param value the {@link SampleMetadataValue} to add
+	 */
+	public void put(SampleMetadataValue value) {
+		lock.writeLock()
+				.lock();
+		try {
+			putValue(value);
+		} finally {
+			lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Replace all the values of a set of samples.
+	 *
+	 * @param sampleIds the identifiers of the samples to replace. Samples without any values are removed.
+	 * @param values    the new values for the samples. Values for other projects are ignored.
+	 * @param version   the version of the project's sample metadata after the replacement
+	 */
+	public void replaceSamples(Collection<Long> sampleIds, Collection<SampleMetadataValue> values, String version) {
+		lock.writeLock()
+				.lock();
+		try {
+			for (Long sampleId : sampleIds) {
+				Integer row = rowBySample.remove(sampleId);
+				if (row != null) {
+					for (Column column : columns.values()) {
+						column.clear(row);
+					}
+					freeRows.push(row);
+				}
+			}
+
+			columns.values()
+					.removeIf(Column::isEmpty);
+
+			values.stream()
+					.filter(v -> projectId.equals(v.getProjectId()))
+					.forEach(this::putValue);
+
+			this.version = version;
+		} finally {
+			lock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Fill the metadata of line list rows from the columns.
+	 *
+	 * @param rows the {@link ProjectSampleMetadataRow}s to fill
+	 */
+	public void fill(Collection<ProjectSampleMetadataRow> rows) {
+		lock.readLock()
+				.lock();
+		try {
+			for (ProjectSampleMetadataRow row : rows) {
+				Integer index = rowBySample.get(row.getSampleId());
+				if (index != null) {
+					for (Column column : columns.values()) {
+						Value value = column.get(index);
+						if (value != null) {
+							row.getMetadata()
+									.put(column.fieldKey, value.value);
+						}
+					}
+				}
+			}
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Get the values for a set of samples.
+	 *
+	 * @param sampleIds the identifiers of the samples
+	 * @return the values of each sample in the columns, keyed by sample identifier. Samples not in the columns are
+	 * left out.
+	 */
+	public Map<Long, List<SampleMetadataValue>> getValues(Collection<Long> sampleIds) {
+		Map<Long, List<SampleMetadataValue>> values = new HashMap<>();
+
+		lock.readLock()
+				.lock();
+		try {
+			for (Long sampleId : sampleIds) {
+				Integer index = rowBySample.get(sampleId);
+				if (index != null) {
+					List<SampleMetadataValue> sampleValues = new ArrayList<>();
+					for (Column column : columns.values()) {
+						Value value = column.get(index);
+						if (value != null) {
+							sampleValues.add(
+									new SampleMetadataValue(projectId, sampleId, column.fieldId, column.fieldKey,
+											column.fieldLabel, value.type, value.value, value.submissionId));
+						}
+					}
+					values.put(sampleId, sampleValues);
+				}
+			}
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+
+		return values;
+	}
+
+	/**
+	 * Check if a sample has any values in the columns
+	 *
+	 * @param sampleId the identifier of the sample
+	 * @return true if the sample has a row in the columns
+	 */
+	public boolean containsSample(Long sampleId) {
+		lock.readLock()
+				.lock();
+		try {
+			return rowBySample.containsKey(sampleId);
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of cells allocated for the columns, which is the number of rows times the number of columns.
+	 *
+	 * @return the number of cells
+	 */
+	public int getCellCount() {
+		lock.readLock()
+				.lock();
+		try {
+			return rowCapacity * columns.size();
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of distinct values used by rows in the dictionaries of all columns
+	 *
+	 * @return the number of dictionary values
+	 */
+	public int getDictionarySize() {
+		lock.readLock()
+				.lock();
+		try {
+			return columns.values()
+					.stream()
+					.mapToInt(c -> c.codes.size())
+					.sum();
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+	}
+
+	public Long getProjectId() {
+		return projectId;
+	}
+
+	/**
+	 * Get the version of the project's sample metadata the columns were last filled from
+	 *
+	 * @return the version
+	 */
+	public String getVersion() {
+		lock.readLock()
+				.lock();
+		try {
+			return version;
+		} finally {
+			lock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Add a value to the columns. Must be called with the write lock held.
+	 *
+	 * @param value the value to add
+	 */
+	private void putValue(SampleMetadataValue value) {
+		Integer row = rowBySample.get(value.getSampleId());
+		if (row == null) {
+			row = allocateRow();
+			rowBySample.put(value.getSampleId(), row);
+		}
+
+		Column column = columns.get(value.getFieldId());
+		if (column == null) {
+			column = new Column(value.getFieldId(), value.getFieldKey(), value.getFieldLabel(), rowCapacity);
+			columns.put(value.getFieldId(), column);
+		}
+
+		column.set(row, new Value(value.getType(), value.getValue(), value.getSubmissionId()));
+	}
+
+	/**
+	 * Get a free row, growing the columns if they are full. Must be called with the write lock held.
+	 *
+	 * @return the index of the row
+	 */
+	private int allocateRow() {
+		if (!freeRows.isEmpty()) {
+			return freeRows.pop();
+		}
+
+		if (nextRow == rowCapacity) {
+			rowCapacity *= 2;
+			for (Column column : columns.values()) {
+				column.grow(rowCapacity);
+			}
+		}
+
+		return nextRow++;
+	}
+
+	/**
+	 * The values of a single field for every row, dictionary encoded. Code 0 means the row has no value. Codes whose
+	 * value isn't used by any row are reused for the next new value.
+	 */
+	private static class Column {
+		private final Long fieldId;
+		private final String fieldKey;
+		private final String fieldLabel;
+
+		private final List<Value> dictionary = new ArrayList<>();
+		private final Map<Value, Integer> codes = new HashMap<>();
+		private final Deque<Integer> freeCodes = new ArrayDeque<>();
+		private int[] references = new int[1];
+		private int[] rows;
+
+		Column(Long fieldId, String fieldKey, String fieldLabel, int capacity) {
+			this.fieldId = fieldId;
+			this.fieldKey = fieldKey;
+			this.fieldLabel = fieldLabel;
+			this.rows = new int[capacity];
+			dictionary.add(null);
+		}
+
+		Value get(int row) {
+			return dictionary.get(rows[row]);
+		}
+
+		void set(int row, Value value) {
+			Integer code = codes.get(value);
+			if (code == null) {
+				if (freeCodes.isEmpty()) {
+					code = dictionary.size();
+					dictionary.add(value);
+					if (code == references.length) {
+						references = Arrays.copyOf(references, references.length * 2);
+					}
+				} else {
+					code = freeCodes.pop();
+					dictionary.set(code, value);
+				}
+				codes.put(value, code);
+			}
+
+			// take the reference first so that replacing a row's value with itself doesn't drop it
+			references[code]++;
+			release(rows[row]);
+			rows[row] = code;
+		}
+
+		void clear(int row) {
+			release(rows[row]);
+			rows[row] = 0;
+		}
+
+		boolean isEmpty() {
+			return codes.isEmpty();
+		}
+
+		/**
+		 * Drop a row's reference to a code, removing its value from the dictionary if no other row uses it.
+		 *
+		 * @param code the code the row used
+		 */
+		private void release(int code) {
+			if (code != 0 && --references[code] == 0) {
+				codes.remove(dictionary.get(code));
+				dictionary.set(code, null);
+				freeCodes.push(code);
+			}
+		}
+
+		void grow(int capacity) {
+			rows = Arrays.copyOf(rows, capacity);
+		}
+	}
+
+	/**
+	 * A distinct value in a column's dictionary. Values provided by different analyses are kept apart.
+	 */
+	private static final class Value {
+		private final String type;
+		private final String value;
+		private final Long submissionId;
+
+		Value(String type, String value, Long submissionId) {
+			this.type = type;
+			this.value = value;
+			this.submissionId = submissionId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Value)) {
+				return false;
+			}
+			Value other = (Value) o;
+			return Objects.equals(type, other.type) && Objects.equals(value, other.value) && Objects.equals(
+					submissionId, other.submissionId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, value, submissionId);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package ca.corefacility.bioinformatics.irida.model.sample.metadata;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+
+/**
+ * A read-only row of a {@link Sample} in a {@link Project} with its metadata, read without loading the {@link Sample}
+ * entity. Metadata values are keyed by {@link MetadataTemplateField#getFieldKey()}.
+ */
+public class ProjectSampleMetadataRow {
+	private final Long sampleId;
+	private final String sampleName;
+	private final Date createdDate;
+	private final Date modifiedDate;
+	private final boolean remote;
+	private final boolean owner;
+	private final Map<String, String> metadata;
+
+	public ProjectSampleMetadataRow(Long sampleId, String sampleName, Date createdDate, Date modifiedDate,
+			boolean remote, boolean owner) {
+		this.sampleId = sampleId;
+		this.sampleName = sampleName;
+		this.createdDate = createdDate;
+		this.modifiedDate = modifiedDate;
+		this.remote = remote;
+		this.owner = owner;
+		this.metadata = new HashMap<>();
+	}
+
+	public Long getSampleId() {
+		return sampleId;
+	}
+
+	public String getSampleName() {
+		return sampleName;
+	}
+
+	public Date getCreatedDate() {
+		return createdDate;
+	}
+
+	public Date getModifiedDate() {
+		return modifiedDate;
+	}
+
+	/**
+	 * Whether the {@link Sample} was synchronized from a remote IRIDA installation
+	 *
+	 * @return true if the sample is remote
+	 */
+	public boolean isRemote() {
+		return remote;
+	}
+
+	/**
+	 * Whether the {@link Project} owns the {@link Sample}
+	 *
+	 * @return true if the project owns the sample
+	 */
+	public boolean isOwner() {
+		return owner;
+	}
+
+	/**
+	 * Get the metadata values for the {@link Sample}, keyed by {@link MetadataTemplateField#getFieldKey()}
+	 *
+	 * @return the metadata values
+	 */
+	public Map<String, String> getMetadata() {
+		return metadata;
+	}
+}
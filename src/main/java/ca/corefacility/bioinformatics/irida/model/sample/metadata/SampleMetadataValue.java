@@ -0,0 +1,85 @@
+package ca.corefacility.bioinformatics.irida.model.sample.metadata;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+
+/**
+ * A single read-only metadata value of a {@link Sample} in a {@link Project}, read without loading the {@link Sample}
+ * or {@link MetadataEntry} entities.
+ */
+public class SampleMetadataValue {
+	private final Long projectId;
+	private final Long sampleId;
+	private final Long fieldId;
+	private final String fieldKey;
+	private final String fieldLabel;
+	private final String type;
+	private final String value;
+	private final Long submissionId;
+
+	public SampleMetadataValue(Long projectId, Long sampleId, Long fieldId, String fieldKey, String fieldLabel,
+			String type, String value) {
+		this(projectId, sampleId, fieldId, fieldKey, fieldLabel, type, value, null);
+	}
+
+	public SampleMetadataValue(Long projectId, Long sampleId, Long fieldId, String fieldKey, String fieldLabel,
+			String type, String value, Long submissionId) {
+		this.projectId = projectId;
+		this.sampleId = sampleId;
+		this.fieldId = fieldId;
+		this.fieldKey = fieldKey;
+		this.fieldLabel = fieldLabel;
+		this.type = type;
+		this.value = value;
+		this.submissionId = submissionId;
+	}
+
+	public Long getProjectId() {
+		return projectId;
+	}
+
+	public Long getSampleId() {
+		return sampleId;
+	}
+
+	public Long getFieldId() {
+		return fieldId;
+	}
+
+	/**
+	 * Get the key of the field as used by the line list
+	 *
+	 * @return the key from {@link MetadataTemplateField#getFieldKey()}
+	 */
+	public String getFieldKey() {
+		return fieldKey;
+	}
+
+	public String getFieldLabel() {
+		return fieldLabel;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Get the analysis that provided the value, if it's a {@link PipelineProvidedMetadataEntry}
+	 *
+	 * @return the identifier of the {@link PipelineProvidedMetadataEntry#getSubmission()}, or null if the value wasn't
+	 * provided by a pipeline
+	 */
+	public Long getSubmissionId() {
+		return submissionId;
+	}
+
+	@Override
+	public String toString() {
+		return "SampleMetadataValue[ project=" + projectId + ", sample=" + sampleId + ", field=" + fieldId + " ]";
+	}
+}
@@ -46,6 +46,7 @@ import ca.corefacility.bioinformatics.irida.model.remote.RemoteSynchronizable;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFastQC;
 import ca.corefacility.bioinformatics.irida.repositories.filesystem.FilesystemSupplementedRepositoryImpl.RelativePathTranslatorListener;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepositoryImpl.StoredContentReleaseListener;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
@@ -58,7 +59,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Table(name = "sequence_file")
 @Audited
-@EntityListeners({ AuditingEntityListener.class, RelativePathTranslatorListener.class })
+@EntityListeners({ AuditingEntityListener.class, RelativePathTranslatorListener.class,
+		StoredContentReleaseListener.class })
 public class SequenceFile extends IridaResourceSupport implements MutableIridaThing, Comparable<SequenceFile>,
 		VersionedFileFields<Long>, IridaSequenceFile, RemoteSynchronizable {
 
@@ -86,6 +88,18 @@ public class SequenceFile extends IridaResourceSupport implements MutableIridaTh
 	@Column(name = "upload_sha256")
 	private String uploadSha256;
 
+	// the CRC-32 of the current file, kept so it can be stored in zip files
+	// without being read twice
+	@NotAudited
+	@Column(name = "file_crc32")
+	private Long fileCrc32;
+
+	// the SHA-256 of the decompressed revision of a compressed upload, kept so
+	// its stored content can be released when the file is deleted
+	@NotAudited
+	@Column(name = "processed_sha256")
+	private String processedSha256;
+
 	@Column(name = "file_revision_number")
 	private Long fileRevisionNumber; // the filesystem file revision number
 
@@ -153,6 +167,9 @@ public class SequenceFile extends IridaResourceSupport implements MutableIridaTh
 	}
 
 	public void setFile(Path file) {
+		if (!Objects.equals(this.file, file)) {
+			fileCrc32 = null;
+		}
 		this.file = file;
 	}
 
@@ -307,4 +324,36 @@ public class SequenceFile extends IridaResourceSupport implements MutableIridaTh
 	public void setUploadSha256(String uploadSha256) {
 		this.uploadSha256 = uploadSha256;
 	}
+
+	/**
+	 * Get the CRC-32 of the contents of the current file. Unlike
+	 * {@link #getUploadSha256()}, this is cleared whenever the file is
+	 * replaced.
+	 * 
+	 * @return the CRC-32 of the file, or null if it hasn't been computed
+	 */
+	@JsonIgnore
+	public Long getFileCrc32() {
+		return fileCrc32;
+	}
+
+	public void setFileCrc32(Long fileCrc32) {
+		this.fileCrc32 = fileCrc32;
+	}
+
+	/**
+	 * Get the sha256 checksum of the revision created by processing the
+	 * uploaded file (the decompressed revision of a compressed upload).
+	 * 
+	 * @return the sha256 of the processed file, or null if processing didn't
+	 *         create a new revision
+	 */
+	@JsonIgnore
+	public String getProcessedSha256() {
+		return processedSha256;
+	}
+
+	public void setProcessedSha256(String processedSha256) {
+		this.processedSha256 = processedSha256;
+	}
 }
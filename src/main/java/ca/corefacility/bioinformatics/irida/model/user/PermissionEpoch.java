@@ -0,0 +1,43 @@
+package ca.corefacility.bioinformatics.irida.model.user;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A counter shared by every IRIDA server using the database, advanced whenever a change may have altered which users
+ * are allowed to access which objects. Servers keep cached permission decisions only while the epoch they were made in
+ * is current, so a change made through one server is seen by all of them.
+ */
+@Entity
+@Table(name = "permission_epoch")
+public class PermissionEpoch {
+	/**
+	 * Identifier of the single row holding the epoch
+	 */
+	public static final Integer ID = 1;
+
+	@Id
+	@Column(name = "id")
+	private Integer id;
+
+	@Column(name = "epoch", nullable = false)
+	private long epoch;
+
+	public PermissionEpoch() {
+	}
+
+	public PermissionEpoch(long epoch) {
+		this.id = ID;
+		this.epoch = epoch;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public long getEpoch() {
+		return epoch;
+	}
+}
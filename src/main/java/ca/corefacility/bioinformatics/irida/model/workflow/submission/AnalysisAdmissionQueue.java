@@ -0,0 +1,76 @@
+package ca.corefacility.bioinformatics.irida.model.workflow.submission;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission.Priority;
+
+/**
+ * A count of {@link AnalysisSubmission}s sharing an owner (a submitter or project), workflow and {@link Priority}, read
+ * with an aggregate query so that a backlog of submissions can be scheduled without loading each one.
+ */
+public class AnalysisAdmissionQueue {
+	private final Long ownerId;
+	private final UUID workflowId;
+	private final Priority priority;
+	private final long count;
+	private final Date oldestCreatedDate;
+
+	public AnalysisAdmissionQueue(Long ownerId, UUID workflowId, Priority priority, Long count,
+			Date oldestCreatedDate) {
+		this.ownerId = ownerId;
+		this.workflowId = workflowId;
+		this.priority = priority;
+		this.count = count;
+		this.oldestCreatedDate = oldestCreatedDate;
+	}
+
+	/**
+	 * Get the identifier of the submitter or project the submissions belong to
+	 *
+	 * @return the owner identifier, or null for submissions without a project
+	 */
+	public Long getOwnerId() {
+		return ownerId;
+	}
+
+	public UUID getWorkflowId() {
+		return workflowId;
+	}
+
+	public Priority getPriority() {
+		return priority;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public Date getOldestCreatedDate() {
+		return oldestCreatedDate;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (o == null || getClass() != o.getClass())
+			return false;
+		AnalysisAdmissionQueue that = (AnalysisAdmissionQueue) o;
+		return count == that.count && Objects.equals(ownerId, that.ownerId) && Objects.equals(workflowId,
+				that.workflowId) && priority == that.priority && Objects.equals(oldestCreatedDate,
+				that.oldestCreatedDate);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(ownerId, workflowId, priority, count, oldestCreatedDate);
+	}
+
+	@Override
+	public String toString() {
+		return "AnalysisAdmissionQueue{" + "ownerId=" + ownerId + ", workflowId=" + workflowId + ", priority="
+				+ priority + ", count=" + count + ", oldestCreatedDate=" + oldestCreatedDate + '}';
+	}
+}
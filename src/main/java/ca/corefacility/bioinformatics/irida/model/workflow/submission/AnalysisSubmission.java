@@ -26,9 +26,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Defines a submission to an AnalysisService for executing a remote workflow.
  */
 @Entity
+@NamedEntityGraph(name = AnalysisSubmission.LISTING_GRAPH, attributeNodes = { @NamedAttributeNode("submitter"),
+		@NamedAttributeNode("analysis"), @NamedAttributeNode("referenceFile"),
+		@NamedAttributeNode("namedParameters") })
 @Audited
 @EntityListeners(AuditingEntityListener.class)
 public class AnalysisSubmission extends AbstractAnalysisSubmission implements Comparable<AnalysisSubmission> {
+	/**
+	 * Fetch plan loading the single valued associations shown when listing submissions in the same query as the
+	 * submissions. Collections are left out so pages can still be limited in the database.
+	 */
+	public static final String LISTING_GRAPH = "AnalysisSubmission.listing";
 
 	/**
 	 * Defines the remote id for the location where an analysis was run. With Galaxy this represents the History id.
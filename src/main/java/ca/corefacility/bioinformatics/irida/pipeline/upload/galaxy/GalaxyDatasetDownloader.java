@@ -0,0 +1,260 @@
+package ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads Galaxy datasets over HTTP so that an interrupted download is resumed where it stopped rather than started
+ * over. Data is written to a {@code .part} file next to the destination and only moved to the destination once it is
+ * complete. A {@code .part} file left behind by a download that ran out of attempts is resumed by the next download
+ * to the same destination.
+ * <p>
+ * When resuming, the last {@link #VERIFY_OVERLAP_BYTES} bytes already on disk are requested again and compared to
+ * what was written, so a dataset that changed between attempts is downloaded again from the start. When the size of
+ * the dataset is known, the completed download must be exactly that size.
+ */
+public class GalaxyDatasetDownloader {
+
+	private static final Logger logger = LoggerFactory.getLogger(GalaxyDatasetDownloader.class);
+
+	/**
+	 * The number of bytes already downloaded that are requested again and compared when resuming a download.
+	 */
+	static final int VERIFY_OVERLAP_BYTES = 64 * 1024;
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final int CONNECT_TIMEOUT_MILLIS = (int) Duration.ofSeconds(30)
+			.toMillis();
+	private static final int READ_TIMEOUT_MILLIS = (int) Duration.ofMinutes(5)
+			.toMillis();
+	private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
+
+	private final int maxAttempts;
+	private final Duration retryDelay;
+
+	/**
+	 * Builds a new {@link GalaxyDatasetDownloader}
+	 *
+	 * @param maxAttempts the number of times to try a download before giving up
+	 * @param retryDelay  the time to wait after the first failed attempt, doubled after each following failure
+	 */
+	public GalaxyDatasetDownloader(int maxAttempts, Duration retryDelay) {
+		checkArgument(maxAttempts > 0, "maxAttempts=" + maxAttempts + " must be positive");
+		checkNotNull(retryDelay, "retryDelay is null");
+		this.maxAttempts = maxAttempts;
+		this.retryDelay = retryDelay;
+	}
+
+	/**
+	 * Download a dataset to the given destination, resuming after failures.
+	 *
+	 * @param url          the URL of the dataset contents
+	 * @param apiKey       the Galaxy API key to send with the request
+	 * @param destination  the file to download to (will overwrite any existing content)
+	 * @param expectedSize the size in bytes the dataset should have, or null if it isn't known
+	 * @throws IOException if the dataset could not be downloaded within the number of attempts
+	 */
+	public void download(URL url, String apiKey, Path destination, Long expectedSize) throws IOException {
+		checkNotNull(url, "url is null");
+		checkNotNull(apiKey, "apiKey is null");
+		checkNotNull(destination, "destination is null");
+
+		URL authenticatedUrl = withApiKey(url, apiKey);
+		Path partial = destination.resolveSibling(destination.getFileName() + ".part");
+		IOException lastFailure = null;
+
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			try {
+				downloadRemaining(authenticatedUrl, partial);
+
+				long size = Files.size(partial);
+				if (expectedSize != null && size != expectedSize) {
+					if (size > expectedSize) {
+						Files.delete(partial);
+					}
+					throw new IOException("Downloaded " + size + " bytes from " + describe(url) + ", expected "
+							+ expectedSize);
+				}
+
+				Files.move(partial, destination, StandardCopyOption.REPLACE_EXISTING);
+				return;
+			} catch (IOException e) {
+				lastFailure = e;
+				logger.warn("Attempt " + attempt + " of " + maxAttempts + " to download " + describe(url) + " to "
+						+ destination + " failed: " + e.getMessage());
+			}
+
+			if (attempt < maxAttempts) {
+				try {
+					Thread.sleep(retryDelay.toMillis() << (attempt - 1));
+				} catch (InterruptedException e) {
+					Thread.currentThread()
+							.interrupt();
+					throw new IOException("Interrupted while downloading " + describe(url), e);
+				}
+			}
+		}
+
+		// keep the partial file so the next download of this dataset can resume it
+		throw lastFailure;
+	}
+
+	/**
+	 * Add the Galaxy API key to the query string of a URL, the same way blend4j authenticates its requests.
+	 *
+	 * @param url    the URL of the dataset contents
+	 * @param apiKey the Galaxy API key
+	 * @return the URL with a {@code key} query parameter
+	 * @throws IOException if the URL could not be built
+	 */
+	private static URL withApiKey(URL url, String apiKey) throws IOException {
+		String separator = url.getQuery() == null ? "?" : "&";
+		try {
+			return new URL(url.toExternalForm() + separator + "key=" + URLEncoder.encode(apiKey, "UTF-8"));
+		} catch (UnsupportedEncodingException e) {
+			throw new IOException("Could not encode the Galaxy API key", e);
+		}
+	}
+
+	/**
+	 * Download whatever isn't already in the partial file.
+	 *
+	 * @param url     the URL of the dataset contents
+	 * @param partial the partially downloaded file
+	 * @throws IOException if the download failed
+	 */
+	private void downloadRemaining(URL url, Path partial) throws IOException {
+		long downloaded = Files.exists(partial) ? Files.size(partial) : 0;
+		long start = Math.max(0, downloaded - VERIFY_OVERLAP_BYTES);
+
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+		connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+		if (downloaded > 0) {
+			connection.setRequestProperty("Range", "bytes=" + start + "-");
+		}
+
+		try {
+			int status = connection.getResponseCode();
+			if (downloaded > 0 && (status == HttpURLConnection.HTTP_PARTIAL && rangeStart(connection) != start
+					|| status == REQUESTED_RANGE_NOT_SATISFIABLE)) {
+				Files.delete(partial);
+				throw new IOException("Could not resume download of " + describe(url) + ", response " + status);
+			} else if (status == HttpURLConnection.HTTP_PARTIAL && downloaded > 0) {
+				logger.debug("Resuming download of " + describe(url) + " at byte " + downloaded);
+				try (InputStream in = connection.getInputStream();
+						FileChannel channel = FileChannel.open(partial, StandardOpenOption.READ,
+								StandardOpenOption.WRITE)) {
+					verifyOverlap(in, channel, start, downloaded);
+					channel.position(downloaded);
+					copy(in, Channels.newOutputStream(channel));
+				}
+			} else if (status == HttpURLConnection.HTTP_OK) {
+				if (downloaded > 0) {
+					logger.debug("Server did not resume download of " + describe(url) + ", starting over");
+				}
+				try (InputStream in = connection.getInputStream();
+						OutputStream out = Files.newOutputStream(partial)) {
+					copy(in, out);
+				}
+			} else {
+				throw new IOException("Unexpected response " + status + " downloading " + describe(url));
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Compare the overlapping bytes sent by the server to the bytes already on disk. The partial file is emptied if
+	 * they don't match so the next attempt starts over.
+	 *
+	 * @param in         the response body starting at {@code start}
+	 * @param channel    the partial file
+	 * @param start      the position the response starts at
+	 * @param downloaded the number of bytes already on disk
+	 * @throws IOException if the bytes don't match or couldn't be read
+	 */
+	private void verifyOverlap(InputStream in, FileChannel channel, long start, long downloaded) throws IOException {
+		int overlap = (int) (downloaded - start);
+		byte[] remote = new byte[overlap];
+		int read = 0;
+		while (read < overlap) {
+			int n = in.read(remote, read, overlap - read);
+			if (n < 0) {
+				throw new IOException("Response ended before the resumed position");
+			}
+			read += n;
+		}
+
+		byte[] local = new byte[overlap];
+		ByteBuffer buffer = ByteBuffer.wrap(local);
+		channel.position(start);
+		while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			// keep reading until the overlap is filled
+		}
+
+		if (!Arrays.equals(local, remote)) {
+			channel.truncate(0);
+			throw new IOException("Dataset changed since the download was started");
+		}
+	}
+
+	/**
+	 * Get the first byte of a partial response
+	 *
+	 * @param connection the connection with a partial response
+	 * @return the position the response starts at, or -1 if it couldn't be read
+	 */
+	private static long rangeStart(HttpURLConnection connection) {
+		String contentRange = connection.getHeaderField("Content-Range");
+		if (contentRange == null) {
+			return -1;
+		}
+		Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+		return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private static void copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int n;
+		while ((n = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, n);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Describe a URL without its query string, so the Galaxy API key added by {@link #withApiKey(URL, String)} is
+	 * never logged.
+	 *
+	 * @param url the URL
+	 * @return the URL without a query string
+	 */
+	private static String describe(URL url) {
+		return url.getProtocol() + "://" + url.getAuthority() + url.getPath();
+	}
+}
@@ -5,7 +5,9 @@ import static com.google.common.base.Preconditions.checkState;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +16,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,10 +62,20 @@ public class GalaxyHistoriesService {
 	
 	private static final String COLLECTION = "dataset_collection";
 
+	/**
+	 * The number of times to try downloading a dataset, resuming where the last attempt stopped.
+	 */
+	private static final int DOWNLOAD_ATTEMPTS = 5;
+
 	private HistoriesClient historiesClient;
 	private ToolsClient toolsClient;
 	
 	private GalaxyLibrariesService librariesService;
+
+	private String apiKey;
+
+	private GalaxyDatasetDownloader datasetDownloader = new GalaxyDatasetDownloader(DOWNLOAD_ATTEMPTS,
+			Duration.ofSeconds(2));
 	
 	/**
 	 * Builds a new GalaxyHistory object for working with Galaxy Histories.
@@ -72,6 +85,20 @@ public class GalaxyHistoriesService {
 	 */
 	public GalaxyHistoriesService(HistoriesClient historiesClient,
 			ToolsClient toolsClient, GalaxyLibrariesService librariesService) {
+		this(historiesClient, toolsClient, librariesService, null);
+	}
+
+	/**
+	 * Builds a new GalaxyHistory object for working with Galaxy Histories
+	 * which streams datasets directly from Galaxy.
+	 * @param historiesClient  The HistoriesClient for interacting with Galaxy histories.
+	 * @param toolsClient  The ToolsClient for interacting with tools in Galaxy.
+	 * @param librariesService  A service for dealing with Galaxy libraries.
+	 * @param apiKey  The Galaxy API key sent when streaming datasets, or null to download
+	 *                datasets through the HistoriesClient.
+	 */
+	public GalaxyHistoriesService(HistoriesClient historiesClient,
+			ToolsClient toolsClient, GalaxyLibrariesService librariesService, String apiKey) {
 		checkNotNull(historiesClient, "historiesClient is null");
 		checkNotNull(toolsClient, "toolsClient is null");
 		checkNotNull(librariesService, "librariesService is null");
@@ -79,6 +106,7 @@ public class GalaxyHistoriesService {
 		this.historiesClient = historiesClient;
 		this.toolsClient = toolsClient;
 		this.librariesService = librariesService;
+		this.apiKey = apiKey;
 	}
 
 	/**
@@ -344,6 +372,61 @@ public class GalaxyHistoriesService {
 		}
 	}
 	
+	/**
+	 * Download a dataset within a Galaxy history to the local filesystem. The
+	 * dataset is streamed from Galaxy, resuming where it stopped if the
+	 * download is interrupted, and must have the size Galaxy reports for it.
+	 * Datasets without a download URL, or any dataset when this service was
+	 * built without a Galaxy API key, are downloaded with
+	 * {@link #downloadDatasetTo(String, String, Path)}.
+	 * 
+	 * @param historyId
+	 *            The id of the history containing the dataset.
+	 * @param dataset
+	 *            The dataset to download, as returned by Galaxy.
+	 * @param destination
+	 *            The destination to download a file to (will overwrite any
+	 *            exisiting content).
+	 * @throws IOException
+	 *             If there was an error downloading the file.
+	 * @throws ExecutionManagerDownloadException
+	 *             If there was an issue downloading the dataset.
+	 */
+	public void downloadDatasetTo(String historyId, Dataset dataset, Path destination)
+			throws IOException, ExecutionManagerDownloadException {
+		checkNotNull(historyId, "historyId is null");
+		checkNotNull(dataset, "dataset is null");
+		checkNotNull(destination, "destination is null");
+
+		if (apiKey == null || dataset.getGalaxyUrl() == null || dataset.getDownloadUrl() == null) {
+			downloadDatasetTo(historyId, dataset.getId(), destination);
+			return;
+		}
+
+		Long expectedSize = dataset.getFileSize() == null ? null : dataset.getFileSize()
+				.longValue();
+		try {
+			// the API key is added by the downloader so it is never part of a logged URL
+			URL downloadUrl = new URL(StringUtils.removeEnd(dataset.getGalaxyUrl(), "/") + dataset.getDownloadUrl());
+			datasetDownloader.download(downloadUrl, apiKey, destination, expectedSize);
+		} catch (IOException e) {
+			throw new ExecutionManagerDownloadException(
+					"Could not download dataset identified by historyId=" + historyId + ", datasetId="
+							+ dataset.getId() + " to destination=" + destination, e);
+		}
+	}
+
+	/**
+	 * Set the {@link GalaxyDatasetDownloader} used to stream datasets from
+	 * Galaxy.
+	 * 
+	 * @param datasetDownloader
+	 *            The {@link GalaxyDatasetDownloader}.
+	 */
+	public void setDatasetDownloader(GalaxyDatasetDownloader datasetDownloader) {
+		this.datasetDownloader = datasetDownloader;
+	}
+
 	/**
 	 * Show the history contents for the specified history identifier
 	 * 
@@ -23,7 +23,7 @@ public interface FileProcessingChain {
 	 *         {@link #getFileProcessors()}).
 	 * @throws FileProcessorTimeoutException
 	 *             when the processor chain waits too long for the specified
-	 *             {@link SequencingObject} to appear in the database.
+	 *             {@link SequencingObject} and its files to be ready.
 	 */
 	public List<Exception> launchChain(Long sequencingObjectId) throws FileProcessorTimeoutException;
 
@@ -47,7 +47,7 @@ public interface FileProcessingChain {
 
 	/**
 	 * Set the total amount of time (in seconds) that the processor chain should
-	 * wait for the {@link SequencingObject} to appear before failing.
+	 * wait for the {@link SequencingObject} to be ready before failing.
 	 * 
 	 * @param timeout
 	 *            the total amount of time in seconds that the processor chain
@@ -0,0 +1,21 @@
+package ca.corefacility.bioinformatics.irida.processing;
+
+/**
+ * Exception thrown when a {@link FileProcessor} that modifies files finished
+ * modifying them, but a part of its work that only reads the files (like
+ * FastQC) failed. The files are in a consistent state, so the
+ * {@link FileProcessingChain} may proceed the same way it does when a
+ * processor that doesn't modify files fails.
+ */
+public class FileProcessorAnalysisException extends FileProcessorException {
+
+	private static final long serialVersionUID = -3829541183476190237L;
+
+	public FileProcessorAnalysisException(String message) {
+		super(message);
+	}
+
+	public FileProcessorAnalysisException(String message, Throwable e) {
+		super(message, e);
+	}
+}
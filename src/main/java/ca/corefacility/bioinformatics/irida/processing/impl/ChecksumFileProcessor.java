@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
@@ -35,7 +37,8 @@ public class ChecksumFileProcessor implements FileProcessor {
 
 	/**
 	 * Create an sha256sum for the files in a {@link SequencingObject} and save
-	 * it with the file.
+	 * it with the file, along with the file's CRC-32 from the same read. Files
+	 * with content that is already stored share it instead of keeping a copy.
 	 * 
 	 * @param sequencingObject
 	 *            the {@link SequencingObject} to modify
@@ -49,12 +52,18 @@ public class ChecksumFileProcessor implements FileProcessor {
 
 		for (SequenceFile file : files) {
 
-			try (InputStream is = Files.newInputStream(file.getFile())) {
+			CRC32 crc = new CRC32();
+			try (InputStream is = new CheckedInputStream(Files.newInputStream(file.getFile()), crc)) {
 				String shaDigest = DigestUtils.sha256Hex(is);
 				logger.trace("Checksum generated for file " + file.getId() + ": " + shaDigest);
 				file.setUploadSha256(shaDigest);
+				file.setFileCrc32(crc.getValue());
 
 				fileRepository.saveMetadata(file);
+
+				// the file hasn't been changed yet, so it can share stored
+				// content with the same checksum
+				fileRepository.deduplicateFile(file.getFile(), shaDigest);
 			} catch (IOException e) {
 				throw new FileProcessorException("could not calculate checksum", e);
 			}
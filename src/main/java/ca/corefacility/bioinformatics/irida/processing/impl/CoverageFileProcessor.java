@@ -13,6 +13,7 @@ import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFast
 import ca.corefacility.bioinformatics.irida.processing.FileProcessor;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 
 /**
  * {@link FileProcessor} used to calculate coverage of a
@@ -26,10 +27,14 @@ public class CoverageFileProcessor implements FileProcessor {
 
 	private AnalysisRepository analysisRepository;
 
+	private SampleQCSummaryUpdater qcSummaryUpdater;
+
 	@Autowired
-	public CoverageFileProcessor(QCEntryRepository qcEntryRepository, AnalysisRepository analysisRepository) {
+	public CoverageFileProcessor(QCEntryRepository qcEntryRepository, AnalysisRepository analysisRepository,
+			SampleQCSummaryUpdater qcSummaryUpdater) {
 		this.qcEntryRepository = qcEntryRepository;
 		this.analysisRepository = analysisRepository;
+		this.qcSummaryUpdater = qcSummaryUpdater;
 	}
 
 	/**
@@ -74,6 +79,8 @@ public class CoverageFileProcessor implements FileProcessor {
 					+ sequencingObject.getId());
 		}
 
+		// the sample's summary changes with its coverage, or with the bases of new files when there is none
+		qcSummaryUpdater.updateSummaryForSequencingObject(sequencingObject);
 	}
 
 }
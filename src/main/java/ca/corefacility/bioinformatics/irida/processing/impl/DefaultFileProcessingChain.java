@@ -12,9 +12,11 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessingChain;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorAnalysisException;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
 import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 
 /**
  * Default implementation of {@link FileProcessingChain}. Simply iterates
@@ -36,6 +38,7 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 
 	private final SequencingObjectRepository sequencingObjectRepository;
 	private QCEntryRepository qcRepository;
+	private SampleQCSummaryUpdater qcSummaryUpdater;
 
 	public DefaultFileProcessingChain(SequencingObjectRepository sequencingObjectRepository,
 			QCEntryRepository qcRepository, FileProcessor... fileProcessors) {
@@ -55,43 +58,51 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 	@Override
 	public List<Exception> launchChain(Long sequencingObjectId) throws FileProcessorTimeoutException {
 		List<Exception> ignoredExceptions = new ArrayList<>();
-		Integer waiting = 0;
-
-		// this class is typically launched in a thread after a file has been
-		// initially saved to the database, but not necessarily before the
-		// transaction has completed and closed, so we need to block until the
-		// file has been persisted in the database.
-		while (!sequencingObjectRepository.existsById(sequencingObjectId)) {
-			if (waiting > timeout) {
-				throw new FileProcessorTimeoutException(
-						"Waiting for longer than " + sleepDuration * timeout + "ms, bailing out.");
-			}
-
-			waiting++;
 
-			try {
-				Thread.sleep(sleepDuration);
-			} catch (InterruptedException e) {
-			}
-		}
+		// the chain is launched after the upload transaction has committed, so
+		// the object and its files should be ready on the first check.
+		SequencingObject sequencingObject = getReadySequencingObject(sequencingObjectId);
 
 		for (FileProcessor fileProcessor : fileProcessors) {
 			try {
-				SequencingObject settledSequencingObject = getSettledSequencingObject(sequencingObjectId);
-
-				if (fileProcessor.shouldProcessFile(settledSequencingObject)) {
-					fileProcessor.process(settledSequencingObject);
+				if (fileProcessor.shouldProcessFile(sequencingObject)) {
+					fileProcessor.process(sequencingObject);
+
+					// processors that modify the file save a new revision of
+					// the object, so read it again for the next processor.
+					if (fileProcessor.modifiesFile()) {
+						sequencingObject = sequencingObjectRepository.findById(sequencingObjectId)
+								.orElse(sequencingObject);
+					}
 				}
 			} catch (FileProcessorException e) {
-				SequencingObject sequencingObject = sequencingObjectRepository.findById(sequencingObjectId).orElse(null);
+				Optional<SequencingObject> failedObject = sequencingObjectRepository.findById(sequencingObjectId);
+
+				// the object was deleted while it was being processed, so
+				// there's nothing left to record the error against or to
+				// pass to the remaining processors.
+				if (!failedObject.isPresent()) {
+					ignoredExceptions.add(e);
+					logger.error("File processor [" + fileProcessor.getClass() + "] failed to process ["
+							+ sequencingObjectId + "] and the object no longer exists, stopping the chain: "
+							+ e.getMessage());
+					return ignoredExceptions;
+				}
+				sequencingObject = failedObject.get();
 
 				qcRepository.save(new FileProcessorErrorQCEntry(sequencingObject));
+				if (qcSummaryUpdater != null) {
+					qcSummaryUpdater.updateSummaryForSequencingObject(sequencingObject);
+				}
 
 				// if the file processor modifies the file, then just fast fail,
 				// we can't proceed with the remaining file processors. If the
-				// file processor *doesn't* modify the file, then continue with
+				// file processor *doesn't* modify the file, or it finished
+				// modifying the file before failing, then continue with
 				// execution (show the error, but proceed).
-				if (fileProcessor.modifiesFile() || fastFail) {
+				boolean fileModifiedByFailure = fileProcessor.modifiesFile()
+						&& !(e instanceof FileProcessorAnalysisException);
+				if (fileModifiedByFailure || fastFail) {
 					sequencingObject.setProcessingState(SequencingObject.ProcessingState.ERROR);
 					sequencingObjectRepository.save(sequencingObject);
 
@@ -105,10 +116,14 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 			}
 		}
 
-		SequencingObject statusObject = sequencingObjectRepository.findById(sequencingObjectId).orElse(null);
-
-		statusObject.setProcessingState(SequencingObject.ProcessingState.FINISHED);
-		sequencingObjectRepository.save(statusObject);
+		Optional<SequencingObject> statusObject = sequencingObjectRepository.findById(sequencingObjectId);
+		if (statusObject.isPresent()) {
+			statusObject.get().setProcessingState(SequencingObject.ProcessingState.FINISHED);
+			sequencingObjectRepository.save(statusObject.get());
+		} else {
+			logger.error("Sequencing object [" + sequencingObjectId
+					+ "] was removed while it was being processed, not marking it finished.");
+		}
 
 		return ignoredExceptions;
 	}
@@ -125,6 +140,17 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 		this.fastFail = fastFail;
 	}
 
+	/**
+	 * Set the {@link SampleQCSummaryUpdater} to tell when a processor fails,
+	 * so the error shows in the summary of the object's sample.
+	 * 
+	 * @param qcSummaryUpdater
+	 *            the summary updater
+	 */
+	public void setSampleQCSummaryUpdater(SampleQCSummaryUpdater qcSummaryUpdater) {
+		this.qcSummaryUpdater = qcSummaryUpdater;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -140,26 +166,25 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 	}
 
 	/**
-	 * Checks the {@link SequenceFile}s for the given {@link SequencingObject}
-	 * to see if it's files are in the place they should be. Since there's lots
-	 * of saves going on during the {@link FileProcessingChain} the transaction
-	 * might not be complete in the time the file is first read.
+	 * Reads the {@link SequencingObject} and checks that its
+	 * {@link SequenceFile}s are in the place they should be. The chain is
+	 * launched once the upload has been committed so this should succeed on
+	 * the first check. If it doesn't (e.g., a slow shared filesystem), the
+	 * check is retried every sleep duration until the timeout.
 	 * 
 	 * @param sequencingObjectId
 	 *            the id of the {@link SequencingObject} to check
-	 * @return the settled {@link SequencingObject}
+	 * @return the ready {@link SequencingObject}
 	 * @throws FileProcessorTimeoutException
-	 *             if the files don't settle in the configured timeout
+	 *             if the object isn't ready in the configured timeout
 	 */
-	private SequencingObject getSettledSequencingObject(Long sequencingObjectId) throws FileProcessorTimeoutException {
-		boolean filesNotSettled = true;
-
+	private SequencingObject getReadySequencingObject(Long sequencingObjectId) throws FileProcessorTimeoutException {
 		Integer waiting = 0;
 
-		Optional<SequencingObject> sequencingObject;
+		Optional<SequencingObject> sequencingObject = sequencingObjectRepository.findById(sequencingObjectId);
 
-		do {
-			if (waiting > timeout) {
+		while (!isReady(sequencingObject)) {
+			if (waiting >= timeout) {
 				throw new FileProcessorTimeoutException("Waiting for longer than " + sleepDuration * timeout
 						+ "ms, bailing out.  File id " + sequencingObjectId);
 			}
@@ -172,15 +197,21 @@ public class DefaultFileProcessingChain implements FileProcessingChain {
 			}
 
 			sequencingObject = sequencingObjectRepository.findById(sequencingObjectId);
-
-			if(sequencingObject.isPresent()) {
-				Set<SequenceFile> files = sequencingObject.get().getFiles();
-				filesNotSettled = files.stream().anyMatch(f -> {
-					return !Files.exists(f.getFile());
-				});
-			}
-		} while (filesNotSettled);
+		}
 
 		return sequencingObject.get();
 	}
+
+	/**
+	 * Check if a {@link SequencingObject} exists and all of its
+	 * {@link SequenceFile}s are on disk.
+	 * 
+	 * @param sequencingObject
+	 *            the {@link SequencingObject} to check
+	 * @return true if the object can be processed
+	 */
+	private boolean isReady(Optional<SequencingObject> sequencingObject) {
+		return sequencingObject.isPresent()
+				&& sequencingObject.get().getFiles().stream().allMatch(f -> Files.exists(f.getFile()));
+	}
 }
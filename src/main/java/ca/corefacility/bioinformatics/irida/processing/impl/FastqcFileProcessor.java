@@ -36,7 +36,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Executes FastQC on a {@link SequenceFile} and stores the report in the database. This is a terrible, ugly, hacky
@@ -49,10 +54,16 @@ public class FastqcFileProcessor implements FileProcessor {
 
 	private static final String EXECUTION_MANAGER_ANALYSIS_ID = "internal-fastqc";
 
+	private static final String PER_BASE_QUALITY_SCORE_CHART = "perBaseQualityScoreChart.png";
+	private static final String PER_SEQUENCE_QUALITY_SCORE_CHART = "perSequenceQualityScoreChart.png";
+	private static final String DUPLICATION_LEVEL_CHART = "duplicationLevelChart.png";
+
 	private final SequenceFileRepository sequenceFileRepository;
 	private final AnalysisOutputFileRepository outputFileRepository;
 	private final MessageSource messageSource;
 
+	private Executor fileExecutor;
+
 	/**
 	 * Create a new {@link FastqcFileProcessor}
 	 *
@@ -69,11 +80,45 @@ public class FastqcFileProcessor implements FileProcessor {
 		this.outputFileRepository = outputFileRepository;
 	}
 
+	/**
+	 * Set the executor used to run FastQC on the files of a {@link SequencingObject} concurrently. If no executor is
+	 * set, files are processed one after another on the calling thread.
+	 *
+	 * @param fileExecutor the executor to analyze files with
+	 */
+	public void setFileExecutor(Executor fileExecutor) {
+		this.fileExecutor = fileExecutor;
+	}
+
 	@Override
 	@Transactional
 	public void process(SequencingObject sequencingObject) {
-		for (SequenceFile file : sequencingObject.getFiles()) {
-			processSingleFile(file);
+		Set<SequenceFile> files = sequencingObject.getFiles();
+
+		if (fileExecutor == null || files.size() < 2) {
+			for (SequenceFile file : files) {
+				processSingleFile(file);
+			}
+			return;
+		}
+
+		// run the modules and render the charts for each file concurrently,
+		// then save everything on this thread so it stays in the transaction
+		Map<SequenceFile, CompletableFuture<FastqcResult>> results = new LinkedHashMap<>();
+		for (SequenceFile file : files) {
+			results.put(file, CompletableFuture.supplyAsync(() -> analyzeFile(file), fileExecutor));
+		}
+
+		for (Map.Entry<SequenceFile, CompletableFuture<FastqcResult>> result : results.entrySet()) {
+			try {
+				saveResult(result.getKey(), result.getValue()
+						.join());
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof FileProcessorException) {
+					throw (FileProcessorException) e.getCause();
+				}
+				throw new FileProcessorException("FastQC failed to parse the sequence file.", e.getCause());
+			}
 		}
 	}
 
@@ -84,45 +129,48 @@ public class FastqcFileProcessor implements FileProcessor {
 	 * @throws FileProcessorException if an error occurs while processing
 	 */
 	private void processSingleFile(SequenceFile sequenceFile) throws FileProcessorException {
+		saveResult(sequenceFile, analyzeFile(sequenceFile));
+	}
+
+	/**
+	 * Run the FastQC modules over every sequence in a {@link SequenceFile} and render the charts. Nothing is saved to
+	 * the database, so this can run outside of the calling thread's transaction.
+	 *
+	 * @param sequenceFile file to analyze
+	 * @return the {@link FastqcResult} for the file
+	 * @throws FileProcessorException if FastQC couldn't parse the file
+	 */
+	private FastqcResult analyzeFile(SequenceFile sequenceFile) throws FileProcessorException {
 		Path fileToProcess = sequenceFile.getFile();
-		AnalysisFastQC.AnalysisFastQCBuilder analysis = AnalysisFastQC.builder()
-				.fastqcVersion(FastQCApplication.VERSION)
-				.executionManagerAnalysisId(EXECUTION_MANAGER_ANALYSIS_ID)
-				.description(messageSource.getMessage("fastqc.file.processor.analysis.description", new Object[] {FastQCApplication.VERSION},
-						LocaleContextHolder.getLocale()));
 		try {
 			uk.ac.babraham.FastQC.Sequence.SequenceFile fastQCSequenceFile = SequenceFactory.getSequenceFile(
 					fileToProcess.toFile());
-			BasicStats basicStats = new BasicStats();
-			PerBaseQualityScores pbqs = new PerBaseQualityScores();
-			PerSequenceQualityScores psqs = new PerSequenceQualityScores();
-			OverRepresentedSeqs overRep = new OverRepresentedSeqs();
-			QCModule[] moduleList = new QCModule[] { basicStats, pbqs, psqs, overRep };
+			FastqcModules modules = new FastqcModules();
 
 			logger.debug("Launching FastQC analysis modules on all sequences.");
 			while (fastQCSequenceFile.hasNext()) {
-				Sequence sequence = fastQCSequenceFile.next();
-				for (QCModule module : moduleList) {
-					module.processSequence(sequence);
-				}
+				modules.processSequence(fastQCSequenceFile.next());
 			}
 
 			logger.debug("Finished FastQC analysis modules.");
 
-			Path outputDirectory = Files.createTempDirectory("analysis-output");
-
-			handleBasicStats(basicStats, analysis);
-			handlePerBaseQualityScores(pbqs, analysis, outputDirectory);
-			handlePerSequenceQualityScores(psqs, analysis, outputDirectory);
-			handleDuplicationLevel(overRep.duplicationLevelModule(), analysis, outputDirectory);
-			Set<OverrepresentedSequence> overrepresentedSequences = handleOverRepresentedSequences(overRep);
-
-			logger.trace("Saving FastQC analysis.");
-			analysis.overrepresentedSequences(overrepresentedSequences);
-
-			AnalysisFastQC analysisFastQC = analysis.build();
+			return renderCharts(modules);
+		} catch (Exception e) {
+			logger.error("FastQC failed to process the sequence file: " + e.getMessage());
+			throw new FileProcessorException("FastQC failed to parse the sequence file.", e);
+		}
+	}
 
-			sequenceFile.setFastQCAnalysis(analysis.build());
+	/**
+	 * Save the {@link FastqcResult} for a {@link SequenceFile}
+	 *
+	 * @param sequenceFile the file that was analyzed
+	 * @param result       the result of analyzing the file
+	 * @throws FileProcessorException if the analysis couldn't be saved
+	 */
+	private void saveResult(SequenceFile sequenceFile, FastqcResult result) throws FileProcessorException {
+		try {
+			sequenceFile.setFastQCAnalysis(buildAnalysis(result));
 
 			sequenceFileRepository.saveMetadata(sequenceFile);
 		} catch (Exception e) {
@@ -131,6 +179,63 @@ public class FastqcFileProcessor implements FileProcessor {
 		}
 	}
 
+	/**
+	 * Build the {@link AnalysisFastQC} for a set of {@link FastqcModules} that have processed every sequence in a
+	 * file. Charts are written to a temp directory and saved as {@link AnalysisOutputFile}s.
+	 *
+	 * @param modules the {@link FastqcModules} to build the analysis from
+	 * @return the built {@link AnalysisFastQC}
+	 * @throws IOException if the charts couldn't be written
+	 */
+	AnalysisFastQC buildAnalysis(FastqcModules modules) throws IOException {
+		return buildAnalysis(renderCharts(modules));
+	}
+
+	/**
+	 * Build the {@link AnalysisFastQC} for a {@link FastqcResult}, saving the rendered charts as
+	 * {@link AnalysisOutputFile}s.
+	 *
+	 * @param result the {@link FastqcResult} to build the analysis from
+	 * @return the built {@link AnalysisFastQC}
+	 */
+	private AnalysisFastQC buildAnalysis(FastqcResult result) {
+		AnalysisFastQC.AnalysisFastQCBuilder analysis = AnalysisFastQC.builder()
+				.fastqcVersion(FastQCApplication.VERSION)
+				.executionManagerAnalysisId(EXECUTION_MANAGER_ANALYSIS_ID)
+				.description(messageSource.getMessage("fastqc.file.processor.analysis.description", new Object[] {FastQCApplication.VERSION},
+						LocaleContextHolder.getLocale()));
+
+		handleBasicStats(result.modules.basicStats, analysis);
+		analysis.perBaseQualityScoreChart(saveOutputFile(result.outputDirectory, PER_BASE_QUALITY_SCORE_CHART));
+		analysis.perSequenceQualityScoreChart(
+				saveOutputFile(result.outputDirectory, PER_SEQUENCE_QUALITY_SCORE_CHART));
+		analysis.duplicationLevelChart(saveOutputFile(result.outputDirectory, DUPLICATION_LEVEL_CHART));
+		Set<OverrepresentedSequence> overrepresentedSequences = handleOverRepresentedSequences(
+				result.modules.overRep);
+
+		logger.trace("Saving FastQC analysis.");
+		analysis.overrepresentedSequences(overrepresentedSequences);
+
+		return analysis.build();
+	}
+
+	/**
+	 * Render the charts for a set of {@link FastqcModules} to a new temp directory.
+	 *
+	 * @param modules the {@link FastqcModules} to render the charts for
+	 * @return the {@link FastqcResult} holding the modules and the chart directory
+	 * @throws IOException if the charts couldn't be written
+	 */
+	private FastqcResult renderCharts(FastqcModules modules) throws IOException {
+		Path outputDirectory = Files.createTempDirectory("analysis-output");
+
+		handlePerBaseQualityScores(modules.pbqs, outputDirectory);
+		handlePerSequenceQualityScores(modules.psqs, outputDirectory);
+		handleDuplicationLevel(modules.overRep.duplicationLevelModule(), outputDirectory);
+
+		return new FastqcResult(modules, outputDirectory);
+	}
+
 	/**
 	 * Handle writing the {@link BasicStats} to the database.
 	 *
@@ -151,54 +256,49 @@ public class FastqcFileProcessor implements FileProcessor {
 	}
 
 	/**
-	 * Handle writing the {@link PerBaseQualityScores} to the database.
+	 * Handle rendering the {@link PerBaseQualityScores} chart.
 	 *
-	 * @param scores   the {@link PerBaseQualityScores} computed by fastqc.
-	 * @param analysis the {@link AnalysisFastQCBuilder} to update.
+	 * @param scores        the {@link PerBaseQualityScores} computed by fastqc.
+	 * @param tempDirectory the directory to write the chart to.
 	 */
-	private void handlePerBaseQualityScores(PerBaseQualityScores scores, AnalysisFastQCBuilder analysis,
-			Path tempDirectory) throws IOException {
+	private void handlePerBaseQualityScores(PerBaseQualityScores scores, Path tempDirectory) throws IOException {
 		QualityBoxPlot bp = (QualityBoxPlot) scores.getResultsPanel();
 		BufferedImage b = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
 		Graphics g = b.getGraphics();
 		bp.paint(g, b.getWidth(), b.getHeight());
 
-		AnalysisOutputFile file = writeImageToFile(tempDirectory, b, "perBaseQualityScoreChart.png");
-		analysis.perBaseQualityScoreChart(file);
+		writeImageToFile(tempDirectory, b, PER_BASE_QUALITY_SCORE_CHART);
 	}
 
 	/**
-	 * Handle writing the {@link PerSequenceQualityScores} to the database.
+	 * Handle rendering the {@link PerSequenceQualityScores} chart.
 	 *
-	 * @param scores   the {@link PerSequenceQualityScores} computed by fastqc.
-	 * @param analysis the {@link AnalysisFastQCBuilder} to update.
+	 * @param scores        the {@link PerSequenceQualityScores} computed by fastqc.
+	 * @param tempDirectory the directory to write the chart to.
 	 */
-	private void handlePerSequenceQualityScores(PerSequenceQualityScores scores, AnalysisFastQCBuilder analysis,
-			Path tempDirectory) throws IOException {
+	private void handlePerSequenceQualityScores(PerSequenceQualityScores scores, Path tempDirectory)
+			throws IOException {
 		LineGraph lg = (LineGraph) scores.getResultsPanel();
 		BufferedImage b = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
 		Graphics g = b.getGraphics();
 		lg.paint(g, b.getWidth(), b.getHeight());
 
-		AnalysisOutputFile file = writeImageToFile(tempDirectory, b, "perSequenceQualityScoreChart.png");
-		analysis.perSequenceQualityScoreChart(file);
+		writeImageToFile(tempDirectory, b, PER_SEQUENCE_QUALITY_SCORE_CHART);
 	}
 
 	/**
-	 * Handle writing the {@link DuplicationLevel} to the database.
+	 * Handle rendering the {@link DuplicationLevel} chart.
 	 *
 	 * @param duplicationLevel the {@link DuplicationLevel} calculated by fastqc.
-	 * @param analysis         the {@link AnalysisFastQCBuilder} to update.
+	 * @param tempDirectory    the directory to write the chart to.
 	 */
-	private void handleDuplicationLevel(DuplicationLevel duplicationLevel, AnalysisFastQCBuilder analysis,
-			Path tempDirectory) throws IOException {
+	private void handleDuplicationLevel(DuplicationLevel duplicationLevel, Path tempDirectory) throws IOException {
 		LineGraph lg = (LineGraph) duplicationLevel.getResultsPanel();
 		BufferedImage b = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
 		Graphics g = b.getGraphics();
 		lg.paint(g, b.getWidth(), b.getHeight());
 
-		AnalysisOutputFile file = writeImageToFile(tempDirectory, b, "duplicationLevelChart.png");
-		analysis.duplicationLevelChart(file);
+		writeImageToFile(tempDirectory, b, DUPLICATION_LEVEL_CHART);
 	}
 
 	/**
@@ -227,16 +327,17 @@ public class FastqcFileProcessor implements FileProcessor {
 		return overrepresentedSequences;
 	}
 
-	private AnalysisOutputFile writeImageToFile(Path tempDirectory, BufferedImage imageBuffer, String fileName)
+	private void writeImageToFile(Path tempDirectory, BufferedImage imageBuffer, String fileName)
 			throws IOException {
 		Path filePath = tempDirectory.resolve(fileName);
 
 		ImageIO.write(imageBuffer, "PNG", filePath.toFile());
+	}
 
-		AnalysisOutputFile analysisOutputFile = outputFileRepository.save(
-				new AnalysisOutputFile(filePath, null, fileName, null));
+	private AnalysisOutputFile saveOutputFile(Path tempDirectory, String fileName) {
+		Path filePath = tempDirectory.resolve(fileName);
 
-		return analysisOutputFile;
+		return outputFileRepository.save(new AnalysisOutputFile(filePath, null, fileName, null));
 	}
 
 	/**
@@ -247,6 +348,41 @@ public class FastqcFileProcessor implements FileProcessor {
 		return false;
 	}
 
+	/**
+	 * The FastQC {@link QCModule}s IRIDA reports on for a single file.
+	 */
+	static class FastqcModules {
+		private final BasicStats basicStats = new BasicStats();
+		private final PerBaseQualityScores pbqs = new PerBaseQualityScores();
+		private final PerSequenceQualityScores psqs = new PerSequenceQualityScores();
+		private final OverRepresentedSeqs overRep = new OverRepresentedSeqs();
+		private final QCModule[] moduleList = new QCModule[] { basicStats, pbqs, psqs, overRep };
+
+		/**
+		 * Run a sequence through all of the modules
+		 *
+		 * @param sequence the {@link Sequence} to process
+		 */
+		void processSequence(Sequence sequence) {
+			for (QCModule module : moduleList) {
+				module.processSequence(sequence);
+			}
+		}
+	}
+
+	/**
+	 * The {@link FastqcModules} for a file along with the directory its charts were rendered to.
+	 */
+	private static class FastqcResult {
+		private final FastqcModules modules;
+		private final Path outputDirectory;
+
+		FastqcResult(FastqcModules modules, Path outputDirectory) {
+			this.modules = modules;
+			this.outputDirectory = outputDirectory;
+		}
+	}
+
 	@Override
 	public boolean shouldProcessFile(SequencingObject sequencingObject) {
 		//we don't want to run the processor for zipped or unknown fast5 files.  It will just fail and create a qc entry even though it did what it was supposed to
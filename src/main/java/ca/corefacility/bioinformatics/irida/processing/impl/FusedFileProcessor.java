@@ -0,0 +1,381 @@
+package ca.corefacility.bioinformatics.irida.processing.impl;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.input.TeeInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.io.ByteStreams;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.Fast5Object;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorAnalysisException;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
+import ca.corefacility.bioinformatics.irida.processing.impl.FastqcFileProcessor.FastqcModules;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+import ca.corefacility.bioinformatics.irida.util.FileUtils;
+import uk.ac.babraham.FastQC.Sequence.Sequence;
+import uk.ac.babraham.FastQC.Sequence.SequenceFormatException;
+
+/**
+ * Runs the work of the {@link ChecksumFileProcessor}, {@link GzipFileProcessor} and {@link FastqcFileProcessor} on
+ * each {@link SequenceFile} in a single read of the file. The bytes read from disk go through the checksum digest,
+ * then through a decompressor (if the file is gzip compressed) that writes out the uncompressed copy and its own
+ * checksum, and are finally parsed into the FastQC modules. Results are saved the same way the individual processors save them.
+ * <p>
+ * If FastQC fails, every file is still checksummed and decompressed before a {@link FileProcessorAnalysisException}
+ * is thrown, so the {@link ca.corefacility.bioinformatics.irida.processing.FileProcessingChain} records the failure
+ * and decides whether to continue the same way it does for the {@link FastqcFileProcessor}.
+ * <p>
+ * The files of an object are processed in one transaction. {@link Fast5Object}s aren't FASTQ so they're handed to
+ * the individual processors outside of it, each running in its own transaction.
+ */
+@Component
+public class FusedFileProcessor implements FileProcessor {
+	private static final Logger logger = LoggerFactory.getLogger(FusedFileProcessor.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final SequenceFileRepository sequenceFileRepository;
+	private final ChecksumFileProcessor checksumFileProcessor;
+	private final GzipFileProcessor gzipFileProcessor;
+	private final FastqcFileProcessor fastqcFileProcessor;
+	private final TransactionTemplate transactionTemplate;
+
+	private boolean decompressFiles = true;
+
+	@Autowired
+	public FusedFileProcessor(SequenceFileRepository sequenceFileRepository,
+			ChecksumFileProcessor checksumFileProcessor, GzipFileProcessor gzipFileProcessor,
+			FastqcFileProcessor fastqcFileProcessor, PlatformTransactionManager transactionManager) {
+		this.sequenceFileRepository = sequenceFileRepository;
+		this.checksumFileProcessor = checksumFileProcessor;
+		this.gzipFileProcessor = gzipFileProcessor;
+		this.fastqcFileProcessor = fastqcFileProcessor;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Decide whether gzip compressed files should be decompressed while they're read. Removal of the original
+	 * compressed file follows the {@link GzipFileProcessor} setting. Files that aren't decompressed are kept compressed
+	 * and renamed to end with ".gz".
+	 *
+	 * @param decompressFiles whether or not to write an uncompressed copy of compressed files
+	 */
+	public void setDecompressFiles(boolean decompressFiles) {
+		this.decompressFiles = decompressFiles;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void process(SequencingObject sequencingObject) {
+		// the individual processors run in transactions of their own, so a
+		// FastQC failure can't roll back the checksum
+		if (sequencingObject instanceof Fast5Object) {
+			processIndividually(sequencingObject);
+			return;
+		}
+
+		Exception fastqcException = transactionTemplate.execute(status -> {
+			Exception firstException = null;
+			for (SequenceFile file : sequencingObject.getFiles()) {
+				Exception fileException = processSingleFile(file);
+				if (firstException == null) {
+					firstException = fileException;
+				}
+			}
+			return firstException;
+		});
+
+		// the files are saved, so the chain can treat this like a failure of
+		// the separate FastQC processor
+		if (fastqcException != null) {
+			throw new FileProcessorAnalysisException("FastQC failed to parse the sequence file.", fastqcException);
+		}
+	}
+
+	/**
+	 * Process a single {@link SequenceFile} in one pass.
+	 *
+	 * @param sequenceFile file to process
+	 * @return the exception FastQC failed with, or null if FastQC could parse the file
+	 * @throws FileProcessorException if the file couldn't be read or decompressed
+	 */
+	private Exception processSingleFile(SequenceFile sequenceFile) throws FileProcessorException {
+		Path file = sequenceFile.getFile();
+		String nameWithoutExtension = file.getFileName().toString();
+
+		// strip the extension from the filename (if necessary)
+		if (nameWithoutExtension.endsWith(GzipFileProcessor.GZIP_EXTENSION)) {
+			nameWithoutExtension = nameWithoutExtension.substring(0,
+					nameWithoutExtension.lastIndexOf(GzipFileProcessor.GZIP_EXTENSION));
+		}
+
+		MessageDigest digest = DigestUtils.getSha256Digest();
+		MessageDigest decompressedDigest = DigestUtils.getSha256Digest();
+		CRC32 crc = new CRC32();
+		FastqcModules modules = new FastqcModules();
+		Exception fastqcException = null;
+		Path decompressedFile = null;
+
+		try {
+			boolean gzipped = FileUtils.isGzipped(file);
+			if (gzipped && decompressFiles && gzipFileProcessor.modifiesFile()) {
+				decompressedFile = Files.createTempDirectory(null).resolve(nameWithoutExtension);
+				logger.debug("Writing uncompressed file to [" + decompressedFile + "]");
+			}
+
+			try (InputStream fileStream = new CheckedInputStream(new DigestInputStream(
+					new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), digest), crc);
+					InputStream sequenceStream = openSequenceStream(fileStream, gzipped, decompressedFile,
+							decompressedDigest)) {
+				try {
+					FastqStreamSequenceFile fastq = new FastqStreamSequenceFile(file.getFileName().toString(),
+							sequenceStream);
+
+					logger.debug("Launching FastQC analysis modules on all sequences.");
+					while (fastq.hasNext()) {
+						modules.processSequence(fastq.next());
+					}
+				} catch (SequenceFormatException | RuntimeException e) {
+					fastqcException = e;
+				}
+
+				// read whatever the parser didn't so the checksum and the
+				// uncompressed copy cover the whole file
+				ByteStreams.exhaust(sequenceStream);
+				ByteStreams.exhaust(fileStream);
+			}
+
+			String shaDigest = Hex.encodeHexString(digest.digest());
+			logger.trace("Checksum generated for file " + sequenceFile.getId() + ": " + shaDigest);
+			sequenceFile.setUploadSha256(shaDigest);
+			sequenceFile.setFileCrc32(crc.getValue());
+			sequenceFileRepository.deduplicateFile(file, shaDigest);
+
+			if (fastqcException == null) {
+				try {
+					sequenceFile.setFastQCAnalysis(fastqcFileProcessor.buildAnalysis(modules));
+				} catch (Exception e) {
+					fastqcException = e;
+				}
+			}
+
+			if (fastqcException != null) {
+				logger.error("FastQC failed to process the sequence file: " + fastqcException.getMessage());
+			}
+
+			if (decompressedFile != null) {
+				Path compressedFile = gzipFileProcessor.addExtensionToFilename(file,
+						GzipFileProcessor.GZIP_EXTENSION);
+
+				String decompressedSha256 = Hex.encodeHexString(decompressedDigest.digest());
+				sequenceFile.setFile(decompressedFile);
+				sequenceFile.setProcessedSha256(decompressedSha256);
+				SequenceFile savedFile = sequenceFileRepository.save(sequenceFile);
+
+				// identical uploads share the uncompressed revision too
+				sequenceFileRepository.deduplicateFile(savedFile.getFile(), decompressedSha256);
+
+				if (gzipFileProcessor.isRemoveCompressedFiles()) {
+					logger.debug(
+							"Removing original compressed files [file.processing.decompress.remove.compressed.file=true]");
+					Files.delete(compressedFile);
+					sequenceFileRepository.releaseStoredFile(shaDigest);
+				}
+			} else if (gzipped && gzipFileProcessor.modifiesFile()) {
+				// the file is kept compressed, so make sure it's named that way
+				Path compressedFile = gzipFileProcessor.addExtensionToFilename(file,
+						GzipFileProcessor.GZIP_EXTENSION);
+				sequenceFile.setFile(compressedFile);
+				// renaming the file doesn't change its contents
+				sequenceFile.setFileCrc32(crc.getValue());
+				sequenceFileRepository.save(sequenceFile);
+			} else {
+				sequenceFileRepository.saveMetadata(sequenceFile);
+			}
+		} catch (Exception e) {
+			logger.error("Failed to process the input file [" + sequenceFile + "]; stack trace follows.", e);
+			throw new FileProcessorException("Failed to process input file [" + sequenceFile + "].");
+		}
+
+		return fastqcException;
+	}
+
+	/**
+	 * Open the stream that sequences will be parsed from.
+	 *
+	 * @param fileStream         the stream of bytes read from disk
+	 * @param gzipped            whether the file is gzip compressed
+	 * @param decompressedFile   where to write the uncompressed copy of the file, or null to not write a copy
+	 * @param decompressedDigest the digest to update with the uncompressed copy as it's written
+	 * @return the stream to parse sequences from
+	 * @throws IOException if the decompressor or the uncompressed copy couldn't be opened
+	 */
+	private InputStream openSequenceStream(InputStream fileStream, boolean gzipped, Path decompressedFile,
+			MessageDigest decompressedDigest) throws IOException {
+		if (!gzipped) {
+			return fileStream;
+		}
+
+		InputStream sequenceStream = new GZIPInputStream(fileStream, BUFFER_SIZE);
+
+		if (decompressedFile != null) {
+			OutputStream decompressedStream = new DigestOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(decompressedFile), BUFFER_SIZE), decompressedDigest);
+			sequenceStream = new TeeInputStream(sequenceStream, decompressedStream, true);
+		}
+
+		return sequenceStream;
+	}
+
+	/**
+	 * Run the individual processors for objects that can't be handled in a single pass. Neither processor modifies
+	 * files, so every processor is run before the first failure is passed on to the chain.
+	 *
+	 * @param sequencingObject the {@link SequencingObject} to process
+	 * @throws FileProcessorAnalysisException if one of the processors failed
+	 */
+	private void processIndividually(SequencingObject sequencingObject) {
+		// gzip processing is skipped for fast5 files since they may be a directory of objects
+		List<FileProcessor> processors = Arrays.asList(checksumFileProcessor, fastqcFileProcessor);
+
+		FileProcessorException failure = null;
+		for (FileProcessor processor : processors) {
+			if (processor.shouldProcessFile(sequencingObject)) {
+				try {
+					processor.process(sequencingObject);
+				} catch (FileProcessorException e) {
+					logger.error("File processor [" + processor.getClass() + "] failed to process ["
+							+ sequencingObject.getId() + "], but proceeding with the remaining processors: "
+							+ e.getMessage());
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+		}
+
+		if (failure != null) {
+			throw new FileProcessorAnalysisException(failure.getMessage(), failure);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Boolean modifiesFile() {
+		return gzipFileProcessor.modifiesFile();
+	}
+
+	/**
+	 * A FastQC {@link uk.ac.babraham.FastQC.Sequence.SequenceFile} reading FASTQ records from a stream rather than
+	 * opening the file itself. Records are parsed the same way as FastQC's own FASTQ reader for base space files.
+	 */
+	private static class FastqStreamSequenceFile implements uk.ac.babraham.FastQC.Sequence.SequenceFile {
+		private final String name;
+		private final BufferedReader reader;
+		private Sequence nextSequence;
+
+		FastqStreamSequenceFile(String name, InputStream stream) throws SequenceFormatException {
+			this.name = name;
+			this.reader = new BufferedReader(new InputStreamReader(stream), BUFFER_SIZE);
+
+			readNext();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextSequence != null;
+		}
+
+		@Override
+		public Sequence next() throws SequenceFormatException {
+			Sequence sequence = nextSequence;
+			readNext();
+			return sequence;
+		}
+
+		@Override
+		public boolean isColorspace() {
+			return false;
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public int getPercentComplete() {
+			return hasNext() ? 0 : 100;
+		}
+
+		@Override
+		public File getFile() {
+			return null;
+		}
+
+		/**
+		 * Read the next FASTQ record from the stream
+		 *
+		 * @throws SequenceFormatException if the record is malformed
+		 */
+		private void readNext() throws SequenceFormatException {
+			try {
+				String id;
+				do {
+					id = reader.readLine();
+					if (id == null) {
+						nextSequence = null;
+						return;
+					}
+				} while (id.isEmpty());
+
+				if (!id.startsWith("@")) {
+					nextSequence = null;
+					throw new SequenceFormatException("ID line didn't start with '@'");
+				}
+
+				String sequence = reader.readLine();
+				String midLine = reader.readLine();
+				String quality = reader.readLine();
+
+				if (sequence == null || midLine == null || quality == null) {
+					throw new SequenceFormatException(
+							"Ran out of data in the middle of a fastq entry.  Your file is probably truncated");
+				}
+
+				if (!midLine.startsWith("+")) {
+					throw new SequenceFormatException("Midline '" + midLine + "' didn't start with '+'");
+				}
+
+				nextSequence = new Sequence(this, sequence.toUpperCase(), quality, id);
+			} catch (IOException e) {
+				throw new SequenceFormatException(e.getLocalizedMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package ca.corefacility.bioinformatics.irida.processing.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decompresses gzip files. Files written in the blocked gzip format (BGZF, as written by <code>bgzip</code>) record
+ * the size of each gzip member in its header, so the file can be split at member boundaries without inflating it, and
+ * the members inflated in parallel on an {@link Executor}. All other gzip files (including plain concatenated gzip
+ * members, whose boundaries can only be found by inflating them) are inflated in a single stream using large buffers.
+ * The SHA-256 checksum of the uncompressed contents is computed as they're written.
+ */
+public class GzipDecompressor {
+	private static final Logger logger = LoggerFactory.getLogger(GzipDecompressor.class);
+
+	/**
+	 * Buffer size used for reading and writing when inflating in a single stream.
+	 */
+	static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * Number of BGZF blocks inflated by a single task. BGZF blocks are at most 64 KiB both compressed and
+	 * uncompressed, so a task handles at most 1 MiB.
+	 */
+	private static final int BLOCKS_PER_TASK = 16;
+
+	/**
+	 * Number of tasks that may be inflating or waiting to be written at once, bounding memory use per file.
+	 */
+	private static final int MAX_TASKS_IN_FLIGHT = 32;
+
+	private static final int GZIP_HEADER_SIZE = 12;
+	private static final int GZIP_TRAILER_SIZE = 8;
+	private static final int FLAG_EXTRA = 4;
+	private static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+	private final Executor executor;
+
+	/**
+	 * Create a {@link GzipDecompressor} that inflates every file in a single stream.
+	 */
+	public GzipDecompressor() {
+		this(null);
+	}
+
+	/**
+	 * Create a {@link GzipDecompressor} that inflates BGZF files in parallel.
+	 *
+	 * @param executor the executor to inflate BGZF blocks on, or null to inflate every file in a single stream
+	 */
+	public GzipDecompressor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Decompress a gzip compressed file.
+	 *
+	 * @param source the gzip compressed file
+	 * @param target the file to write the uncompressed contents to. The file must not already exist.
+	 * @return the SHA-256 checksum of the uncompressed contents, as a hex string
+	 * @throws IOException if the source isn't a valid gzip file or either file can't be read or written
+	 */
+	public String decompress(Path source, Path target) throws IOException {
+		MessageDigest digest = DigestUtils.getSha256Digest();
+
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+						StandardOpenOption.WRITE)) {
+			long position = 0;
+
+			if (executor != null && readBgzfBlockSize(in, 0) > 0) {
+				logger.trace("Inflating BGZF file [" + source + "] in parallel.");
+				position = inflateBgzfBlocks(in, out, digest);
+			}
+
+			if (position < in.size()) {
+				logger.trace("Inflating gzip file [" + source + "] from offset " + position + " in a single stream.");
+				inflateStream(in.position(position), out, digest);
+			}
+		}
+
+		return Hex.encodeHexString(digest.digest());
+	}
+
+	/**
+	 * Inflate BGZF blocks in parallel from the start of the file until the end of the file or a gzip member that isn't
+	 * a BGZF block.
+	 *
+	 * @param in     the compressed file
+	 * @param out    the file to write the uncompressed contents to
+	 * @param digest the digest to update with the uncompressed contents
+	 * @return the offset in the compressed file where inflating stopped
+	 * @throws IOException if the file can't be read or written, or a block is corrupt
+	 */
+	private long inflateBgzfBlocks(FileChannel in, FileChannel out, MessageDigest digest) throws IOException {
+		Deque<CompletableFuture<ByteBuffer>> pending = new ArrayDeque<>();
+		long position = 0;
+		int blockSize;
+
+		do {
+			List<ByteBuffer> blocks = new ArrayList<>(BLOCKS_PER_TASK);
+			while (blocks.size() < BLOCKS_PER_TASK && (blockSize = readBgzfBlockSize(in, position)) > 0) {
+				blocks.add(readFully(in, position, blockSize));
+				position += blockSize;
+			}
+
+			if (!blocks.isEmpty()) {
+				pending.add(CompletableFuture.supplyAsync(() -> inflateBlocks(blocks), executor));
+			}
+
+			if (pending.size() >= MAX_TASKS_IN_FLIGHT || (blocks.size() < BLOCKS_PER_TASK && !pending.isEmpty())) {
+				writeFully(out, join(pending.remove()), digest);
+			}
+		} while (!pending.isEmpty());
+
+		return position;
+	}
+
+	/**
+	 * Inflate a set of complete BGZF blocks.
+	 *
+	 * @param blocks the blocks to inflate, each holding the entire gzip member
+	 * @return the uncompressed contents of all of the blocks, in order
+	 */
+	private static ByteBuffer inflateBlocks(List<ByteBuffer> blocks) {
+		int totalSize = 0;
+		for (ByteBuffer block : blocks) {
+			int blockSize = block.getInt(block.limit() - 4);
+			if (blockSize < 0 || blockSize > MAX_BLOCK_SIZE) {
+				throw new UncheckedIOException(new IOException("Corrupt BGZF block: invalid uncompressed size."));
+			}
+			totalSize += blockSize;
+		}
+
+		byte[] uncompressed = new byte[totalSize];
+		Inflater inflater = new Inflater(true);
+		CRC32 crc = new CRC32();
+
+		try {
+			int offset = 0;
+			for (ByteBuffer block : blocks) {
+				int extraLength = Short.toUnsignedInt(block.getShort(10));
+				int dataOffset = GZIP_HEADER_SIZE + extraLength;
+				int dataLength = block.limit() - dataOffset - GZIP_TRAILER_SIZE;
+				int expectedCrc = block.getInt(block.limit() - 8);
+				int expectedSize = block.getInt(block.limit() - 4);
+
+				inflater.reset();
+				inflater.setInput(block.array(), dataOffset, dataLength);
+				int inflated = 0;
+				while (inflated < expectedSize && !inflater.finished()) {
+					int count = inflater.inflate(uncompressed, offset + inflated, expectedSize - inflated);
+					if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					inflated += count;
+				}
+
+				crc.reset();
+				crc.update(uncompressed, offset, inflated);
+				if (inflated != expectedSize || (int) crc.getValue() != expectedCrc) {
+					throw new IOException("Corrupt BGZF block: size or checksum doesn't match the block trailer.");
+				}
+
+				offset += inflated;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (DataFormatException e) {
+			throw new UncheckedIOException(new IOException("Corrupt BGZF block.", e));
+		} finally {
+			inflater.end();
+		}
+
+		return ByteBuffer.wrap(uncompressed);
+	}
+
+	/**
+	 * Inflate the remainder of a gzip file from the channel's current position in a single stream.
+	 *
+	 * @param in     the compressed file, positioned at the start of a gzip member
+	 * @param out    the file to write the uncompressed contents to
+	 * @param digest the digest to update with the uncompressed contents
+	 * @throws IOException if the file can't be read or written, or isn't valid gzip
+	 */
+	private static void inflateStream(FileChannel in, FileChannel out, MessageDigest digest) throws IOException {
+		// don't close the stream here, the channels are closed by the caller
+		InputStream gzipStream = new GZIPInputStream(Channels.newInputStream(in), STREAM_BUFFER_SIZE);
+		byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+		int read;
+		while ((read = gzipStream.read(buffer)) != -1) {
+			writeFully(out, ByteBuffer.wrap(buffer, 0, read), digest);
+		}
+	}
+
+	/**
+	 * Read the total size of the BGZF block starting at the given offset.
+	 *
+	 * @param in       the compressed file
+	 * @param position the offset of the start of a gzip member
+	 * @return the size of the block including its header and trailer, or -1 if the file ends or the member isn't a BGZF
+	 * block
+	 * @throws IOException if the file can't be read
+	 */
+	private static int readBgzfBlockSize(FileChannel in, long position) throws IOException {
+		if (in.size() - position < GZIP_HEADER_SIZE) {
+			return -1;
+		}
+
+		ByteBuffer header = readFully(in, position, GZIP_HEADER_SIZE);
+		if (header.get(0) != (byte) 31 || header.get(1) != (byte) 139 || header.get(2) != 8
+				|| (header.get(3) & FLAG_EXTRA) == 0) {
+			return -1;
+		}
+
+		int extraLength = Short.toUnsignedInt(header.getShort(10));
+		if (in.size() - position < GZIP_HEADER_SIZE + extraLength) {
+			return -1;
+		}
+
+		// look for the "BC" subfield holding the block size
+		ByteBuffer extra = readFully(in, position + GZIP_HEADER_SIZE, extraLength);
+		while (extra.remaining() >= 4) {
+			byte subfieldId1 = extra.get();
+			byte subfieldId2 = extra.get();
+			int subfieldLength = Short.toUnsignedInt(extra.getShort());
+
+			if (subfieldId1 == 'B' && subfieldId2 == 'C' && subfieldLength == 2 && extra.remaining() >= 2) {
+				int blockSize = Short.toUnsignedInt(extra.getShort()) + 1;
+				if (blockSize < GZIP_HEADER_SIZE + extraLength + GZIP_TRAILER_SIZE || blockSize > MAX_BLOCK_SIZE
+						|| in.size() - position < blockSize) {
+					return -1;
+				}
+				return blockSize;
+			}
+
+			if (extra.remaining() < subfieldLength) {
+				break;
+			}
+			extra.position(extra.position() + subfieldLength);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Read an exact number of bytes at an offset in the file into a little-endian heap buffer.
+	 *
+	 * @param in       the file to read
+	 * @param position the offset to start reading at
+	 * @param length   the number of bytes to read
+	 * @return the bytes read
+	 * @throws IOException if the file can't be read or ends early
+	 */
+	private static ByteBuffer readFully(FileChannel in, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (in.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of gzip file.");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Write all of a buffer to the file, adding the written bytes to a digest.
+	 *
+	 * @param out    the file to write to
+	 * @param buffer the bytes to write
+	 * @param digest the digest to update with the written bytes
+	 * @throws IOException if the file can't be written
+	 */
+	private static void writeFully(FileChannel out, ByteBuffer buffer, MessageDigest digest) throws IOException {
+		digest.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	/**
+	 * Wait for an inflate task, unwrapping any {@link IOException} it failed with.
+	 *
+	 * @param future the task to wait for
+	 * @return the uncompressed contents
+	 * @throws IOException if the task failed
+	 */
+	private static ByteBuffer join(CompletableFuture<ByteBuffer> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			}
+			throw new IOException("Failed to inflate BGZF blocks.", e.getCause());
+		}
+	}
+}
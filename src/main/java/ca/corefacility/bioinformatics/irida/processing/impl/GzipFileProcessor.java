@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.Executor;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.Fast5Object;
 import org.slf4j.Logger;
@@ -27,17 +27,25 @@ import ca.corefacility.bioinformatics.irida.util.FileUtils;
  * compressed file does not end with ".gz", then it will be renamed as such so
  * that the decompressed file name will not conflict with the compressed file
  * name.
+ * <p>
+ * If compressed files are kept at rest (see
+ * {@link #setKeepCompressedFiles(boolean)}), gzip compressed files are only
+ * renamed to end with ".gz" so that consumers recognizing compressed files by
+ * name (FastQC, file concatenation, Galaxy uploads) read them correctly.
+ * </p>
  *
  *
  */
 @Component
 public class GzipFileProcessor implements FileProcessor {
 	private static final Logger logger = LoggerFactory.getLogger(GzipFileProcessor.class);
-	private static final String GZIP_EXTENSION = ".gz";
+	static final String GZIP_EXTENSION = ".gz";
 
 	private final SequenceFileRepository sequenceFileRepository;
 	private boolean disableFileProcessor = false;
 	private boolean removeCompressedFile;
+	private boolean keepCompressedFiles = false;
+	private GzipDecompressor decompressor = new GzipDecompressor();
 
 	@Autowired
 	public GzipFileProcessor(final SequenceFileRepository sequenceFileRepository) {
@@ -62,6 +70,37 @@ public class GzipFileProcessor implements FileProcessor {
 		this.removeCompressedFile = removeCompressedFile;
 	}
 
+	/**
+	 * Whether the original compressed files are deleted once they're unzipped.
+	 *
+	 * @return true if original compressed files are deleted
+	 */
+	public boolean isRemoveCompressedFiles() {
+		return removeCompressedFile;
+	}
+
+	/**
+	 * Decide whether gzip compressed files should be kept compressed at rest
+	 * instead of being decompressed. If <code>true</code> compressed files are
+	 * only renamed to end with ".gz".
+	 *
+	 * @param keepCompressedFiles
+	 *            Whether or not to keep compressed files compressed.
+	 */
+	public void setKeepCompressedFiles(boolean keepCompressedFiles) {
+		this.keepCompressedFiles = keepCompressedFiles;
+	}
+
+	/**
+	 * Set the executor used to decompress blocked gzip (BGZF) files in parallel. If no executor is set, files are
+	 * decompressed in a single stream.
+	 *
+	 * @param decompressionExecutor the executor to decompress files with
+	 */
+	public void setDecompressionExecutor(Executor decompressionExecutor) {
+		this.decompressor = new GzipDecompressor(decompressionExecutor);
+	}
+
 	/**
 	 * Disables this file processor from processing files.
 	 *
@@ -112,32 +151,49 @@ public class GzipFileProcessor implements FileProcessor {
 		try {
 			logger.trace("About to try handling a gzip file.");
 			if (FileUtils.isGzipped(file)) {
-				file = addExtensionToFilename(file, GZIP_EXTENSION);
-
-				try (GZIPInputStream zippedInputStream = new GZIPInputStream(Files.newInputStream(file))) {
-					logger.trace("Handling gzip compressed file.");
-
-					Path targetDirectory = Files.createTempDirectory(null);
-					Path target = targetDirectory.resolve(nameWithoutExtension);
-					logger.debug("Target directory is [" + targetDirectory + "]");
-					logger.debug("Writing uncompressed file to [" + target + "]");
-
-					Files.copy(zippedInputStream, target);
-
-					sequenceFile.setFile(target);
-					sequenceFile = sequenceFileRepository.save(sequenceFile);
-
-					if (removeCompressedFile) {
-						logger.debug(
-								"Removing original compressed files [file.processing.decompress.remove.compressed.file=true]");
-						try {
-							Files.delete(file);
-						} catch (final Exception e) {
-							logger.error("Failed to remove the original compressed file.", e);
-							// throw the exception again to be caught by the
-							// outer try/catch block:
-							throw e;
-						}
+				Path compressedFile = addExtensionToFilename(file, GZIP_EXTENSION);
+
+				if (keepCompressedFiles) {
+					if (!compressedFile.equals(file)) {
+						logger.debug("Keeping compressed file as [" + compressedFile
+								+ "] [file.processing.decompress=false]");
+						sequenceFile.setFile(compressedFile);
+						sequenceFileRepository.save(sequenceFile);
+					}
+					return;
+				}
+
+				file = compressedFile;
+
+				logger.trace("Handling gzip compressed file.");
+
+				Path targetDirectory = Files.createTempDirectory(null);
+				Path target = targetDirectory.resolve(nameWithoutExtension);
+				logger.debug("Target directory is [" + targetDirectory + "]");
+				logger.debug("Writing uncompressed file to [" + target + "]");
+
+				String uncompressedSha256 = decompressor.decompress(file, target);
+
+				// the checksum is of the compressed content
+				String compressedSha256 = sequenceFile.getUploadSha256();
+				sequenceFile.setFile(target);
+				sequenceFile.setProcessedSha256(uncompressedSha256);
+				sequenceFile = sequenceFileRepository.save(sequenceFile);
+
+				// identical uploads share the uncompressed revision too
+				sequenceFileRepository.deduplicateFile(sequenceFile.getFile(), uncompressedSha256);
+
+				if (removeCompressedFile) {
+					logger.debug(
+							"Removing original compressed files [file.processing.decompress.remove.compressed.file=true]");
+					try {
+						Files.delete(file);
+						sequenceFileRepository.releaseStoredFile(compressedSha256);
+					} catch (final Exception e) {
+						logger.error("Failed to remove the original compressed file.", e);
+						// throw the exception again to be caught by the
+						// outer try/catch block:
+						throw e;
 					}
 				}
 			}
@@ -154,7 +210,7 @@ public class GzipFileProcessor implements FileProcessor {
 	 *            the file to handle.
 	 * @return the modified (or not) file.
 	 */
-	private Path addExtensionToFilename(Path file, String extension) throws IOException {
+	Path addExtensionToFilename(Path file, String extension) throws IOException {
 		String currentName = file.toString();
 		if (!currentName.endsWith(extension)) {
 			String modifiedName = new StringBuilder(currentName).append(extension).toString();
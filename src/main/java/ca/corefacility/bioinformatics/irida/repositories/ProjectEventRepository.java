@@ -17,7 +17,7 @@ import ca.corefacility.bioinformatics.irida.model.user.User;
  * 
  *
  */
-public interface ProjectEventRepository extends IridaJpaRepository<ProjectEvent, Long> {
+public interface ProjectEventRepository extends IridaJpaRepository<ProjectEvent, Long>, ProjectEventRepositoryCustom {
 
 	/**
 	 * Query to get events for the specified user
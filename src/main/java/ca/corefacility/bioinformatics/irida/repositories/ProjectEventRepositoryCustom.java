@@ -0,0 +1,18 @@
+package ca.corefacility.bioinformatics.irida.repositories;
+
+import java.util.Collection;
+
+import ca.corefacility.bioinformatics.irida.model.event.ProjectEvent;
+
+/**
+ * Custom repository methods for {@link ProjectEventRepository}
+ */
+public interface ProjectEventRepositoryCustom {
+
+	/**
+	 * Insert a set of new {@link ProjectEvent}s with a single JDBC batch. The events are not given identifiers.
+	 *
+	 * @param events the {@link ProjectEvent}s to insert
+	 */
+	public void insertEvents(Collection<? extends ProjectEvent> events);
+}
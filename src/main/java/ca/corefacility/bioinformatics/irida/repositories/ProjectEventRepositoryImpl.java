@@ -0,0 +1,113 @@
+package ca.corefacility.bioinformatics.irida.repositories;
+
+import java.util.Collection;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import ca.corefacility.bioinformatics.irida.model.enums.UserGroupRemovedProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.DataAddedToSampleProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.ProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.SampleAddedProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.SampleRemovedProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.UserGroupRoleSetProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.UserRemovedProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.UserRoleSetProjectEvent;
+
+/**
+ * Impl of custom methods for {@link ProjectEventRepository}. {@link ProjectEvent}s use identity ids, which stops
+ * Hibernate from batching their inserts, so events are inserted here with plain JDBC.
+ */
+public class ProjectEventRepositoryImpl implements ProjectEventRepositoryCustom {
+
+	private static final String INSERT_EVENT = "INSERT INTO project_event (DTYPE, created_date, project_id, sample_id, sample_name, user_id, user_group_id, role) VALUES (:type, :createdDate, :project, :sample, :sampleName, :user, :userGroup, :role)";
+
+	private final EntityManager entityManager;
+	private final DataSource dataSource;
+
+	@Autowired
+	public ProjectEventRepositoryImpl(EntityManager entityManager, DataSource dataSource) {
+		this.entityManager = entityManager;
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional
+	public void insertEvents(Collection<? extends ProjectEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+
+		// the events reference projects, samples and users that may only be in the session so far
+		entityManager.flush();
+
+		MapSqlParameterSource[] parameters = events.stream()
+				.map(this::getParameters)
+				.toArray(MapSqlParameterSource[]::new);
+
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+		tmpl.batchUpdate(INSERT_EVENT, parameters);
+	}
+
+	/**
+	 * Get the column values to insert for a {@link ProjectEvent}
+	 *
+	 * @param event the {@link ProjectEvent} to insert
+	 * @return the parameters for {@link #INSERT_EVENT}
+	 */
+	private MapSqlParameterSource getParameters(ProjectEvent event) {
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+		parameters.addValue("type", entityManager.getMetamodel()
+				.entity(event.getClass())
+				.getName());
+		parameters.addValue("createdDate", event.getCreatedDate());
+		parameters.addValue("project", event.getProject()
+				.getId());
+		parameters.addValue("sample", null);
+		parameters.addValue("sampleName", null);
+		parameters.addValue("user", null);
+		parameters.addValue("userGroup", null);
+		parameters.addValue("role", null);
+
+		if (event instanceof SampleAddedProjectEvent) {
+			parameters.addValue("sample", ((SampleAddedProjectEvent) event).getSample()
+					.getId());
+		} else if (event instanceof DataAddedToSampleProjectEvent) {
+			parameters.addValue("sample", ((DataAddedToSampleProjectEvent) event).getSample()
+					.getId());
+		} else if (event instanceof SampleRemovedProjectEvent) {
+			parameters.addValue("sampleName", ((SampleRemovedProjectEvent) event).getSampleName());
+		} else if (event instanceof UserRoleSetProjectEvent) {
+			UserRoleSetProjectEvent userEvent = (UserRoleSetProjectEvent) event;
+			parameters.addValue("user", userEvent.getUser()
+					.getId());
+			parameters.addValue("role", userEvent.getRole()
+					.name());
+		} else if (event instanceof UserRemovedProjectEvent) {
+			parameters.addValue("user", ((UserRemovedProjectEvent) event).getUser()
+					.getId());
+		} else if (event instanceof UserGroupRoleSetProjectEvent) {
+			UserGroupRoleSetProjectEvent groupEvent = (UserGroupRoleSetProjectEvent) event;
+			parameters.addValue("userGroup", groupEvent.getUserGroup()
+					.getId());
+			parameters.addValue("role", groupEvent.getRole()
+					.name());
+		} else if (event instanceof UserGroupRemovedProjectEvent) {
+			parameters.addValue("userGroup", ((UserGroupRemovedProjectEvent) event).getUserGroup()
+					.getId());
+		} else {
+			throw new IllegalArgumentException("Cannot insert project event of type " + event.getClass()
+					.getName());
+		}
+
+		return parameters;
+	}
+}
@@ -1,6 +1,7 @@
 package ca.corefacility.bioinformatics.irida.repositories;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import ca.corefacility.bioinformatics.irida.model.enums.ProjectRole;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus.SyncStatus;
 import ca.corefacility.bioinformatics.irida.model.user.User;
@@ -16,7 +18,7 @@ import ca.corefacility.bioinformatics.irida.model.user.User;
  * Specialized repository for {@link Project}.
  * 
  */
-public interface ProjectRepository extends IridaJpaRepository<Project, Long> {
+public interface ProjectRepository extends IridaJpaRepository<Project, Long>, ProjectRepositoryCustom {
 
 	/**
 	 * Sub-expressions for filtering and paging projects on different property
@@ -31,6 +33,9 @@ public interface ProjectRepository extends IridaJpaRepository<Project, Long> {
 	static final String USER_ON_PROJECT = "(p in (select puj.project from ProjectUserJoin puj where puj.user = :forUser))";
 	static final String USER_IN_GROUP = "(p in (select ugpj.project from UserGroupJoin ugj, UserGroupProjectJoin ugpj where ugj.group = ugpj.userGroup and ugj.user = :forUser))";
 	static final String PROJECT_PERMISSIONS = "(" + USER_ON_PROJECT + " or " + USER_IN_GROUP + ")";
+	static final String USER_ROLE_ON_PROJECT = "(p in (select puj.project from ProjectUserJoin puj where puj.user = :forUser and puj.projectRole = :role))";
+	static final String USER_ROLE_IN_GROUP = "(p in (select ugpj.project from UserGroupJoin ugj, UserGroupProjectJoin ugpj where ugj.group = ugpj.userGroup and ugj.user = :forUser and ugpj.projectRole = :role))";
+	static final String PROJECT_ROLE_PERMISSIONS = "(" + USER_ROLE_ON_PROJECT + " or " + USER_ROLE_IN_GROUP + ")";
 
 	/**
 	 * Load up a page of {@link Project}s, excluding the specified
@@ -67,6 +72,32 @@ public interface ProjectRepository extends IridaJpaRepository<Project, Long> {
 	public Page<Project> findProjectsByNameExcludingProjectForUser(final @Param("projectName") String name,
 			final @Param("exclude") Project exclude, final @Param("forUser") User user, final Pageable page);
 
+	/**
+	 * Get the identifiers of all {@link Project}s that a {@link User} can read,
+	 * either by project membership or by user group membership.
+	 * 
+	 * @param user
+	 *            the user account to load project identifiers for
+	 * @return the identifiers of the readable projects
+	 */
+	@Query("select p.id from Project p where " + PROJECT_PERMISSIONS)
+	public Set<Long> findProjectIdsForUser(final @Param("forUser") User user);
+
+	/**
+	 * Get the identifiers of all local {@link Project}s where a {@link User}
+	 * has a {@link ProjectRole}, either by project membership or by user group
+	 * membership.
+	 * 
+	 * @param user
+	 *            the user account to load project identifiers for
+	 * @param role
+	 *            the role the user must have on the project
+	 * @return the identifiers of the local projects where the user has the role
+	 */
+	@Query("select p.id from Project p where p.remoteStatus is null and " + PROJECT_ROLE_PERMISSIONS)
+	public Set<Long> findLocalProjectIdsForUserWithRole(final @Param("forUser") User user,
+			final @Param("role") ProjectRole role);
+
 	/**
 	 * Get a list of {@link Project}s from remote sites that have a given
 	 * {@link SyncStatus}
@@ -0,0 +1,26 @@
+package ca.corefacility.bioinformatics.irida.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
+
+/**
+ * Custom repository methods for {@link ProjectRepository}
+ */
+public interface ProjectRepositoryCustom {
+
+	/**
+	 * Get a page of {@link ProjectSummary}s for the {@link Project}s matching a {@link Specification}. The projects
+	 * and their sample counts are read with one grouped query, so the page can be sorted by
+	 * {@link ProjectSummary#SAMPLES_SORT_PROPERTY}, and the member counts of the page with one more.
+	 *
+	 * @param specification the {@link Specification} the projects must match
+	 * @param pageable      the page to read, sorted by {@link Project} properties or
+	 *                      {@link ProjectSummary#SAMPLES_SORT_PROPERTY}
+	 * @return the page of summaries
+	 */
+	public Page<ProjectSummary> findProjectSummaries(Specification<Project> specification, Pageable pageable);
+}
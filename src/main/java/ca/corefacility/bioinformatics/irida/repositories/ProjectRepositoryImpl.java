@@ -0,0 +1,161 @@
+package ca.corefacility.bioinformatics.irida.repositories;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
+import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Impl of custom methods for {@link ProjectRepository}
+ */
+public class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+
+	/**
+	 * The most projects to count the members of with one query.
+	 */
+	private static final int MEMBER_COUNT_BATCH_SIZE = 1000;
+
+	private final EntityManager entityManager;
+
+	@Autowired
+	public ProjectRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<ProjectSummary> findProjectSummaries(Specification<Project> specification, Pageable pageable) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+		Root<Project> root = query.from(Project.class);
+		Join<Project, ProjectSampleJoin> samples = root.join("samples", JoinType.LEFT);
+		Join<Project, RemoteStatus> remoteStatus = root.join("remoteStatus", JoinType.LEFT);
+		Expression<Long> sampleCount = criteriaBuilder.count(samples.get("id"));
+
+		query.multiselect(root.get("id"), root.get("name"), root.get("organism"), root.get("createdDate"),
+				root.get("modifiedDate"), remoteStatus.get("url"), sampleCount);
+		Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.groupBy(root.get("id"), root.get("name"), root.get("organism"), root.get("createdDate"),
+				root.get("modifiedDate"), remoteStatus.get("url"));
+		query.orderBy(toOrders(pageable.getSort(), root, sampleCount, criteriaBuilder));
+
+		TypedQuery<Tuple> summaryQuery = entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			summaryQuery.setFirstResult((int) pageable.getOffset());
+			summaryQuery.setMaxResults(pageable.getPageSize());
+		}
+		List<Tuple> rows = summaryQuery.getResultList();
+
+		Map<Long, Long> memberCounts = countMembers(rows.stream()
+				.map(r -> r.get(0, Long.class))
+				.collect(Collectors.toList()));
+		List<ProjectSummary> summaries = rows.stream()
+				.map(r -> {
+					Long id = r.get(0, Long.class);
+					return new ProjectSummary(id, r.get(1, String.class), r.get(2, String.class),
+							r.get(3, Date.class), r.get(4, Date.class), r.get(5) != null, r.get(6, Long.class),
+							memberCounts.getOrDefault(id, 0L));
+				})
+				.collect(Collectors.toList());
+
+		return PageableExecutionUtils.getPage(summaries, pageable, () -> count(specification));
+	}
+
+	/**
+	 * Convert a {@link Sort} to criteria {@link Order}s, sorting {@link ProjectSummary#SAMPLES_SORT_PROPERTY} by the
+	 * number of samples and anything else by the {@link Project} property of the same name
+	 *
+	 * @param sort            the {@link Sort} to convert
+	 * @param root            the {@link Project} root of the query
+	 * @param sampleCount     the number of samples expression of the query
+	 * @param criteriaBuilder the {@link CriteriaBuilder}
+	 * @return the orders
+	 */
+	private List<Order> toOrders(Sort sort, Root<Project> root, Expression<Long> sampleCount,
+			CriteriaBuilder criteriaBuilder) {
+		List<Order> orders = new ArrayList<>();
+		for (Sort.Order order : sort) {
+			Expression<?> expression = ProjectSummary.SAMPLES_SORT_PROPERTY.equals(order.getProperty()) ?
+					sampleCount :
+					root.get(order.getProperty());
+			orders.add(order.isAscending() ? criteriaBuilder.asc(expression) : criteriaBuilder.desc(expression));
+		}
+		// the same projects would otherwise be able to appear on two pages when sorting by a shared value
+		orders.add(criteriaBuilder.asc(root.get("id")));
+		return orders;
+	}
+
+	/**
+	 * Count the individual members of a set of {@link Project}s
+	 *
+	 * @param projectIds the identifiers of the projects
+	 * @return the number of members, keyed by project id. Projects without members are left out.
+	 */
+	private Map<Long, Long> countMembers(List<Long> projectIds) {
+		Map<Long, Long> counts = new HashMap<>();
+		for (List<Long> batch : Lists.partition(projectIds, MEMBER_COUNT_BATCH_SIZE)) {
+			List<Object[]> rows = entityManager.createQuery(
+					"select j.project.id, count(j.id) from ProjectUserJoin j where j.project.id in :projects group by j.project.id",
+					Object[].class)
+					.setParameter("projects", batch)
+					.getResultList();
+			rows.forEach(r -> counts.put((Long) r[0], (Long) r[1]));
+		}
+		return counts;
+	}
+
+	/**
+	 * Count the {@link Project}s matching a {@link Specification}
+	 *
+	 * @param specification the {@link Specification} the projects must match
+	 * @return the number of matching projects
+	 */
+	private long count(Specification<Project> specification) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+		Root<Project> root = query.from(Project.class);
+		query.select(criteriaBuilder.count(root));
+		Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+
+		return entityManager.createQuery(query)
+				.getSingleResult();
+	}
+}
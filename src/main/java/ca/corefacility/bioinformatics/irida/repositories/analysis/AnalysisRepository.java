@@ -1,5 +1,8 @@
 package ca.corefacility.bioinformatics.irida.repositories.analysis;
 
+import java.util.Collection;
+import java.util.List;
+
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.Analysis;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFastQC;
@@ -22,4 +25,15 @@ public interface AnalysisRepository extends IridaJpaRepository<Analysis, Long> {
 	 */
 	@Query("select f.fastqcAnalysis from SequenceFile f where f = ?1")
 	public AnalysisFastQC findFastqcAnalysisForSequenceFile(final SequenceFile sequenceFile);
+
+	/**
+	 * Get the total bases counted by FastQC for a set of files, with one
+	 * query. Files without a fastqc analysis are left out.
+	 * 
+	 * @param sequenceFiles
+	 *            the files to get the total bases of
+	 * @return pairs of the file id and its total bases
+	 */
+	@Query("select f.id, a.totalBases from SequenceFile f join f.fastqcAnalysis a where f in ?1 and a.totalBases is not null")
+	public List<Object[]> findFastqcTotalBasesForSequenceFiles(final Collection<SequenceFile> sequenceFiles);
 }
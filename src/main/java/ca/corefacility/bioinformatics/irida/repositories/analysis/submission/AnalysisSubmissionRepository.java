@@ -5,6 +5,10 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 
 import ca.corefacility.bioinformatics.irida.model.enums.AnalysisCleanedState;
@@ -15,6 +19,7 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.model.user.User;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.Analysis;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.ProjectSampleAnalysisOutputInfo;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisAdmissionQueue;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
 import ca.corefacility.bioinformatics.irida.repositories.IridaJpaRepository;
 
@@ -24,6 +29,17 @@ import ca.corefacility.bioinformatics.irida.repositories.IridaJpaRepository;
  *
  */
 public interface AnalysisSubmissionRepository extends IridaJpaRepository<AnalysisSubmission, Long> {
+	/**
+	 * Get a page of the {@link AnalysisSubmission}s matching a {@link Specification}, loading the submitter, analysis,
+	 * reference file and named parameters of the page in the same query.
+	 *
+	 * @param specification the {@link Specification} the submissions must match
+	 * @param pageable      the page to read
+	 * @return the page of submissions
+	 */
+	@Override
+	@EntityGraph(AnalysisSubmission.LISTING_GRAPH)
+	public Page<AnalysisSubmission> findAll(Specification<AnalysisSubmission> specification, Pageable pageable);
 
 	/**
 	 * Loads up a list of {@link AnalysisSubmission}s with the given state.
@@ -128,6 +144,70 @@ public interface AnalysisSubmissionRepository extends IridaJpaRepository<Analysi
 	@Query("FROM AnalysisSubmission s WHERE ?1 = referenceFile")
 	public Set<AnalysisSubmission> findByReferenceFile(ReferenceFile file);
 
+	/**
+	 * Count the {@link AnalysisSubmission}s in the given states for each submitter, workflow and priority.
+	 *
+	 * @param states the states of the submissions to count
+	 * @return an {@link AnalysisAdmissionQueue} owned by the submitter for each submitter, workflow and priority
+	 */
+	@Query("select new ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisAdmissionQueue(s.submitter.id, s.workflowId, s.priority, count(s.id), min(s.createdDate)) from AnalysisSubmission s where s.analysisState in ?1 group by s.submitter.id, s.workflowId, s.priority")
+	public List<AnalysisAdmissionQueue> countBySubmitterWorkflowAndPriority(Collection<AnalysisState> states);
+
+	/**
+	 * Count the {@link AnalysisSubmission}s in the given states for each project they are shared with, workflow and
+	 * priority. Submissions shared with more than one project are counted for each project, and submissions that
+	 * aren't shared with any project are counted with a null project.
+	 *
+	 * @param states the states of the submissions to count
+	 * @return an {@link AnalysisAdmissionQueue} owned by the project for each project, workflow and priority
+	 */
+	@Query("select new ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisAdmissionQueue(p.project.id, s.workflowId, s.priority, count(s.id), min(s.createdDate)) from AnalysisSubmission s left join s.projects p where s.analysisState in ?1 group by p.project.id, s.workflowId, s.priority")
+	public List<AnalysisAdmissionQueue> countByProjectWorkflowAndPriority(Collection<AnalysisState> states);
+
+	/**
+	 * Get the identifiers of the oldest {@link AnalysisSubmission}s in a state from one submitter, workflow and
+	 * priority.
+	 *
+	 * @param state       the state of the submissions
+	 * @param submitterId the identifier of the submitter
+	 * @param workflowId  the workflow of the submissions
+	 * @param priority    the priority of the submissions
+	 * @param page        the number of identifiers to get
+	 * @return the submission identifiers, oldest first
+	 */
+	@Query("select s.id from AnalysisSubmission s where s.analysisState = ?1 and s.submitter.id = ?2 and s.workflowId = ?3 and s.priority = ?4 order by s.createdDate, s.id")
+	public List<Long> findIdsBySubmitterWorkflowAndPriority(AnalysisState state, Long submitterId, UUID workflowId,
+			AnalysisSubmission.Priority priority, Pageable page);
+
+	/**
+	 * Get the identifiers of the oldest {@link AnalysisSubmission}s in a state shared with one project, from one
+	 * workflow and priority.
+	 *
+	 * @param state      the state of the submissions
+	 * @param projectId  the identifier of the project the submissions are shared with
+	 * @param workflowId the workflow of the submissions
+	 * @param priority   the priority of the submissions
+	 * @param page       the number of identifiers to get
+	 * @return the submission identifiers, oldest first
+	 */
+	@Query("select s.id from AnalysisSubmission s join s.projects p where s.analysisState = ?1 and p.project.id = ?2 and s.workflowId = ?3 and s.priority = ?4 order by s.createdDate, s.id")
+	public List<Long> findIdsByProjectWorkflowAndPriority(AnalysisState state, Long projectId, UUID workflowId,
+			AnalysisSubmission.Priority priority, Pageable page);
+
+	/**
+	 * Get the identifiers of the oldest {@link AnalysisSubmission}s in a state that aren't shared with any project,
+	 * from one workflow and priority.
+	 *
+	 * @param state      the state of the submissions
+	 * @param workflowId the workflow of the submissions
+	 * @param priority   the priority of the submissions
+	 * @param page       the number of identifiers to get
+	 * @return the submission identifiers, oldest first
+	 */
+	@Query("select s.id from AnalysisSubmission s where s.analysisState = ?1 and s.projects is empty and s.workflowId = ?2 and s.priority = ?3 order by s.createdDate, s.id")
+	public List<Long> findIdsWithoutProjectByWorkflowAndPriority(AnalysisState state, UUID workflowId,
+			AnalysisSubmission.Priority priority, Pageable page);
+
 	/**
 	 * Get all {@link ca.corefacility.bioinformatics.irida.model.user.User} generated analysis output information.
 	 *
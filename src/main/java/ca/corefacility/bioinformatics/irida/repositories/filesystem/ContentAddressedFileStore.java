@@ -0,0 +1,189 @@
+package ca.corefacility.bioinformatics.irida.repositories.filesystem;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the content of files kept by a {@link FilesystemSupplementedRepositoryImpl} once for each SHA-256 checksum.
+ * The stored content, or blob, of a checksum lives in <code>.sha256/ab/abcdef...</code> under the repository's base
+ * directory, and every revision directory holding the same content has a hard link to the blob instead of a copy.
+ * <p>
+ * The filesystem's link count is the reference count of a blob: a blob only linked from the store itself isn't used
+ * by any file anymore and is deleted when it's released. Files on a filesystem without hard links are stored as they
+ * always were.
+ */
+public class ContentAddressedFileStore {
+	private static final Logger logger = LoggerFactory.getLogger(ContentAddressedFileStore.class);
+
+	/**
+	 * The directory under the base directory that blobs are stored in.
+	 */
+	public static final String STORE_DIRECTORY = ".sha256";
+
+	private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+	private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+	private final Path storeDirectory;
+	private final boolean enabled;
+
+	/**
+	 * Create a store for the files of a base directory
+	 *
+	 * @param baseDirectory the base directory of the repository
+	 * @param enabled       whether to store content once, if false files are left as they are
+	 */
+	public ContentAddressedFileStore(Path baseDirectory, boolean enabled) {
+		this.storeDirectory = baseDirectory.resolve(STORE_DIRECTORY);
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Store the content of a file in the base directory once. If content with the same checksum is already stored
+	 * the file is replaced with a link to it, otherwise the file becomes the stored content.
+	 *
+	 * @param file   the file to store
+	 * @param sha256 the SHA-256 checksum of the file's content
+	 * @return true if the file now shares content that was already stored, false otherwise
+	 */
+	public boolean deduplicate(Path file, String sha256) {
+		Path blob = blobPath(sha256);
+		if (blob == null) {
+			return false;
+		}
+
+		try {
+			Files.createDirectories(blob.getParent());
+			try {
+				Files.createLink(blob, file);
+				logger.trace("Stored content of [" + file + "] as [" + blob + "]");
+				return false;
+			} catch (FileAlreadyExistsException e) {
+				// the content is already stored, link to it below
+			}
+
+			if (Files.isSameFile(blob, file)) {
+				return true;
+			}
+			if (Files.size(blob) != Files.size(file)) {
+				logger.warn("Stored content [" + blob + "] has a different size than [" + file + "], not linking");
+				return false;
+			}
+
+			// link beside the file first so the file is replaced in one step
+			Path link = file.resolveSibling("." + file.getFileName() + ".link");
+			Files.deleteIfExists(link);
+			Files.createLink(link, blob);
+			Files.move(link, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.debug("Replaced [" + file + "] with a link to stored content [" + blob + "]");
+			return true;
+		} catch (NoSuchFileException e) {
+			// the blob was released while linking to it
+			logger.debug("Stored content [" + blob + "] was removed while linking [" + file + "]");
+			return false;
+		} catch (IOException | UnsupportedOperationException e) {
+			logger.warn("Could not store content of [" + file + "] once, keeping the file as it is: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Delete the links to stored content left in the directory of a file that was deleted, then release the
+	 * content. Files in the directory that don't share the stored content are kept.
+	 *
+	 * @param fileDirectory the directory holding every revision of the deleted file, relative to the base directory
+	 * @param sha256        the SHA-256 checksum of the deleted file's content
+	 */
+	public void remove(Path fileDirectory, String sha256) {
+		Path blob = blobPath(sha256);
+		if (blob == null) {
+			return;
+		}
+
+		Path directory = storeDirectory.resolveSibling(fileDirectory);
+		if (Files.isDirectory(directory) && Files.exists(blob)) {
+			try (Stream<Path> paths = Files.walk(directory)) {
+				// deepest paths first, so revision directories are empty by the time they're reached
+				List<Path> files = paths.sorted(Comparator.reverseOrder())
+						.collect(Collectors.toList());
+				for (Path file : files) {
+					if (Files.isDirectory(file)) {
+						deleteDirectory(file);
+					} else if (Files.isSameFile(file, blob)) {
+						Files.delete(file);
+						logger.trace("Deleted link [" + file + "] to stored content [" + blob + "]");
+					}
+				}
+			} catch (IOException e) {
+				logger.warn("Could not remove links to stored content [" + blob + "] from [" + directory + "]: "
+						+ e.getMessage());
+			}
+		}
+
+		release(sha256);
+	}
+
+	/**
+	 * Delete stored content if no file links to it anymore. Call after deleting a file that may have been stored.
+	 *
+	 * @param sha256 the SHA-256 checksum of the content
+	 */
+	public void release(String sha256) {
+		Path blob = blobPath(sha256);
+		if (blob == null) {
+			return;
+		}
+
+		try {
+			if (Files.exists(blob) && ((Number) Files.getAttribute(blob, LINK_COUNT_ATTRIBUTE)).intValue() <= 1) {
+				Files.deleteIfExists(blob);
+				logger.debug("Deleted stored content [" + blob + "] that is no longer used");
+			}
+		} catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+			// without a link count the content can't be known to be unused
+			logger.debug("Not releasing stored content [" + blob + "]: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get where the content with a checksum is stored
+	 *
+	 * @param sha256 the SHA-256 checksum
+	 * @return the path of the blob, or null if the store is disabled or the checksum isn't a SHA-256 hex digest
+	 */
+	private Path blobPath(String sha256) {
+		if (!enabled || sha256 == null || !SHA256_PATTERN.matcher(sha256)
+				.matches()) {
+			return null;
+		}
+		return storeDirectory.resolve(sha256.substring(0, 2))
+				.resolve(sha256);
+	}
+
+	/**
+	 * Delete an empty directory, ignoring failures
+	 *
+	 * @param directory the directory to delete
+	 */
+	private void deleteDirectory(Path directory) {
+		try {
+			Files.deleteIfExists(directory);
+		} catch (DirectoryNotEmptyException e) {
+			logger.debug("Not removing directory [" + directory + "], it isn't empty");
+		} catch (IOException e) {
+			logger.debug("Could not remove directory [" + directory + "]: " + e.getMessage());
+		}
+	}
+}
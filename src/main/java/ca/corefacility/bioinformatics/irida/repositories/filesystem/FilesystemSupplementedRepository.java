@@ -30,4 +30,25 @@ public interface FilesystemSupplementedRepository<Type extends VersionedFileFiel
 	 * @return the saved entity
 	 */
 	public Type saveMetadata(final Type entity);
-}
\ No newline at end of file
+
+	/**
+	 * Store the content of a file that has already been saved once, so that
+	 * files with the same content share it instead of keeping copies.
+	 * 
+	 * @param file
+	 *            the saved file
+	 * @param sha256
+	 *            the SHA-256 checksum of the file's content
+	 * @return true if the file now shares content that was already stored
+	 */
+	public boolean deduplicateFile(final Path file, final String sha256);
+
+	/**
+	 * Release stored content after deleting a file that may have shared it.
+	 * The content is deleted once no file shares it.
+	 * 
+	 * @param sha256
+	 *            the SHA-256 checksum of the deleted file's content
+	 */
+	public void releaseStoredFile(final String sha256);
+}
@@ -40,10 +40,28 @@ public abstract class FilesystemSupplementedRepositoryImpl<Type extends Versione
 
 	private final Path baseDirectory;
 	private final EntityManager entityManager;
+	private final ContentAddressedFileStore contentStore;
 
 	public FilesystemSupplementedRepositoryImpl(final EntityManager entityManager, final Path baseDirectory) {
+		this(entityManager, baseDirectory, null);
+	}
+
+	/**
+	 * Create a repository storing file content once for each checksum
+	 * 
+	 * @param entityManager
+	 *            the {@link EntityManager}
+	 * @param baseDirectory
+	 *            the directory to write files to
+	 * @param contentStore
+	 *            the {@link ContentAddressedFileStore} for the base
+	 *            directory, or null to always keep files as they are
+	 */
+	public FilesystemSupplementedRepositoryImpl(final EntityManager entityManager, final Path baseDirectory,
+			final ContentAddressedFileStore contentStore) {
 		this.entityManager = entityManager;
 		this.baseDirectory = baseDirectory;
+		this.contentStore = contentStore;
 	}
 
 	/**
@@ -185,6 +203,24 @@ public abstract class FilesystemSupplementedRepositoryImpl<Type extends Versione
 		return entityManager.merge(entity);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean deduplicateFile(final Path file, final String sha256) {
+		return contentStore != null && contentStore.deduplicate(file, sha256);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releaseStoredFile(final String sha256) {
+		if (contentStore != null) {
+			contentStore.release(sha256);
+		}
+	}
+
 	/**
 	 * Persist an entity to disk and database. Implementors of this method are
 	 * recommended to call
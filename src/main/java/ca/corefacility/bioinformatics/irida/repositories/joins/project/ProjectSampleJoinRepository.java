@@ -1,7 +1,13 @@
 package ca.corefacility.bioinformatics.irida.repositories.joins.project;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -17,7 +23,23 @@ import ca.corefacility.bioinformatics.irida.model.sample.Sample;
  * 
  * 
  */
-public interface ProjectSampleJoinRepository extends PagingAndSortingRepository<ProjectSampleJoin, Long>, JpaSpecificationExecutor<ProjectSampleJoin> {
+public interface ProjectSampleJoinRepository extends PagingAndSortingRepository<ProjectSampleJoin, Long>,
+		JpaSpecificationExecutor<ProjectSampleJoin>, ProjectSampleJoinRepositoryCustom {
+	/**
+	 * Get a page of the {@link ProjectSampleJoin}s matching a
+	 * {@link Specification}, loading the {@link Project} and {@link Sample} of
+	 * every join in the same query.
+	 *
+	 * @param specification
+	 *            the {@link Specification} the joins must match
+	 * @param pageable
+	 *            the page to read
+	 * @return the page of joins
+	 */
+	@Override
+	@EntityGraph(ProjectSampleJoin.PROJECT_AND_SAMPLE_GRAPH)
+	public Page<ProjectSampleJoin> findAll(Specification<ProjectSampleJoin> specification, Pageable pageable);
+
 	/**
 	 * Get a collection of the {@link Project}s related to a {@link Sample}
 	 * 
@@ -29,6 +51,56 @@ public interface ProjectSampleJoinRepository extends PagingAndSortingRepository<
 	@Query("select j from ProjectSampleJoin j where j.sample = ?1")
 	public List<Join<Project, Sample>> getProjectForSample(Sample sample);
 
+	/**
+	 * Get the identifiers of the {@link Sample}s that belong to any
+	 * {@link Project}.
+	 * 
+	 * @param samples
+	 *            the {@link Sample}s to check
+	 * @return the identifiers of the samples that belong to a project
+	 */
+	@Query("select distinct j.sample.id from ProjectSampleJoin j where j.sample in ?1")
+	public Set<Long> getSampleIdsInAnyProject(Collection<Sample> samples);
+
+	/**
+	 * Get the identifiers of the {@link Sample}s that belong to any of a set of
+	 * {@link Project}s.
+	 * 
+	 * @param samples
+	 *            the {@link Sample}s to check
+	 * @param projectIds
+	 *            the identifiers of the {@link Project}s
+	 * @return the identifiers of the samples that belong to one of the projects
+	 */
+	@Query("select distinct j.sample.id from ProjectSampleJoin j where j.sample in ?1 and j.project.id in ?2")
+	public Set<Long> getSampleIdsInProjects(Collection<Sample> samples, Collection<Long> projectIds);
+
+	/**
+	 * Get which of a set of {@link Sample} identifiers belong to any of a set
+	 * of {@link Project}s, without loading the samples.
+	 *
+	 * @param sampleIds
+	 *            the identifiers of the {@link Sample}s to check
+	 * @param projectIds
+	 *            the identifiers of the {@link Project}s
+	 * @return the identifiers of the samples that belong to one of the projects
+	 */
+	@Query("select distinct j.sample.id from ProjectSampleJoin j where j.sample.id in ?1 and j.project.id in ?2")
+	public Set<Long> getSampleIdsInProjectsById(Collection<Long> sampleIds, Collection<Long> projectIds);
+
+	/**
+	 * Get the identifiers of the {@link Sample}s that are owned by any of a set
+	 * of {@link Project}s.
+	 * 
+	 * @param sampleIds
+	 *            the identifiers of the {@link Sample}s to check
+	 * @param projectIds
+	 *            the identifiers of the {@link Project}s
+	 * @return the identifiers of the samples owned by one of the projects
+	 */
+	@Query("select distinct j.sample.id from ProjectSampleJoin j where j.sample.id in ?1 and j.owner = true and j.project.id in ?2")
+	public Set<Long> getSampleIdsOwnedByProjects(Collection<Long> sampleIds, Collection<Long> projectIds);
+
 	/**
 	 * Get a specific {@link ProjectSampleJoin} for a {@link Project} and
 	 * {@link Sample}
@@ -0,0 +1,45 @@
+package ca.corefacility.bioinformatics.irida.repositories.joins.project;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
+
+/**
+ * Custom methods for reading {@link ProjectSampleJoin}s as lightweight projections for listings.
+ */
+public interface ProjectSampleJoinRepositoryCustom {
+	/**
+	 * Get a page of {@link ProjectSampleRow}s for the {@link ProjectSampleJoin}s matching a {@link Specification}. The
+	 * rows are read with one query selecting only the listed columns, and a count query when the total isn't known
+	 * from the page itself.
+	 *
+	 * @param specification the {@link Specification} the joins must match
+	 * @param pageable      the page to read, sorted by properties of {@link ProjectSampleJoin} such as
+	 *                      <code>sample.sampleName</code>
+	 * @return the page of rows
+	 */
+	public Page<ProjectSampleRow> findProjectSampleRows(Specification<ProjectSampleJoin> specification,
+			Pageable pageable);
+
+	/**
+	 * Get the {@link ProjectSampleRow}s for the {@link ProjectSampleJoin}s matching a {@link Specification} that come
+	 * after a given join in the sort order, so a long listing can be read page by page without an offset or a count.
+	 * The join id is appended to the sort so every row has a single position, and rows already read are never read
+	 * again even if rows are added or removed between pages. Null values sort before every other value, as they do in
+	 * MySQL and MariaDB.
+	 *
+	 * @param specification the {@link Specification} the joins must match
+	 * @param sort          the order to read the rows in, by properties of {@link ProjectSampleJoin} such as
+	 *                      <code>sample.sampleName</code>
+	 * @param afterJoinId   the id of the last {@link ProjectSampleJoin} of the previous page, or null for the first page
+	 * @param limit         the maximum number of rows to read
+	 * @return the rows, and whether there are more to read
+	 */
+	public Slice<ProjectSampleRow> findProjectSampleRowsAfter(Specification<ProjectSampleJoin> specification,
+			Sort sort, Long afterJoinId, int limit);
+}
@@ -0,0 +1,277 @@
+package ca.corefacility.bioinformatics.irida.repositories.joins.project;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+
+/**
+ * Implementation of {@link ProjectSampleJoinRepositoryCustom} using the criteria API, so the same
+ * {@link Specification}s that filter {@link ProjectSampleJoin} entities filter the projections.
+ */
+public class ProjectSampleJoinRepositoryImpl implements ProjectSampleJoinRepositoryCustom {
+
+	private final EntityManager entityManager;
+
+	@Autowired
+	public ProjectSampleJoinRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<ProjectSampleRow> findProjectSampleRows(Specification<ProjectSampleJoin> specification,
+			Pageable pageable) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<ProjectSampleRow> query = criteriaBuilder.createQuery(ProjectSampleRow.class);
+		Root<ProjectSampleJoin> root = query.from(ProjectSampleJoin.class);
+		Join<ProjectSampleJoin, Project> project = root.join("project");
+		Join<ProjectSampleJoin, Sample> sample = root.join("sample");
+
+		query.select(selectRow(criteriaBuilder, root, project, sample));
+		Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+		TypedQuery<ProjectSampleRow> rowQuery = entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			rowQuery.setFirstResult((int) pageable.getOffset());
+			rowQuery.setMaxResults(pageable.getPageSize());
+		}
+		List<ProjectSampleRow> rows = rowQuery.getResultList();
+
+		return PageableExecutionUtils.getPage(rows, pageable, () -> count(specification));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Slice<ProjectSampleRow> findProjectSampleRowsAfter(Specification<ProjectSampleJoin> specification,
+			Sort sort, Long afterJoinId, int limit) {
+		Sort keysetSort = sort.and(Sort.by(Direction.ASC, "id"));
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<ProjectSampleRow> query = criteriaBuilder.createQuery(ProjectSampleRow.class);
+		Root<ProjectSampleJoin> root = query.from(ProjectSampleJoin.class);
+		Join<ProjectSampleJoin, Project> project = root.join("project");
+		Join<ProjectSampleJoin, Sample> sample = root.join("sample");
+
+		query.select(selectRow(criteriaBuilder, root, project, sample));
+
+		List<Predicate> predicates = new ArrayList<>();
+		Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			predicates.add(predicate);
+		}
+		List<Expression<?>> keys = new ArrayList<>();
+		List<Order> orders = new ArrayList<>();
+		for (Sort.Order order : keysetSort) {
+			Expression<?> key = getSortPath(order.getProperty(), root, project, sample);
+			keys.add(key);
+			orders.add(order.isAscending() ? criteriaBuilder.asc(key) : criteriaBuilder.desc(key));
+		}
+		if (afterJoinId != null) {
+			predicates.add(after(criteriaBuilder, keysetSort, keys, readSortValues(keysetSort, afterJoinId)));
+		}
+		query.where(predicates.toArray(new Predicate[predicates.size()]));
+		query.orderBy(orders);
+
+		// read one more row than asked for to know if there's another page without counting
+		List<ProjectSampleRow> rows = entityManager.createQuery(query)
+				.setMaxResults(limit + 1)
+				.getResultList();
+		boolean hasNext = rows.size() > limit;
+		if (hasNext) {
+			rows = new ArrayList<>(rows.subList(0, limit));
+		}
+
+		return new SliceImpl<>(rows, PageRequest.of(0, limit, sort), hasNext);
+	}
+
+	/**
+	 * Select the columns of a {@link ProjectSampleRow}
+	 *
+	 * @param criteriaBuilder the {@link CriteriaBuilder} of the query
+	 * @param root            the {@link ProjectSampleJoin} root of the query
+	 * @param project         the join to the {@link Project}
+	 * @param sample          the join to the {@link Sample}
+	 * @return the selection constructing the rows
+	 */
+	private CompoundSelection<ProjectSampleRow> selectRow(CriteriaBuilder criteriaBuilder,
+			Root<ProjectSampleJoin> root, Join<ProjectSampleJoin, Project> project,
+			Join<ProjectSampleJoin, Sample> sample) {
+		return criteriaBuilder.construct(ProjectSampleRow.class, root.get("id"), project.get("id"),
+				project.get("name"), sample.get("id"), sample.get("sampleName"), sample.get("organism"),
+				sample.get("createdDate"), sample.get("modifiedDate"), root.get("owner"));
+	}
+
+	/**
+	 * Get the path of a sort property, through the joins to the {@link Project} and {@link Sample} the query already
+	 * has rather than joining them again.
+	 *
+	 * @param property the sort property, such as <code>sample.sampleName</code>
+	 * @param root     the {@link ProjectSampleJoin} root of the query
+	 * @param project  the join to the {@link Project}
+	 * @param sample   the join to the {@link Sample}
+	 * @return the path of the property
+	 */
+	private Path<?> getSortPath(String property, Root<ProjectSampleJoin> root, Join<ProjectSampleJoin, Project> project,
+			Join<ProjectSampleJoin, Sample> sample) {
+		String[] parts = property.split("\\.");
+		Path<?> path = root;
+		int start = 0;
+		if (parts.length > 1 && parts[0].equals("project")) {
+			path = project;
+			start = 1;
+		} else if (parts.length > 1 && parts[0].equals("sample")) {
+			path = sample;
+			start = 1;
+		}
+		for (int i = start; i < parts.length; i++) {
+			path = path.get(parts[i]);
+		}
+		return path;
+	}
+
+	/**
+	 * Read the values of the sort properties of a {@link ProjectSampleJoin}, the position to continue reading after
+	 *
+	 * @param sort   the sort, ending with the join id
+	 * @param joinId the id of the {@link ProjectSampleJoin}
+	 * @return the value of each sort property in order
+	 */
+	private Object[] readSortValues(Sort sort, Long joinId) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+		Root<ProjectSampleJoin> root = query.from(ProjectSampleJoin.class);
+		Join<ProjectSampleJoin, Project> project = root.join("project");
+		Join<ProjectSampleJoin, Sample> sample = root.join("sample");
+
+		List<Selection<?>> keys = new ArrayList<>();
+		for (Sort.Order order : sort) {
+			keys.add(getSortPath(order.getProperty(), root, project, sample));
+		}
+		query.multiselect(keys);
+		query.where(criteriaBuilder.equal(root.get("id"), joinId));
+
+		List<Tuple> values = entityManager.createQuery(query)
+				.getResultList();
+		if (values.isEmpty()) {
+			throw new EntityNotFoundException("Cannot continue reading samples after project sample " + joinId
+					+ ", it has been removed");
+		}
+
+		return values.get(0)
+				.toArray();
+	}
+
+	/**
+	 * Build the predicate matching the rows that come after a position in the sort order: rows equal on the first
+	 * sort keys and after the position on the next one.
+	 *
+	 * @param criteriaBuilder the {@link CriteriaBuilder} of the query
+	 * @param sort            the sort, ending with the join id
+	 * @param keys            the expression of each sort property
+	 * @param values          the value of each sort property at the position
+	 * @return the predicate
+	 */
+	private Predicate after(CriteriaBuilder criteriaBuilder, Sort sort, List<Expression<?>> keys, Object[] values) {
+		List<Predicate> orPredicates = new ArrayList<>();
+		List<Predicate> equalPredicates = new ArrayList<>();
+		int i = 0;
+		for (Sort.Order order : sort) {
+			Expression<?> key = keys.get(i);
+			Object value = values[i];
+
+			List<Predicate> andPredicates = new ArrayList<>(equalPredicates);
+			andPredicates.add(after(criteriaBuilder, key, value, order.isAscending()));
+			orPredicates.add(criteriaBuilder.and(andPredicates.toArray(new Predicate[andPredicates.size()])));
+
+			equalPredicates.add(value == null ? criteriaBuilder.isNull(key) : criteriaBuilder.equal(key, value));
+			i++;
+		}
+
+		return criteriaBuilder.or(orPredicates.toArray(new Predicate[orPredicates.size()]));
+	}
+
+	/**
+	 * Build the predicate matching the values of a single sort property that come after a value, with nulls sorted
+	 * before every other value.
+	 *
+	 * @param criteriaBuilder the {@link CriteriaBuilder} of the query
+	 * @param key             the expression of the sort property
+	 * @param value           the value to come after, may be null
+	 * @param ascending       whether the property is sorted ascending
+	 * @return the predicate
+	 */
+	@SuppressWarnings("unchecked")
+	private Predicate after(CriteriaBuilder criteriaBuilder, Expression<?> key, Object value, boolean ascending) {
+		Expression<Comparable<Object>> comparableKey = (Expression<Comparable<Object>>) key;
+		if (ascending) {
+			return value == null ? criteriaBuilder.isNotNull(key)
+					: criteriaBuilder.greaterThan(comparableKey, (Comparable<Object>) value);
+		} else {
+			return value == null ? criteriaBuilder.disjunction()
+					: criteriaBuilder.or(criteriaBuilder.lessThan(comparableKey, (Comparable<Object>) value),
+							criteriaBuilder.isNull(key));
+		}
+	}
+
+	/**
+	 * Count the {@link ProjectSampleJoin}s matching a {@link Specification}
+	 *
+	 * @param specification the {@link Specification} the joins must match
+	 * @return the number of matching joins
+	 */
+	private long count(Specification<ProjectSampleJoin> specification) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+		Root<ProjectSampleJoin> root = query.from(ProjectSampleJoin.class);
+		query.select(criteriaBuilder.count(root));
+		Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+
+		return entityManager.createQuery(query)
+				.getSingleResult();
+	}
+}
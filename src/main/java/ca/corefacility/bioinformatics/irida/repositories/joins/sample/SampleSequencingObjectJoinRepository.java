@@ -1,5 +1,6 @@
 package ca.corefacility.bioinformatics.irida.repositories.joins.sample;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.Query;
@@ -24,6 +25,18 @@ public interface SampleSequencingObjectJoinRepository extends IridaJpaRepository
 	@Query("select j from SampleSequencingObjectJoin j where j.sample = ?1")
 	public List<SampleSequencingObjectJoin> getSequencesForSample(Sample sample);
 
+	/**
+	 * Get the {@link SequenceFile}s associated with a collection of samples,
+	 * fetching the {@link SequencingObject}s in the same query
+	 * 
+	 * @param samples
+	 *            The samples to get the files for
+	 * @return a list of {@link SampleSequencingObjectJoin} objects, ordered by
+	 *         sample and sequencing object id
+	 */
+	@Query("select j from SampleSequencingObjectJoin j join fetch j.sequencingObject o where j.sample in ?1 order by j.sample.id, o.id")
+	public List<SampleSequencingObjectJoin> getSequencesForSamples(Collection<Sample> samples);
+
 	/**
 	 * Read a {@link SampleSequencingObjectJoin} with the given {@link Sample}
 	 * and {@link SequencingObject} by id
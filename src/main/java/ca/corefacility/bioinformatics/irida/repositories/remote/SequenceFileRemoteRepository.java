@@ -32,4 +32,15 @@ public interface SequenceFileRemoteRepository extends RemoteRepository<SequenceF
 	 * @return A temporary {@link Path} to the sequence file data
 	 */
 	public Path downloadRemoteSequenceFile(String uri, RemoteAPI api, MediaType... mediaTypes);
+
+	/**
+	 * Get the size of a {@link SequenceFile} on a remote api without
+	 * downloading it
+	 *
+	 * @param uri The URI of the file
+	 * @param api The {@link RemoteAPI} this file resides on
+	 * @return the size of the file in bytes, or -1 if the remote api doesn't
+	 *         report it
+	 */
+	public long getRemoteSequenceFileSize(String uri, RemoteAPI api);
 }
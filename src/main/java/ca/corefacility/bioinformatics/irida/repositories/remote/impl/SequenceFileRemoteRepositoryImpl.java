@@ -1,15 +1,21 @@
 package ca.corefacility.bioinformatics.irida.repositories.remote.impl;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.security.core.token.TokenService;
 import org.springframework.stereotype.Repository;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 
 import ca.corefacility.bioinformatics.irida.model.RemoteAPI;
 import ca.corefacility.bioinformatics.irida.model.remote.resource.ListResourceWrapper;
@@ -29,7 +35,12 @@ import ca.corefacility.bioinformatics.irida.service.RemoteAPITokenService;
 @Repository
 public class SequenceFileRemoteRepositoryImpl extends RemoteRepositoryImpl<SequenceFile> implements
 		SequenceFileRemoteRepository {
+	private static final Logger logger = LoggerFactory.getLogger(SequenceFileRemoteRepositoryImpl.class);
 	public static final MediaType DEFAULT_DOWNLOAD_MEDIA_TYPE = new MediaType("application", "fastq");
+	/**
+	 * How many times to try downloading a file, resuming where the last attempt stopped.
+	 */
+	private static final int DOWNLOAD_ATTEMPTS = 3;
 	private static final ParameterizedTypeReference<ListResourceWrapper<SequenceFile>> listTypeReference = new ParameterizedTypeReference<>() {
 	};
 	private static final ParameterizedTypeReference<ResourceWrapper<SequenceFile>> objectTypeReference = new ParameterizedTypeReference<>() {
@@ -59,18 +70,52 @@ public class SequenceFileRemoteRepositoryImpl extends RemoteRepositoryImpl<Seque
 		OAuthTokenRestTemplate restTemplate = new OAuthTokenRestTemplate(tokenService, remoteAPI);
 
 		// add the sequence file message markdownConverter
+		SequenceFileMessageConverter converter = new SequenceFileMessageConverter(file.getFileName());
 		List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
-		converters.add(new SequenceFileMessageConverter(file.getFileName()));
+		converters.add(converter);
 		restTemplate.setMessageConverters(converters);
 
-		// add the application/fastq accept header
-		HttpHeaders requestHeaders = new HttpHeaders();
-		requestHeaders.setAccept(Arrays.asList(mediaTypes));
-		HttpEntity<Path> requestEntity = new HttpEntity<>(requestHeaders);
+		for (int attempt = 1; ; attempt++) {
+			// add the application/fastq accept header
+			HttpHeaders requestHeaders = new HttpHeaders();
+			requestHeaders.setAccept(Arrays.asList(mediaTypes));
 
-		// get the file
-		ResponseEntity<Path> exchange = restTemplate.exchange(uri, HttpMethod.GET, requestEntity, Path.class);
-		return exchange.getBody();
+			// continue an interrupted download if the file hasn't changed
+			long downloaded = downloadedSize(converter);
+			if (downloaded > 0 && converter.getETag() != null) {
+				logger.debug("Resuming download of [" + uri + "] at byte " + downloaded);
+				requestHeaders.setRange(Collections.singletonList(HttpRange.createByteRange(downloaded)));
+				requestHeaders.set(HttpHeaders.IF_RANGE, converter.getETag());
+			}
+			HttpEntity<Path> requestEntity = new HttpEntity<>(requestHeaders);
+
+			// get the file
+			try {
+				ResponseEntity<Path> exchange = restTemplate.exchange(uri, HttpMethod.GET, requestEntity, Path.class);
+				return exchange.getBody();
+			} catch (HttpStatusCodeException e) {
+				throw e;
+			} catch (RestClientException e) {
+				if (attempt >= DOWNLOAD_ATTEMPTS) {
+					throw e;
+				}
+				logger.warn("Download of [" + uri + "] failed on attempt " + attempt + " of " + DOWNLOAD_ATTEMPTS, e);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of bytes of a download read so far
+	 *
+	 * @param converter the {@link SequenceFileMessageConverter} reading the download
+	 * @return the number of bytes read, or 0 if it can't be read and the download should start over
+	 */
+	private static long downloadedSize(SequenceFileMessageConverter converter) {
+		try {
+			return converter.getDownloadedSize();
+		} catch (IOException e) {
+			return 0;
+		}
 	}
 
 	/**
@@ -81,4 +126,21 @@ public class SequenceFileRemoteRepositoryImpl extends RemoteRepositoryImpl<Seque
 		return downloadRemoteSequenceFile(uri, remoteAPI, DEFAULT_DOWNLOAD_MEDIA_TYPE);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRemoteSequenceFileSize(String uri, RemoteAPI remoteAPI) {
+		OAuthTokenRestTemplate restTemplate = new OAuthTokenRestTemplate(tokenService, remoteAPI);
+
+		// ask for the headers the file would be sent with
+		HttpHeaders requestHeaders = new HttpHeaders();
+		requestHeaders.setAccept(Collections.singletonList(DEFAULT_DOWNLOAD_MEDIA_TYPE));
+		HttpEntity<Void> requestEntity = new HttpEntity<>(requestHeaders);
+
+		ResponseEntity<Void> exchange = restTemplate.exchange(uri, HttpMethod.HEAD, requestEntity, Void.class);
+		return exchange.getHeaders()
+				.getContentLength();
+	}
+
 }
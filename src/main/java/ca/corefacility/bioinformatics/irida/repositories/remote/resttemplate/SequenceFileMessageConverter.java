@@ -4,12 +4,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -21,12 +26,18 @@ import com.google.common.collect.Lists;
 
 /**
  * Message markdownConverter for converting application/fastq HTTP responses to a Java
- * Path temporary file
+ * Path temporary file. The temporary file is kept when a download fails, and a
+ * partial (<code>206</code>) response continuing it is appended to it, so that
+ * the same converter can be used to resume the download with a
+ * <code>Range</code> request.
  */
 public class SequenceFileMessageConverter implements HttpMessageConverter<Path> {
 	public static final MediaType MEDIA_TYPE = new MediaType("application","fastq");
 	private static final Logger logger = LoggerFactory.getLogger(SequenceFileMessageConverter.class);
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
 	private final String fileName;
+	private Path tempFile;
+	private String eTag;
 
 	public SequenceFileMessageConverter(String fileName) {
 		this.fileName = fileName;
@@ -61,15 +72,36 @@ public class SequenceFileMessageConverter implements HttpMessageConverter<Path>
 	public Path read(Class<? extends Path> clazz, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 		logger.debug("Converting  response to " + clazz);
+		HttpHeaders headers = inputMessage.getHeaders();
+		if (tempFile == null) {
+			Path fileDirectory = Files.createTempDirectory(null);
+			tempFile = Files.createFile(fileDirectory.resolve(fileName));
+		}
+
+		// a partial response continuing the file is appended, anything else
+		// replaces it
+		long offset = 0;
+		long expectedSize = headers.getContentLength();
+		String contentRange = headers.getFirst(HttpHeaders.CONTENT_RANGE);
+		if (contentRange != null) {
+			Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+			if (!matcher.matches() || Long.parseLong(matcher.group(1)) != Files.size(tempFile)) {
+				throw new IOException("Unexpected range [" + contentRange + "] when resuming remote file [" + fileName
+						+ "] at byte [" + Files.size(tempFile) + "]");
+			}
+			offset = Long.parseLong(matcher.group(1));
+			expectedSize = matcher.group(3)
+					.equals("*") ? Long.parseLong(matcher.group(2)) + 1 : Long.parseLong(matcher.group(3));
+		}
+		eTag = headers.getETag();
+
 		InputStream inputStream = inputMessage.getBody();
-		Path fileDirectory = Files.createTempDirectory(null);
-		Path tempFile = fileDirectory.resolve(fileName);
-		tempFile = Files.createFile(tempFile);
-		try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
-			long fileSize = IOUtils.copyLarge(inputStream, outputStream);
-
-			long expectedSize = inputMessage.getHeaders()
-					.getContentLength();
+		OpenOption[] options = offset > 0 ?
+				new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.APPEND } :
+				new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING };
+		try (OutputStream outputStream = Files.newOutputStream(tempFile, options)) {
+			long fileSize = offset + IOUtils.copyLarge(inputStream, outputStream);
+
 			if (fileSize != expectedSize) {
 				throw new IOException(
 						"Error when writing remote file [" + fileName + "], to path [" + tempFile + "], expectedSize ["
@@ -80,6 +112,26 @@ public class SequenceFileMessageConverter implements HttpMessageConverter<Path>
 		return tempFile;
 	}
 
+	/**
+	 * Get the number of bytes of the file downloaded so far
+	 *
+	 * @return the size of the temporary file, or 0 if nothing has been read
+	 * @throws IOException if the size of the temporary file could not be read
+	 */
+	public long getDownloadedSize() throws IOException {
+		return tempFile == null ? 0 : Files.size(tempFile);
+	}
+
+	/**
+	 * Get the <code>ETag</code> of the last response read, to make sure a
+	 * resumed download continues the same file
+	 *
+	 * @return the <code>ETag</code>, or null if the server didn't send one
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
 	@Override
 	public void write(Path t, MediaType contentType, HttpOutputMessage outputMessage) throws IOException,
 			HttpMessageNotWritableException {
@@ -0,0 +1,38 @@
+package ca.corefacility.bioinformatics.irida.repositories.sample;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
+
+/**
+ * Repository for saving and retrieving {@link SampleQCSummary} objects
+ */
+public interface SampleQCSummaryRepository extends CrudRepository<SampleQCSummary, Long> {
+	/**
+	 * Get the {@link SampleQCSummary}s of a set of {@link Sample}s
+	 *
+	 * @param sampleIds the identifiers of the samples
+	 * @return the summaries that exist for the samples
+	 */
+	@Query("from SampleQCSummary s where s.sampleId in ?1")
+	public List<SampleQCSummary> getSummariesForSamples(Collection<Long> sampleIds);
+
+	/**
+	 * Get the {@link SampleQCSummary} of a {@link Sample}, locking it until the transaction ends so it's only
+	 * recalculated by one transaction at a time
+	 *
+	 * @param sampleId the identifier of the sample
+	 * @return the summary, or null if the sample doesn't have one
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("from SampleQCSummary s where s.sampleId = ?1")
+	public SampleQCSummary getSummaryForUpdate(Long sampleId);
+}
@@ -2,8 +2,12 @@ package ca.corefacility.bioinformatics.irida.repositories.sample;
 
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Custom methods for getting {@link Sample}s.  This can be used to create custom, higher speed methods for specific
@@ -18,4 +22,42 @@ public interface SampleRepositoryCustom {
 	 * @return a list of {@link Sample}
 	 */
 	public List<Sample> getSamplesForProjectShallow(Project project);
+
+	/**
+	 * Get a page of the {@link Sample}s in a {@link Project}, ordered by sample id and starting after a sample id. The
+	 * page is read with one query without loading the {@link Sample} entities, so this should be used to page through
+	 * every sample in large projects. Note: the metadata of the rows is not filled.
+	 *
+	 * @param project       the {@link Project} to get samples for
+	 * @param afterSampleId only get samples with an id greater than this
+	 * @param limit         the maximum number of samples to get
+	 * @return a list of {@link ProjectSampleMetadataRow}, ordered by sample id
+	 */
+	public List<ProjectSampleMetadataRow> getSampleRowsForProject(Project project, long afterSampleId, int limit);
+
+	/**
+	 * Read every metadata value of the {@link Sample}s in a {@link Project} with a single query. Values are passed to
+	 * the consumer as they are read rather than collected, so this can be used for projects of any size.
+	 *
+	 * @param project  the {@link Project} to read sample metadata for
+	 * @param consumer receives each {@link SampleMetadataValue}
+	 */
+	public void readSampleMetadataForProject(Project project, Consumer<SampleMetadataValue> consumer);
+
+	/**
+	 * Get the metadata values of a set of {@link Sample}s in every {@link Project} they belong to.
+	 *
+	 * @param sampleIds the identifiers of the samples
+	 * @return a {@link SampleMetadataValue} for each value of each sample in each of its projects
+	 */
+	public List<SampleMetadataValue> getSampleMetadataValues(Collection<Long> sampleIds);
+
+	/**
+	 * Get a version of the sample metadata in a {@link Project}. The version changes when a {@link Sample} in the
+	 * project is updated, or when samples are added to or removed from the project.
+	 *
+	 * @param project the {@link Project} to get the version for
+	 * @return the version of the sample metadata in the project
+	 */
+	public String getSampleMetadataVersion(Project project);
 }
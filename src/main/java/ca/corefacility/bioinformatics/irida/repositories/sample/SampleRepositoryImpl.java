@@ -1,8 +1,13 @@
 package ca.corefacility.bioinformatics.irida.repositories.sample;
 
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.StaticMetadataTemplateField;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -10,13 +15,24 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Impl of custom methods for {@link SampleRepository}.  This class can be used for speed improvements for sample
  * listing methods.
  */
 public class SampleRepositoryImpl implements SampleRepositoryCustom {
+	private static final String STATIC_FIELD_TYPE = StaticMetadataTemplateField.class.getSimpleName();
+
+	/**
+	 * Metadata values of the samples in projects. Add a WHERE clause on the project_sample table p to select the
+	 * projects or samples.
+	 */
+	private static final String METADATA_VALUE_QUERY = "select p.project_id, m.sample_id, f.id as field_id, f.DTYPE, f.static_id, f.label, e.type, e.value, pe.submission_id FROM project_sample p INNER JOIN sample_metadata_entry m ON m.sample_id=p.sample_id INNER JOIN metadata_entry e ON e.id=m.metadata_id INNER JOIN metadata_field f ON f.id=m.metadata_KEY LEFT JOIN pipeline_metadata_entry pe ON pe.id=e.id";
+
 	private final DataSource dataSource;
 
 	@Autowired
@@ -63,4 +79,85 @@ public class SampleRepositoryImpl implements SampleRepositoryCustom {
 
 		return results;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<ProjectSampleMetadataRow> getSampleRowsForProject(Project project, long afterSampleId, int limit) {
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		// keyset page of the samples in the project
+		String sampleQuery = "select s.id, s.sampleName, s.createdDate, s.modifiedDate, s.remote_status, p.owner FROM sample s INNER JOIN project_sample p ON p.sample_id=s.id WHERE p.project_id=:project AND s.id > :after ORDER BY s.id LIMIT :limit";
+
+		parameters.addValue("project", project.getId());
+		parameters.addValue("after", afterSampleId);
+		parameters.addValue("limit", limit);
+
+		return tmpl.query(sampleQuery, parameters,
+				(rs, rowNum) -> new ProjectSampleMetadataRow(rs.getLong("id"), rs.getString("sampleName"),
+						rs.getTimestamp("createdDate"), rs.getTimestamp("modifiedDate"),
+						rs.getObject("remote_status") != null, rs.getBoolean("owner")));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void readSampleMetadataForProject(Project project, Consumer<SampleMetadataValue> consumer) {
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+
+		String queryString = METADATA_VALUE_QUERY + " WHERE p.project_id=:project";
+
+		tmpl.query(queryString, new MapSqlParameterSource("project", project.getId()),
+				(RowCallbackHandler) rs -> consumer.accept(mapMetadataValue(rs)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SampleMetadataValue> getSampleMetadataValues(Collection<Long> sampleIds) {
+		if (sampleIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+
+		String queryString = METADATA_VALUE_QUERY + " WHERE p.sample_id IN (:samples)";
+
+		return tmpl.query(queryString, new MapSqlParameterSource("samples", sampleIds),
+				(rs, rowNum) -> mapMetadataValue(rs));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public String getSampleMetadataVersion(Project project) {
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+
+		String queryString = "select count(p.id) as samples, max(p.id) as last_join, max(s.modifiedDate) as last_modified FROM project_sample p INNER JOIN sample s ON s.id=p.sample_id WHERE p.project_id=:project";
+
+		return tmpl.queryForObject(queryString, new MapSqlParameterSource("project", project.getId()),
+				(rs, rowNum) -> rs.getLong("samples") + ":" + rs.getLong("last_join") + ":" + rs.getTimestamp(
+						"last_modified"));
+	}
+
+	/**
+	 * Map a row of the {@link #METADATA_VALUE_QUERY} to a {@link SampleMetadataValue}
+	 *
+	 * @param rs the {@link ResultSet} at the row to map
+	 * @return the {@link SampleMetadataValue}
+	 * @throws SQLException if the row can't be read
+	 */
+	private static SampleMetadataValue mapMetadataValue(ResultSet rs) throws SQLException {
+		long fieldId = rs.getLong("field_id");
+		String fieldKey = STATIC_FIELD_TYPE.equals(rs.getString("DTYPE")) ?
+				StaticMetadataTemplateField.STATIC_FIELD_PREFIX + rs.getString("static_id") :
+				MetadataTemplateField.DYNAMIC_FIELD_PREFIX + fieldId;
+
+		long submissionId = rs.getLong("submission_id");
+
+		return new SampleMetadataValue(rs.getLong("project_id"), rs.getLong("sample_id"), fieldId, fieldKey,
+				rs.getString("label"), rs.getString("type"), rs.getString("value"),
+				rs.wasNull() ? null : submissionId);
+	}
 }
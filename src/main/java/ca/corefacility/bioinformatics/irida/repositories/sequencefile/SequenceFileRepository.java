@@ -1,5 +1,9 @@
 package ca.corefacility.bioinformatics.irida.repositories.sequencefile;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.repositories.IridaJpaRepository;
 import ca.corefacility.bioinformatics.irida.repositories.filesystem.FilesystemSupplementedRepository;
@@ -18,4 +22,18 @@ public interface SequenceFileRepository extends FilesystemSupplementedRepository
 	 * compilation error
 	 */
 	<S extends SequenceFile> S save(S entity);
+
+	/**
+	 * Save the CRC-32 of a {@link SequenceFile} computed after it was stored. The CRC-32 isn't audited, so it's set
+	 * without saving the whole file.
+	 *
+	 * @param id             the identifier of the {@link SequenceFile}
+	 * @param revisionNumber the file revision number the CRC-32 was computed for. The CRC-32 is not saved if the file
+	 *                       has since been replaced.
+	 * @param crc32          the CRC-32 of the file
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE SequenceFile f SET f.fileCrc32 = ?3 WHERE f.id = ?1 AND f.fileRevisionNumber = ?2")
+	public void setFileCrc32(Long id, Long revisionNumber, Long crc32);
 }
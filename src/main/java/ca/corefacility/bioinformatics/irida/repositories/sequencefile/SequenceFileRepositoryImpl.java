@@ -1,15 +1,20 @@
 package ca.corefacility.bioinformatics.irida.repositories.sequencefile;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import javax.persistence.EntityManager;
+import javax.persistence.PostRemove;
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.repositories.filesystem.ContentAddressedFileStore;
 import ca.corefacility.bioinformatics.irida.repositories.filesystem.FilesystemSupplementedRepositoryImpl;
 
 /**
@@ -23,8 +28,9 @@ public class SequenceFileRepositoryImpl extends FilesystemSupplementedRepository
 
 	@Autowired
 	public SequenceFileRepositoryImpl(EntityManager entityManager,
-			@Qualifier("sequenceFileBaseDirectory") Path baseDirectory) {
-		super(entityManager, baseDirectory);
+			@Qualifier("sequenceFileBaseDirectory") Path baseDirectory,
+			@Qualifier("sequenceFileContentStore") ContentAddressedFileStore contentStore) {
+		super(entityManager, baseDirectory, contentStore);
 	}
 
 	/**
@@ -36,4 +42,73 @@ public class SequenceFileRepositoryImpl extends FilesystemSupplementedRepository
 		return super.saveInternal(entity);
 	}
 
+	/**
+	 * A JPA event listener releasing the stored content of a deleted
+	 * {@link SequenceFile}. The links to stored content in the file's
+	 * directory are deleted once the transaction deleting the file commits,
+	 * and the content is deleted if no other file shares it.
+	 */
+	public static class StoredContentReleaseListener {
+		private static ContentAddressedFileStore contentStore;
+
+		/**
+		 * Set the store that sequence file content is kept in
+		 * 
+		 * @param store
+		 *            the {@link ContentAddressedFileStore} for sequence files
+		 */
+		public static void setContentStore(final ContentAddressedFileStore store) {
+			contentStore = store;
+		}
+
+		/**
+		 * Release the stored content of a deleted {@link SequenceFile}
+		 * 
+		 * @param sequenceFile
+		 *            the deleted {@link SequenceFile}
+		 */
+		@PostRemove
+		public void releaseStoredContent(final SequenceFile sequenceFile) {
+			final ContentAddressedFileStore store = contentStore;
+			final String sha256 = sequenceFile.getUploadSha256();
+			final String processedSha256 = sequenceFile.getProcessedSha256();
+			if (store == null || (sha256 == null && processedSha256 == null)) {
+				return;
+			}
+
+			final Path fileDirectory = Paths.get(sequenceFile.getId()
+					.toString());
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+					@Override
+					public void afterCommit() {
+						removeStoredContent(store, fileDirectory, sha256, processedSha256);
+					}
+				});
+			} else {
+				removeStoredContent(store, fileDirectory, sha256, processedSha256);
+			}
+		}
+
+		/**
+		 * Remove the links to both the uploaded and the processed content of
+		 * a deleted file.
+		 * 
+		 * @param store
+		 *            the store the content is kept in
+		 * @param fileDirectory
+		 *            the directory of the deleted file
+		 * @param sha256
+		 *            the checksum of the uploaded content
+		 * @param processedSha256
+		 *            the checksum of the processed content
+		 */
+		private static void removeStoredContent(final ContentAddressedFileStore store, final Path fileDirectory,
+				final String sha256, final String processedSha256) {
+			if (processedSha256 != null && !processedSha256.equals(sha256)) {
+				store.remove(fileDirectory, processedSha256);
+			}
+			store.remove(fileDirectory, sha256);
+		}
+	}
 }
@@ -7,7 +7,9 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import ca.corefacility.bioinformatics.irida.model.run.SequencingRun;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFilePair;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
 import ca.corefacility.bioinformatics.irida.repositories.IridaJpaRepository;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,7 +17,8 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Repository for storing and retrieving {@link SequencingObject}s
  */
-public interface SequencingObjectRepository extends IridaJpaRepository<SequencingObject, Long> {
+public interface SequencingObjectRepository
+		extends IridaJpaRepository<SequencingObject, Long>, SequencingObjectRepositoryCustom {
 
 	/**
 	 * Get the {@link SequencingObject}s for a given {@link SequencingRun}
@@ -36,6 +39,24 @@ public interface SequencingObjectRepository extends IridaJpaRepository<Sequencin
 	@Query("select f from SequencingObject f where ?1 IN elements(f.analysisSubmissions)")
 	public Set<SequencingObject> findSequencingObjectsForAnalysisSubmission(AnalysisSubmission analysisSubmission);
 
+	/**
+	 * Get the {@link SingleEndSequenceFile}s with a file uploaded with the given SHA-256 checksum
+	 *
+	 * @param sha256 the SHA-256 checksum of the uploaded file
+	 * @return the set of {@link SingleEndSequenceFile}s
+	 */
+	@Query("select o from SingleEndSequenceFile o where o.file.uploadSha256 = ?1")
+	public Set<SequencingObject> findSingleEndSequenceFilesWithUploadSha256(String sha256);
+
+	/**
+	 * Get the {@link SequenceFilePair}s with a file uploaded with the given SHA-256 checksum
+	 *
+	 * @param sha256 the SHA-256 checksum of the uploaded file
+	 * @return the set of {@link SequenceFilePair}s
+	 */
+	@Query("select o from SequenceFilePair o join o.files f where f.uploadSha256 = ?1")
+	public Set<SequencingObject> findSequenceFilePairsWithUploadSha256(String sha256);
+
 	/**
 	 * Get all {@link SequencingObject}s with the given {@link ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject.ProcessingState}
 	 *
@@ -57,6 +78,17 @@ public interface SequencingObjectRepository extends IridaJpaRepository<Sequencin
 	public List<SequencingObject> getSequencingObjectsWithProcessingStateAndProcessor(
 			SequencingObject.ProcessingState processingState, String processor);
 
+	/**
+	 * Get the ids of {@link SequencingObject}s with a given processing state and the given processor string
+	 *
+	 * @param processingState state to find
+	 * @param processor       processor string to find
+	 * @return a list of {@link SequencingObject} ids
+	 */
+	@Query("SELECT f.id FROM SequencingObject f where f.processingState = ?1 AND f.fileProcessor = ?2")
+	public List<Long> getSequencingObjectIdsWithProcessingStateAndProcessor(
+			SequencingObject.ProcessingState processingState, String processor);
+
 	/**
 	 * Update a sequencing object's file processing state with the given status
 	 *
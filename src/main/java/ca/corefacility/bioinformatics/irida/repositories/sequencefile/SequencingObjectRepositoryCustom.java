@@ -0,0 +1,51 @@
+package ca.corefacility.bioinformatics.irida.repositories.sequencefile;
+
+import java.util.Collection;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject.ProcessingState;
+
+/**
+ * Custom methods for claiming {@link SequencingObject}s for file processing. These methods work on IDs only so the
+ * file processors don't have to load the full entities to decide what to process.
+ */
+public interface SequencingObjectRepositoryCustom {
+
+	/**
+	 * Claim up to {@code limit} {@link SequencingObject}s in the {@link ProcessingState#UNPROCESSED} state for the
+	 * given processor in a single statement. Objects that have already been claimed by another processor are no
+	 * longer {@link ProcessingState#UNPROCESSED} and are skipped. A processor left on an unprocessed object is a stale
+	 * mark from a processor that stopped before queueing it, so the object is claimed anyway.
+	 *
+	 * @param processor    the file processor id string to claim the objects for
+	 * @param claimedState the {@link ProcessingState} to set on the claimed objects
+	 * @param limit        the maximum number of objects to claim
+	 * @return the number of objects claimed
+	 */
+	public int claimUnprocessedSequencingObjects(String processor, ProcessingState claimedState, int limit);
+
+	/**
+	 * Claim a single {@link SequencingObject} for the given processor if it is {@link ProcessingState#UNPROCESSED}
+	 * and hasn't been claimed by another processor. As in
+	 * {@link #claimUnprocessedSequencingObjects(String, ProcessingState, int)}, a stale processor mark on an
+	 * unprocessed object doesn't prevent the claim.
+	 *
+	 * @param objectId     the id of the {@link SequencingObject} to claim
+	 * @param processor    the file processor id string to claim the object for
+	 * @param claimedState the {@link ProcessingState} to set on the claimed object
+	 * @return true if this processor now owns the object, false otherwise
+	 */
+	public boolean claimSequencingObject(Long objectId, String processor, ProcessingState claimedState);
+
+	/**
+	 * Move the given {@link SequencingObject}s owned by a processor from one {@link ProcessingState} to another.
+	 *
+	 * @param objectIds the ids of the {@link SequencingObject}s to update
+	 * @param processor the file processor id string owning the objects
+	 * @param fromState the state the objects are expected to be in
+	 * @param toState   the state to set
+	 * @return the number of objects updated
+	 */
+	public int updateProcessingState(Collection<Long> objectIds, String processor, ProcessingState fromState,
+			ProcessingState toState);
+}
@@ -0,0 +1,90 @@
+package ca.corefacility.bioinformatics.irida.repositories.sequencefile;
+
+import java.util.Collection;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject.ProcessingState;
+
+/**
+ * Impl of custom methods for {@link SequencingObjectRepository}. Claims are made with single bulk statements so
+ * multiple file processing servers can compete for work without hydrating every unprocessed entity.
+ */
+public class SequencingObjectRepositoryImpl implements SequencingObjectRepositoryCustom {
+	private final DataSource dataSource;
+
+	@Autowired
+	public SequencingObjectRepositoryImpl(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int claimUnprocessedSequencingObjects(String processor, ProcessingState claimedState, int limit) {
+		if (limit <= 0) {
+			return 0;
+		}
+
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		// ordering by id so the oldest uploads get claimed first.  A claim always moves the object out of UNPROCESSED,
+		// so a processor left on an UNPROCESSED object is a stale mark (e.g. a processor that died before queueing
+		// it) and the object is claimed anyway.
+		String queryString = "UPDATE sequencing_object SET processing_state=:claimedState, file_processor=:processor WHERE processing_state=:unprocessed ORDER BY id LIMIT :limit";
+
+		parameters.addValue("claimedState", claimedState.name());
+		parameters.addValue("processor", processor);
+		parameters.addValue("unprocessed", ProcessingState.UNPROCESSED.name());
+		parameters.addValue("limit", limit);
+
+		return tmpl.update(queryString, parameters);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean claimSequencingObject(Long objectId, String processor, ProcessingState claimedState) {
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		String queryString = "UPDATE sequencing_object SET processing_state=:claimedState, file_processor=:processor WHERE id=:id AND processing_state=:unprocessed";
+
+		parameters.addValue("claimedState", claimedState.name());
+		parameters.addValue("processor", processor);
+		parameters.addValue("id", objectId);
+		parameters.addValue("unprocessed", ProcessingState.UNPROCESSED.name());
+
+		return tmpl.update(queryString, parameters) > 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int updateProcessingState(Collection<Long> objectIds, String processor, ProcessingState fromState,
+			ProcessingState toState) {
+		if (objectIds.isEmpty()) {
+			return 0;
+		}
+
+		NamedParameterJdbcTemplate tmpl = new NamedParameterJdbcTemplate(dataSource);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		String queryString = "UPDATE sequencing_object SET processing_state=:toState WHERE id IN (:ids) AND processing_state=:fromState AND file_processor=:processor";
+
+		parameters.addValue("toState", toState.name());
+		parameters.addValue("ids", objectIds);
+		parameters.addValue("fromState", fromState.name());
+		parameters.addValue("processor", processor);
+
+		return tmpl.update(queryString, parameters);
+	}
+}
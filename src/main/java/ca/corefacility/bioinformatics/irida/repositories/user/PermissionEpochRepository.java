@@ -0,0 +1,31 @@
+package ca.corefacility.bioinformatics.irida.repositories.user;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import ca.corefacility.bioinformatics.irida.model.user.PermissionEpoch;
+
+/**
+ * Repository for reading and advancing the {@link PermissionEpoch}
+ */
+public interface PermissionEpochRepository extends CrudRepository<PermissionEpoch, Integer> {
+	/**
+	 * Get the current permission epoch
+	 *
+	 * @param id the identifier of the epoch row, {@link PermissionEpoch#ID}
+	 * @return the epoch, or null if the row doesn't exist
+	 */
+	@Query("select e.epoch from PermissionEpoch e where e.id = ?1")
+	public Long getEpoch(Integer id);
+
+	/**
+	 * Advance the permission epoch
+	 *
+	 * @param id the identifier of the epoch row, {@link PermissionEpoch#ID}
+	 * @return the number of rows updated, 0 if the row doesn't exist
+	 */
+	@Modifying
+	@Query("update PermissionEpoch e set e.epoch = e.epoch + 1 where e.id = ?1")
+	public int incrementEpoch(Integer id);
+}
@@ -11,6 +11,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.poi.ss.usermodel.*;
@@ -25,6 +26,7 @@ import ca.corefacility.bioinformatics.irida.ria.web.dto.ExcelCol;
 import ca.corefacility.bioinformatics.irida.ria.web.dto.ExcelData;
 import ca.corefacility.bioinformatics.irida.ria.web.dto.ExcelHeader;
 import ca.corefacility.bioinformatics.irida.ria.web.dto.ExcelRow;
+import ca.corefacility.bioinformatics.irida.util.ByteRangeFileResponse;
 
 import com.monitorjbl.xlsx.StreamingReader;
 import com.monitorjbl.xlsx.impl.StreamingCell;
@@ -180,15 +182,19 @@ public class FileUtilities {
 	}
 
 	/**
-	 * Utility method for download single file from an analysis.
+	 * Utility method for download single file from an analysis. Byte range
+	 * requests are supported so that interrupted downloads can be resumed.
 	 *
+	 * @param request
+	 *            {@link HttpServletRequest}
 	 * @param response
 	 *            {@link HttpServletResponse}
 	 * @param file
 	 *            Set of {@link AnalysisOutputFile}
 	 * @param fileName Filename
 	 */
-	public static void createSingleFileResponse(HttpServletResponse response, AnalysisOutputFile file, String fileName) {
+	public static void createSingleFileResponse(HttpServletRequest request, HttpServletResponse response,
+			AnalysisOutputFile file, String fileName) {
 		fileName = formatName(fileName);
 
 		// set the response headers before we do *ANYTHING* so that the filename
@@ -196,8 +202,8 @@ public class FileUtilities {
 		response.setHeader(CONTENT_DISPOSITION, ATTACHMENT_FILENAME + fileName);
 		response.setContentType(CONTENT_TYPE_TEXT);
 
-		try (ServletOutputStream outputStream = response.getOutputStream()) {
-			Files.copy(file.getFile(), response.getOutputStream());
+		try {
+			ByteRangeFileResponse.write(request, response, file.getFile());
 		} catch (IOException e) {
 			// this generally means that the user has cancelled the download
 			// from their web browser; we can safely ignore this
@@ -212,14 +218,17 @@ public class FileUtilities {
 	/**
 	 * Utility method for download single file from an analysis.
 	 *
+	 * @param request
+	 *            {@link HttpServletRequest}
 	 * @param response
 	 *            {@link HttpServletResponse}
 	 * @param file
 	 *            Set of {@link AnalysisOutputFile}
 	 */
-	public static void createSingleFileResponse(HttpServletResponse response, AnalysisOutputFile file) {
+	public static void createSingleFileResponse(HttpServletRequest request, HttpServletResponse response,
+			AnalysisOutputFile file) {
 		String fileName = file.getLabel();
-		FileUtilities.createSingleFileResponse(response, file, fileName);
+		FileUtilities.createSingleFileResponse(request, response, file, fileName);
 	}
 
 
@@ -7,6 +7,7 @@ import java.security.Principal;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
@@ -17,9 +18,11 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import ca.corefacility.bioinformatics.irida.config.analysis.ExecutionManagerConfig;
 import ca.corefacility.bioinformatics.irida.exceptions.*;
@@ -31,6 +34,8 @@ import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
 import ca.corefacility.bioinformatics.irida.model.sample.metadata.MetadataEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.PipelineProvidedMetadataEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFilePair;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
@@ -48,6 +53,7 @@ import ca.corefacility.bioinformatics.irida.ria.web.analysis.dto.*;
 import ca.corefacility.bioinformatics.irida.ria.web.components.AnalysisOutputFileDownloadManager;
 import ca.corefacility.bioinformatics.irida.ria.web.dto.ExcelData;
 import ca.corefacility.bioinformatics.irida.ria.web.dto.ResponseDetails;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIAnalysisProgressService;
 import ca.corefacility.bioinformatics.irida.ria.web.utilities.DateUtilities;
 import ca.corefacility.bioinformatics.irida.security.permissions.analysis.UpdateAnalysisSubmissionPermission;
 import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
@@ -93,6 +99,7 @@ public class AnalysisAjaxController {
 	private UpdateAnalysisSubmissionPermission updateAnalysisPermission;
 	private ExecutionManagerConfig configFile;
 	private AnalysisAudit analysisAudit;
+	private UIAnalysisProgressService analysisProgressService;
 
 	@Autowired
 	public AnalysisAjaxController(AnalysisSubmissionService analysisSubmissionService,
@@ -100,7 +107,8 @@ public class AnalysisAjaxController {
 			ProjectService projectService, UpdateAnalysisSubmissionPermission updateAnalysisPermission, MetadataTemplateService metadataTemplateService,
 			SequencingObjectService sequencingObjectService,
 			AnalysisSubmissionSampleProcessor analysisSubmissionSampleProcessor,
-			AnalysisOutputFileDownloadManager analysisOutputFileDownloadManager, MessageSource messageSource, ExecutionManagerConfig configFile, AnalysisAudit analysisAudit) {
+			AnalysisOutputFileDownloadManager analysisOutputFileDownloadManager, MessageSource messageSource, ExecutionManagerConfig configFile, AnalysisAudit analysisAudit,
+			UIAnalysisProgressService analysisProgressService) {
 
 		this.analysisSubmissionService = analysisSubmissionService;
 		this.workflowsService = iridaWorkflowsService;
@@ -115,6 +123,7 @@ public class AnalysisAjaxController {
 		this.updateAnalysisPermission = updateAnalysisPermission;
 		this.configFile = configFile;
 		this.analysisAudit = analysisAudit;
+		this.analysisProgressService = analysisProgressService;
 	}
 
 	/**
@@ -582,6 +591,37 @@ public class AnalysisAjaxController {
 		return new AnalysisJobError();
 	}
 
+	/**
+	 * Subscribe to server-sent events with the state and percent complete of an analysis. A "progress" event is sent
+	 * when subscribing and each time the progress changes, until the analysis is completed or in error.
+	 *
+	 * @param submissionId {@link AnalysisSubmission} id
+	 * @param locale       User's locale
+	 * @return the {@link SseEmitter} sending {@link AnalysisProgressModel}s
+	 * @throws ExecutionManagerException if the status of a running analysis could not be read
+	 */
+	@RequestMapping(value = "/{submissionId}/progress", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter getAnalysisProgress(@PathVariable Long submissionId, Locale locale)
+			throws ExecutionManagerException {
+		return analysisProgressService.subscribe(submissionId, locale);
+	}
+
+	/**
+	 * Get the current state and percent complete of an analysis. Used by browsers that can't subscribe to the
+	 * server-sent events at the same URL.
+	 *
+	 * @param submissionId {@link AnalysisSubmission} id
+	 * @param locale       User's locale
+	 * @return the {@link AnalysisProgressModel} of the analysis
+	 * @throws ExecutionManagerException if the status of a running analysis could not be read
+	 */
+	@RequestMapping(value = "/{submissionId}/progress", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public AnalysisProgressModel getCurrentAnalysisProgress(@PathVariable Long submissionId, Locale locale)
+			throws ExecutionManagerException {
+		return analysisProgressService.getProgress(submissionId, locale);
+	}
+
 	/**
 	 * Get the status of projects that can be shared with the given analysis
 	 *
@@ -844,11 +884,13 @@ public class AnalysisAjaxController {
 	 * @param analysisSubmissionId Id for a {@link AnalysisSubmission}
 	 * @param fileId               the id of the file to download
 	 * @param filename             Optional filename for file download.
+	 * @param request              {@link HttpServletRequest}
 	 * @param response             {@link HttpServletResponse}
 	 */
 	@RequestMapping(value = "/download/{analysisSubmissionId}/file/{fileId}")
 	public void getAjaxDownloadAnalysisSubmissionIndividualFile(@PathVariable Long analysisSubmissionId,
-			@PathVariable Long fileId, @RequestParam(defaultValue = "", required = false) String filename, HttpServletResponse response) {
+			@PathVariable Long fileId, @RequestParam(defaultValue = "", required = false) String filename,
+			HttpServletRequest request, HttpServletResponse response) {
 		AnalysisSubmission analysisSubmission = analysisSubmissionService.read(analysisSubmissionId);
 
 		Analysis analysis = analysisSubmission.getAnalysis();
@@ -863,9 +905,9 @@ public class AnalysisAjaxController {
 		}
 
 		if (!Strings.isNullOrEmpty(filename)) {
-			FileUtilities.createSingleFileResponse(response, optFile.get(), filename);
+			FileUtilities.createSingleFileResponse(request, response, optFile.get(), filename);
 		} else {
-			FileUtilities.createSingleFileResponse(response, optFile.get());
+			FileUtilities.createSingleFileResponse(request, response, optFile.get());
 		}
 	}
 
@@ -934,25 +976,31 @@ public class AnalysisAjaxController {
 	public Map<String, Object> getMetadataForAnalysisSamples(@PathVariable Long submissionId) {
 		AnalysisSubmission submission = analysisSubmissionService.read(submissionId);
 		Collection<Sample> samples = sampleService.getSamplesForAnalysisSubmission(submission);
+		Map<Long, List<SampleMetadataValue>> sampleValues = sampleService.getMetadataValuesForSamples(samples);
 
 		// Let's get a list of all the metadata available that is unique.
 		Set<String> terms = new HashSet<>();
-		for (Sample sample : samples) {
-			if (!sample.getMetadata().isEmpty()) {
-				Map<MetadataTemplateField, MetadataEntry> metadata = sample.getMetadata();
-				terms.addAll(
-						metadata.keySet().stream().map(MetadataTemplateField::getLabel).collect(Collectors.toSet()));
-			}
-		}
+		sampleValues.values()
+				.forEach(values -> values.forEach(v -> terms.add(v.getFieldLabel())));
+
+		// Get the analyses that provided any of the metadata
+		Map<Long, AnalysisSubmission> providers = new HashMap<>();
+		sampleValues.values()
+				.forEach(values -> values.stream()
+						.map(SampleMetadataValue::getSubmissionId)
+						.filter(Objects::nonNull)
+						.forEach(id -> providers.computeIfAbsent(id,
+								i -> i.equals(submissionId) ? submission : readMetadataProvider(i))));
 
 		// Get the metadata for the samples;
 		Map<String, Object> metadata = new HashMap<>();
 		for (Sample sample : samples) {
-			Map<MetadataTemplateField, MetadataEntry> sampleMetadata = sample.getMetadata();
 			Map<String, MetadataEntry> stringMetadata = new HashMap<>();
-			sampleMetadata.entrySet().forEach(e -> {
-				stringMetadata.put(e.getKey().getLabel(), e.getValue());
-			});
+			sampleValues.getOrDefault(sample.getId(), Collections.emptyList())
+					.forEach(v -> stringMetadata.put(v.getFieldLabel(), v.getSubmissionId() == null ?
+							new MetadataEntry(v.getValue(), v.getType()) :
+							new PipelineProvidedMetadataEntry(v.getValue(), v.getType(),
+									providers.get(v.getSubmissionId()))));
 
 			Map<String, MetadataEntry> valuesMap = new HashMap<>();
 			for (String term : terms) {
@@ -975,6 +1023,21 @@ public class AnalysisAjaxController {
 		);
 	}
 
+	/**
+	 * Read the {@link AnalysisSubmission} that provided metadata to a sample.
+	 *
+	 * @param submissionId identifier of the {@link AnalysisSubmission}
+	 * @return the {@link AnalysisSubmission}, or null if the user can't read it
+	 */
+	private AnalysisSubmission readMetadataProvider(Long submissionId) {
+		try {
+			return analysisSubmissionService.read(submissionId);
+		} catch (AccessDeniedException | EntityNotFoundException e) {
+			logger.trace("Not including analysis " + submissionId + " that provided metadata: " + e.getMessage());
+			return null;
+		}
+	}
+
 	/**
 	 * Get a list of all {@link MetadataTemplate}s for the {@link AnalysisSubmission}
 	 *
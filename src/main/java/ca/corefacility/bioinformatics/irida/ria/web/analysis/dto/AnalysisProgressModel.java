@@ -0,0 +1,42 @@
+package ca.corefacility.bioinformatics.irida.ria.web.analysis.dto;
+
+import java.util.Objects;
+
+/**
+ * UI Representation of the state and percent complete of an Analysis Submission, pushed to the browser as it changes.
+ */
+public class AnalysisProgressModel {
+	private AnalysisStateModel state;
+	private float percentComplete;
+
+	public AnalysisProgressModel(AnalysisStateModel state, float percentComplete) {
+		this.state = state;
+		this.percentComplete = percentComplete;
+	}
+
+	public AnalysisStateModel getState() {
+		return state;
+	}
+
+	public float getPercentComplete() {
+		return percentComplete;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof AnalysisProgressModel)) {
+			return false;
+		}
+		AnalysisProgressModel that = (AnalysisProgressModel) o;
+		return Float.compare(that.percentComplete, percentComplete) == 0 && Objects.equals(state.getValue(),
+				that.state.getValue());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(state.getValue(), percentComplete);
+	}
+}
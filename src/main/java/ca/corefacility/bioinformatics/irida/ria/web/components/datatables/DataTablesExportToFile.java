@@ -2,22 +2,27 @@ package ca.corefacility.bioinformatics.irida.ria.web.components.datatables;
 
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import liquibase.util.csv.CSVWriter;
 
 /**
- * Used to export datatables to either excel or csv formatted files.
+ * Used to export datatables to either excel or csv formatted files. Rows are written to the response as they're read,
+ * so exporting a table only holds a bounded number of rows in memory.
  */
 public class DataTablesExportToFile {
+	/**
+	 * The number of rows kept in memory while writing an excel file, older rows are flushed to a temporary file.
+	 */
+	private static final int EXCEL_ROW_WINDOW = 100;
 
 	/**
 	 * Write data within datatable to an excel formatted file.
@@ -29,6 +34,21 @@ public class DataTablesExportToFile {
 	 * @throws IOException thrown if file cannot be written
 	 */
 	public static void writeFile(DataTablesExportTypes type, HttpServletResponse response, String filename, List<? extends DataTablesExportable> models, List<String> headers) throws IOException {
+		writeFile(type, response, filename, headers, models.iterator());
+	}
+
+	/**
+	 * Write data within datatable to a file, reading each row from the iterator only when it's written.
+	 * @param type {@link DataTablesExportTypes} type of file to create (either excel or csv)
+	 * @param response {@link HttpServletResponse}
+	 * @param filename {@link String} name of the file to download.
+	 * @param headers for the table
+	 * @param models Data to download in the table, e.g. a
+	 *            {@link ca.corefacility.bioinformatics.irida.ria.web.components.datatables.export.PagedExportIterator}
+	 * @throws IOException thrown if file cannot be written
+	 */
+	public static void writeFile(DataTablesExportTypes type, HttpServletResponse response, String filename,
+			List<String> headers, Iterator<? extends DataTablesExportable> models) throws IOException {
 		if(type.equals(DataTablesExportTypes.excel)) {
 			writeToExcel(response, filename, models, headers);
 		} else if(type.equals(DataTablesExportTypes.csv)) {
@@ -39,7 +59,8 @@ public class DataTablesExportToFile {
 	}
 
 	/**
-	 * Write data within datatable to an excel formatted file.
+	 * Write data within datatable to an excel formatted file.  Only the last {@link #EXCEL_ROW_WINDOW} rows are kept
+	 * in memory, the rest are kept in a compressed temporary file until the workbook is written.
 	 * @param response {@link HttpServletResponse}
 	 * @param filename {@link String} name of the file to download.
 	 * @param models Data to download in the table
@@ -47,57 +68,62 @@ public class DataTablesExportToFile {
 	 * @throws IOException thrown if file cannot be written
 	 */
 	private static void writeToExcel(HttpServletResponse response, String filename,
-			List<? extends DataTablesExportable> models, List<String> headers) throws IOException {
-		XSSFWorkbook workbook = new XSSFWorkbook();
-		XSSFSheet sheet = workbook.createSheet();
+			Iterator<? extends DataTablesExportable> models, List<String> headers) throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+		workbook.setCompressTempFiles(true);
+		try {
+			Sheet sheet = workbook.createSheet();
 
-		// Create the header row
-		Row row = sheet.createRow(0);
-		int cellNum = 0;
-		for (String header : headers) {
-			Cell cell = row.createCell(cellNum++);
-			cell.setCellValue(header);
-		}
+			// Create the header row
+			Row row = sheet.createRow(0);
+			int cellNum = 0;
+			for (String header : headers) {
+				Cell cell = row.createCell(cellNum++);
+				cell.setCellValue(header);
+			}
 
-		// Add the data to the workbook
-		int rowNum = 1;
-		for (DataTablesExportable model : models) {
-			row = sheet.createRow(rowNum++);
-			int cellCount = 0;
-			for (String content : model.getExportableTableRow()) {
-				Cell cell = row.createCell(cellCount++);
-				cell.setCellValue(content);
+			// Add the data to the workbook
+			int rowNum = 1;
+			while (models.hasNext()) {
+				row = sheet.createRow(rowNum++);
+				int cellCount = 0;
+				for (String content : models.next().getExportableTableRow()) {
+					Cell cell = row.createCell(cellCount++);
+					cell.setCellValue(content);
+				}
 			}
-		}
 
-		response.setContentType("application/vnd.ms-excel");
-		response.setHeader("Content-disposition",
-				"attachment; filename=" + filename + ".xlsx");
-		workbook.write(response.getOutputStream());
+			response.setContentType("application/vnd.ms-excel");
+			response.setHeader("Content-disposition",
+					"attachment; filename=" + filename + ".xlsx");
+			workbook.write(response.getOutputStream());
+		} finally {
+			// remove the temporary file holding the flushed rows
+			workbook.dispose();
+			workbook.close();
+		}
 	}
 
 	/**
-	 * Write data within datatable to a csv formatted file.
+	 * Write data within datatable to a csv formatted file, one row at a time.
 	 * @param response {@link HttpServletResponse}
 	 * @param filename {@link String} name of the file to download.
 	 * @param models Data to download in the table
 	 * @param headers for the table
 	 * @throws IOException thrown if file cannot be written
 	 */
-	private static void writeToCSV(HttpServletResponse response, String filename, List<? extends DataTablesExportable> models,
-			List<String> headers) throws IOException {
-		List<String[]> results = new ArrayList<>();
-		results.add(headers.toArray(new String[0]));
-		for (DataTablesExportable model : models) {
-			results.add(model.getExportableTableRow()
-					.toArray(new String[0]));
-		}
-
+	private static void writeToCSV(HttpServletResponse response, String filename,
+			Iterator<? extends DataTablesExportable> models, List<String> headers) throws IOException {
 		response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + ".csv\"");
 		response.setContentType("text/csv");
 		OutputStreamWriter outputStreamWriter = new OutputStreamWriter(response.getOutputStream());
 		CSVWriter csvWriter = new CSVWriter(outputStreamWriter, ',');
-		csvWriter.writeAll(results);
+		csvWriter.writeNext(headers.toArray(new String[0]));
+		while (models.hasNext()) {
+			csvWriter.writeNext(models.next()
+					.getExportableTableRow()
+					.toArray(new String[0]));
+		}
 		csvWriter.flush();
 		csvWriter.close();
 	}
@@ -0,0 +1,61 @@
+package ca.corefacility.bioinformatics.irida.ria.web.components.datatables.export;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * {@link Iterator} over the rows of a table being exported that reads them one page at a time, so only a single page
+ * of rows is held in memory no matter how many rows are exported. The next page is only read once every row of the
+ * current page has been written.
+ *
+ * @param <T> the type of row
+ */
+public class PagedExportIterator<T> implements Iterator<T> {
+	private final Supplier<Slice<T>> pageReader;
+
+	private Slice<T> page;
+	private Iterator<T> rows = Collections.emptyIterator();
+
+	/**
+	 * Create an iterator reading pages from the first
+	 *
+	 * @param pageReader reads the next page each time it's called, starting with the first. Each page should start
+	 *                   after the last row of the previous one (e.g., keyset paging on the sort columns and a unique
+	 *                   column) so that no row is skipped or repeated between pages.
+	 */
+	public PagedExportIterator(Supplier<Slice<T>> pageReader) {
+		this.pageReader = pageReader;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext() {
+		while (!rows.hasNext()) {
+			if (page != null && !page.hasNext()) {
+				return false;
+			}
+
+			page = pageReader.get();
+			rows = page.getContent()
+					.iterator();
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return rows.next();
+	}
+}
@@ -1,5 +1,8 @@
 package ca.corefacility.bioinformatics.irida.ria.web.linelist;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,15 +19,14 @@ import org.springframework.web.bind.annotation.*;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityExistsException;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.InvalidPropertyException;
-import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectMetadataTemplateJoin;
-import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplate;
 import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sample.StaticMetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.metadata.MetadataEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
 import ca.corefacility.bioinformatics.irida.ria.web.components.agGrid.AgGridColumn;
 import ca.corefacility.bioinformatics.irida.ria.web.linelist.dto.UIMetadataField;
 import ca.corefacility.bioinformatics.irida.ria.web.linelist.dto.UIMetadataFieldDefault;
@@ -36,6 +38,8 @@ import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.sample.MetadataTemplateService;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.base.Strings;
 
 /**
@@ -50,6 +54,14 @@ public class LineListController {
 	private MessageSource messages;
 	private UpdateSamplePermission updateSamplePermission;
 	private ProjectOwnerPermission projectOwnerPermission;
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * The number of samples read for each page of a line list.
+	 */
+	private static final int STREAM_PAGE_SIZE = 500;
+
+	private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
 
 	@Autowired
 	public LineListController(ProjectService projectService, SampleService sampleService,
@@ -77,12 +89,74 @@ public class LineListController {
 				.getAuthentication();
 		Project project = projectService.read(projectId);
 
-		List<Join<Project, Sample>> projectSamples = sampleService.getSamplesForProject(project);
-		return projectSamples.stream()
-				.map(join -> {
-					ProjectSampleJoin psj = (ProjectSampleJoin)join;
-					return new UISampleMetadata(psj, updateSamplePermission.isAllowed(authentication, psj.getObject()));
-				})
+		List<UISampleMetadata> entries = new ArrayList<>();
+		List<UISampleMetadata> page;
+		long after = 0;
+		do {
+			page = getSampleMetadataPage(authentication, project, after, STREAM_PAGE_SIZE);
+			entries.addAll(page);
+			if (!page.isEmpty()) {
+				after = Long.parseLong(page.get(page.size() - 1)
+						.get(UISampleMetadata.SAMPLE_ID));
+			}
+		} while (page.size() == STREAM_PAGE_SIZE);
+
+		return entries;
+	}
+
+	/**
+	 * Stream the metadata for the {@link Sample}s in a {@link Project} as newline delimited JSON, one
+	 * {@link UISampleMetadata} per line, ordered by sample id. Samples are read a page at a time by sample id and each
+	 * page is flushed to the client before the next is read, so memory use does not grow with the size of the project.
+	 *
+	 * @param projectId {@link Long} identifier for a {@link Project}
+	 * @param after     only stream samples with an identifier greater than this, to resume a previous stream
+	 * @param limit     if given, only stream a single page of at most this many samples
+	 * @param response  {@link HttpServletResponse}
+	 * @throws IOException if the rows cannot be written to the response
+	 */
+	@RequestMapping(value = "/entries/stream", method = RequestMethod.GET)
+	public void streamProjectSamplesMetadataEntries(@RequestParam long projectId,
+			@RequestParam(defaultValue = "0") long after, @RequestParam(required = false) Integer limit,
+			HttpServletResponse response) throws IOException {
+		Authentication authentication = SecurityContextHolder.getContext()
+				.getAuthentication();
+		Project project = projectService.read(projectId);
+		int pageSize = limit == null ? STREAM_PAGE_SIZE : Math.min(Math.max(limit, 1), STREAM_PAGE_SIZE);
+
+		response.setContentType(NDJSON_CONTENT_TYPE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		OutputStream out = response.getOutputStream();
+		ObjectWriter writer = objectMapper.writerFor(UISampleMetadata.class);
+
+		List<UISampleMetadata> page;
+		do {
+			page = getSampleMetadataPage(authentication, project, after, pageSize);
+			for (UISampleMetadata entry : page) {
+				out.write(writer.writeValueAsBytes(entry));
+				out.write('\n');
+				after = Long.parseLong(entry.get(UISampleMetadata.SAMPLE_ID));
+			}
+			out.flush();
+		} while (limit == null && page.size() == pageSize);
+	}
+
+	/**
+	 * Get a page of line list entries for the {@link Sample}s in a {@link Project}, ordered by sample id. Whether the
+	 * user can edit each sample is decided for the whole page at once.
+	 *
+	 * @param authentication the current user
+	 * @param project        the {@link Project} to get samples for
+	 * @param after          only get samples with an identifier greater than this
+	 * @param pageSize       the maximum number of samples to get
+	 * @return a page of {@link UISampleMetadata}
+	 */
+	private List<UISampleMetadata> getSampleMetadataPage(Authentication authentication, Project project, long after,
+			int pageSize) {
+		List<ProjectSampleMetadataRow> rows = sampleService.getSampleMetadataRowsForProject(project, after, pageSize);
+		Set<Long> editable = updateSamplePermission.getUpdatableSampleIds(authentication, rows);
+		return rows.stream()
+				.map(row -> new UISampleMetadata(project, row, editable.contains(row.getSampleId())))
 				.collect(Collectors.toList());
 	}
 
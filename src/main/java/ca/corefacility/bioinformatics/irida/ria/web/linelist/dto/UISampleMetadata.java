@@ -9,6 +9,7 @@ import ca.corefacility.bioinformatics.irida.model.sample.MetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sample.StaticMetadataTemplateField;
 import ca.corefacility.bioinformatics.irida.model.sample.metadata.MetadataEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
 
 /**
  * Represents {@link Sample} metadata in the linelist table.
@@ -41,6 +42,20 @@ public class UISampleMetadata extends HashMap<String, String> {
 		this.put(OWNER, String.valueOf(join.isOwner()));
 	}
 
+	public UISampleMetadata(Project project, ProjectSampleMetadataRow row, boolean editable) {
+		this.put(SAMPLE_ID, String.valueOf(row.getSampleId()));
+		this.put(SAMPLE_NAME, row.getSampleName());
+		this.put(PROJECT_ID, String.valueOf(project.getId()));
+		this.put(PROJECT_NAME, project.getLabel());
+		this.put(CREATED_DATE, row.getCreatedDate()
+				.toString());
+		this.put(MODIFIED_DATE, row.getModifiedDate()
+				.toString());
+		this.putAll(row.getMetadata());
+		this.put(EDITABLE, String.valueOf(editable));
+		this.put(OWNER, String.valueOf(row.isOwner()));
+	}
+
 	/**
 	 * Convert the sample metadata into a format that can be consumed by Ag Grid.
 	 *
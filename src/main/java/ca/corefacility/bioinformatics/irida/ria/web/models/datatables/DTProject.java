@@ -3,6 +3,7 @@ package ca.corefacility.bioinformatics.irida.ria.web.models.datatables;
 import java.util.Date;
 
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.models.DataTablesResponseModel;
 
 /**
@@ -27,6 +28,16 @@ public class DTProject implements DataTablesResponseModel {
 		this.isRemote = project.isRemote();
 	}
 
+	public DTProject(ProjectSummary summary) {
+		this.id = summary.getId();
+		this.name = summary.getName();
+		this.organism = summary.getOrganism();
+		this.samples = summary.getSamples();
+		this.createdDate = summary.getCreatedDate();
+		this.modifiedDate = summary.getModifiedDate();
+		this.isRemote = summary.isRemote();
+	}
+
 	@Override
 	public Long getId() {
 		return id;
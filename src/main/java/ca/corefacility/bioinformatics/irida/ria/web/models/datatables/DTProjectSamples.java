@@ -8,6 +8,7 @@ import org.springframework.context.MessageSource;
 
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportable;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.models.DataTablesResponseModel;
@@ -46,6 +47,19 @@ public class DTProjectSamples implements DataTablesResponseModel, DataTablesExpo
 		this.owner = projectSampleJoin.isOwner();
 	}
 
+	public DTProjectSamples(ProjectSampleRow row, List<String> qcEntries, Double coverage) {
+		this.id = row.getSampleId();
+		this.sampleName = row.getSampleName();
+		this.organism = row.getOrganism();
+		this.projectName = row.getProjectName();
+		this.projectId = row.getProjectId();
+		this.createdDate = row.getCreatedDate();
+		this.modifiedDate = row.getModifiedDate();
+		this.qcEntries = qcEntries;
+		this.coverage = coverage;
+		this.owner = row.isOwner();
+	}
+
 	public Long getId() {
 		return this.id;
 	}
@@ -108,6 +122,17 @@ public class DTProjectSamples implements DataTablesResponseModel, DataTablesExpo
 	 */
 	@Override
 	public List<String> getExportableTableHeaders(MessageSource messageSource, Locale locale) {
+		return getTableHeaders(messageSource, locale);
+	}
+
+	/**
+	 * Get the internationalized headers of an exported project samples table, available before any row is read.
+	 *
+	 * @param messageSource {@link MessageSource}
+	 * @param locale        {@link Locale} for the current user.
+	 * @return List of table headers.
+	 */
+	public static List<String> getTableHeaders(MessageSource messageSource, Locale locale) {
 		List<String> headers = new ArrayList<>();
 		headers.add(messageSource.getMessage("iridaThing.id", new Object[] {}, locale));
 		headers.add(messageSource.getMessage("project.samples.table.name", new Object[] {}, locale));
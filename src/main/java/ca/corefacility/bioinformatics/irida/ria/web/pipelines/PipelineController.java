@@ -26,8 +26,10 @@ import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyToolDat
 import ca.corefacility.bioinformatics.irida.ria.web.BaseController;
 import ca.corefacility.bioinformatics.irida.ria.web.cart.CartController;
 import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.Pipeline;
+import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.PipelineLaunchStatus;
 import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.PipelineStartParameters;
 import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.WorkflowParametersToSave;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIPipelineLaunchService;
 import ca.corefacility.bioinformatics.irida.security.permissions.sample.UpdateSamplePermission;
 import ca.corefacility.bioinformatics.irida.service.*;
 import ca.corefacility.bioinformatics.irida.service.user.UserService;
@@ -95,6 +97,7 @@ public class PipelineController extends BaseController {
 	private AnalysisSubmissionSampleProcessor analysisSubmissionSampleProcessor;
 	private GalaxyToolDataService galaxyToolDataService;
 	private EmailController emailController;
+	private UIPipelineLaunchService pipelineLaunchService;
 
 	/*
 	 * CONTROLLERS
@@ -108,7 +111,8 @@ public class PipelineController extends BaseController {
 			CartController cartController, MessageSource messageSource,
 			final WorkflowNamedParametersService namedParameterService, UpdateSamplePermission updateSamplePermission,
 			AnalysisSubmissionSampleProcessor analysisSubmissionSampleProcessor,
-			GalaxyToolDataService galaxyToolDataService, EmailController emailController) {
+			GalaxyToolDataService galaxyToolDataService, EmailController emailController,
+			UIPipelineLaunchService pipelineLaunchService) {
 		this.sequencingObjectService = sequencingObjectService;
 		this.referenceFileService = referenceFileService;
 		this.analysisSubmissionService = analysisSubmissionService;
@@ -122,6 +126,7 @@ public class PipelineController extends BaseController {
 		this.analysisSubmissionSampleProcessor = analysisSubmissionSampleProcessor;
 		this.galaxyToolDataService = galaxyToolDataService;
 		this.emailController = emailController;
+		this.pipelineLaunchService = pipelineLaunchService;
 	}
 
 	/**
@@ -532,9 +537,15 @@ public class PipelineController extends BaseController {
 
 				if (description.getInputs()
 						.requiresSingleSample()) {
-					analysisSubmissionService.createSingleSampleSubmission(flow, ref, singleEndFiles, sequenceFilePairs,
-							params, namedParameters, name, analysisDescription, projectsToShare, writeResultsToSamples,
-							emailPipelineResult);
+					// a submission is created for each sample, so create them in the background and let the browser
+					// poll for when they're done
+					final IridaWorkflowNamedParameters launchNamedParameters = namedParameters;
+					final List<Project> launchProjectsToShare = projectsToShare;
+					String launchId = pipelineLaunchService.launch(
+							() -> analysisSubmissionService.createSingleSampleSubmission(flow, ref, singleEndFiles,
+									sequenceFilePairs, params, launchNamedParameters, name, analysisDescription,
+									launchProjectsToShare, writeResultsToSamples, emailPipelineResult), locale);
+					return ImmutableMap.of("success", true, "launchId", launchId);
 				} else {
 					analysisSubmissionService.createMultipleSampleSubmission(flow, ref, singleEndFiles,
 							sequenceFilePairs, params, namedParameters, name, analysisDescription, projectsToShare,
@@ -555,6 +566,18 @@ public class PipelineController extends BaseController {
 		return ImmutableMap.of("success", true);
 	}
 
+	/**
+	 * Get the status of a pipeline launch started with {@link #ajaxStartPipeline(Locale, PipelineStartParameters)}.
+	 *
+	 * @param launchId the identifier of the launch
+	 * @return the {@link PipelineLaunchStatus} of the launch
+	 */
+	@RequestMapping(value = "/ajax/start/{launchId}", method = RequestMethod.GET)
+	@ResponseBody
+	public PipelineLaunchStatus getPipelineLaunchStatus(@PathVariable String launchId) {
+		return pipelineLaunchService.getLaunchStatus(launchId);
+	}
+
 	/**
 	 * Get {@link IridaWorkflowDescription} for a workflow/pipeline UUID.
 	 *
@@ -0,0 +1,42 @@
+package ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto;
+
+/**
+ * Status of a pipeline launch creating its analysis submissions in the background, for consumption by the UI.
+ */
+public class PipelineLaunchStatus {
+	/**
+	 * State of a pipeline launch.
+	 */
+	public enum State {
+		RUNNING,
+		COMPLETED,
+		ERROR
+	}
+
+	private State state;
+	private int submissions;
+	private String error;
+
+	public PipelineLaunchStatus(State state, int submissions, String error) {
+		this.state = state;
+		this.submissions = submissions;
+		this.error = error;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Get the number of analysis submissions created by the launch
+	 *
+	 * @return the number of submissions created, 0 until the launch is completed
+	 */
+	public int getSubmissions() {
+		return submissions;
+	}
+
+	public String getError() {
+		return error;
+	}
+}
@@ -1,14 +1,11 @@
 package ca.corefacility.bioinformatics.irida.ria.web.projects;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -21,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.MediaType;
@@ -31,13 +29,14 @@ import org.springframework.web.bind.annotation.*;
 
 import ca.corefacility.bioinformatics.irida.exceptions.EntityExistsException;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
-import ca.corefacility.bioinformatics.irida.exceptions.SequenceFileAnalysisException;
 import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.RelatedProjectJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportToFile;
@@ -45,11 +44,13 @@ import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTa
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesParams;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesResponse;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.config.DataTablesRequest;
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.export.PagedExportIterator;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.models.DataTablesResponseModel;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.models.ProjectSampleModel;
 import ca.corefacility.bioinformatics.irida.ria.web.models.UISampleFilter;
 import ca.corefacility.bioinformatics.irida.ria.web.models.datatables.DTProjectSamples;
 import ca.corefacility.bioinformatics.irida.ria.web.projects.dto.ProjectCartSample;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UISequenceFilesZipService;
 import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
@@ -70,6 +71,11 @@ public class ProjectSamplesController {
 	private static final String ACTIVE_NAV = "activeNav";
 	private static final String ACTIVE_NAV_SAMPLES = "samples";
 
+	/**
+	 * The number of samples read at a time when exporting the samples table.
+	 */
+	private static final int EXPORT_PAGE_SIZE = 1000;
+
 	public static final String PROJECT_NAME_PROPERTY = "name";
 
 	// Page Names
@@ -83,16 +89,18 @@ public class ProjectSamplesController {
 	private final SampleService sampleService;
 	private final ProjectControllerUtils projectControllerUtils;
 	private final SequencingObjectService sequencingObjectService;
+	private final UISequenceFilesZipService sequenceFilesZipService;
 	private MessageSource messageSource;
 
 	@Autowired
 	public ProjectSamplesController(ProjectService projectService, SampleService sampleService, SequencingObjectService sequencingObjectService, ProjectControllerUtils projectControllerUtils,
-			MessageSource messageSource) {
+			MessageSource messageSource, UISequenceFilesZipService sequenceFilesZipService) {
 		this.projectService = projectService;
 		this.sampleService = sampleService;
 		this.sequencingObjectService = sequencingObjectService;
 		this.projectControllerUtils = projectControllerUtils;
 		this.messageSource = messageSource;
+		this.sequenceFilesZipService = sequenceFilesZipService;
 	}
 
 	/**
@@ -417,50 +425,73 @@ public class ProjectSamplesController {
 		// This project is always in the query.
 		projects.add(projectService.read(projectId));
 
-		final Page<ProjectSampleJoin> page = sampleService.getFilteredSamplesForProjects(projects, sampleNames,
+		final Page<ProjectSampleRow> page = sampleService.getFilteredProjectSampleRows(projects, sampleNames,
 				filter.getName(), params.getSearchValue(), filter.getOrganism(), filter.getStartDate(),
 				filter.getEndDate(), params.getCurrentPage(), params.getLength(), params.getSort());
 
 		// Create DataTables representation of the page.
+		Map<Long, Project> projectsById = getProjectsById(projects);
+		Map<Long, SampleQCSummary> summaries = getQCSummaries(projects, page);
 		List<DataTablesResponseModel> models = new ArrayList<>();
-		for (ProjectSampleJoin psj : page.getContent()) {
-			models.add(buildProjectSampleDataTablesModel(psj, locale));
+		for (ProjectSampleRow row : page.getContent()) {
+			models.add(buildProjectSampleDataTablesModel(row, projectsById.get(row.getProjectId()),
+					summaries.get(row.getSampleId()), locale));
 		}
 		return new DataTablesResponse(params, page, models);
 	}
 
 	/**
-	 * Build a {@link ProjectSampleModel} object for a given {@link Sample}
+	 * Get the {@link Project}s listed in a table by their identifiers, so their genome size and coverage settings can
+	 * be applied to the rows without reading each row's project again
 	 *
-	 * @param sso    a {@link ProjectSampleJoin} to build the {@link ProjectSampleModel} from
-	 * @param locale of the current user.
-	 * @return a newly constructed {@link ProjectSampleModel}
+	 * @param projects the {@link Project}s in the table
+	 * @return the projects, keyed by id
 	 */
-	private DTProjectSamples buildProjectSampleDataTablesModel(ProjectSampleJoin sso, Locale locale) {
-		Project project = sso.getSubject();
-		Long genomeSize = project.getGenomeSize();
-		Sample sample = sso.getObject();
-		Double coverage = null;
+	private Map<Long, Project> getProjectsById(List<Project> projects) {
+		return projects.stream()
+				.collect(Collectors.toMap(Project::getId, p -> p, (a, b) -> a));
+	}
 
-		if (genomeSize != null) {
-			try {
-				coverage = sampleService.estimateCoverageForSample(sample, genomeSize);
-			} catch (SequenceFileAnalysisException e) {
-				// Don't need to do anything here.
-			}
-		}
-		List<QCEntry> qcEntriesForSample = sampleService.getQCEntriesForSample(sample);
+	/**
+	 * Get the {@link SampleQCSummary}s of the {@link Sample}s on a page with a single call
+	 *
+	 * @param projects the {@link Project}s the page was read from
+	 * @param page     the page of {@link ProjectSampleRow}s
+	 * @return the summaries, keyed by sample id
+	 */
+	private Map<Long, SampleQCSummary> getQCSummaries(List<Project> projects, Slice<ProjectSampleRow> page) {
+		Set<Long> sampleIds = page.getContent()
+				.stream()
+				.map(ProjectSampleRow::getSampleId)
+				.collect(Collectors.toSet());
+		return sampleService.getQCSummariesForProjectSamples(projects, sampleIds);
+	}
+
+	/**
+	 * Build a {@link DTProjectSamples} object for a given {@link ProjectSampleRow}
+	 *
+	 * @param row     a {@link ProjectSampleRow} to build the {@link DTProjectSamples} from
+	 * @param project the {@link Project} of the row
+	 * @param summary the {@link SampleQCSummary} of the sample, null if it has none
+	 * @param locale  of the current user.
+	 * @return a newly constructed {@link DTProjectSamples}
+	 */
+	private DTProjectSamples buildProjectSampleDataTablesModel(ProjectSampleRow row, Project project,
+			SampleQCSummary summary, Locale locale) {
+		Double coverage = null;
 		List<String> list = new ArrayList<>();
-		for (QCEntry q : qcEntriesForSample) {
-			q.addProjectSettings(project);
-			String status = q.getStatus()
-					.toString();
-			if (q.getStatus() == QCEntry.QCEntryStatus.NEGATIVE) {
-				list.add(
-						messageSource.getMessage("sample.files.qc." + q.getType(), new Object[] { q.getMessage() }, locale));
+
+		if (summary != null) {
+			coverage = summary.getCoverage(project.getGenomeSize());
+			for (QCEntry q : summary.getWorstQCEntries()) {
+				q.addProjectSettings(project);
+				if (q.getStatus() == QCEntry.QCEntryStatus.NEGATIVE) {
+					list.add(messageSource.getMessage("sample.files.qc." + q.getType(),
+							new Object[] { q.getMessage() }, locale));
+				}
 			}
 		}
-		return new DTProjectSamples(sso, list, coverage);
+		return new DTProjectSamples(row, list, coverage);
 	}
 
 	/**
@@ -491,15 +522,13 @@ public class ProjectSamplesController {
 				(Collection<? extends Project>) projectService.readMultiple(associatedProjectIds));
 
 		Sort sort = Sort.by(Direction.ASC, "id");
-		final Page<ProjectSampleJoin> page = sampleService.getFilteredSamplesForProjects(projects, sampleNames,
+		final Page<ProjectSampleRow> page = sampleService.getFilteredProjectSampleRows(projects, sampleNames,
 				filter.getName(), params.getSearchValue(), filter.getOrganism(), filter.getStartDate(),
 				filter.getEndDate(), 0, Integer.MAX_VALUE, params.getSort());
 
 		// Converting everything to a string for consumption by the UI.
-		Map<String, List<String>> result = new HashMap<>();
-		for (ProjectSampleJoin join : page) {
-			cartSamples.add(new ProjectCartSample(join.getObject(), join.getSubject()
-					.getId()));
+		for (ProjectSampleRow row : page) {
+			cartSamples.add(new ProjectCartSample(row));
 		}
 
 		return cartSamples;
@@ -772,41 +801,30 @@ public class ProjectSamplesController {
 		response.setHeader("Content-Disposition", "attachment; filename=\"" + project.getName() + ".zip\"");
 		response.setHeader("Transfer-Encoding", "chunked");
 
-		// storing used file names to ensure we don't have a conflict
-		Set<String> usedFileNames = new HashSet<>();
-
-		try (ZipOutputStream outputStream = new ZipOutputStream(response.getOutputStream())) {
-			for (Sample sample : samples) {
-				Collection<SampleSequencingObjectJoin> sequencingObjectsForSample = sequencingObjectService
-						.getSequencingObjectsForSample(sample);
-
-				for (SampleSequencingObjectJoin join : sequencingObjectsForSample) {
-					for (SequenceFile file : join.getObject().getFiles()) {
-						Path path = file.getFile();
-
-						String fileName = project.getName() + "/" + sample.getSampleName() + "/" + path.getFileName()
-								.toString();
-						if (usedFileNames.contains(fileName)) {
-							fileName = handleDuplicate(fileName, usedFileNames);
-						}
-						final ZipEntry entry = new ZipEntry(fileName);
-						// set the file creation time on the zip entry to be
-						// whatever the creation time is on the filesystem
-						final BasicFileAttributes attr = Files.readAttributes(path, BasicFileAttributes.class);
-						entry.setCreationTime(attr.creationTime());
-						entry.setLastModifiedTime(attr.creationTime());
+		Map<Long, List<SampleSequencingObjectJoin>> sequencingObjects = sequencingObjectService
+				.getSequencingObjectsForSamples(samples);
 
-						outputStream.putNextEntry(entry);
-
-						usedFileNames.add(fileName);
-
-						Files.copy(path, outputStream);
-
-						outputStream.closeEntry();
+		// storing used file names to ensure we don't have a conflict
+		Map<String, SequenceFile> files = new LinkedHashMap<>();
+		for (Sample sample : samples) {
+			for (SampleSequencingObjectJoin join : sequencingObjects.getOrDefault(sample.getId(),
+					Collections.emptyList())) {
+				for (SequenceFile file : join.getObject()
+						.getFiles()) {
+					Path path = file.getFile();
+
+					String fileName = project.getName() + "/" + sample.getSampleName() + "/" + path.getFileName()
+							.toString();
+					if (files.containsKey(fileName)) {
+						fileName = handleDuplicate(fileName, files.keySet());
 					}
+					files.put(fileName, file);
 				}
 			}
-			outputStream.finish();
+		}
+
+		try {
+			sequenceFilesZipService.writeZip(response.getOutputStream(), files);
 		} catch (IOException e) {
 			// this generally means that the user has cancelled the download
 			// from their web browser; we can safely ignore this
@@ -876,19 +894,30 @@ public class ProjectSamplesController {
 		}
 		projects.add(project);
 
-		final Page<ProjectSampleJoin> page = sampleService
-				.getFilteredSamplesForProjects(projects, sampleNames, filter.getName(), params.getSearchValue(), filter.getOrganism(), filter.getStartDate(),
-						filter.getEndDate(), 0, Integer.MAX_VALUE, params.getSort());
+		// Read the samples a page at a time as they're written.  Each page starts after the last sample of the previous
+		// one in the table's sort order, so samples added or removed during the export don't shift the pages.
+		final Sort exportSort = params.getSort() != null ? params.getSort() : Sort.unsorted();
+		final List<Project> exportProjects = projects;
+		final Map<Long, Project> projectsById = getProjectsById(projects);
+		final AtomicReference<ProjectSampleRow> lastRow = new AtomicReference<>();
+		PagedExportIterator<DTProjectSamples> models = new PagedExportIterator<>(() -> {
+			Slice<ProjectSampleRow> page = sampleService.getFilteredProjectSampleRowsAfter(exportProjects,
+					sampleNames, filter.getName(), params.getSearchValue(), filter.getOrganism(),
+					filter.getStartDate(), filter.getEndDate(), lastRow.get(), EXPORT_PAGE_SIZE, exportSort);
+			if (page.hasContent()) {
+				lastRow.set(page.getContent()
+						.get(page.getNumberOfElements() - 1));
+			}
+
+			// Create DataTables representation of the page.
+			Map<Long, SampleQCSummary> summaries = getQCSummaries(exportProjects, page);
+			return page.map(row -> buildProjectSampleDataTablesModel(row, projectsById.get(row.getProjectId()),
+					summaries.get(row.getSampleId()), locale));
+		});
 
-		// Create DataTables representation of the page.
-		List<DTProjectSamples> models = new ArrayList<>();
-		for (ProjectSampleJoin psj : page.getContent()) {
-			models.add(buildProjectSampleDataTablesModel(psj, locale));
-		}
-		List<String> headers = models.get(0)
-				.getExportableTableHeaders(messageSource, locale);
+		List<String> headers = DTProjectSamples.getTableHeaders(messageSource, locale);
 		DataTablesExportToFile.writeFile(type, response, project.getLabel()
-				.replace(" ", "_"), models, headers);
+				.replace(" ", "_"), headers, models);
 	}
 
 	/**
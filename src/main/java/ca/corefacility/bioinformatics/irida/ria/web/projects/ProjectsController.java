@@ -26,6 +26,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Scope;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.format.Formatter;
 import org.springframework.format.datetime.DateFormatter;
 import org.springframework.http.HttpStatus;
@@ -42,13 +45,12 @@ import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.IridaOAuthException;
 import ca.corefacility.bioinformatics.irida.exceptions.ProjectWithoutOwnerException;
 import ca.corefacility.bioinformatics.irida.model.RemoteAPI;
-import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.model.project.ProjectSyncFrequency;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus.SyncStatus;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
-import ca.corefacility.bioinformatics.irida.model.user.User;
 import ca.corefacility.bioinformatics.irida.ria.utilities.converters.FileSizeConverter;
 import ca.corefacility.bioinformatics.irida.ria.web.cart.CartController;
 import ca.corefacility.bioinformatics.irida.ria.web.models.datatables.DTProject;
@@ -57,8 +59,6 @@ import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.RemoteAPIService;
 import ca.corefacility.bioinformatics.irida.service.TaxonomyService;
 import ca.corefacility.bioinformatics.irida.service.remote.ProjectRemoteService;
-import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
-import ca.corefacility.bioinformatics.irida.service.user.UserService;
 import ca.corefacility.bioinformatics.irida.service.workflow.IridaWorkflowsService;
 import ca.corefacility.bioinformatics.irida.util.TreeNode;
 
@@ -90,8 +90,6 @@ public class ProjectsController {
 
 	// Services
 	private final ProjectService projectService;
-	private final SampleService sampleService;
-	private final UserService userService;
 	private final ProjectControllerUtils projectControllerUtils;
 	private final TaxonomyService taxonomyService;
 	private final MessageSource messageSource;
@@ -115,13 +113,10 @@ public class ProjectsController {
 			ImmutableMap.of("format", "xlsx", "name", "Excel"), ImmutableMap.of("format", "csv", "name", "CSV"));
 
 	@Autowired
-	public ProjectsController(ProjectService projectService, SampleService sampleService, UserService userService,
-			ProjectRemoteService projectRemoteService, ProjectControllerUtils projectControllerUtils,
-			TaxonomyService taxonomyService, RemoteAPIService remoteApiService, IridaWorkflowsService workflowsService,
+	public ProjectsController(ProjectService projectService, ProjectRemoteService projectRemoteService,
+			ProjectControllerUtils projectControllerUtils, TaxonomyService taxonomyService, RemoteAPIService remoteApiService, IridaWorkflowsService workflowsService,
 			CartController cartController, UpdateSamplePermission updateSamplePermission, MessageSource messageSource) {
 		this.projectService = projectService;
-		this.sampleService = sampleService;
-		this.userService = userService;
 		this.projectRemoteService = projectRemoteService;
 		this.projectControllerUtils = projectControllerUtils;
 		this.taxonomyService = taxonomyService;
@@ -437,36 +432,33 @@ public class ProjectsController {
 	 * @param type      of file to export (csv or excel)
 	 * @param isAdmin   if the currently logged in user is an administrator
 	 * @param response  {@link HttpServletResponse}
-	 * @param principal {@link Principal}
 	 * @param locale    {@link Locale}
 	 * @throws IOException thrown if cannot open the {@link HttpServletResponse} {@link OutputStream}
 	 */
 	@RequestMapping("/projects/ajax/export")
 	public void exportProjectsToFile(@RequestParam(value = "dtf") String type,
 			@RequestParam(required = false, defaultValue = "false", value = "admin") Boolean isAdmin,
-			HttpServletResponse response, Principal principal, Locale locale) throws IOException {
+			HttpServletResponse response, Locale locale) throws IOException {
 		// Let's make sure the export type is set properly
 		if (!(type.equalsIgnoreCase("xlsx") || type.equalsIgnoreCase("csv"))) {
 			throw new IllegalArgumentException(
 					"No file type sent for downloading all projects.  Expecting parameter 'dtf=' xlsx or csv");
 		}
 
-		List<Project> projects;
+		Page<ProjectSummary> projects;
+		Sort sort = Sort.by(Direction.ASC, "id");
 		// If viewing the admin projects page give the user all the projects.
 		if (isAdmin) {
-			projects = (List<Project>) projectService.findAll();
+			projects = projectService.findAllProjectSummaries("", 0, Integer.MAX_VALUE, sort);
 		}
 		// If on the users projects page, give the user their projects.
 		else {
-			User user = userService.getUserByUsername(principal.getName());
-			projects = projectService.getProjectsForUser(user)
-					.stream()
-					.map(Join::getSubject)
-					.collect(Collectors.toList());
+			projects = projectService.findProjectSummariesForUser("", 0, Integer.MAX_VALUE, sort);
 		}
 
-		List<DTProject> dtProjects = projects.stream()
-				.map(this::createDataTablesProject)
+		List<DTProject> dtProjects = projects.getContent()
+				.stream()
+				.map(DTProject::new)
 				.collect(Collectors.toList());
 		List<String> headers = ImmutableList.of("ProjectsTable_th_id", "ProjectsTable_th_name", "ProjectsTable_th_organism", "ProjectsTable_th_samples", "ProjectsTable_th_created_date", "ProjectsTable_th_modified_date")
 				.stream()
@@ -640,16 +632,6 @@ public class ProjectsController {
 		return current;
 	}
 
-	/**
-	 * Extract the details of the a {@link Project} into a {@link DTProject} which is consumable by the UI
-	 *
-	 * @param project {@link Project}
-	 * @return {@link DTProject}
-	 */
-	private DTProject createDataTablesProject(Project project) {
-		return new DTProject(project, sampleService.getNumberOfSamplesForProject(project));
-	}
-
 	/**
 	 * Response class for a {@link Project} and its {@link RemoteStatus}
 	 */
@@ -1,5 +1,6 @@
 package ca.corefacility.bioinformatics.irida.ria.web.projects.dto;
 
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 
 /**
@@ -19,6 +20,12 @@ public class ProjectCartSample {
 		this.projectId = projectId;
 	}
 
+	public ProjectCartSample(ProjectSampleRow row) {
+		this.id = row.getSampleId();
+		this.sampleName = row.getSampleName();
+		this.projectId = row.getProjectId();
+	}
+
 	public long getId() {
 		return id;
 	}
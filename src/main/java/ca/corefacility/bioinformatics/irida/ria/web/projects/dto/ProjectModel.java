@@ -1,6 +1,7 @@
 package ca.corefacility.bioinformatics.irida.ria.web.projects.dto;
 
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableModel;
 
 /**
@@ -9,13 +10,15 @@ import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableMo
 public class ProjectModel extends TableModel {
 	private String organism;
 	private Long samples;
+	private Long members;
 	private boolean isRemote;
 
-	public ProjectModel(Project project, Long samples) {
-		super(project.getId(), project.getName(), project.getCreatedDate(), project.getModifiedDate());
-		this.organism = project.getOrganism();
-		this.samples = samples;
-		this.isRemote = project.isRemote();
+	public ProjectModel(ProjectSummary summary) {
+		super(summary.getId(), summary.getName(), summary.getCreatedDate(), summary.getModifiedDate());
+		this.organism = summary.getOrganism();
+		this.samples = summary.getSamples();
+		this.members = summary.getMembers();
+		this.isRemote = summary.isRemote();
 	}
 
 	public String getOrganism() {
@@ -26,6 +29,10 @@ public class ProjectModel extends TableModel {
 		return samples;
 	}
 
+	public Long getMembers() {
+		return members;
+	}
+
 	public boolean isRemote() {
 		return isRemote;
 	}
@@ -0,0 +1,303 @@
+package ca.corefacility.bioinformatics.irida.ria.web.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
+import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.ria.web.analysis.dto.AnalysisProgressModel;
+import ca.corefacility.bioinformatics.irida.ria.web.analysis.dto.AnalysisStateModel;
+import ca.corefacility.bioinformatics.irida.security.permissions.analysis.ReadAnalysisSubmissionPermission;
+import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
+
+/**
+ * Service class for the UI for pushing the progress of {@link AnalysisSubmission}s to browsers with server-sent
+ * events. The progress of every analysis being watched is read once every {@code analysis.progress.push.interval}
+ * seconds, no matter how many browsers are watching it, and only sent when it has changed. Each browser is checked
+ * for permission to read the analysis before it's sent progress. Progress of running analyses comes from the status
+ * cached by the analysis monitoring task, so watching an analysis doesn't ask Galaxy for its status.
+ */
+@Component
+public class UIAnalysisProgressService {
+	private static final Logger logger = LoggerFactory.getLogger(UIAnalysisProgressService.class);
+
+	/**
+	 * How long a browser is subscribed for before it has to reconnect.
+	 */
+	private static final long SUBSCRIPTION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	private final AnalysisSubmissionService analysisSubmissionService;
+	private final ReadAnalysisSubmissionPermission readAnalysisSubmissionPermission;
+	private final MessageSource messageSource;
+	private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+	private final ScheduledFuture<?> pushTask;
+
+	@Autowired
+	public UIAnalysisProgressService(AnalysisSubmissionService analysisSubmissionService,
+			ReadAnalysisSubmissionPermission readAnalysisSubmissionPermission, MessageSource messageSource,
+			@Qualifier("analysisProgressScheduler") TaskScheduler scheduler,
+			@Value("${analysis.progress.push.interval:5}") long pushInterval) {
+		this.analysisSubmissionService = analysisSubmissionService;
+		this.readAnalysisSubmissionPermission = readAnalysisSubmissionPermission;
+		this.messageSource = messageSource;
+		Duration interval = Duration.ofSeconds(pushInterval);
+		this.pushTask = scheduler.scheduleWithFixedDelay(this::pushProgress, Instant.now()
+				.plus(interval), interval);
+	}
+
+	/**
+	 * Subscribe to the progress of an {@link AnalysisSubmission}. The current progress is sent immediately, then again
+	 * each time it changes until the analysis is completed or in error.
+	 *
+	 * @param submissionId the identifier of the {@link AnalysisSubmission}
+	 * @param locale       the locale of the current user
+	 * @return the {@link SseEmitter} the progress is sent with
+	 * @throws ExecutionManagerException if the status of a running analysis could not be read
+	 */
+	public SseEmitter subscribe(Long submissionId, Locale locale) throws ExecutionManagerException {
+		// reading the progress here checks that the user can read the submission
+		Progress progress = readProgress(submissionId);
+
+		SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(SecurityContextHolder.getContext()
+				.getAuthentication());
+
+		SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MILLIS);
+		Subscription subscription = new Subscription(emitter, locale, context);
+
+		subscription.send(progress);
+		if (progress.isFinal()) {
+			emitter.complete();
+			return emitter;
+		}
+
+		subscriptions.computeIfAbsent(submissionId, id -> ConcurrentHashMap.newKeySet())
+				.add(subscription);
+		emitter.onCompletion(() -> unsubscribe(submissionId, subscription));
+		emitter.onTimeout(() -> unsubscribe(submissionId, subscription));
+		emitter.onError(e -> unsubscribe(submissionId, subscription));
+
+		return emitter;
+	}
+
+	/**
+	 * Get the current state and percent complete of an {@link AnalysisSubmission}, for browsers that can't subscribe
+	 * to server-sent events and poll instead.
+	 *
+	 * @param submissionId the identifier of the {@link AnalysisSubmission}
+	 * @param locale       the locale of the current user
+	 * @return the {@link AnalysisProgressModel} of the submission
+	 * @throws ExecutionManagerException if the status of a running analysis could not be read
+	 */
+	public AnalysisProgressModel getProgress(Long submissionId, Locale locale) throws ExecutionManagerException {
+		return toModel(readProgress(submissionId), locale);
+	}
+
+	/**
+	 * Send the progress of every watched {@link AnalysisSubmission} that has changed since it was last sent. The
+	 * subscriptions of users who can no longer read an analysis are closed, the progress is read once as one of the
+	 * remaining users, and subscriptions are closed once an analysis is completed or in error.
+	 */
+	public void pushProgress() {
+		for (Map.Entry<Long, Set<Subscription>> entry : subscriptions.entrySet()) {
+			Long submissionId = entry.getKey();
+			Set<Subscription> watchers = entry.getValue();
+
+			// check each user separately, so losing access only closes that user's subscription
+			for (Subscription watcher : watchers) {
+				if (!canRead(watcher, submissionId)) {
+					logger.debug("Closing subscription to analysis submission " + submissionId
+							+ ", the user can no longer read it");
+					watchers.remove(watcher);
+					watcher.emitter.complete();
+				}
+			}
+			if (watchers.isEmpty()) {
+				subscriptions.remove(submissionId, watchers);
+				continue;
+			}
+
+			Progress progress;
+			try {
+				progress = new DelegatingSecurityContextCallable<>(() -> readProgress(submissionId),
+						watchers.iterator()
+								.next().context).call();
+			} catch (ExecutionManagerException e) {
+				logger.debug("Could not read progress of analysis submission " + submissionId, e);
+				continue;
+			} catch (Exception e) {
+				logger.debug("Closing subscriptions to analysis submission " + submissionId, e);
+				subscriptions.remove(submissionId);
+				watchers.forEach(w -> w.emitter.complete());
+				continue;
+			}
+
+			for (Subscription watcher : watchers) {
+				watcher.send(progress);
+			}
+
+			if (progress.isFinal()) {
+				subscriptions.remove(submissionId);
+				watchers.forEach(w -> w.emitter.complete());
+			}
+		}
+	}
+
+	/**
+	 * Get the number of {@link AnalysisSubmission}s currently being watched
+	 *
+	 * @return the number of watched submissions
+	 */
+	public int getWatchedSubmissionCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Stop pushing progress when the application is shut down. The scheduler itself is shut down by Spring.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (pushTask != null) {
+			pushTask.cancel(false);
+		}
+	}
+
+	/**
+	 * Check whether the user watching an {@link AnalysisSubmission} can still read it
+	 *
+	 * @param watcher      the {@link Subscription} of the user
+	 * @param submissionId the identifier of the {@link AnalysisSubmission}
+	 * @return true if the user can read the submission
+	 */
+	private boolean canRead(Subscription watcher, Long submissionId) {
+		try {
+			return readAnalysisSubmissionPermission.isAllowed(watcher.context.getAuthentication(), submissionId);
+		} catch (EntityNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Read the state and percent complete of an {@link AnalysisSubmission} as the current user
+	 *
+	 * @param submissionId the identifier of the {@link AnalysisSubmission}
+	 * @return the {@link Progress} of the submission
+	 * @throws ExecutionManagerException if the status of a running analysis could not be read
+	 */
+	private Progress readProgress(Long submissionId) throws ExecutionManagerException {
+		AnalysisSubmission submission = analysisSubmissionService.read(submissionId);
+		AnalysisState state = submission.getAnalysisState();
+
+		float percentComplete = 0;
+		if (state != AnalysisState.ERROR) {
+			percentComplete = analysisSubmissionService.getPercentCompleteForAnalysisSubmission(submissionId);
+		}
+
+		return new Progress(state, percentComplete);
+	}
+
+	/**
+	 * Build the UI representation of the progress of an {@link AnalysisSubmission}
+	 *
+	 * @param progress the {@link Progress} of the submission
+	 * @param locale   the locale of the user it is sent to
+	 * @return the {@link AnalysisProgressModel}
+	 */
+	private AnalysisProgressModel toModel(Progress progress, Locale locale) {
+		String label = messageSource.getMessage("analysis.state." + progress.state, new Object[] {}, locale);
+		return new AnalysisProgressModel(new AnalysisStateModel(label, progress.state.name()),
+				progress.percentComplete);
+	}
+
+	/**
+	 * Remove a closed subscription
+	 *
+	 * @param submissionId the identifier of the watched {@link AnalysisSubmission}
+	 * @param subscription the {@link Subscription} to remove
+	 */
+	private void unsubscribe(Long submissionId, Subscription subscription) {
+		Set<Subscription> watchers = subscriptions.get(submissionId);
+		if (watchers != null) {
+			watchers.remove(subscription);
+		}
+	}
+
+	/**
+	 * The state and percent complete of an analysis submission
+	 */
+	private static class Progress {
+		private final AnalysisState state;
+		private final float percentComplete;
+
+		Progress(AnalysisState state, float percentComplete) {
+			this.state = state;
+			this.percentComplete = percentComplete;
+		}
+
+		boolean isFinal() {
+			return state == AnalysisState.COMPLETED || state == AnalysisState.ERROR;
+		}
+	}
+
+	/**
+	 * A browser watching an analysis submission, and the progress it was last sent.
+	 */
+	private class Subscription {
+		private final SseEmitter emitter;
+		private final Locale locale;
+		private final SecurityContext context;
+		private AnalysisProgressModel lastSent;
+
+		Subscription(SseEmitter emitter, Locale locale, SecurityContext context) {
+			this.emitter = emitter;
+			this.locale = locale;
+			this.context = context;
+		}
+
+		/**
+		 * Send progress to the browser if it has changed since it was last sent
+		 *
+		 * @param progress the current {@link Progress}
+		 */
+		synchronized void send(Progress progress) {
+			AnalysisProgressModel model = toModel(progress, locale);
+			if (model.equals(lastSent)) {
+				return;
+			}
+
+			try {
+				emitter.send(SseEmitter.event()
+						.name("progress")
+						.data(model));
+				lastSent = model;
+			} catch (IOException | IllegalStateException e) {
+				logger.trace("Could not send analysis progress, browser has likely disconnected", e);
+				emitter.completeWithError(e);
+			}
+		}
+	}
+}
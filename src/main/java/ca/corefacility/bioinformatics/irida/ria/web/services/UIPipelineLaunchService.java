@@ -0,0 +1,119 @@
+package ca.corefacility.bioinformatics.irida.ria.web.services;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.PipelineLaunchStatus;
+import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.PipelineLaunchStatus.State;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Service class for the UI for launching pipelines in the background. Creating the {@link AnalysisSubmission}s for a
+ * pipeline launched on thousands of samples takes longer than a browser should wait, so the submissions are created
+ * as the launching user on {@code pipeline.launch.threads} threads, and the browser polls for the status of the
+ * launch with the identifier it is given.
+ */
+@Component
+public class UIPipelineLaunchService {
+	private static final Logger logger = LoggerFactory.getLogger(UIPipelineLaunchService.class);
+
+	/**
+	 * How long the status of a launch is kept after it was started.
+	 */
+	private static final long LAUNCH_RETENTION_HOURS = 12;
+
+	private final MessageSource messageSource;
+	private final TaskExecutor launchExecutor;
+	private final Cache<String, Launch> launches = CacheBuilder.newBuilder()
+			.expireAfterWrite(LAUNCH_RETENTION_HOURS, TimeUnit.HOURS)
+			.build();
+
+	@Autowired
+	public UIPipelineLaunchService(MessageSource messageSource,
+			@Qualifier("pipelineLaunchExecutor") TaskExecutor launchExecutor) {
+		this.messageSource = messageSource;
+		this.launchExecutor = launchExecutor;
+	}
+
+	/**
+	 * Start creating the {@link AnalysisSubmission}s of a pipeline launch as the current user.
+	 *
+	 * @param createSubmissions creates the submissions and returns them
+	 * @param locale            the locale of the current user
+	 * @return the identifier to get the status of the launch with
+	 */
+	public String launch(Callable<Collection<AnalysisSubmission>> createSubmissions, Locale locale) {
+		Authentication authentication = SecurityContextHolder.getContext()
+				.getAuthentication();
+		SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(authentication);
+
+		String launchId = UUID.randomUUID()
+				.toString();
+		Launch launch = new Launch(authentication.getName());
+		launches.put(launchId, launch);
+
+		launchExecutor.execute(new DelegatingSecurityContextRunnable(() -> {
+			try {
+				Collection<AnalysisSubmission> submissions = createSubmissions.call();
+				launch.status = new PipelineLaunchStatus(State.COMPLETED, submissions.size(), null);
+				logger.debug("Pipeline launch " + launchId + " created " + submissions.size() + " submissions");
+			} catch (Exception e) {
+				logger.error("Pipeline launch " + launchId + " failed", e);
+				launch.status = new PipelineLaunchStatus(State.ERROR, 0,
+						messageSource.getMessage("pipeline.error.launch-failed", null, locale));
+			}
+		}, context));
+
+		return launchId;
+	}
+
+	/**
+	 * Get the status of a pipeline launch started by the current user
+	 *
+	 * @param launchId the identifier of the launch
+	 * @return the {@link PipelineLaunchStatus} of the launch
+	 * @throws EntityNotFoundException if the current user didn't start a launch with the identifier, or its status
+	 *                                 has expired
+	 */
+	public PipelineLaunchStatus getLaunchStatus(String launchId) throws EntityNotFoundException {
+		Launch launch = launches.getIfPresent(launchId);
+		if (launch == null || !launch.username.equals(SecurityContextHolder.getContext()
+				.getAuthentication()
+				.getName())) {
+			throw new EntityNotFoundException("No pipeline launch with id " + launchId);
+		}
+		return launch.status;
+	}
+
+	/**
+	 * A pipeline launch and the user who started it
+	 */
+	private static class Launch {
+		private final String username;
+		private volatile PipelineLaunchStatus status = new PipelineLaunchStatus(State.RUNNING, 0, null);
+
+		Launch(String username) {
+			this.username = username;
+		}
+	}
+}
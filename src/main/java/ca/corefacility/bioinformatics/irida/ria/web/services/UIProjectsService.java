@@ -9,13 +9,12 @@ import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
-import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableRequest;
 import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableResponse;
 import ca.corefacility.bioinformatics.irida.ria.web.projects.dto.ProjectModel;
 import ca.corefacility.bioinformatics.irida.ria.web.projects.settings.dto.Role;
 import ca.corefacility.bioinformatics.irida.service.ProjectService;
-import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
 
 import com.google.common.collect.ImmutableList;
 
@@ -25,7 +24,6 @@ import com.google.common.collect.ImmutableList;
 @Component
 public class UIProjectsService {
 	private final ProjectService projectService;
-	private final SampleService sampleService;
 	private final MessageSource messageSource;
 
 	/*
@@ -34,9 +32,8 @@ public class UIProjectsService {
 	private final List<String> PROJECT_ROLES = ImmutableList.of("PROJECT_USER", "PROJECT_OWNER");
 
 	@Autowired
-	public UIProjectsService(ProjectService projectService, SampleService sampleService, MessageSource messageSource) {
+	public UIProjectsService(ProjectService projectService, MessageSource messageSource) {
 		this.projectService = projectService;
-		this.sampleService = sampleService;
 		this.messageSource = messageSource;
 	}
 
@@ -53,17 +50,20 @@ public class UIProjectsService {
 	}
 
 	/**
-	 * Get the table contents for the projects listing table based on the user and table request.
+	 * Get the table contents for the projects listing table based on the user and table request. The projects on the
+	 * page are read with their sample and member counts, so the page can also be sorted by the number of samples.
 	 *
 	 * @param tableRequest - {@link TableRequest}
 	 * @param isAdmin - whether this is the full administration table or a user listing.
 	 * @return {@link TableResponse} with the current list of projects
 	 */
 	public TableResponse getPagedProjects(TableRequest tableRequest, Boolean isAdmin) {
-		Page<Project> page = isAdmin ? getPagedProjectsForAdmin(tableRequest) : getPagedProjectsForUser(tableRequest);
+		Page<ProjectSummary> page = isAdmin ?
+				getPagedProjectsForAdmin(tableRequest) :
+				getPagedProjectsForUser(tableRequest);
 		List<ProjectModel> projects = page.getContent()
 				.stream()
-				.map(p -> new ProjectModel(p, sampleService.getNumberOfSamplesForProject(p)))
+				.map(ProjectModel::new)
 				.collect(Collectors.toList());
 		return new TableResponse(projects, page.getTotalElements());
 	}
@@ -74,8 +74,8 @@ public class UIProjectsService {
 	 * @param tableRequest - {@link TableRequest}
 	 * @return {@link TableResponse} with the current list of projects
 	 */
-	private Page<Project> getPagedProjectsForAdmin(TableRequest tableRequest) {
-		return projectService.findAllProjects(tableRequest.getSearch(), tableRequest.getCurrent(),
+	private Page<ProjectSummary> getPagedProjectsForAdmin(TableRequest tableRequest) {
+		return projectService.findAllProjectSummaries(tableRequest.getSearch(), tableRequest.getCurrent(),
 				tableRequest.getPageSize(), tableRequest.getSort());
 	}
 
@@ -85,8 +85,8 @@ public class UIProjectsService {
 	 * @param tableRequest - {@link TableRequest}
 	 * @return {@link TableResponse} with the current list of projects
 	 */
-	private Page<Project> getPagedProjectsForUser(TableRequest tableRequest) {
-		return projectService.findProjectsForUser(tableRequest.getSearch(), tableRequest.getCurrent(),
+	private Page<ProjectSummary> getPagedProjectsForUser(TableRequest tableRequest) {
+		return projectService.findProjectSummariesForUser(tableRequest.getSearch(), tableRequest.getCurrent(),
 				tableRequest.getPageSize(), tableRequest.getSort());
 	}
 }
@@ -0,0 +1,245 @@
+package ca.corefacility.bioinformatics.irida.ria.web.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Service class for the UI for downloading {@link SequenceFile}s as a zip file. Files that are already compressed are
+ * stored in the zip as they are rather than compressed again, using the CRC-32 saved with the file when it was
+ * processed so that it's only read once. The next file is prepared on {@code project.download.prefetch.threads}
+ * threads while the current one is written. Files processed before CRC-32s were saved have theirs computed there the
+ * first time they're downloaded, and saved for later downloads.
+ */
+@Component
+public class UISequenceFilesZipService {
+	private static final Logger logger = LoggerFactory.getLogger(UISequenceFilesZipService.class);
+
+	/**
+	 * Extensions of files that don't get any smaller when compressed again.
+	 */
+	private static final Set<String> COMPRESSED_EXTENSIONS = ImmutableSet.of("gz", "bz2", "xz", "zip", "bam");
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	private final SequenceFileRepository sequenceFileRepository;
+	private final AsyncTaskExecutor prefetchExecutor;
+
+	@Autowired
+	public UISequenceFilesZipService(SequenceFileRepository sequenceFileRepository,
+			@Qualifier("projectDownloadPrefetchExecutor") AsyncTaskExecutor prefetchExecutor) {
+		this.sequenceFileRepository = sequenceFileRepository;
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+	/**
+	 * Write files to a zip file. The output stream is not closed.
+	 *
+	 * @param output the stream to write the zip file to
+	 * @param files  the files to write, by their unique name in the zip file, in the order to write them
+	 * @throws IOException if a file could not be read, or the zip file could not be written
+	 */
+	public void writeZip(OutputStream output, Map<String, SequenceFile> files) throws IOException {
+		ZipOutputStream zipStream = new ZipOutputStream(output);
+		Iterator<Map.Entry<String, SequenceFile>> remaining = files.entrySet()
+				.iterator();
+
+		Future<PreparedEntry> next = prefetchNext(remaining);
+		try {
+			while (next != null) {
+				PreparedEntry entry = await(next);
+				next = prefetchNext(remaining);
+
+				zipStream.putNextEntry(entry.zipEntry);
+				copy(entry.path, zipStream);
+				zipStream.closeEntry();
+			}
+			zipStream.finish();
+		} finally {
+			if (next != null) {
+				next.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Start preparing the next file to write
+	 *
+	 * @param remaining the files left to write
+	 * @return the {@link PreparedEntry} being prepared, or null if there are no files left
+	 */
+	private Future<PreparedEntry> prefetchNext(Iterator<Map.Entry<String, SequenceFile>> remaining) {
+		if (!remaining.hasNext()) {
+			return null;
+		}
+		Map.Entry<String, SequenceFile> file = remaining.next();
+		return prefetchExecutor.submit(() -> prepare(file.getKey(), file.getValue()));
+	}
+
+	/**
+	 * Build the {@link ZipEntry} for a file. A stored entry needs its size and CRC before the file is written, so
+	 * already compressed files without a saved CRC are read once here.
+	 *
+	 * @param name         the name of the file in the zip file
+	 * @param sequenceFile the file
+	 * @return the prepared entry
+	 * @throws IOException if the file could not be read
+	 */
+	private PreparedEntry prepare(String name, SequenceFile sequenceFile) throws IOException {
+		Path path = sequenceFile.getFile();
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+		ZipEntry zipEntry = new ZipEntry(name);
+		// set the file creation time on the zip entry to be whatever the
+		// creation time is on the filesystem
+		zipEntry.setCreationTime(attributes.creationTime());
+		zipEntry.setLastModifiedTime(attributes.creationTime());
+
+		if (isCompressed(path)) {
+			zipEntry.setMethod(ZipEntry.STORED);
+			zipEntry.setSize(attributes.size());
+			zipEntry.setCompressedSize(attributes.size());
+			zipEntry.setCrc(getCrc(sequenceFile));
+		}
+
+		return new PreparedEntry(path, zipEntry);
+	}
+
+	/**
+	 * Whether a file is already compressed, by its extension
+	 *
+	 * @param path the file
+	 * @return true if the file shouldn't be compressed again
+	 */
+	private static boolean isCompressed(Path path) {
+		String fileName = path.getFileName()
+				.toString();
+		int lastDot = fileName.lastIndexOf('.');
+		return lastDot >= 0 && COMPRESSED_EXTENSIONS.contains(fileName.substring(lastDot + 1)
+				.toLowerCase());
+	}
+
+	/**
+	 * Get the CRC-32 of a file, computing and saving it if it wasn't saved when the file was processed
+	 *
+	 * @param sequenceFile the file
+	 * @return the CRC-32 of the file's contents
+	 * @throws IOException if the file could not be read
+	 */
+	private long getCrc(SequenceFile sequenceFile) throws IOException {
+		if (sequenceFile.getFileCrc32() != null) {
+			return sequenceFile.getFileCrc32();
+		}
+
+		long crc = crc(sequenceFile.getFile());
+		if (sequenceFile.getId() != null) {
+			logger.trace("Saving CRC-32 of sequence file " + sequenceFile.getId());
+			try {
+				sequenceFileRepository.setFileCrc32(sequenceFile.getId(), sequenceFile.getFileRevisionNumber(), crc);
+			} catch (DataAccessException e) {
+				// the download doesn't need the CRC-32 saved, it will just be computed again next time
+				logger.warn("Could not save CRC-32 of sequence file " + sequenceFile.getId(), e);
+			}
+		}
+		return crc;
+	}
+
+	/**
+	 * Compute the CRC-32 of a file
+	 *
+	 * @param path the file
+	 * @return the CRC-32 of the file's contents
+	 * @throws IOException if the file could not be read
+	 */
+	private static long crc(Path path) throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Copy a file to a stream
+	 *
+	 * @param path   the file
+	 * @param output the stream to copy to
+	 * @throws IOException if the file could not be read or the stream written
+	 */
+	private static void copy(Path path, OutputStream output) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream input = Files.newInputStream(path)) {
+			int read;
+			while ((read = input.read(buffer)) >= 0) {
+				output.write(buffer, 0, read);
+			}
+		}
+	}
+
+	/**
+	 * Wait for a file to be prepared
+	 *
+	 * @param future the file being prepared
+	 * @return the prepared file
+	 * @throws IOException if the file could not be prepared, or the download was interrupted
+	 */
+	private static PreparedEntry await(Future<PreparedEntry> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+					.interrupt();
+			throw new InterruptedIOException("Interrupted while preparing a file to download");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not prepare a file to download", e.getCause());
+		}
+	}
+
+	/**
+	 * A file and the {@link ZipEntry} to write it with
+	 */
+	private static class PreparedEntry {
+		private final Path path;
+		private final ZipEntry zipEntry;
+
+		PreparedEntry(Path path, ZipEntry zipEntry) {
+			this.path = path;
+			this.zipEntry = zipEntry;
+		}
+	}
+}
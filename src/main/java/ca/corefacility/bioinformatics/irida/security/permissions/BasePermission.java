@@ -1,15 +1,19 @@
 package ca.corefacility.bioinformatics.irida.security.permissions;
 
 import java.io.Serializable;
-import java.util.Collection;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
+import ca.corefacility.bioinformatics.irida.model.IridaThing;
 import ca.corefacility.bioinformatics.irida.model.user.Role;
 
 /**
@@ -59,6 +63,11 @@ public abstract class BasePermission<DomainObjectType, IdentifierType extends Se
 	 */
 	private CrudRepository<DomainObjectType, IdentifierType> repository;
 
+	/**
+	 * Cache of decisions made by permissions that allow caching.
+	 */
+	private PermissionDecisionCache decisionCache;
+
 	/**
 	 * Constructor with handles on the type of repository and type of domain
 	 * object.
@@ -79,8 +88,30 @@ public abstract class BasePermission<DomainObjectType, IdentifierType extends Se
 	}
 
 	/**
-	 * Evaluates the permission of a single object.
-	 * 
+	 * Set the cache used to keep decisions for permissions that allow caching.
+	 *
+	 * @param decisionCache the {@link PermissionDecisionCache}
+	 * @see #isDecisionCacheable()
+	 */
+	@Autowired(required = false)
+	public void setDecisionCache(PermissionDecisionCache decisionCache) {
+		this.decisionCache = decisionCache;
+	}
+
+	/**
+	 * Check whether decisions made by this permission can be kept in the {@link PermissionDecisionCache}. Permissions
+	 * should only allow caching when their decisions depend on nothing but project membership, user group membership,
+	 * and the samples in a project, as changes to those clear the cache. Caching is not allowed by default.
+	 *
+	 * @return true if decisions may be cached
+	 */
+	protected boolean isDecisionCacheable() {
+		return false;
+	}
+
+	/**
+	 * Evaluates the permission of a single object, using a cached decision if one is available.
+	 *
 	 * @param authentication
 	 *            The Authentication object.
 	 * @param targetDomainObject
@@ -90,26 +121,43 @@ public abstract class BasePermission<DomainObjectType, IdentifierType extends Se
 	 * @throws EntityNotFoundException
 	 *             If the object does not exist.
 	 */
-	@SuppressWarnings("unchecked")
 	private boolean customPermissionAllowedSingleObject(Authentication authentication, Object targetDomainObject) {
-		DomainObjectType domainObject;
+		if (decisionCache != null && isDecisionCacheable()) {
+			Object identifier = null;
+			if (identifierType.isAssignableFrom(targetDomainObject.getClass())) {
+				identifier = targetDomainObject;
+			} else if (targetDomainObject instanceof IridaThing) {
+				identifier = ((IridaThing) targetDomainObject).getId();
+			}
 
-		if (identifierType.isAssignableFrom(targetDomainObject.getClass())) {
-			logger.trace("Trying to find domain object by id [" + targetDomainObject + "]");
-			domainObject = repository.findById((IdentifierType) targetDomainObject).orElseThrow(() ->
-					new EntityNotFoundException("Could not find entity with id [" + targetDomainObject + "]"));
-		} else if (domainObjectType.isAssignableFrom(targetDomainObject.getClass())) {
-			// reflection replacement for instanceof
-			domainObject = (DomainObjectType) targetDomainObject;
-		} else {
-			throw new IllegalArgumentException("Parameter to " + getClass().getName() + " must be of type Long or "
-					+ domainObjectType.getName() + ".");
+			if (identifier != null) {
+				return decisionCache.isAllowed(authentication, getPermissionProvided(), identifier,
+						() -> evaluateSingleObject(authentication, targetDomainObject));
+			}
 		}
+
+		return evaluateSingleObject(authentication, targetDomainObject);
+	}
+
+	/**
+	 * Evaluates the permission of a single object.
+	 * 
+	 * @param authentication
+	 *            The Authentication object.
+	 * @param targetDomainObject
+	 *            The target domain object to evaluate permission (assumes this
+	 *            is not a collection).
+	 * @return True if permission is allowed on this object, false otherwise.
+	 * @throws EntityNotFoundException
+	 *             If the object does not exist.
+	 */
+	private boolean evaluateSingleObject(Authentication authentication, Object targetDomainObject) {
+		DomainObjectType domainObject = loadDomainObject(targetDomainObject, Collections.emptyMap());
 		
 		/**
 		 * If it's allowed fast pass for administrators
 		 */
-		if(adminAccessAllowed(authentication, domainObject) && authentication.getAuthorities().stream().anyMatch(g -> g.getAuthority().equals(ADMIN_AUTHORITY))){
+		if (isAdminAccessAllowed(authentication, domainObject)) {
 			return true;
 		}
 
@@ -129,14 +177,155 @@ public abstract class BasePermission<DomainObjectType, IdentifierType extends Se
 	 *             If one of the objects in the collection does not exist.
 	 */
 	private boolean customPermissionAllowedCollection(Authentication authentication, Collection<?> targetDomainObjects) {
-		boolean permitted = true;
-		for (Object domainObjectInCollection : targetDomainObjects) {
-			permitted &= customPermissionAllowedSingleObject(authentication, domainObjectInCollection);
+		return filterAllowed(authentication, targetDomainObjects).size() == targetDomainObjects.size();
+	}
+
+	/**
+	 * Filter a collection of objects down to the objects the authenticated user
+	 * is allowed to perform some action on. Identifiers in the collection are
+	 * loaded together, and the permission is decided for the whole collection
+	 * at once with
+	 * {@link #customPermissionAllowedBatch(Authentication, Collection)}, so the
+	 * number of queries doesn't grow with the size of the collection.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @param targetDomainObjects
+	 *            the domain objects or identifiers to filter.
+	 * @param <T>
+	 *            the type of element in the collection.
+	 * @return the elements of the collection that are allowed, in their
+	 *         original order.
+	 * @throws EntityNotFoundException
+	 *             If one of the objects in the collection does not exist.
+	 */
+	public <T> List<T> filterAllowed(Authentication authentication, Collection<T> targetDomainObjects) {
+		// fast fail on anonymous users:
+		if (authentication instanceof AnonymousAuthenticationToken) {
+			return new ArrayList<>();
+		}
+
+		final List<DomainObjectType> domainObjects = loadDomainObjects(targetDomainObjects);
+		final List<DomainObjectType> undecided = domainObjects.stream()
+				.filter(o -> !isAdminAccessAllowed(authentication, o))
+				.collect(Collectors.toList());
+
+		final Predicate<DomainObjectType> allowed = undecided.isEmpty() ?
+				o -> true :
+				customPermissionAllowedBatch(authentication, undecided);
+
+		final List<T> permitted = new ArrayList<>();
+		final Iterator<DomainObjectType> domainObjectIterator = domainObjects.iterator();
+		for (T target : targetDomainObjects) {
+			final DomainObjectType domainObject = domainObjectIterator.next();
+			if (isAdminAccessAllowed(authentication, domainObject) || allowed.test(domainObject)) {
+				permitted.add(target);
+			}
 		}
 
+		logger.trace("Permission [" + getPermissionProvided() + "] allowed " + permitted.size() + " of "
+				+ targetDomainObjects.size() + " objects for [" + authentication.getName() + "]");
+
 		return permitted;
 	}
 
+	/**
+	 * Decide this permission for a batch of domain objects. Implementations
+	 * should override this to decide for the whole batch with a constant
+	 * number of queries. The default decides for each object with
+	 * {@link #customPermissionAllowed(Authentication, Object)}.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @param targetDomainObjects
+	 *            the objects that the user is attempting to access.
+	 * @return a test of whether each object in the batch is permitted.
+	 */
+	protected Predicate<DomainObjectType> customPermissionAllowedBatch(Authentication authentication,
+			Collection<DomainObjectType> targetDomainObjects) {
+		return o -> customPermissionAllowed(authentication, o);
+	}
+
+	/**
+	 * Load the domain objects for a collection of domain objects or
+	 * identifiers. Identifiers of {@link IridaThing}s are loaded in a single
+	 * query.
+	 * 
+	 * @param targetDomainObjects
+	 *            the domain objects or identifiers to load.
+	 * @return the domain objects, in the same order as the collection.
+	 * @throws EntityNotFoundException
+	 *             If one of the objects in the collection does not exist.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<DomainObjectType> loadDomainObjects(Collection<?> targetDomainObjects) {
+		final Map<Object, DomainObjectType> loaded = new HashMap<>();
+
+		if (IridaThing.class.isAssignableFrom(domainObjectType)) {
+			final Set<IdentifierType> identifiers = targetDomainObjects.stream()
+					.filter(t -> identifierType.isAssignableFrom(t.getClass()))
+					.map(t -> (IdentifierType) t)
+					.collect(Collectors.toSet());
+
+			if (!identifiers.isEmpty()) {
+				logger.trace("Trying to find " + identifiers.size() + " domain objects by id");
+				for (DomainObjectType domainObject : repository.findAllById(identifiers)) {
+					loaded.put(((IridaThing) domainObject).getId(), domainObject);
+				}
+			}
+		}
+
+		return targetDomainObjects.stream()
+				.map(t -> loadDomainObject(t, loaded))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Load the domain object for a domain object or identifier.
+	 * 
+	 * @param targetDomainObject
+	 *            the domain object or identifier to load.
+	 * @param loaded
+	 *            domain objects that have already been loaded, by identifier.
+	 * @return the domain object.
+	 * @throws EntityNotFoundException
+	 *             If the object does not exist.
+	 */
+	@SuppressWarnings("unchecked")
+	private DomainObjectType loadDomainObject(Object targetDomainObject, Map<Object, DomainObjectType> loaded) {
+		if (identifierType.isAssignableFrom(targetDomainObject.getClass())) {
+			if (loaded.containsKey(targetDomainObject)) {
+				return loaded.get(targetDomainObject);
+			}
+
+			logger.trace("Trying to find domain object by id [" + targetDomainObject + "]");
+			return repository.findById((IdentifierType) targetDomainObject).orElseThrow(() ->
+					new EntityNotFoundException("Could not find entity with id [" + targetDomainObject + "]"));
+		} else if (domainObjectType.isAssignableFrom(targetDomainObject.getClass())) {
+			// reflection replacement for instanceof
+			return (DomainObjectType) targetDomainObject;
+		} else {
+			throw new IllegalArgumentException("Parameter to " + getClass().getName() + " must be of type Long or "
+					+ domainObjectType.getName() + ".");
+		}
+	}
+
+	/**
+	 * Check whether the authenticated user is an administrator who should be
+	 * fast passed for a domain object.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @param domainObject
+	 *            the object that the user is attempting to access.
+	 * @return true if the administrator fast pass applies.
+	 */
+	private boolean isAdminAccessAllowed(Authentication authentication, DomainObjectType domainObject) {
+		return adminAccessAllowed(authentication, domainObject) && authentication.getAuthorities()
+				.stream()
+				.anyMatch(g -> g.getAuthority().equals(ADMIN_AUTHORITY));
+	}
+
 	/**
 	 * Is the authenticated user allowed to perform some action on the target
 	 * domain object?
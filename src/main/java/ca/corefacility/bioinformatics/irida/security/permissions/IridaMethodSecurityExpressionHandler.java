@@ -0,0 +1,93 @@
+package ca.corefacility.bioinformatics.irida.security.permissions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression handler that evaluates
+ * <code>@PostFilter("hasPermission(filterObject, 'permission')")</code> and
+ * <code>@PostFilter("hasPermission(filterObject.property, 'permission')")</code>
+ * on collections with a single bulk permission check, rather than once for
+ * every element of the collection. All other filter expressions are evaluated
+ * element by element as usual.
+ *
+ * @see IridaPermissionEvaluator#filterAllowed(Authentication, Collection,
+ *      Object)
+ */
+public class IridaMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+	private static final Logger logger = LoggerFactory.getLogger(IridaMethodSecurityExpressionHandler.class);
+
+	private static final Pattern HAS_PERMISSION_FILTER = Pattern.compile(
+			"^\\s*hasPermission\\(\\s*filterObject((?:\\.\\w+)*)\\s*,\\s*'(\\w+)'\\s*\\)\\s*$");
+
+	private final IridaPermissionEvaluator permissionEvaluator;
+
+	public IridaMethodSecurityExpressionHandler(IridaPermissionEvaluator permissionEvaluator) {
+		this.permissionEvaluator = permissionEvaluator;
+		setPermissionEvaluator(permissionEvaluator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object filter(Object filterTarget, Expression filterExpression, EvaluationContext ctx) {
+		Matcher matcher = HAS_PERMISSION_FILTER.matcher(filterExpression.getExpressionString());
+		if (!(filterTarget instanceof Collection) || !matcher.matches()) {
+			return super.filter(filterTarget, filterExpression, ctx);
+		}
+
+		Collection<Object> collection = (Collection<Object>) filterTarget;
+		Authentication authentication = ((MethodSecurityExpressionOperations) ctx.getRootObject()
+				.getValue()).getAuthentication();
+		String property = matcher.group(1);
+		String permission = matcher.group(2);
+
+		logger.debug("Filtering " + collection.size() + " elements with bulk permission [" + permission + "]");
+
+		List<Object> targets;
+		if (property.isEmpty()) {
+			targets = new ArrayList<>(collection);
+		} else {
+			Expression propertyExpression = getExpressionParser().parseExpression(property.substring(1));
+			targets = collection.stream()
+					.map(propertyExpression::getValue)
+					.collect(Collectors.toList());
+		}
+
+		List<Object> allowed = permissionEvaluator.filterAllowed(authentication, targets, permission);
+
+		// the allowed targets are the same instances as the targets, in the same order
+		List<Object> retained = new ArrayList<>(allowed.size());
+		int next = 0;
+		int index = 0;
+		for (Object element : collection) {
+			if (next < allowed.size() && allowed.get(next) == targets.get(index)) {
+				retained.add(element);
+				next++;
+			}
+			index++;
+		}
+
+		logger.debug("Retaining elements: " + retained.size());
+
+		collection.clear();
+		collection.addAll(retained);
+
+		return filterTarget;
+	}
+}
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.PostConstruct;
@@ -55,12 +56,7 @@ public class IridaPermissionEvaluator implements PermissionEvaluator {
 	 */
 	@Override
 	public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
-		if (!namedPermissionMap.containsKey(permission.toString())) {
-			throw new UndefinedPermissionException("The permission [" + permission.toString()
-					+ "] is not registered with " + getClass().getName() + ".");
-		}
-
-		BasePermission<?,?> permissionEvaluator = namedPermissionMap.get(permission.toString());
+		BasePermission<?,?> permissionEvaluator = getPermission(permission);
 		boolean allowed = permissionEvaluator.isAllowed(authentication, targetDomainObject);
 
 		logger.trace("Permission request for access to [" + targetDomainObject + "] with permission [" + permission
@@ -69,6 +65,34 @@ public class IridaPermissionEvaluator implements PermissionEvaluator {
 		return allowed;
 	}
 
+	/**
+	 * Filter a collection down to the objects the authenticated user has a
+	 * permission on, deciding the permission for the whole collection at once.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @param targetDomainObjects
+	 *            the domain objects or identifiers to filter.
+	 * @param permission
+	 *            the name of the permission to evaluate.
+	 * @param <T>
+	 *            the type of element in the collection.
+	 * @return the elements of the collection that are allowed, in their
+	 *         original order.
+	 * @see BasePermission#filterAllowed(Authentication, Collection)
+	 */
+	public <T> List<T> filterAllowed(Authentication authentication, Collection<T> targetDomainObjects,
+			Object permission) {
+		BasePermission<?,?> permissionEvaluator = getPermission(permission);
+		List<T> allowed = permissionEvaluator.filterAllowed(authentication, targetDomainObjects);
+
+		logger.trace("Bulk permission request for access to " + targetDomainObjects.size()
+				+ " objects with permission [" + permission + "] by [" + authentication + "]. Granted for ["
+				+ allowed.size() + "]");
+
+		return allowed;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -77,4 +101,22 @@ public class IridaPermissionEvaluator implements PermissionEvaluator {
 			Object permission) {
 		return false;
 	}
+
+	/**
+	 * Get the registered permission with a name.
+	 * 
+	 * @param permission
+	 *            the name of the permission.
+	 * @return the {@link BasePermission} providing the permission.
+	 * @throws UndefinedPermissionException
+	 *             if no permission with the name is registered.
+	 */
+	private BasePermission<?,?> getPermission(Object permission) {
+		if (!namedPermissionMap.containsKey(permission.toString())) {
+			throw new UndefinedPermissionException("The permission [" + permission.toString()
+					+ "] is not registered with " + getClass().getName() + ".");
+		}
+
+		return namedPermissionMap.get(permission.toString());
+	}
 }
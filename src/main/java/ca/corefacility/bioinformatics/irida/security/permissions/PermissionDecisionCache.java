@@ -0,0 +1,416 @@
+package ca.corefacility.bioinformatics.irida.security.permissions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
+import ca.corefacility.bioinformatics.irida.model.user.PermissionEpoch;
+import ca.corefacility.bioinformatics.irida.repositories.user.PermissionEpochRepository;
+
+/**
+ * Caches the decisions made by {@link BasePermission}s, keyed by the authenticated principal, the permission, and the
+ * identifier of the domain object. Decisions are kept for the rest of the current web request, and in a cache shared
+ * by all requests for a short time.
+ * <p>
+ * A {@link PermissionsChangedEvent} clears both on this server and advances the {@link PermissionEpoch} in the
+ * database, once for each transaction that changes permissions. Decisions in the shared cache are only used while the epoch they were made in is current, so a change made
+ * through any server sharing the database is seen from the next request on every server. The epoch is read once for
+ * each web request. Outside a web request it is read once for each transaction, and otherwise kept for
+ * {@link #EPOCH_TTL_MILLIS} so background work doesn't read it for every decision.
+ */
+@Component
+public class PermissionDecisionCache {
+	private static final Logger logger = LoggerFactory.getLogger(PermissionDecisionCache.class);
+
+	private static final String REQUEST_ATTRIBUTE = PermissionDecisionCache.class.getName() + ".DECISIONS";
+	private static final String EPOCH_ATTRIBUTE = PermissionDecisionCache.class.getName() + ".EPOCH";
+
+	/**
+	 * How long an epoch read outside of a web request or transaction is used for
+	 */
+	static final long EPOCH_TTL_MILLIS = 1000;
+
+	private final boolean sharedCacheEnabled;
+	private final Cache<DecisionKey, CachedDecision> sharedDecisions;
+	private final PermissionEpochRepository epochRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Ticker ticker;
+	// key for the epoch read in the current transaction
+	private final Object transactionEpochKey = new Object();
+	// the epoch read outside of a web request or transaction
+	private volatile EpochSnapshot epochSnapshot;
+	// the newest epoch seen, so decisions from older epochs are dropped rather than waiting to expire
+	private final AtomicLong latestEpoch = new AtomicLong();
+	private final AtomicLong requestHits = new AtomicLong();
+	private final AtomicLong requestMisses = new AtomicLong();
+
+	/**
+	 * Create a new {@link PermissionDecisionCache}
+	 *
+	 * @param timeToLive         the number of seconds to keep decisions in the shared cache. 0 disables the shared
+	 *                           cache.
+	 * @param maximumSize        the maximum number of decisions to keep in the shared cache
+	 * @param epochRepository    reads and advances the {@link PermissionEpoch}
+	 * @param transactionManager advances the epoch in its own transaction
+	 */
+	@Autowired
+	public PermissionDecisionCache(@Value("${security.permission.cache.ttl:30}") long timeToLive,
+			@Value("${security.permission.cache.size:100000}") long maximumSize,
+			PermissionEpochRepository epochRepository, PlatformTransactionManager transactionManager) {
+		this(timeToLive, maximumSize, epochRepository, transactionManager, Ticker.systemTicker());
+	}
+
+	/**
+	 * Create a new {@link PermissionDecisionCache} reading time from the given {@link Ticker}
+	 *
+	 * @param timeToLive         the number of seconds to keep decisions in the shared cache. 0 disables the shared
+	 *                           cache.
+	 * @param maximumSize        the maximum number of decisions to keep in the shared cache
+	 * @param epochRepository    reads and advances the {@link PermissionEpoch}
+	 * @param transactionManager advances the epoch in its own transaction
+	 * @param ticker             the time source for expiring an epoch read outside of a request or transaction
+	 */
+	public PermissionDecisionCache(long timeToLive, long maximumSize, PermissionEpochRepository epochRepository,
+			PlatformTransactionManager transactionManager, Ticker ticker) {
+		this.epochRepository = epochRepository;
+		this.ticker = ticker;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.sharedCacheEnabled = timeToLive > 0;
+		this.sharedDecisions = CacheBuilder.newBuilder()
+				.expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+				.maximumSize(timeToLive > 0 ? maximumSize : 0)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Get a permission decision from the cache, or make and cache the decision if it isn't cached.
+	 *
+	 * @param authentication the authenticated user
+	 * @param permission     the name of the permission being evaluated
+	 * @param identifier     the identifier of the domain object the permission is evaluated on
+	 * @param decision       makes the decision if it isn't cached
+	 * @return true if permission is allowed, false otherwise
+	 */
+	public boolean isAllowed(Authentication authentication, String permission, Object identifier,
+			BooleanSupplier decision) {
+		DecisionKey key = new DecisionKey(authentication, permission, identifier);
+		Map<DecisionKey, Boolean> requestDecisions = getRequestDecisions();
+
+		Boolean allowed = null;
+		if (requestDecisions != null) {
+			allowed = requestDecisions.get(key);
+			if (allowed != null) {
+				requestHits.incrementAndGet();
+				return allowed;
+			}
+			requestMisses.incrementAndGet();
+		}
+
+		if (sharedCacheEnabled) {
+			// read the epoch before deciding so a change committed while deciding makes the decision stale
+			long epoch = getCurrentEpoch();
+			CachedDecision cached = sharedDecisions.getIfPresent(key);
+			if (cached != null && cached.epoch == epoch) {
+				allowed = cached.allowed;
+			} else {
+				allowed = decision.getAsBoolean();
+				sharedDecisions.put(key, new CachedDecision(epoch, allowed));
+			}
+		} else {
+			allowed = decision.getAsBoolean();
+		}
+
+		if (requestDecisions != null) {
+			requestDecisions.put(key, allowed);
+		}
+
+		return allowed;
+	}
+
+	/**
+	 * Clear all cached decisions when permissions have changed, and advance the {@link PermissionEpoch} so other
+	 * servers stop using their cached decisions. This runs once after the changing transaction commits, however many
+	 * changes it made, so that decisions made afterwards see the changes. If the change wasn't made in a transaction
+	 * this runs immediately.
+	 *
+	 * @param event the {@link PermissionsChangedEvent}
+	 */
+	@EventListener
+	public void handlePermissionsChanged(PermissionsChangedEvent event) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			logger.trace("Clearing cached permission decisions: " + event);
+			permissionsChanged();
+		} else if (TransactionSynchronizationManager.hasResource(this)) {
+			logger.trace("Permissions already changed in this transaction: " + event);
+		} else {
+			logger.trace("Clearing cached permission decisions after commit: " + event);
+			TransactionSynchronizationManager.bindResource(this, event);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					TransactionSynchronizationManager.unbindResourceIfPossible(PermissionDecisionCache.this);
+					permissionsChanged();
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(PermissionDecisionCache.this);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Advance the {@link PermissionEpoch} if decisions are shared, and clear all cached decisions on this server.
+	 */
+	private void permissionsChanged() {
+		if (sharedCacheEnabled) {
+			advanceEpoch();
+		}
+		invalidateAll();
+	}
+
+	/**
+	 * Clear all cached decisions on this server, both shared and for the current request.
+	 */
+	public void invalidateAll() {
+		sharedDecisions.invalidateAll();
+		epochSnapshot = null;
+		TransactionSynchronizationManager.unbindResourceIfPossible(transactionEpochKey);
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.removeAttribute(EPOCH_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		}
+
+		Map<DecisionKey, Boolean> requestDecisions = getRequestDecisions();
+		if (requestDecisions != null) {
+			requestDecisions.clear();
+		}
+	}
+
+	/**
+	 * Advance the {@link PermissionEpoch} in a transaction of its own, since the changing transaction has already
+	 * committed. The row is created if the schema was created without it.
+	 */
+	private void advanceEpoch() {
+		transactionTemplate.execute(status -> {
+			if (epochRepository.incrementEpoch(PermissionEpoch.ID) == 0) {
+				epochRepository.save(new PermissionEpoch(1L));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Get the current {@link PermissionEpoch}, reading it once for each web request. Outside a web request it's read
+	 * once for each transaction, or at most every {@link #EPOCH_TTL_MILLIS} outside a transaction. Shared decisions
+	 * from older epochs are cleared the first time a newer epoch is seen.
+	 *
+	 * @return the current epoch
+	 */
+	private long getCurrentEpoch() {
+		long epoch;
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			Long requestEpoch = (Long) attributes.getAttribute(EPOCH_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			if (requestEpoch == null) {
+				requestEpoch = readEpoch();
+				attributes.setAttribute(EPOCH_ATTRIBUTE, requestEpoch, RequestAttributes.SCOPE_REQUEST);
+			}
+			epoch = requestEpoch;
+		} else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Long transactionEpoch = (Long) TransactionSynchronizationManager.getResource(transactionEpochKey);
+			if (transactionEpoch == null) {
+				transactionEpoch = readEpoch();
+				TransactionSynchronizationManager.bindResource(transactionEpochKey, transactionEpoch);
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+					@Override
+					public void afterCompletion(int status) {
+						TransactionSynchronizationManager.unbindResourceIfPossible(transactionEpochKey);
+					}
+				});
+			}
+			epoch = transactionEpoch;
+		} else {
+			long now = ticker.read();
+			EpochSnapshot snapshot = epochSnapshot;
+			if (snapshot == null || now >= snapshot.expiresAt) {
+				snapshot = new EpochSnapshot(readEpoch(), now + TimeUnit.MILLISECONDS.toNanos(EPOCH_TTL_MILLIS));
+				epochSnapshot = snapshot;
+			}
+			epoch = snapshot.epoch;
+		}
+
+		if (epoch > latestEpoch.getAndAccumulate(epoch, Math::max)) {
+			logger.trace("Permission epoch advanced to " + epoch + ", clearing shared permission decisions");
+			sharedDecisions.invalidateAll();
+		}
+
+		return epoch;
+	}
+
+	/**
+	 * Read the {@link PermissionEpoch} from the database
+	 *
+	 * @return the current epoch, or 0 if it has never been advanced
+	 */
+	private long readEpoch() {
+		Long epoch = epochRepository.getEpoch(PermissionEpoch.ID);
+		return epoch == null ? 0L : epoch;
+	}
+
+	/**
+	 * Get the hit and miss statistics of the shared cache.
+	 *
+	 * @return the {@link CacheStats} for the shared cache
+	 */
+	public CacheStats getSharedStats() {
+		return sharedDecisions.stats();
+	}
+
+	/**
+	 * Get the number of decisions answered by the current request's cache
+	 *
+	 * @return the number of request cache hits
+	 */
+	public long getRequestHitCount() {
+		return requestHits.get();
+	}
+
+	/**
+	 * Get the number of decisions not found in the current request's cache
+	 *
+	 * @return the number of request cache misses
+	 */
+	public long getRequestMissCount() {
+		return requestMisses.get();
+	}
+
+	/**
+	 * Get the decisions cached for the current web request.
+	 *
+	 * @return the cached decisions, or null if this isn't running in a web request
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<DecisionKey, Boolean> getRequestDecisions() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+
+		Map<DecisionKey, Boolean> decisions = (Map<DecisionKey, Boolean>) attributes.getAttribute(REQUEST_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if (decisions == null) {
+			decisions = new HashMap<>();
+			attributes.setAttribute(REQUEST_ATTRIBUTE, decisions, RequestAttributes.SCOPE_REQUEST);
+		}
+
+		return decisions;
+	}
+
+	@Override
+	public String toString() {
+		CacheStats stats = getSharedStats();
+		return "PermissionDecisionCache[ requestHits= " + getRequestHitCount() + ", requestMisses= "
+				+ getRequestMissCount() + ", sharedHits= " + stats.hitCount() + ", sharedMisses= " + stats.missCount()
+				+ " ]";
+	}
+
+	/**
+	 * An epoch read outside of a request or transaction, and the {@link Ticker} time it should be read again
+	 */
+	private static final class EpochSnapshot {
+		private final long epoch;
+		private final long expiresAt;
+
+		EpochSnapshot(long epoch, long expiresAt) {
+			this.epoch = epoch;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * A decision in the shared cache, and the {@link PermissionEpoch} it was made in
+	 */
+	private static final class CachedDecision {
+		private final long epoch;
+		private final boolean allowed;
+
+		CachedDecision(long epoch, boolean allowed) {
+			this.epoch = epoch;
+			this.allowed = allowed;
+		}
+	}
+
+	/**
+	 * Key for a cached decision. The authorities are part of the key so that a change in a user's role isn't hidden by
+	 * the cache.
+	 */
+	private static final class DecisionKey {
+		private final Class<?> authenticationType;
+		private final String principal;
+		private final Set<String> authorities;
+		private final String permission;
+		private final Object identifier;
+
+		DecisionKey(Authentication authentication, String permission, Object identifier) {
+			this.authenticationType = authentication.getClass();
+			this.principal = authentication.getName();
+			this.authorities = authentication.getAuthorities()
+					.stream()
+					.map(GrantedAuthority::getAuthority)
+					.collect(Collectors.toSet());
+			this.permission = permission;
+			this.identifier = identifier;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof DecisionKey)) {
+				return false;
+			}
+			DecisionKey other = (DecisionKey) o;
+			return authenticationType.equals(other.authenticationType) && Objects.equals(principal, other.principal)
+					&& authorities.equals(other.authorities) && permission.equals(other.permission)
+					&& identifier.equals(other.identifier);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(authenticationType, principal, authorities, permission, identifier);
+		}
+	}
+}
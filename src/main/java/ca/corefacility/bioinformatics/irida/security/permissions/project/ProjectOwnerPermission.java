@@ -1,13 +1,17 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.project;
 
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import ca.corefacility.bioinformatics.irida.model.enums.ProjectRole;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteSynchronizable;
+import ca.corefacility.bioinformatics.irida.model.user.User;
 import ca.corefacility.bioinformatics.irida.repositories.ProjectRepository;
 import ca.corefacility.bioinformatics.irida.repositories.joins.project.ProjectUserJoinRepository;
 import ca.corefacility.bioinformatics.irida.repositories.joins.project.UserGroupProjectJoinRepository;
@@ -25,6 +29,9 @@ public class ProjectOwnerPermission extends ModifyProjectPermission {
 	private static final Logger logger = LoggerFactory.getLogger(ProjectOwnerPermission.class);
 	private static final String PERMISSION_PROVIDED = "isProjectOwner";
 
+	private final ProjectRepository projectRepository;
+	private final UserRepository userRepository;
+
 	/**
 	 * Construct an instance of {@link ProjectOwnerPermission}.
 	 *
@@ -39,6 +46,21 @@ public class ProjectOwnerPermission extends ModifyProjectPermission {
 			final ProjectUserJoinRepository pujRepository, final UserGroupProjectJoinRepository ugpjRepository,
 			final UserGroupJoinRepository ugRepository) {
 		super(projectRepository, userRepository, pujRepository, ugpjRepository, ugRepository);
+		this.projectRepository = projectRepository;
+		this.userRepository = userRepository;
+	}
+
+	/**
+	 * Get the identifiers of the local projects the authenticated user owns by
+	 * project or user group membership, in a single query. Remote projects are
+	 * never included, as they can only be modified while synchronizing.
+	 *
+	 * @param authentication the authenticated user.
+	 * @return the identifiers of the owned local projects.
+	 */
+	public Set<Long> getOwnedLocalProjectIds(Authentication authentication) {
+		User u = userRepository.loadUserByUsername(authentication.getName());
+		return projectRepository.findLocalProjectIdsForUserWithRole(u, ProjectRole.PROJECT_OWNER);
 	}
 
 	/**
@@ -2,6 +2,8 @@ package ca.corefacility.bioinformatics.irida.security.permissions.project;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +34,9 @@ public class ReadProjectPermission extends BasePermission<Project, Long> {
 	public static final String PERMISSION_PROVIDED = "canReadProject";
 
 	private static final String ROLE_SEQUENCER = Role.ROLE_SEQUENCER.getAuthority();
+	private static final String ROLE_ADMIN = Role.ROLE_ADMIN.getAuthority();
 
+	private final ProjectRepository projectRepository;
 	private final UserRepository userRepository;
 	private final ProjectUserJoinRepository pujRepository;
 	private final UserGroupProjectJoinRepository ugpjRepository;
@@ -52,6 +56,7 @@ public class ReadProjectPermission extends BasePermission<Project, Long> {
 			final ProjectUserJoinRepository pujRepository, final UserGroupProjectJoinRepository ugpjRepository,
 			final UserGroupJoinRepository ugRepository) {
 		super(Project.class, Long.class, projectRepository);
+		this.projectRepository = projectRepository;
 		this.userRepository = userRepository;
 		this.pujRepository = pujRepository;
 		this.ugpjRepository = ugpjRepository;
@@ -101,6 +106,56 @@ public class ReadProjectPermission extends BasePermission<Project, Long> {
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Predicate<Project> customPermissionAllowedBatch(final Authentication authentication,
+			final Collection<Project> projects) {
+		if (canReadAllProjects(authentication)) {
+			return p -> true;
+		}
+
+		final Set<Long> readableProjectIds = getReadableProjectIds(authentication);
+		return p -> readableProjectIds.contains(p.getId());
+	}
+
+	/**
+	 * Check whether the authenticated user can read every project because of
+	 * their role.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @return true if the user can read every project.
+	 */
+	public boolean canReadAllProjects(final Authentication authentication) {
+		return authentication.getAuthorities()
+				.stream()
+				.anyMatch(g -> g.getAuthority().equals(ROLE_SEQUENCER) || g.getAuthority().equals(ROLE_ADMIN));
+	}
+
+	/**
+	 * Get the identifiers of the projects the authenticated user can read by
+	 * project or user group membership, in a single query.
+	 * 
+	 * @param authentication
+	 *            the authenticated user.
+	 * @return the identifiers of the readable projects.
+	 */
+	public Set<Long> getReadableProjectIds(final Authentication authentication) {
+		final User u = userRepository.loadUserByUsername(authentication.getName());
+		return projectRepository.findProjectIdsForUser(u);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean isDecisionCacheable() {
+		// reading a project depends only on project and group membership
+		return true;
+	}
+
 	@Override
 	public String getPermissionProvided() {
 		return PERMISSION_PROVIDED;
@@ -1,11 +1,17 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.sample;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Iterables;
+
 import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
@@ -24,6 +30,12 @@ public class ReadSamplePermission extends BasePermission<Sample, Long> {
 
 	private static final String PERMISSION_PROVIDED = "canReadSample";
 
+	/**
+	 * The number of samples to check in each query when deciding for a batch
+	 * of samples, to keep the query parameter list to a reasonable size.
+	 */
+	private static final int QUERY_BATCH_SIZE = 1000;
+
 	private final ProjectSampleJoinRepository psjRepository;
 	private final ReadProjectPermission readProjectPermission;
 
@@ -60,6 +72,39 @@ public class ReadSamplePermission extends BasePermission<Sample, Long> {
 		return projectForSample.stream().anyMatch(j -> readProjectPermission.isAllowed(authentication, j.getSubject()));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Predicate<Sample> customPermissionAllowedBatch(Authentication authentication,
+			Collection<Sample> samples) {
+		final Set<Long> readableSampleIds = new HashSet<>();
+
+		if (readProjectPermission.canReadAllProjects(authentication)) {
+			for (List<Sample> batch : Iterables.partition(samples, QUERY_BATCH_SIZE)) {
+				readableSampleIds.addAll(psjRepository.getSampleIdsInAnyProject(batch));
+			}
+		} else {
+			final Set<Long> readableProjectIds = readProjectPermission.getReadableProjectIds(authentication);
+			if (!readableProjectIds.isEmpty()) {
+				for (List<Sample> batch : Iterables.partition(samples, QUERY_BATCH_SIZE)) {
+					readableSampleIds.addAll(psjRepository.getSampleIdsInProjects(batch, readableProjectIds));
+				}
+			}
+		}
+
+		return s -> readableSampleIds.contains(s.getId());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean isDecisionCacheable() {
+		// reading a sample depends only on the projects it belongs to and their membership
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
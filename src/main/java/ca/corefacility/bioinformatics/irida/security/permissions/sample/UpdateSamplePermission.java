@@ -1,6 +1,10 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.sample;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -10,9 +14,11 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
 import ca.corefacility.bioinformatics.irida.model.user.Role;
 import ca.corefacility.bioinformatics.irida.repositories.joins.project.ProjectSampleJoinRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
+import ca.corefacility.bioinformatics.irida.security.ProjectSynchronizationAuthenticationToken;
 import ca.corefacility.bioinformatics.irida.security.permissions.BasePermission;
 import ca.corefacility.bioinformatics.irida.security.permissions.project.ProjectOwnerPermission;
 
@@ -56,6 +62,61 @@ public class UpdateSamplePermission extends BasePermission<Sample, Long> {
 		return PERMISSION_PROVIDED;
 	}
 
+	/**
+	 * Get the identifiers of the samples in a page of line list rows that the
+	 * authenticated user can update, without loading the samples. Ownership is
+	 * decided for the whole page with a single query.
+	 *
+	 * @param authentication
+	 *            the authenticated user
+	 * @param rows
+	 *            the rows for the samples to check
+	 * @return the identifiers of the samples the user can update
+	 */
+	public Set<Long> getUpdatableSampleIds(final Authentication authentication,
+			final Collection<ProjectSampleMetadataRow> rows) {
+		final Set<Long> updatable = new HashSet<>();
+
+		if (hasAuthority(authentication, Role.ROLE_ADMIN)) {
+			rows.forEach(r -> updatable.add(r.getSampleId()));
+			return updatable;
+		}
+
+		if (authentication instanceof ProjectSynchronizationAuthenticationToken) {
+			// remote projects can be updated while synchronizing, so decide for each sample
+			rows.stream()
+					.filter(r -> isAllowed(authentication, r.getSampleId()))
+					.forEach(r -> updatable.add(r.getSampleId()));
+			return updatable;
+		}
+
+		final boolean sequencer = hasAuthority(authentication, Role.ROLE_SEQUENCER);
+		final List<Long> undecided = new ArrayList<>();
+		for (final ProjectSampleMetadataRow row : rows) {
+			if (sequencer && !row.isRemote()) {
+				updatable.add(row.getSampleId());
+			} else {
+				undecided.add(row.getSampleId());
+			}
+		}
+
+		if (!undecided.isEmpty()) {
+			final Set<Long> ownedProjectIds = projectOwnerPermission.getOwnedLocalProjectIds(authentication);
+			if (!ownedProjectIds.isEmpty()) {
+				updatable.addAll(projectSampleJoinRepository.getSampleIdsOwnedByProjects(undecided, ownedProjectIds));
+			}
+		}
+
+		return updatable;
+	}
+
+	private static boolean hasAuthority(final Authentication authentication, final Role role) {
+		return authentication.getAuthorities()
+				.stream()
+				.anyMatch(g -> g.getAuthority()
+						.equals(role.getAuthority()));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
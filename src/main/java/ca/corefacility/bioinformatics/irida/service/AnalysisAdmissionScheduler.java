@@ -0,0 +1,24 @@
+package ca.corefacility.bioinformatics.irida.service;
+
+import java.util.List;
+
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+
+/**
+ * Defines an interface for choosing which {@link AnalysisState#NEW} {@link AnalysisSubmission}s are prepared next when
+ * the execution service has capacity for more.
+ */
+@FunctionalInterface
+public interface AnalysisAdmissionScheduler {
+
+	/**
+	 * Select the next {@link AnalysisSubmission}s to prepare.
+	 *
+	 * @param capacity
+	 *            The maximum number of submissions to select.
+	 * @return The selected submissions, in the order they should be
+	 *         prepared.
+	 */
+	public List<AnalysisSubmission> selectSubmissions(int capacity);
+}
@@ -15,6 +15,7 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.RelatedProjectJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus.SyncStatus;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
@@ -360,6 +361,46 @@ public interface ProjectService extends CRUDService<Long, Project> {
 	 */
 	public Page<Project> findAllProjects(String searchValue, int currentPage, int length, Sort sort);
 
+	/**
+	 * Find a page of {@link ProjectSummary}s of the projects the current user
+	 * is a member of, individually or through a group, using the same search
+	 * as {@link #findProjectsForUser(String, Integer, Integer, Sort)}. Sample
+	 * and member counts are read for the whole page at once.
+	 *
+	 * @param search
+	 * 		{@link String} generic string to search terms for
+	 * @param page
+	 * 		{@link Integer} current page viewed.
+	 * @param count
+	 * 		{@link Integer} length of current page.
+	 * @param sort
+	 * 		{@link Sort} Current table sort properties, which may include
+	 * 		{@link ProjectSummary#SAMPLES_SORT_PROPERTY}.
+	 *
+	 * @return {@link Page} of {@link ProjectSummary}
+	 */
+	public Page<ProjectSummary> findProjectSummariesForUser(final String search, final Integer page,
+			final Integer count, final Sort sort);
+
+	/**
+	 * Find a page of {@link ProjectSummary}s of all projects (for admin) using
+	 * the same search as {@link #findAllProjects(String, int, int, Sort)}.
+	 * Sample and member counts are read for the whole page at once.
+	 *
+	 * @param searchValue
+	 * 		{@link String} generic string to search terms for
+	 * @param currentPage
+	 * 		{@link Integer} current page viewed.
+	 * @param length
+	 * 		{@link Integer} length of current page.
+	 * @param sort
+	 * 		{@link Sort} Current table sort properties, which may include
+	 * 		{@link ProjectSummary#SAMPLES_SORT_PROPERTY}.
+	 *
+	 * @return {@link Page} of {@link ProjectSummary}
+	 */
+	public Page<ProjectSummary> findAllProjectSummaries(String searchValue, int currentPage, int length, Sort sort);
+
 	/**
 	 * Get a list of {@link Project}s from remote sites that have a given
 	 * {@link SyncStatus}
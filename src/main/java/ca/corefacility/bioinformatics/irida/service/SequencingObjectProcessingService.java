@@ -13,9 +13,10 @@ import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.management.ManagementFactory;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -45,12 +46,12 @@ public class SequencingObjectProcessingService {
 	}
 
 	/**
-	 * Process new {@link SequencingObject}s uploaded and find new sequences to process next time around
+	 * Find new {@link SequencingObject}s to process and launch any that have been claimed by this processor
 	 */
 	public synchronized void runProcessingJob() {
-		processFiles();
-
 		findFilesToProcess();
+
+		processFiles();
 	}
 
 	/**
@@ -58,31 +59,23 @@ public class SequencingObjectProcessingService {
 	 */
 	public synchronized void findFilesToProcess() {
 		//check our queue space
-		int queueSpace = fileProcessingChainExecutor.getCorePoolSize() - fileProcessingChainExecutor.getActiveCount();
+		int queueSpace = getQueueSpace();
 
 		logger.trace("Processor " + machineString + " + has queuespace: " + queueSpace);
 
-		//check for any unprocessed files
-		List<SequencingObject> toProcess = sequencingObjectRepository
-				.getSequencingObjectsWithProcessingState(SequencingObject.ProcessingState.UNPROCESSED);
-
-		// individually loop through and mark the ones we're going to process.  Looping individually so 2 processes are less likely to write at the same time.
-		Iterator<SequencingObject> iterator = toProcess.iterator();
-
-		while (queueSpace > 0 && iterator.hasNext()) {
-			SequencingObject sequencingObject = iterator.next();
-
-			logger.trace("File processor " + machineString + " is processing file " + sequencingObject.getId());
+		if (queueSpace <= 0) {
+			return;
+		}
 
-			try {
-				sequencingObjectRepository.markFileProcessor(sequencingObject.getId(), machineString,
-						SequencingObject.ProcessingState.QUEUED);
+		// claim a batch of unprocessed files in one statement.  Files another processor has already queued are no longer unprocessed so they are skipped.
+		try {
+			int claimed = sequencingObjectRepository.claimUnprocessedSequencingObjects(machineString,
+					SequencingObject.ProcessingState.QUEUED, queueSpace);
 
-				queueSpace--;
-			} catch (CannotAcquireLockException ex) {
-				//If we can't get the lock, another processor is trying to pick up this file.  Let them have it.
-				logger.debug("Couldn't get transaction lock to mark file " + sequencingObject.getId());
-			}
+			logger.trace("File processor " + machineString + " claimed " + claimed + " files");
+		} catch (CannotAcquireLockException ex) {
+			//If we can't get the lock, another processor is trying to pick up these files.  Let them have them.
+			logger.debug("Couldn't get transaction lock to claim unprocessed files");
 		}
 	}
 
@@ -91,19 +84,74 @@ public class SequencingObjectProcessingService {
 	 */
 	public synchronized void processFiles() {
 		//get sequences previously locked
-		List<SequencingObject> toProcess = sequencingObjectRepository
-				.getSequencingObjectsWithProcessingStateAndProcessor(SequencingObject.ProcessingState.QUEUED,
+		List<Long> toProcess = sequencingObjectRepository
+				.getSequencingObjectIdsWithProcessingStateAndProcessor(SequencingObject.ProcessingState.QUEUED,
 						machineString);
 
 		//set their state to PROCESSING and update
-		toProcess.stream().forEach(s -> s.setProcessingState(SequencingObject.ProcessingState.PROCESSING));
-		sequencingObjectRepository.saveAll(toProcess);
+		sequencingObjectRepository.updateProcessingState(toProcess, machineString,
+				SequencingObject.ProcessingState.QUEUED, SequencingObject.ProcessingState.PROCESSING);
 
 		//launch the file processing chain
-		for (SequencingObject sequencingObject : toProcess) {
-			fileProcessingChainExecutor.execute(
-					new SequenceFileProcessorLauncher(fileProcessingChain, sequencingObject.getId(),
-							SecurityContextHolder.getContext()));
+		for (Long sequencingObjectId : toProcess) {
+			launchAfterCommit(sequencingObjectId);
+		}
+	}
+
+	/**
+	 * Claim a single newly uploaded {@link SequencingObject} and launch the {@link FileProcessingChain} for it right
+	 * away.  If the object was already claimed by another processor, or this processor's queue is full, the object
+	 * is left for {@link #runProcessingJob()} to pick up.
+	 *
+	 * @param sequencingObjectId the id of the {@link SequencingObject} to process
+	 */
+	public void dispatchSequencingObject(Long sequencingObjectId) {
+		if (getQueueSpace() <= 0) {
+			logger.debug("File processing queue is full, leaving " + sequencingObjectId + " for the next poll");
+			return;
 		}
+
+		if (!sequencingObjectRepository.claimSequencingObject(sequencingObjectId, machineString,
+				SequencingObject.ProcessingState.PROCESSING)) {
+			logger.trace("SequencingObject " + sequencingObjectId + " was already claimed by another processor");
+			return;
+		}
+
+		logger.trace("File processor " + machineString + " dispatched file " + sequencingObjectId);
+
+		launchAfterCommit(sequencingObjectId);
+	}
+
+	/**
+	 * Launch the {@link FileProcessingChain} for a {@link SequencingObject}.  If this is called from within a
+	 * transaction the chain is only launched once that transaction commits so the chain never has to wait for the
+	 * object to become visible.
+	 *
+	 * @param sequencingObjectId the id of the {@link SequencingObject} to process
+	 */
+	private void launchAfterCommit(Long sequencingObjectId) {
+		SequenceFileProcessorLauncher launcher = new SequenceFileProcessorLauncher(fileProcessingChain,
+				sequencingObjectId, SecurityContextHolder.getContext());
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					fileProcessingChainExecutor.execute(launcher);
+				}
+			});
+		} else {
+			fileProcessingChainExecutor.execute(launcher);
+		}
+	}
+
+	/**
+	 * Get the number of {@link SequencingObject}s this processor can take on without queueing behind running jobs
+	 *
+	 * @return the available queue space
+	 */
+	private int getQueueSpace() {
+		return fileProcessingChainExecutor.getCorePoolSize() - fileProcessingChainExecutor.getActiveCount()
+				- fileProcessingChainExecutor.getThreadPoolExecutor().getQueue().size();
 	}
 }
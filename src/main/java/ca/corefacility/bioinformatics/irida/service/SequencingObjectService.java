@@ -42,6 +42,17 @@ public interface SequencingObjectService extends CRUDService<Long, SequencingObj
 	 */
 	public Collection<SampleSequencingObjectJoin> getSequencingObjectsForSample(Sample sample);
 
+	/**
+	 * Get all the {@link SequencingObject}s associated with a collection of
+	 * {@link Sample}s in one query
+	 * 
+	 * @param samples
+	 *            The {@link Sample}s to get sequences for
+	 * @return the {@link SampleSequencingObjectJoin}s of each sample, by
+	 *         sample id. Samples without sequences are not included.
+	 */
+	public Map<Long, List<SampleSequencingObjectJoin>> getSequencingObjectsForSamples(Collection<Sample> samples);
+
 	/**
 	 * Get a collection of {@link SampleSequencingObjectJoin}s assocaited with a
 	 * given {@link Sample} and of the given class type
@@ -92,6 +103,16 @@ public interface SequencingObjectService extends CRUDService<Long, SequencingObj
 	 * @return a set of {@link SequencingObject}
 	 */
 	public Set<SequencingObject> getSequencingObjectsForSequencingRun(SequencingRun sequencingRun);
+
+	/**
+	 * Get the {@link SequencingObject}s the current user can read that have a
+	 * file uploaded with the given SHA-256 checksum
+	 * 
+	 * @param sha256
+	 *            the SHA-256 checksum of the uploaded file
+	 * @return a set of {@link SequencingObject}
+	 */
+	public Set<SequencingObject> getSequencingObjectsWithUploadSha256(String sha256);
 	
 	/**
 	 * Update the {@link RemoteStatus} for a {@link SequencingObject}
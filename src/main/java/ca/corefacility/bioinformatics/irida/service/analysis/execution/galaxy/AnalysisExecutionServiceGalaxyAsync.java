@@ -20,7 +20,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.concurrent.Future;
@@ -44,6 +46,7 @@ public class AnalysisExecutionServiceGalaxyAsync {
 	private final GalaxyWorkflowService galaxyWorkflowService;
 	private final IridaWorkflowsService iridaWorkflowsService;
 	private final AnalysisSubmissionSampleProcessor analysisSubmissionSampleProcessor;
+	private final TransactionTemplate transactionTemplate;
 
 	/**
 	 * Builds a new {@link AnalysisExecutionServiceGalaxyAsync} with the given
@@ -62,18 +65,23 @@ public class AnalysisExecutionServiceGalaxyAsync {
 	 * @param analysisSubmissionSampleService
 	 *            A service to updating samples associated with a submission
 	 *            with the analysis results.
+	 * @param transactionManager
+	 *            The transaction manager used to save analysis results once
+	 *            they are downloaded.
 	 */
 	@Autowired
 	public AnalysisExecutionServiceGalaxyAsync(AnalysisSubmissionService analysisSubmissionService,
 			AnalysisService analysisService, GalaxyWorkflowService galaxyWorkflowService,
 			AnalysisWorkspaceServiceGalaxy workspaceService, IridaWorkflowsService iridaWorkflowsService,
-			AnalysisSubmissionSampleProcessor analysisSubmissionSampleService) {
+			AnalysisSubmissionSampleProcessor analysisSubmissionSampleService,
+			PlatformTransactionManager transactionManager) {
 		this.analysisSubmissionService = analysisSubmissionService;
 		this.analysisService = analysisService;
 		this.galaxyWorkflowService = galaxyWorkflowService;
 		this.workspaceService = workspaceService;
 		this.iridaWorkflowsService = iridaWorkflowsService;
 		this.analysisSubmissionSampleProcessor = analysisSubmissionSampleService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	/**
@@ -160,7 +168,9 @@ public class AnalysisExecutionServiceGalaxyAsync {
 
 	/**
 	 * Downloads and saves the results of an {@link AnalysisSubmission} that was
-	 * previously submitted from an execution manager.
+	 * previously submitted from an execution manager. Results are downloaded
+	 * outside of a transaction and saved in a single short transaction once
+	 * all of the files are on disk.
 	 * 
 	 * @param submittedAnalysis
 	 *            An {@link AnalysisSubmission} that was previously submitted.
@@ -177,7 +187,6 @@ public class AnalysisExecutionServiceGalaxyAsync {
 	 * @throws IridaWorkflowAnalysisTypeException
 	 *             If there was an issue building an {@link Analysis} object.
 	 */
-	@Transactional
 	public Future<AnalysisSubmission> transferAnalysisResults(AnalysisSubmission submittedAnalysis)
 			throws ExecutionManagerException, IOException, IridaWorkflowNotFoundException,
 			IridaWorkflowAnalysisTypeException {
@@ -187,10 +196,33 @@ public class AnalysisExecutionServiceGalaxyAsync {
 			throw new EntityNotFoundException("Could not find analysis submission for " + submittedAnalysis);
 		}
 
+		if (submittedAnalysis.getAnalysis() != null) {
+			throw new ExecutionManagerException("Analysis already set",
+					new AnalysisAlreadySetException("The analysis has already been set for this submission."));
+		}
+
 		logger.debug("Getting results for " + submittedAnalysis);
 		Analysis analysisResults = workspaceService.getAnalysisResults(submittedAnalysis);
 
 		logger.trace("Saving results for " + submittedAnalysis);
+		AnalysisSubmission completedSubmission = transactionTemplate.execute(
+				status -> saveAnalysisResults(submittedAnalysis, analysisResults));
+		workspaceService.cleanupAnalysisResults(submittedAnalysis);
+
+		return new AsyncResult<>(completedSubmission);
+	}
+
+	/**
+	 * Saves the downloaded results of an {@link AnalysisSubmission} and moves
+	 * it to the next state.
+	 * 
+	 * @param submittedAnalysis
+	 *            The {@link AnalysisSubmission} the results belong to.
+	 * @param analysisResults
+	 *            The downloaded {@link Analysis}.
+	 * @return The updated {@link AnalysisSubmission}.
+	 */
+	private AnalysisSubmission saveAnalysisResults(AnalysisSubmission submittedAnalysis, Analysis analysisResults) {
 		Analysis savedAnalysis = analysisService.create(analysisResults);
 
 		// if samples should be updated, set to TRANSFERRED.  Otherwise just complete.
@@ -203,12 +235,10 @@ public class AnalysisExecutionServiceGalaxyAsync {
 		try {
 			submittedAnalysis.setAnalysis(savedAnalysis);
 		} catch (AnalysisAlreadySetException e) {
-			throw new ExecutionManagerException("Analysis already set", e);
+			throw new IllegalStateException("Analysis set while results were being downloaded", e);
 		}
 
-		AnalysisSubmission completedSubmission = analysisSubmissionService.update(submittedAnalysis);
-
-		return new AsyncResult<>(completedSubmission);
+		return analysisSubmissionService.update(submittedAnalysis);
 	}
 
 	/**
@@ -66,4 +66,14 @@ public interface AnalysisWorkspaceService {
 	public Analysis getAnalysisResults(AnalysisSubmission analysisSubmission)
 			throws ExecutionManagerException, IridaWorkflowNotFoundException, IOException,
 			IridaWorkflowAnalysisTypeException;
+
+	/**
+	 * Removes anything left behind by downloading the results of an analysis
+	 * once they have been saved. Until then, a failed download is resumed by
+	 * the next call to {@link #getAnalysisResults(AnalysisSubmission)}.
+	 * 
+	 * @param analysisSubmission
+	 *            The submission whose results have been saved.
+	 */
+	public void cleanupAnalysisResults(AnalysisSubmission analysisSubmission);
 }
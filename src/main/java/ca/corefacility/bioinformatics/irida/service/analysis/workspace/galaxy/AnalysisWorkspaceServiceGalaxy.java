@@ -29,15 +29,22 @@ import com.github.jmchilton.blend4j.galaxy.beans.*;
 import com.github.jmchilton.blend4j.galaxy.beans.collection.response.CollectionResponse;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -67,6 +74,10 @@ public class AnalysisWorkspaceServiceGalaxy implements AnalysisWorkspaceService
 
 	private SequencingObjectService sequencingObjectService;
 
+	private AsyncTaskExecutor downloadExecutor = new TaskExecutorAdapter(MoreExecutors.directExecutor());
+
+	private Path downloadDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "analysis-output");
+
 	/**
 	 * Builds a new {@link AnalysisWorkspaceServiceGalaxy} with the given
 	 * information.
@@ -137,7 +148,7 @@ public class AnalysisWorkspaceServiceGalaxy implements AnalysisWorkspaceService
 		String fileName = dataset.getName();
 
 		Path outputFile = outputDirectory.resolve(fileName);
-		galaxyHistoriesService.downloadDatasetTo(analysisId, datasetId, outputFile);
+		galaxyHistoriesService.downloadDatasetTo(analysisId, dataset, outputFile);
 		final ToolExecution toolExecution = analysisProvenanceServiceGalaxy.buildToolExecutionForOutputFile(analysisId,
 				fileName);
 
@@ -363,8 +374,8 @@ public class AnalysisWorkspaceServiceGalaxy implements AnalysisWorkspaceService
 		checkNotNull(analysisSubmission.getWorkflowId(), "workflowId is null");
 		checkNotNull(analysisSubmission.getRemoteWorkflowId(), "remoteWorkflowId is null");
 
-		Path outputDirectory = Files.createTempDirectory("analysis-output");
-		logger.trace("Created temporary directory " + outputDirectory + " for analysis output files");
+		Path outputDirectory = getOutputDirectory(analysisSubmission);
+		logger.trace("Downloading analysis output files to " + outputDirectory);
 
 		IridaWorkflow iridaWorkflow = iridaWorkflowsService.getIridaWorkflow(analysisSubmission.getWorkflowId());
 		String analysisId = analysisSubmission.getRemoteAnalysisId();
@@ -373,18 +384,127 @@ public class AnalysisWorkspaceServiceGalaxy implements AnalysisWorkspaceService
 
 		String labelPrefix = getLabelPrefix(analysisSubmission, iridaWorkflow);
 
-		Map<String, AnalysisOutputFile> analysisOutputFiles = Maps.newHashMap();
-		for (String analysisOutputName : outputsMap.keySet()) {
-			String outputFileName = outputsMap.get(analysisOutputName).getFileName();
-			Dataset outputDataset = galaxyHistoriesService.getDatasetForFileInHistory(outputFileName, analysisId);
+		// download every output at once, the executor bounds how many downloads run together
+		Map<String, Future<AnalysisOutputFile>> outputDownloads = Maps.newHashMap();
+		try {
+			for (String analysisOutputName : outputsMap.keySet()) {
+				String outputFileName = outputsMap.get(analysisOutputName).getFileName();
+				Dataset outputDataset = galaxyHistoriesService.getDatasetForFileInHistory(outputFileName, analysisId);
+
+				outputDownloads.put(analysisOutputName, downloadExecutor.submit(
+						() -> buildOutputFile(analysisId, labelPrefix, outputDataset, outputDirectory)));
+			}
+
+			Map<String, AnalysisOutputFile> analysisOutputFiles = Maps.newHashMap();
+			for (Map.Entry<String, Future<AnalysisOutputFile>> download : outputDownloads.entrySet()) {
+				analysisOutputFiles.put(download.getKey(), getOutputFile(download.getValue()));
+			}
+
+			AnalysisType analysisType = iridaWorkflow.getWorkflowDescription().getAnalysisType();
+
+			return new Analysis(analysisId, analysisOutputFiles, analysisType);
+		} finally {
+			// stop any other downloads if one of them failed
+			outputDownloads.values().forEach(f -> f.cancel(true));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void cleanupAnalysisResults(AnalysisSubmission analysisSubmission) {
+		checkNotNull(analysisSubmission, "analysisSubmission is null");
+		if (analysisSubmission.getId() == null) {
+			return;
+		}
+
+		Path outputDirectory = submissionDirectory(analysisSubmission);
+		try {
+			FileUtils.deleteDirectory(outputDirectory.toFile());
+		} catch (IOException e) {
+			logger.warn("Could not remove analysis output directory " + outputDirectory, e);
+		}
+	}
+
+	/**
+	 * Get the directory to download the output files of a submission to. The
+	 * directory is the same for every attempt at downloading the results of a
+	 * submission, so partially downloaded files from an earlier attempt are
+	 * resumed. A submission that hasn't been saved gets a new temporary
+	 * directory.
+	 * 
+	 * @param analysisSubmission
+	 *            The submission to download output files for.
+	 * @return The directory for the output files.
+	 * @throws IOException
+	 *             If the directory could not be created.
+	 */
+	private Path getOutputDirectory(AnalysisSubmission analysisSubmission) throws IOException {
+		if (analysisSubmission.getId() == null) {
+			return Files.createTempDirectory("analysis-output");
+		}
+
+		return Files.createDirectories(submissionDirectory(analysisSubmission));
+	}
+
+	private Path submissionDirectory(AnalysisSubmission analysisSubmission) {
+		return downloadDirectory.resolve("submission-" + analysisSubmission.getId());
+	}
 
-			AnalysisOutputFile analysisOutput = buildOutputFile(analysisId, labelPrefix, outputDataset,
-					outputDirectory);
-			analysisOutputFiles.put(analysisOutputName, analysisOutput);
+	/**
+	 * Wait for an output file to be downloaded.
+	 * 
+	 * @param download
+	 *            The {@link Future} for the download.
+	 * @return The downloaded {@link AnalysisOutputFile}.
+	 * @throws IOException
+	 *             If there was an issue creating a local file.
+	 * @throws ExecutionManagerException
+	 *             If there was an issue downloading the data from Galaxy.
+	 */
+	private AnalysisOutputFile getOutputFile(Future<AnalysisOutputFile> download)
+			throws IOException, ExecutionManagerException {
+		try {
+			return download.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExecutionManagerDownloadException("Interrupted while downloading analysis output files", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof ExecutionManagerException) {
+				throw (ExecutionManagerException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new ExecutionManagerDownloadException("Could not download analysis output file", cause);
 		}
+	}
+
+	/**
+	 * Set the {@link AsyncTaskExecutor} used to download the output files of an
+	 * analysis. The number of threads of the executor bounds how many files
+	 * are downloaded from Galaxy at once. By default files are downloaded one
+	 * at a time on the calling thread.
+	 * 
+	 * @param downloadExecutor
+	 *            The {@link AsyncTaskExecutor} for downloads.
+	 */
+	public void setDownloadExecutor(AsyncTaskExecutor downloadExecutor) {
+		this.downloadExecutor = downloadExecutor;
+	}
 
-		AnalysisType analysisType = iridaWorkflow.getWorkflowDescription().getAnalysisType();
-		
-		return new Analysis(analysisId, analysisOutputFiles, analysisType);
+	/**
+	 * Set the directory that output files are downloaded to. Each submission
+	 * downloads to its own sub-directory, which is kept until
+	 * {@link #cleanupAnalysisResults(AnalysisSubmission)} is called.
+	 * 
+	 * @param downloadDirectory
+	 *            The directory for downloaded output files.
+	 */
+	public void setDownloadDirectory(Path downloadDirectory) {
+		this.downloadDirectory = downloadDirectory;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,328 @@
+package ca.corefacility.bioinformatics.irida.service.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.corefacility.bioinformatics.irida.exceptions.UploadException;
+import ca.corefacility.bioinformatics.irida.model.NcbiExportSubmission;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * Uploads the sequence files of an {@link NcbiExportSubmission} into its directory on the NCBI FTP site over parallel
+ * FTP sessions, one per thread of the upload executor. Files that are stored uncompressed are gzipped while they're sent.
+ * A compressed file whose transfer broke off is resumed with APPE from the size already on the server rather than
+ * being sent again.
+ */
+class ExportFileUploader {
+	private static final Logger logger = LoggerFactory.getLogger(ExportFileUploader.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FtpConnector connector;
+	private final String directoryPath;
+	private final Executor executor;
+	private final int maxRetries;
+	private final long waitBetweenRetries;
+
+	// the FTP session of each upload thread
+	private final Map<Thread, FTPClient> sessions = new ConcurrentHashMap<>();
+
+	/**
+	 * Create an uploader for a submission directory
+	 *
+	 * @param connector          connects and logs in a new FTP session
+	 * @param directoryPath      the submission directory to upload into
+	 * @param executor           the executor the files are uploaded on, sized to the number of files to upload at once
+	 * @param maxRetries         the number of times to try each file before failing the upload
+	 * @param waitBetweenRetries milliseconds to wait before trying a file again
+	 */
+	ExportFileUploader(FtpConnector connector, String directoryPath, Executor executor, int maxRetries,
+			long waitBetweenRetries) {
+		this.connector = connector;
+		this.directoryPath = directoryPath;
+		this.executor = executor;
+		this.maxRetries = maxRetries;
+		this.waitBetweenRetries = waitBetweenRetries;
+	}
+
+	/**
+	 * Upload a set of files. The listener is called on the calling thread as each file finishes, so it may save the
+	 * submission's progress.
+	 *
+	 * @param files    the files to upload
+	 * @param listener notified of every uploaded file
+	 * @throws UploadException if a file could not be uploaded after retrying. Files still being uploaded are cancelled.
+	 */
+	void upload(List<ExportFile> files, UploadListener listener) throws UploadException {
+		if (files.isEmpty()) {
+			return;
+		}
+
+		CompletionService<Long> completionService = new ExecutorCompletionService<>(executor);
+		Map<Future<Long>, ExportFile> uploads = new HashMap<>();
+		try {
+			for (ExportFile file : files) {
+				uploads.put(completionService.submit(() -> uploadFile(file)), file);
+			}
+
+			for (int i = 0; i < files.size(); i++) {
+				Future<Long> upload = completionService.take();
+				ExportFile file = uploads.get(upload);
+				listener.fileUploaded(file.getRemoteName(), upload.get());
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UploadException) {
+				throw (UploadException) e.getCause();
+			}
+			throw new UploadException("Could not upload files", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+					.interrupt();
+			throw new UploadException("Interrupted while uploading files", e);
+		} finally {
+			uploads.keySet()
+					.forEach(u -> u.cancel(true));
+			sessions.values()
+					.forEach(this::disconnect);
+			sessions.clear();
+		}
+	}
+
+	/**
+	 * Upload one file with the current thread's FTP session, connecting a new session after any failure
+	 *
+	 * @param file the file to upload
+	 * @return the number of bytes of the file on the server
+	 * @throws UploadException if the file could not be uploaded after retrying
+	 */
+	private long uploadFile(ExportFile file) throws UploadException {
+		int tries = 0;
+		while (true) {
+			tries++;
+			FTPClient client = null;
+			try {
+				client = getSession();
+				return file.isCompress() ? storeCompressed(client, file) : storeResumable(client, file);
+			} catch (IOException e) {
+				String reply = client == null ? null : client.getReplyString();
+				closeSession();
+				if (tries >= maxRetries) {
+					throw new UploadException("Could not upload file " + file.getRemoteName() + " : " + reply, e);
+				}
+				logger.error("Error uploading file " + file.getRemoteName() + ": " + reply, e);
+
+				try {
+					Thread.sleep(waitBetweenRetries);
+				} catch (InterruptedException e1) {
+					Thread.currentThread()
+							.interrupt();
+					throw new UploadException("Sleep failed", e1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gzip an uncompressed file while it's sent. A partially sent file is sent again from the start, since only the
+	 * whole compressed stream is known to match what's on the server.
+	 *
+	 * @param client the {@link FTPClient} to upload with
+	 * @param file   the file to upload
+	 * @return the compressed size of the file
+	 * @throws IOException if the file could not be uploaded
+	 */
+	private long storeCompressed(FTPClient client, ExportFile file) throws IOException {
+		logger.trace("Compressing and uploading path [" + file.getPath() + "], filename [" + file.getRemoteName()
+				+ "]");
+		OutputStream remote = client.storeFileStream(file.getRemoteName());
+		if (remote == null) {
+			throw new IOException("Couldn't start upload of " + file.getRemoteName());
+		}
+
+		CountingOutputStream counter = new CountingOutputStream(remote);
+		try (OutputStream gzip = new GZIPOutputStream(counter, BUFFER_SIZE)) {
+			Files.copy(file.getPath(), gzip);
+		}
+
+		if (!client.completePendingCommand()) {
+			throw new IOException("Upload of " + file.getRemoteName() + " didn't complete");
+		}
+		return counter.getCount();
+	}
+
+	/**
+	 * Upload a file as it's stored, appending to any part of it already on the server
+	 *
+	 * @param client the {@link FTPClient} to upload with
+	 * @param file   the file to upload
+	 * @return the size of the file
+	 * @throws IOException if the file could not be uploaded
+	 */
+	private long storeResumable(FTPClient client, ExportFile file) throws IOException {
+		long size = Files.size(file.getPath());
+		long uploaded = getRemoteSize(client, file.getRemoteName());
+
+		if (uploaded == size) {
+			logger.trace("File [" + file.getRemoteName() + "] is already uploaded");
+			return size;
+		}
+
+		boolean stored;
+		try (InputStream stream = Files.newInputStream(file.getPath())) {
+			if (uploaded > 0 && uploaded < size) {
+				logger.debug("Resuming upload of [" + file.getRemoteName() + "] at byte " + uploaded);
+				ByteStreams.skipFully(stream, uploaded);
+				stored = client.appendFile(file.getRemoteName(), stream);
+			} else {
+				logger.trace("Uploading path [" + file.getPath() + "], filename [" + file.getRemoteName() + "]");
+				stored = client.storeFile(file.getRemoteName(), stream);
+			}
+		}
+
+		if (!stored) {
+			throw new IOException("Upload of " + file.getRemoteName() + " didn't complete");
+		}
+		return size;
+	}
+
+	/**
+	 * Get the size of a file in the submission directory. LIST is used rather than SIZE or MLST as it's the one
+	 * command every server supports.
+	 *
+	 * @param client   the {@link FTPClient} to read with
+	 * @param filename the name of the file
+	 * @return the size of the file, or -1 if it doesn't exist
+	 * @throws IOException if the directory couldn't be listed
+	 */
+	private long getRemoteSize(FTPClient client, String filename) throws IOException {
+		for (FTPFile remote : client.listFiles(filename)) {
+			if (remote != null && remote.isFile() && filename.equals(remote.getName())) {
+				return remote.getSize();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the current thread's FTP session, connecting it to the submission directory if it isn't connected
+	 *
+	 * @return a connected {@link FTPClient}
+	 * @throws IOException if the session couldn't connect
+	 */
+	private FTPClient getSession() throws IOException {
+		FTPClient client = sessions.get(Thread.currentThread());
+		if (client != null && client.isConnected()) {
+			return client;
+		}
+
+		client = connector.connect();
+		sessions.put(Thread.currentThread(), client);
+
+		client.setFileType(FTP.BINARY_FILE_TYPE);
+		client.setBufferSize(BUFFER_SIZE);
+		if (!client.changeWorkingDirectory(directoryPath)) {
+			throw new IOException(
+					"Couldn't change to upload directory " + directoryPath + " : " + client.getReplyString());
+		}
+		return client;
+	}
+
+	/**
+	 * Close the current thread's FTP session so the next file connects a new one
+	 */
+	private void closeSession() {
+		FTPClient client = sessions.remove(Thread.currentThread());
+		if (client != null) {
+			disconnect(client);
+		}
+	}
+
+	private void disconnect(FTPClient client) {
+		if (client.isConnected()) {
+			try {
+				client.disconnect();
+			} catch (IOException e) {
+				logger.error("Couldn't disconnect FTP Client", e);
+			}
+		}
+	}
+
+	/**
+	 * Connects and logs in a new FTP session
+	 */
+	@FunctionalInterface
+	interface FtpConnector {
+		FTPClient connect() throws IOException;
+	}
+
+	/**
+	 * Notified on the uploading thread as each file finishes uploading
+	 */
+	@FunctionalInterface
+	interface UploadListener {
+		void fileUploaded(String remoteName, long bytes);
+	}
+
+	/**
+	 * A local sequence file and the name it's uploaded as
+	 */
+	static class ExportFile {
+		private final String remoteName;
+		private final Path path;
+		private final boolean compress;
+
+		ExportFile(String remoteName, Path path, boolean compress) {
+			this.remoteName = remoteName;
+			this.path = path;
+			this.compress = compress;
+		}
+
+		/**
+		 * Get the file to upload for a {@link SequenceFile}. Files are always uploaded compressed; ones stored
+		 * uncompressed are gzipped while they're sent. File IDs are used as the basename to avoid accidentally sending
+		 * sensitive sample names to NCBI.
+		 *
+		 * @param sequenceFile the {@link SequenceFile} to upload
+		 * @return the file to upload
+		 */
+		static ExportFile of(SequenceFile sequenceFile) {
+			Path path = sequenceFile.getFile();
+			return new ExportFile(sequenceFile.getId() + ".fastq.gz", path, !path.toString()
+					.endsWith(".gz"));
+		}
+
+		String getRemoteName() {
+			return remoteName;
+		}
+
+		Path getPath() {
+			return path;
+		}
+
+		boolean isCompress() {
+			return compress;
+		}
+	}
+}
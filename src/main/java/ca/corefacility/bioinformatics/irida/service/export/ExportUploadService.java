@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -47,8 +48,6 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ConnectException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -69,6 +68,7 @@ public class ExportUploadService {
 	private MetadataTemplateService metadataTemplateService;
 	private TemplateEngine templateEngine;
 	private EmailController emailController;
+	private TaskExecutor uploadExecutor;
 
 	@Value("${ncbi.upload.host}")
 	private String ftpHost;
@@ -109,12 +109,14 @@ public class ExportUploadService {
 	@Autowired
 	public ExportUploadService(NcbiExportSubmissionService exportSubmissionService, SampleService sampleService,
 			MetadataTemplateService metadataTemplateService,
-			@Qualifier("exportUploadTemplateEngine") TemplateEngine templateEngine, EmailController emailController) {
+			@Qualifier("exportUploadTemplateEngine") TemplateEngine templateEngine, EmailController emailController,
+			@Qualifier("ncbiUploadExecutor") TaskExecutor uploadExecutor) {
 		this.exportSubmissionService = exportSubmissionService;
 		this.sampleService = sampleService;
 		this.metadataTemplateService = metadataTemplateService;
 		this.templateEngine = templateEngine;
 		this.emailController = emailController;
+		this.uploadExecutor = uploadExecutor;
 	}
 
 	/**
@@ -148,8 +150,9 @@ public class ExportUploadService {
 
 		logger.trace("Getting new exports");
 
+		// submissions still uploading were interrupted by a shutdown, so resume them
 		List<NcbiExportSubmission> submissionsWithState = exportSubmissionService
-				.getSubmissionsWithState(ExportUploadState.NEW);
+				.getSubmissionsWithState(ImmutableSet.of(ExportUploadState.NEW, ExportUploadState.UPLOADING));
 
 		for (NcbiExportSubmission submission : submissionsWithState) {
 
@@ -249,7 +252,10 @@ public class ExportUploadService {
 
 	/**
 	 * Upload an {@link NcbiExportSubmission}'s files and submission xml to the
-	 * configured ftp site
+	 * configured ftp site. The files are uploaded over parallel connections and
+	 * compressed while they're sent if they're stored uncompressed. A
+	 * submission which already has a directory is resumed into it, skipping the
+	 * files it has recorded as uploaded.
 	 *
 	 * @param submission
 	 *            The {@link NcbiExportSubmission} to upload
@@ -265,75 +271,56 @@ public class ExportUploadService {
 		try {
 			client = getFtpClient();
 
-			// create submission directory name
-			String directoryName = submission.getId().toString() + "-" + new Date().getTime();
+			if (submission.getDirectoryPath() == null) {
+				// create submission directory name
+				String directoryName = submission.getId().toString() + "-" + new Date().getTime();
 
-			// cd to submission base directory
-			if (!client.changeWorkingDirectory(baseDirectory)) {
-				throw new UploadException("Couldn't change to base directory " + baseDirectory + " : "
-						+ client.getReplyString());
-			}
+				// cd to submission base directory
+				if (!client.changeWorkingDirectory(baseDirectory)) {
+					throw new UploadException("Couldn't change to base directory " + baseDirectory + " : "
+							+ client.getReplyString());
+				}
 
-			// create new submission directory
-			if (!client.makeDirectory(directoryName)) {
-				throw new UploadException("Couldn't create new upload directory " + directoryName + " : "
-						+ client.getReplyString());
+				// create new submission directory
+				if (!client.makeDirectory(directoryName)) {
+					throw new UploadException("Couldn't create new upload directory " + directoryName + " : "
+							+ client.getReplyString());
+				}
+
+				// set the directory saved so an interrupted upload is resumed into it
+				submission.setDirectoryPath(baseDirectory + "/" + directoryName);
+				submission = saveProgress(submission);
+			} else {
+				logger.debug("Resuming upload of submission " + submission.getId() + " into "
+						+ submission.getDirectoryPath());
 			}
 
 			// cd to submission directory
-			if (!client.changeWorkingDirectory(directoryName)) {
-				throw new UploadException("Couldn't change to upload directory " + directoryName + " : "
-						+ client.getReplyString());
+			if (!client.changeWorkingDirectory(submission.getDirectoryPath())) {
+				throw new UploadException("Couldn't change to upload directory " + submission.getDirectoryPath()
+						+ " : " + client.getReplyString());
 			}
 
-			// set the directory saved
-			String directoryPath = baseDirectory + "/" + directoryName;
-			submission.setDirectoryPath(directoryPath);
-
 			// upload submission.xml file
 			uploadString(client, "submission.xml", xml);
+		} catch (IOException e) {
+			logger.error("Error in upload", e);
+			throw new UploadException("Could not upload run", e);
+		} finally {
+			// the control connection would sit idle while the files upload
+			disconnectFtpCient(client);
+		}
 
-			// upload biosample files
-			for (NcbiBioSampleFiles bsFile : submission.getBioSampleFiles()) {
-
-				// upload single end files
-				for (SingleEndSequenceFile file : bsFile.getFiles()) {
-					// Just using file IDs as the basename for uploaded files to
-					// avoid accidentally sending sensitive sample names to NCBI
-					String filename;
-					if (file.getSequenceFile().getFile().toString().endsWith(".gz")) {
-						filename = file.getSequenceFile().getId() + ".fastq.gz";
-					} else {
-						filename = file.getSequenceFile().getId() + ".fastq";
-					}
-
-					uploadPath(client, filename, file.getSequenceFile().getFile());
-				}
+		// upload biosample files that aren't already uploaded
+		submission = uploadFiles(submission);
 
-				// upload paired end files
-				for (SequenceFilePair pair : bsFile.getPairs()) {
-					// upload forward
-					SequenceFile file = pair.getForwardSequenceFile();
-					// Just using file IDs as the basename for uploaded files to
-					// avoid accidentally sending sensitive sample names to NCBI
-					String filename;
-					if (file.getFile().toString().endsWith(".gz")) {
-						filename = file.getId() + ".fastq.gz";
-					} else {
-						filename = file.getId() + ".fastq";
-					}
-					uploadPath(client, filename, file.getFile());
-
-					// upload reverse
-					file = pair.getReverseSequenceFile();
-					if (file.getFile().toString().endsWith(".gz")) {
-						filename = file.getId() + ".fastq.gz";
-					} else {
-						filename = file.getId() + ".fastq";
-					}
-					uploadPath(client, filename, file.getFile());
-				}
+		client = null;
+		try {
+			client = getFtpClient();
 
+			if (!client.changeWorkingDirectory(submission.getDirectoryPath())) {
+				throw new UploadException("Couldn't change to upload directory " + submission.getDirectoryPath()
+						+ " : " + client.getReplyString());
 			}
 
 			// create submit.ready file
@@ -350,6 +337,75 @@ public class ExportUploadService {
 
 	}
 
+	/**
+	 * Upload the sequence files of an {@link NcbiExportSubmission} which
+	 * haven't been uploaded yet over parallel FTP sessions, saving the
+	 * submission as each file finishes
+	 *
+	 * @param submission
+	 *            the {@link NcbiExportSubmission} to upload
+	 * @return the saved {@link NcbiExportSubmission}
+	 * @throws UploadException
+	 *             if a file could not be uploaded
+	 */
+	private NcbiExportSubmission uploadFiles(NcbiExportSubmission submission) throws UploadException {
+		List<ExportFileUploader.ExportFile> files = getExportFiles(submission);
+		logger.debug("Uploading " + files.size() + " files for submission " + submission.getId());
+
+		ExportFileUploader uploader = new ExportFileUploader(this::getFtpClient, submission.getDirectoryPath(),
+				uploadExecutor, MAX_RETRIES, WAIT_BETWEEN_RETRIES);
+		uploader.upload(files, (fileName, bytes) -> {
+			submission.addUploadedFile(fileName, bytes);
+			saveProgress(submission);
+		});
+
+		return submission;
+	}
+
+	/**
+	 * Get the sequence files of an {@link NcbiExportSubmission} which haven't
+	 * been uploaded yet
+	 *
+	 * @param submission
+	 *            the {@link NcbiExportSubmission} to upload
+	 * @return the files to upload
+	 */
+	private List<ExportFileUploader.ExportFile> getExportFiles(NcbiExportSubmission submission) {
+		List<SequenceFile> sequenceFiles = new ArrayList<>();
+		for (NcbiBioSampleFiles bsFile : submission.getBioSampleFiles()) {
+			for (SingleEndSequenceFile file : bsFile.getFiles()) {
+				sequenceFiles.add(file.getSequenceFile());
+			}
+
+			for (SequenceFilePair pair : bsFile.getPairs()) {
+				sequenceFiles.add(pair.getForwardSequenceFile());
+				sequenceFiles.add(pair.getReverseSequenceFile());
+			}
+		}
+
+		List<ExportFileUploader.ExportFile> files = new ArrayList<>();
+		for (SequenceFile sequenceFile : sequenceFiles) {
+			ExportFileUploader.ExportFile file = ExportFileUploader.ExportFile.of(sequenceFile);
+			if (!submission.getUploadedFiles()
+					.containsKey(file.getRemoteName())) {
+				files.add(file);
+			}
+		}
+
+		return files;
+	}
+
+	/**
+	 * Save the upload progress of an {@link NcbiExportSubmission}
+	 *
+	 * @param submission
+	 *            the {@link NcbiExportSubmission} being uploaded
+	 * @return the saved {@link NcbiExportSubmission}
+	 */
+	private NcbiExportSubmission saveProgress(NcbiExportSubmission submission) {
+		return exportSubmissionService.update(submission);
+	}
+
 	/**
 	 * Get the latest result.#.xml file for the given submission
 	 *
@@ -623,47 +679,6 @@ public class ExportUploadService {
 		} while (!done);
 	}
 
-	/**
-	 * Upload a file {@link Path} to a remote ftp client
-	 *
-	 * @param client   {@link FTPClient} to upload with
-	 * @param filename name of file to create
-	 * @param path     {@link Path} to upload
-	 * @throws UploadException if file could not be uploaded
-	 */
-	private void uploadPath(FTPClient client, String filename, Path path) throws UploadException, IOException {
-		int tries = 0;
-		boolean done = false;
-
-		client.setFileType(FTP.BINARY_FILE_TYPE);
-
-		do {
-			tries++;
-
-			try (InputStream stream = Files.newInputStream(path)) {
-				logger.trace("Uploading path [" + path + "], filename [" + filename + "], data_connection_mode ["
-						+ client.getDataConnectionMode() + "]");
-				client.storeFile(filename, stream);
-				logger.trace("Finished uploading path [" + path + "], filename [" + filename + "], response ["
-						+ client.getReplyString() + "]");
-
-				done = true;
-			} catch (Exception e) {
-				String reply = client.getReplyString();
-				if (tries >= MAX_RETRIES) {
-					throw new UploadException("Could not upload file " + filename + " : " + reply, e);
-				}
-				logger.error("Error uploading file: " + reply, e);
-
-				try {
-					Thread.sleep(WAIT_BETWEEN_RETRIES);
-				} catch (InterruptedException e1) {
-					throw new UploadException("Sleep failed", e1);
-				}
-			}
-		} while (!done);
-	}
-
 	/**
 	 * Add the accession numbers for uploaded NCBI data to the associated {@link Sample}
 	 *
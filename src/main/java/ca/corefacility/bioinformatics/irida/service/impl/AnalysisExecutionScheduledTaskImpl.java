@@ -1,13 +1,20 @@
 package ca.corefacility.bioinformatics.irida.service.impl;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.AsyncResult;
 
 import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
@@ -22,12 +29,18 @@ import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSu
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyJobErrorsService;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.JobErrorRepository;
+import ca.corefacility.bioinformatics.irida.service.AnalysisAdmissionScheduler;
 import ca.corefacility.bioinformatics.irida.service.AnalysisExecutionScheduledTask;
 import ca.corefacility.bioinformatics.irida.service.CleanupAnalysisSubmissionCondition;
 import ca.corefacility.bioinformatics.irida.service.analysis.execution.AnalysisExecutionService;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisMonitoringSchedule;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisMonitoringSchedule.CycleStats;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.PriorityAdmissionScheduler;
 import ca.corefacility.bioinformatics.irida.service.EmailController;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Implementation of analysis execution tasks. This will scan for
@@ -51,6 +64,10 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 	private GalaxyJobErrorsService galaxyJobErrorsService;
 	private JobErrorRepository jobErrorRepository;
 	private final EmailController emailController;
+	private final AnalysisProgressCache analysisProgressCache;
+	private AsyncTaskExecutor statusCheckExecutor = new TaskExecutorAdapter(MoreExecutors.directExecutor());
+	private AnalysisMonitoringSchedule monitoringSchedule = AnalysisMonitoringSchedule.everyCycle();
+	private AnalysisAdmissionScheduler admissionScheduler;
 
 	/**
 	 * Builds a new AnalysisExecutionScheduledTaskImpl with the given service
@@ -63,18 +80,22 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 	 * @param galaxyJobErrorsService         {@link GalaxyJobErrorsService} for getting {@link JobError} objects
 	 * @param jobErrorRepository             {@link JobErrorRepository} for {@link JobError} objects
 	 * @param emailController                {@link EmailController} for sending completion/error emails for {@link AnalysisSubmission}s
+	 * @param analysisProgressCache          {@link AnalysisProgressCache} to share the status of running {@link AnalysisSubmission}s with
 	 */
 	@Autowired
 	public AnalysisExecutionScheduledTaskImpl(AnalysisSubmissionRepository analysisSubmissionRepository,
 			AnalysisExecutionService analysisExecutionServiceGalaxy,
 			CleanupAnalysisSubmissionCondition cleanupCondition, GalaxyJobErrorsService galaxyJobErrorsService,
-			JobErrorRepository jobErrorRepository, EmailController emailController) {
+			JobErrorRepository jobErrorRepository, EmailController emailController,
+			AnalysisProgressCache analysisProgressCache) {
 		this.analysisSubmissionRepository = analysisSubmissionRepository;
 		this.analysisExecutionService = analysisExecutionServiceGalaxy;
 		this.cleanupCondition = cleanupCondition;
 		this.galaxyJobErrorsService = galaxyJobErrorsService;
 		this.jobErrorRepository = jobErrorRepository;
 		this.emailController = emailController;
+		this.analysisProgressCache = analysisProgressCache;
+		this.admissionScheduler = new PriorityAdmissionScheduler(analysisSubmissionRepository);
 	}
 
 	/**
@@ -85,27 +106,12 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 		synchronized (prepareAnalysesLock) {
 			logger.trace("Running prepareAnalyses");
 
-			List<AnalysisSubmission> analysisSubmissions = analysisSubmissionRepository.findByAnalysisState(
-					AnalysisState.NEW);
-
-			// Sort submissions by priority high to low
-			analysisSubmissions.sort((a1, a2) -> {
-				return a2.getPriority()
-						.compareTo(a1.getPriority());
-			});
-
 			Set<Future<AnalysisSubmission>> submissions = Sets.newHashSet();
 
 			// check to see if execution service wants any more jobs
 			int capacity = analysisExecutionService.getCapacity();
 			if (capacity > 0) {
-
-				if (capacity < analysisSubmissions.size()) {
-					logger.debug("Attempting to submit more jobs than capacity, list will be trimmed: "
-							+ analysisSubmissions.size() + "=>" + capacity);
-					// only submit up to capacity
-					analysisSubmissions = analysisSubmissions.subList(0, capacity);
-				}
+				List<AnalysisSubmission> analysisSubmissions = admissionScheduler.selectSubmissions(capacity);
 
 				for (AnalysisSubmission analysisSubmission : analysisSubmissions) {
 					logger.debug("Preparing " + analysisSubmission);
@@ -158,21 +164,70 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 	public Set<Future<AnalysisSubmission>> monitorRunningAnalyses() {
 		synchronized (monitorRunningAnalysesLock) {
 			logger.trace("Running monitorRunningAnalyses");
+			long cycleStart = System.currentTimeMillis();
 
 			List<AnalysisSubmission> analysisSubmissions = analysisSubmissionRepository.findByAnalysisState(
 					AnalysisState.RUNNING);
+			monitoringSchedule.retainAll(analysisSubmissions.stream()
+					.map(AnalysisSubmission::getId)
+					.collect(Collectors.toList()));
 
-			Set<Future<AnalysisSubmission>> submissions = Sets.newHashSet();
-
+			// check the status of every submission that is due concurrently, the executor bounds how many Galaxy
+			// requests are in flight at once
+			List<Future<StatusCheck>> statusChecks = new ArrayList<>();
 			for (AnalysisSubmission analysisSubmission : analysisSubmissions) {
+				if (!monitoringSchedule.isDue(analysisSubmission, cycleStart)) {
+					continue;
+				}
+
 				logger.trace("Checking state of " + analysisSubmission);
+				StatusCheck statusCheck = new StatusCheck(analysisSubmission,
+						monitoringSchedule.getDueTime(analysisSubmission, cycleStart));
+				try {
+					statusChecks.add(statusCheckExecutor.submit(() -> checkWorkflowStatus(statusCheck)));
+				} catch (RejectedExecutionException e) {
+					logger.debug("Not checking state of " + analysisSubmission + ", status checks are shut down", e);
+				}
+			}
 
+			// the results are handled here so submissions are only saved from this thread
+			Set<Future<AnalysisSubmission>> submissions = Sets.newHashSet();
+			long maxLag = 0;
+			long totalLag = 0;
+			for (Future<StatusCheck> future : statusChecks) {
+				StatusCheck statusCheck;
 				try {
-					GalaxyWorkflowStatus workflowStatus = analysisExecutionService.getWorkflowStatus(
-							analysisSubmission);
-					submissions.add(handleWorkflowStatus(workflowStatus, analysisSubmission));
-				} catch (ExecutionManagerException | RuntimeException e) {
-					logger.error("Error checking state for " + analysisSubmission, e);
+					statusCheck = future.get();
+				} catch (InterruptedException e) {
+					logger.warn("Interrupted while monitoring running analyses");
+					statusChecks.forEach(f -> f.cancel(true));
+					Thread.currentThread()
+							.interrupt();
+					break;
+				} catch (ExecutionException e) {
+					logger.error("Error checking state of a running analysis", e.getCause());
+					continue;
+				}
+
+				long lag = Math.max(0, statusCheck.started - statusCheck.due);
+				maxLag = Math.max(maxLag, lag);
+				totalLag += lag;
+
+				AnalysisSubmission analysisSubmission = statusCheck.analysisSubmission;
+				Exception error = statusCheck.error;
+				if (error == null) {
+					try {
+						submissions.add(handleWorkflowStatus(statusCheck.workflowStatus, analysisSubmission,
+								statusCheck.started));
+					} catch (RuntimeException e) {
+						error = e;
+					}
+				}
+
+				if (error != null) {
+					logger.error("Error checking state for " + analysisSubmission, error);
+					analysisProgressCache.removeWorkflowStatus(analysisSubmission);
+					monitoringSchedule.remove(analysisSubmission);
 					analysisSubmission.setAnalysisState(AnalysisState.ERROR);
 					submissions.add(new AsyncResult<>(analysisSubmissionRepository.save(analysisSubmission)));
 					if (analysisSubmission.getEmailPipelineResult()) {
@@ -181,10 +236,33 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 				}
 			}
 
+			CycleStats cycle = new CycleStats(System.currentTimeMillis() - cycleStart, statusChecks.size(),
+					analysisSubmissions.size() - statusChecks.size(), maxLag,
+					statusChecks.isEmpty() ? 0 : totalLag / statusChecks.size());
+			monitoringSchedule.recordCycle(cycle);
+			logger.debug("Finished monitoring running analyses " + cycle);
+
 			return submissions;
 		}
 	}
 
+	/**
+	 * Read the Galaxy status of a running {@link AnalysisSubmission}, keeping any error to be handled by the
+	 * monitoring thread.
+	 *
+	 * @param statusCheck the {@link StatusCheck} for the submission
+	 * @return the completed {@link StatusCheck}
+	 */
+	private StatusCheck checkWorkflowStatus(StatusCheck statusCheck) {
+		statusCheck.started = System.currentTimeMillis();
+		try {
+			statusCheck.workflowStatus = analysisExecutionService.getWorkflowStatus(statusCheck.analysisSubmission);
+		} catch (ExecutionManagerException | RuntimeException e) {
+			statusCheck.error = e;
+		}
+		return statusCheck;
+	}
+
 	/**
 	 * Handle async saving of {@link JobError} objects for a {@link AnalysisSubmission}
 	 * to database through {@link JobErrorRepository} if there are any
@@ -255,11 +333,12 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 	 *
 	 * @param workflowStatus     The status of the workflow.
 	 * @param analysisSubmission The {@link AnalysisSubmission}.
+	 * @param checkedAt          The time in milliseconds the status was read.
 	 * @return A {@link Future} with an {@link AnalysisSubmission} for this
 	 * submission.
 	 */
 	private Future<AnalysisSubmission> handleWorkflowStatus(GalaxyWorkflowStatus workflowStatus,
-			AnalysisSubmission analysisSubmission) {
+			AnalysisSubmission analysisSubmission, long checkedAt) {
 		Future<AnalysisSubmission> returnedSubmission;
 
 		boolean finalWorkflowStatusSet = false;
@@ -280,6 +359,9 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 		} else if (workflowStatus.isRunning()) {
 			logger.trace("Workflow for analysis " + analysisSubmission + " is running: proportion complete "
 					+ workflowStatus.getProportionComplete());
+			monitoringSchedule.recordStatus(analysisSubmission, workflowStatus, checkedAt);
+			analysisProgressCache.putWorkflowStatus(analysisSubmission, workflowStatus,
+					Duration.ofMillis(monitoringSchedule.getDueTime(analysisSubmission, checkedAt) - checkedAt));
 			returnedSubmission = new AsyncResult<>(analysisSubmission);
 		} else {
 			// If one of the above combinations did not match, assume an error occurred.
@@ -291,6 +373,11 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 			finalWorkflowStatusSet = true;
 		}
 
+		if (finalWorkflowStatusSet) {
+			analysisProgressCache.removeWorkflowStatus(analysisSubmission);
+			monitoringSchedule.remove(analysisSubmission);
+		}
+
 		/*
 		 The variable finalWorkflowStatusSet is set to true when an analysis
 		 has successfully completed or completed with an error and is used in
@@ -338,4 +425,51 @@ public class AnalysisExecutionScheduledTaskImpl implements AnalysisExecutionSche
 			return cleanedSubmissions;
 		}
 	}
+
+	/**
+	 * Set the {@link AsyncTaskExecutor} used to check the status of running {@link AnalysisSubmission}s. The number of
+	 * threads of the executor bounds how many status requests are made to Galaxy at once. By default statuses are
+	 * checked one at a time on the monitoring thread.
+	 *
+	 * @param statusCheckExecutor the {@link AsyncTaskExecutor} for status checks
+	 */
+	public void setStatusCheckExecutor(AsyncTaskExecutor statusCheckExecutor) {
+		this.statusCheckExecutor = statusCheckExecutor;
+	}
+
+	/**
+	 * Set the {@link AnalysisMonitoringSchedule} deciding when each running {@link AnalysisSubmission} is checked. By
+	 * default every running submission is checked on every cycle.
+	 *
+	 * @param monitoringSchedule the {@link AnalysisMonitoringSchedule}
+	 */
+	public void setMonitoringSchedule(AnalysisMonitoringSchedule monitoringSchedule) {
+		this.monitoringSchedule = monitoringSchedule;
+	}
+
+	/**
+	 * Set the {@link AnalysisAdmissionScheduler} choosing which new {@link AnalysisSubmission}s are prepared when
+	 * there is capacity for more. By default submissions are prepared by priority alone.
+	 *
+	 * @param admissionScheduler the {@link AnalysisAdmissionScheduler}
+	 */
+	public void setAdmissionScheduler(AnalysisAdmissionScheduler admissionScheduler) {
+		this.admissionScheduler = admissionScheduler;
+	}
+
+	/**
+	 * The result of reading the status of a running {@link AnalysisSubmission} from Galaxy
+	 */
+	private static class StatusCheck {
+		private final AnalysisSubmission analysisSubmission;
+		private final long due;
+		private long started;
+		private GalaxyWorkflowStatus workflowStatus;
+		private Exception error;
+
+		StatusCheck(AnalysisSubmission analysisSubmission, long due) {
+			this.analysisSubmission = analysisSubmission;
+			this.due = due;
+		}
+	}
 }
@@ -11,6 +11,7 @@ import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -28,6 +29,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
+import ca.corefacility.bioinformatics.irida.events.SampleMetadataChangedEvent;
 import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.*;
 import ca.corefacility.bioinformatics.irida.model.enums.ProjectRole;
@@ -39,6 +42,7 @@ import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectUserJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.RelatedProjectJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.project.ProjectReferenceFileJoin;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus.SyncStatus;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
@@ -88,6 +92,7 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 	private final ProjectAnalysisSubmissionJoinRepository pasRepository;
 	private final SequencingObjectRepository sequencingObjectRepository;
 	private final ProjectRepository projectRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
 	public ProjectServiceImpl(ProjectRepository projectRepository, SampleRepository sampleRepository,
@@ -96,7 +101,8 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 			ReferenceFileRepository referenceFileRepository, ProjectReferenceFileJoinRepository prfjRepository,
 			final UserGroupProjectJoinRepository ugpjRepository, SampleSequencingObjectJoinRepository ssoRepository,
 			ProjectAnalysisSubmissionJoinRepository pasRepository,
-			SequencingObjectRepository sequencingObjectRepository, Validator validator) {
+			SequencingObjectRepository sequencingObjectRepository, ApplicationEventPublisher eventPublisher,
+			Validator validator) {
 		super(projectRepository, validator, Project.class);
 		this.projectRepository = projectRepository;
 		this.sampleRepository = sampleRepository;
@@ -110,6 +116,7 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 		this.ssoRepository = ssoRepository;
 		this.pasRepository = pasRepository;
 		this.sequencingObjectRepository = sequencingObjectRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -220,6 +227,7 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN') or hasPermission(#id, 'canManageLocalProjectSettings')")
 	public void delete(final Long id) {
 		super.delete(id);
+		eventPublisher.publishEvent(new PermissionsChangedEvent("Project " + id + " deleted"));
 	}
 
 	/**
@@ -366,11 +374,15 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 		ProjectSampleJoin join = new ProjectSampleJoin(project, sample, owner);
 
 		try {
-			return psjRepository.save(join);
+			join = psjRepository.save(join);
 		} catch (DataIntegrityViolationException e) {
 			throw new EntityExistsException(
 					"Sample [" + sample.getId() + "] has already been added to project [" + project.getId() + "]");
 		}
+
+		eventPublisher.publishEvent(new SampleMetadataChangedEvent(Collections.singletonList(sample.getId())));
+
+		return join;
 	}
 
 	/**
@@ -451,6 +463,7 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 	public void removeSampleFromProject(Project project, Sample sample) {
 		ProjectSampleJoin readSampleForProject = psjRepository.readSampleForProject(project, sample);
 		psjRepository.delete(readSampleForProject);
+		eventPublisher.publishEvent(new SampleMetadataChangedEvent(Collections.singletonList(sample.getId())));
 
 		// if the sample doesn't refer to any other projects, delete it
 		if (psjRepository.getProjectForSample(sample)
@@ -652,6 +665,31 @@ public class ProjectServiceImpl extends CRUDServiceImpl<Long, Project> implement
 		return projectRepository.findAll(searchForProjects(searchValue, null, null, null), pr);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@PreAuthorize("hasRole('ROLE_USER')")
+	public Page<ProjectSummary> findProjectSummariesForUser(final String search, final Integer page,
+			final Integer count, final Sort sort) {
+		final UserDetails loggedInDetails = (UserDetails) SecurityContextHolder.getContext()
+				.getAuthentication()
+				.getPrincipal();
+		final User loggedIn = userRepository.loadUserByUsername(loggedInDetails.getUsername());
+		final PageRequest pr = PageRequest.of(page, count, getOrDefaultSort(sort));
+		return projectRepository.findProjectSummaries(searchForProjects(search, null, null, loggedIn), pr);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	public Page<ProjectSummary> findAllProjectSummaries(String searchValue, int currentPage, int length, Sort sort) {
+		final PageRequest pr = PageRequest.of(currentPage, length, getOrDefaultSort(sort));
+		return projectRepository.findProjectSummaries(searchForProjects(searchValue, null, null, null), pr);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,5 +1,6 @@
 package ca.corefacility.bioinformatics.irida.service.impl;
 
+import ca.corefacility.bioinformatics.irida.events.SequencingObjectCreatedEvent;
 import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.*;
 import ca.corefacility.bioinformatics.irida.model.event.DataAddedToSampleProjectEvent;
@@ -18,8 +19,11 @@ import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFi
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
 import ca.corefacility.bioinformatics.irida.repositories.specification.SampleSequencingObjectSpecification;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 import com.google.common.collect.ImmutableMap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,17 +47,22 @@ public class SequencingObjectServiceImpl extends CRUDServiceImpl<Long, Sequencin
 
 	private final SequencingObjectRepository repository;
 	private final SequenceConcatenationRepository concatenationRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final SampleQCSummaryUpdater qcSummaryUpdater;
 
 	@Autowired
 	public SequencingObjectServiceImpl(SequencingObjectRepository repository,
 			SequenceFileRepository sequenceFileRepository, SampleSequencingObjectJoinRepository ssoRepository,
-			SequenceConcatenationRepository concatenationRepository, Validator validator) {
+			SequenceConcatenationRepository concatenationRepository, ApplicationEventPublisher eventPublisher,
+			SampleQCSummaryUpdater qcSummaryUpdater, Validator validator) {
 		super(repository, validator, SequencingObject.class);
 		this.repository = repository;
 		this.ssoRepository = ssoRepository;
 
 		this.sequenceFileRepository = sequenceFileRepository;
 		this.concatenationRepository = concatenationRepository;
+		this.eventPublisher = eventPublisher;
+		this.qcSummaryUpdater = qcSummaryUpdater;
 	}
 
 	/**
@@ -86,7 +95,12 @@ public class SequencingObjectServiceImpl extends CRUDServiceImpl<Long, Sequencin
 			file = sequenceFileRepository.save(file);
 		}
 
-		return super.create(object);
+		SequencingObject created = super.create(object);
+
+		// file processing listens for this event once the transaction has been committed
+		eventPublisher.publishEvent(new SequencingObjectCreatedEvent(created.getId()));
+
+		return created;
 	}
 
 	/**
@@ -114,6 +128,23 @@ public class SequencingObjectServiceImpl extends CRUDServiceImpl<Long, Sequencin
 		return ssoRepository.getSequencesForSample(sample);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_SEQUENCER') or hasPermission(#samples, 'canReadSample')")
+	public Map<Long, List<SampleSequencingObjectJoin>> getSequencingObjectsForSamples(Collection<Sample> samples) {
+		if (samples.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		return ssoRepository.getSequencesForSamples(samples)
+				.stream()
+				.collect(Collectors.groupingBy(j -> j.getSubject()
+						.getId(), LinkedHashMap::new, Collectors.toList()));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -178,6 +209,18 @@ public class SequencingObjectServiceImpl extends CRUDServiceImpl<Long, Sequencin
 		return repository.findSequencingObjectsForSequencingRun(sequencingRun);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@PostFilter("hasPermission(filterObject, 'canReadSequencingObject')")
+	public Set<SequencingObject> getSequencingObjectsWithUploadSha256(String sha256) {
+		Set<SequencingObject> objects = new HashSet<>(repository.findSingleEndSequenceFilesWithUploadSha256(sha256));
+		objects.addAll(repository.findSequenceFilePairsWithUploadSha256(sha256));
+		return objects;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -252,10 +295,13 @@ public class SequencingObjectServiceImpl extends CRUDServiceImpl<Long, Sequencin
 		concatenationRepository.save(new SequenceConcatenation(created.getObject(), toJoin));
 		
 		if (removeOriginals) {
+			Set<Sample> changedSamples = new HashSet<>();
 			for (SequencingObject obj : toJoin) {
 				SampleSequencingObjectJoin sampleForSequencingObject = ssoRepository.getSampleForSequencingObject(obj);
+				changedSamples.add(sampleForSequencingObject.getSubject());
 				ssoRepository.delete(sampleForSequencingObject);
 			}
+			qcSummaryUpdater.updateSummariesAfterCommit(changedSamples);
 		}
 
 		return created;
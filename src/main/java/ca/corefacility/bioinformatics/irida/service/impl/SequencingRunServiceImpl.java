@@ -37,6 +37,7 @@ import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFi
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
 import ca.corefacility.bioinformatics.irida.repositories.user.UserRepository;
 import ca.corefacility.bioinformatics.irida.service.SequencingRunService;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 
 /**
  * 
@@ -50,18 +51,20 @@ public class SequencingRunServiceImpl extends CRUDServiceImpl<Long, SequencingRu
 	private SampleSequencingObjectJoinRepository ssoRepository;
 	private AnalysisSubmissionRepository submissionRepository;
 	private UserRepository userRepository;
+	private SampleQCSummaryUpdater qcSummaryUpdater;
 
 	@Autowired
 	public SequencingRunServiceImpl(SequencingRunRepository repository, SequenceFileRepository sequenceFileRepository,
 			SequencingObjectRepository objectRepository, SampleSequencingObjectJoinRepository ssoRepository,
 			SampleRepository sampleRepository, AnalysisSubmissionRepository submissionRepository,
-			UserRepository userRepository, Validator validator) {
+			UserRepository userRepository, SampleQCSummaryUpdater qcSummaryUpdater, Validator validator) {
 		super(repository, validator, SequencingRun.class);
 		this.sampleRepository = sampleRepository;
 		this.objectRepository = objectRepository;
 		this.submissionRepository = submissionRepository;
 		this.ssoRepository = ssoRepository;
 		this.userRepository = userRepository;
+		this.qcSummaryUpdater = qcSummaryUpdater;
 	}
 
 	/**
@@ -161,13 +164,18 @@ public class SequencingRunServiceImpl extends CRUDServiceImpl<Long, SequencingRu
 		super.delete(id);
 
 		// Search if samples are empty. If they are, delete the sample.
+		Set<Sample> remainingSamples = new HashSet<>();
 		for (Sample sample : referencedSamples) {
 			List<SampleSequencingObjectJoin> sequencesForSample = ssoRepository.getSequencesForSample(sample);
 			if (sequencesForSample.isEmpty()) {
 				logger.trace("Sample " + sample.getId() + " is empty.  Deleting sample");
 				sampleRepository.deleteById(sample.getId());
+			} else {
+				remainingSamples.add(sample);
 			}
 		}
+
+		qcSummaryUpdater.updateSummariesAfterCommit(remainingSamples);
 	}
 
 	/**
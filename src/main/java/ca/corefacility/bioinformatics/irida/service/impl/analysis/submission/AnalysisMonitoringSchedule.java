@@ -0,0 +1,219 @@
+package ca.corefacility.bioinformatics.irida.service.impl.analysis.submission;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decides when the Galaxy status of each running {@link AnalysisSubmission} should next be checked. A submission is
+ * checked as soon as it is seen, then:
+ * <ul>
+ * <li>if its progress advanced since the last check, again after half of the time it is expected to take to complete
+ * at that rate, so that finished analyses are noticed quickly,</li>
+ * <li>otherwise after twice the previous interval, so that long running histories are checked less often.</li>
+ * </ul>
+ * Intervals are always kept between the minimum and maximum interval. Statistics for the last monitoring cycle are
+ * kept with {@link #recordCycle(CycleStats)}.
+ */
+public class AnalysisMonitoringSchedule {
+
+	private final long minIntervalMillis;
+	private final long maxIntervalMillis;
+	private final Map<Long, Check> checks = new ConcurrentHashMap<>();
+
+	private volatile CycleStats lastCycle;
+
+	/**
+	 * Create a new {@link AnalysisMonitoringSchedule}
+	 *
+	 * @param minInterval the shortest time to wait between checks of a submission
+	 * @param maxInterval the longest time to wait between checks of a submission
+	 */
+	public AnalysisMonitoringSchedule(Duration minInterval, Duration maxInterval) {
+		checkArgument(!minInterval.isNegative(), "minInterval must not be negative");
+		checkArgument(maxInterval.compareTo(minInterval) >= 0, "maxInterval must not be less than minInterval");
+		this.minIntervalMillis = minInterval.toMillis();
+		this.maxIntervalMillis = maxInterval.toMillis();
+	}
+
+	/**
+	 * Create a schedule that checks every submission on every monitoring cycle
+	 *
+	 * @return an {@link AnalysisMonitoringSchedule} without any wait between checks
+	 */
+	public static AnalysisMonitoringSchedule everyCycle() {
+		return new AnalysisMonitoringSchedule(Duration.ZERO, Duration.ZERO);
+	}
+
+	/**
+	 * Get the time a submission is due to be checked. Submissions that haven't been checked yet are due now.
+	 *
+	 * @param analysisSubmission the running {@link AnalysisSubmission}
+	 * @param now                the current time in milliseconds
+	 * @return the time in milliseconds the submission should be checked at
+	 */
+	public long getDueTime(AnalysisSubmission analysisSubmission, long now) {
+		Check check = checks.get(analysisSubmission.getId());
+		return check == null ? now : check.due;
+	}
+
+	/**
+	 * Whether a submission should be checked now
+	 *
+	 * @param analysisSubmission the running {@link AnalysisSubmission}
+	 * @param now                the current time in milliseconds
+	 * @return true if the submission is due to be checked
+	 */
+	public boolean isDue(AnalysisSubmission analysisSubmission, long now) {
+		return getDueTime(analysisSubmission, now) <= now;
+	}
+
+	/**
+	 * Record the status of a running submission and schedule its next check
+	 *
+	 * @param analysisSubmission the running {@link AnalysisSubmission}
+	 * @param workflowStatus     the {@link GalaxyWorkflowStatus} read for the submission
+	 * @param now                the time in milliseconds the status was read
+	 */
+	public void recordStatus(AnalysisSubmission analysisSubmission, GalaxyWorkflowStatus workflowStatus, long now) {
+		Check previous = checks.get(analysisSubmission.getId());
+		float proportion = workflowStatus.getProportionComplete();
+
+		long interval;
+		if (previous == null) {
+			interval = minIntervalMillis;
+		} else if (proportion > previous.proportion && now > previous.checked) {
+			double rate = (proportion - previous.proportion) / (now - previous.checked);
+			long expectedRemaining = (long) ((1.0 - proportion) / rate);
+			interval = expectedRemaining / 2;
+		} else {
+			interval = previous.interval * 2;
+		}
+		interval = Math.max(minIntervalMillis, Math.min(maxIntervalMillis, interval));
+
+		checks.put(analysisSubmission.getId(), new Check(now, now + interval, interval, proportion));
+	}
+
+	/**
+	 * Stop scheduling checks for a submission that is no longer running
+	 *
+	 * @param analysisSubmission the {@link AnalysisSubmission}
+	 */
+	public void remove(AnalysisSubmission analysisSubmission) {
+		checks.remove(analysisSubmission.getId());
+	}
+
+	/**
+	 * Stop scheduling checks for every submission that isn't in the given running submissions
+	 *
+	 * @param running the identifiers of the running {@link AnalysisSubmission}s
+	 */
+	public void retainAll(Collection<Long> running) {
+		checks.keySet()
+				.retainAll(running);
+	}
+
+	/**
+	 * Get the number of submissions with a scheduled check
+	 *
+	 * @return the number of scheduled submissions
+	 */
+	public int size() {
+		return checks.size();
+	}
+
+	/**
+	 * Record the statistics of a monitoring cycle
+	 *
+	 * @param cycle the {@link CycleStats} of the cycle
+	 */
+	public void recordCycle(CycleStats cycle) {
+		this.lastCycle = cycle;
+	}
+
+	/**
+	 * Get the statistics of the last monitoring cycle
+	 *
+	 * @return the {@link CycleStats} of the last cycle, or null if no cycle has run
+	 */
+	public CycleStats getLastCycle() {
+		return lastCycle;
+	}
+
+	/**
+	 * The last check of a submission and when to check it next
+	 */
+	private static class Check {
+		private final long checked;
+		private final long due;
+		private final long interval;
+		private final float proportion;
+
+		Check(long checked, long due, long interval, float proportion) {
+			this.checked = checked;
+			this.due = due;
+			this.interval = interval;
+			this.proportion = proportion;
+		}
+	}
+
+	/**
+	 * Statistics for a single monitoring cycle
+	 */
+	public static class CycleStats {
+		private final long durationMillis;
+		private final int checked;
+		private final int deferred;
+		private final long maxLagMillis;
+		private final long meanLagMillis;
+
+		/**
+		 * Create statistics for a monitoring cycle
+		 *
+		 * @param durationMillis how long the cycle took in milliseconds
+		 * @param checked        the number of submissions checked
+		 * @param deferred       the number of running submissions that weren't due to be checked
+		 * @param maxLagMillis   the longest time a check started after it was due
+		 * @param meanLagMillis  the mean time checks started after they were due
+		 */
+		public CycleStats(long durationMillis, int checked, int deferred, long maxLagMillis, long meanLagMillis) {
+			this.durationMillis = durationMillis;
+			this.checked = checked;
+			this.deferred = deferred;
+			this.maxLagMillis = maxLagMillis;
+			this.meanLagMillis = meanLagMillis;
+		}
+
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		public int getChecked() {
+			return checked;
+		}
+
+		public int getDeferred() {
+			return deferred;
+		}
+
+		public long getMaxLagMillis() {
+			return maxLagMillis;
+		}
+
+		public long getMeanLagMillis() {
+			return meanLagMillis;
+		}
+
+		@Override
+		public String toString() {
+			return "CycleStats [durationMillis=" + durationMillis + ", checked=" + checked + ", deferred=" + deferred
+					+ ", maxLagMillis=" + maxLagMillis + ", meanLagMillis=" + meanLagMillis + "]";
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package ca.corefacility.bioinformatics.irida.service.impl.analysis.submission;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
+import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyHistoriesService;
+
+/**
+ * Keeps the last known {@link GalaxyWorkflowStatus} of running {@link AnalysisSubmission}s so that showing the
+ * progress of an analysis doesn't ask Galaxy for its status on every request. The analysis monitoring task puts the
+ * status it reads from Galaxy along with the time until it checks the submission again, and the status is kept until
+ * {@code analysis.progress.cache.ttl} seconds after that check is due, so a submission the monitor defers for up to
+ * {@code irida.analysis.monitor.interval.max} seconds isn't read from Galaxy in between. If this server doesn't monitor
+ * analyses, or the monitor falls behind, the status is read from Galaxy once, kept for
+ * {@code analysis.progress.cache.ttl} seconds, and shared by all requests for it.
+ * <p>
+ * Callers are responsible for checking that the current user can read the submissions.
+ */
+@Component
+public class AnalysisProgressCache {
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisProgressCache.class);
+
+	private final GalaxyHistoriesService galaxyHistoriesService;
+	private final Cache<Long, CachedStatus> workflowStatuses;
+	private final long timeToLiveNanos;
+	private final Ticker ticker;
+
+	/**
+	 * Create a new {@link AnalysisProgressCache}
+	 *
+	 * @param galaxyHistoriesService the {@link GalaxyHistoriesService} to read statuses that aren't cached from
+	 * @param timeToLive             the number of seconds to keep a status after it is due to be read again
+	 * @param monitorMaxInterval     the longest time in seconds the monitoring task waits between status checks
+	 * @param maximumSize            the maximum number of statuses to keep
+	 */
+	@Autowired
+	public AnalysisProgressCache(GalaxyHistoriesService galaxyHistoriesService,
+			@Value("${analysis.progress.cache.ttl:30}") long timeToLive,
+			@Value("${irida.analysis.monitor.interval.max:120}") long monitorMaxInterval,
+			@Value("${analysis.progress.cache.size:10000}") long maximumSize) {
+		this(galaxyHistoriesService, timeToLive, monitorMaxInterval, maximumSize, Ticker.systemTicker());
+	}
+
+	/**
+	 * Create a new {@link AnalysisProgressCache} reading the time from the given {@link Ticker}
+	 *
+	 * @param galaxyHistoriesService the {@link GalaxyHistoriesService} to read statuses that aren't cached from
+	 * @param timeToLive             the number of seconds to keep a status after it is due to be read again
+	 * @param monitorMaxInterval     the longest time in seconds the monitoring task waits between status checks
+	 * @param maximumSize            the maximum number of statuses to keep
+	 * @param ticker                 the {@link Ticker} to read the time from
+	 */
+	public AnalysisProgressCache(GalaxyHistoriesService galaxyHistoriesService, long timeToLive,
+			long monitorMaxInterval, long maximumSize, Ticker ticker) {
+		this.galaxyHistoriesService = galaxyHistoriesService;
+		this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLive);
+		this.ticker = ticker;
+		// no status is kept longer than the monitor can wait before reading it again
+		this.workflowStatuses = CacheBuilder.newBuilder()
+				.expireAfterWrite(monitorMaxInterval + timeToLive, TimeUnit.SECONDS)
+				.maximumSize(maximumSize)
+				.ticker(ticker)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Record the status of a running {@link AnalysisSubmission} read from Galaxy by the monitoring task
+	 *
+	 * @param analysisSubmission the running {@link AnalysisSubmission}
+	 * @param workflowStatus     the {@link GalaxyWorkflowStatus} of the submission's workflow
+	 * @param nextCheck          the time until the monitoring task reads the status again
+	 */
+	public void putWorkflowStatus(AnalysisSubmission analysisSubmission, GalaxyWorkflowStatus workflowStatus,
+			Duration nextCheck) {
+		workflowStatuses.put(analysisSubmission.getId(),
+				new CachedStatus(workflowStatus, ticker.read() + nextCheck.toNanos() + timeToLiveNanos));
+	}
+
+	/**
+	 * Get the status of a running {@link AnalysisSubmission}, reading it from Galaxy if it isn't cached. Concurrent
+	 * requests for a status that isn't cached wait for a single read from Galaxy.
+	 *
+	 * @param analysisSubmission the running {@link AnalysisSubmission}
+	 * @return the {@link GalaxyWorkflowStatus} of the submission's workflow
+	 * @throws ExecutionManagerException if the status could not be read from Galaxy
+	 */
+	public GalaxyWorkflowStatus getWorkflowStatus(AnalysisSubmission analysisSubmission)
+			throws ExecutionManagerException {
+		Long id = analysisSubmission.getId();
+		CachedStatus cached = workflowStatuses.getIfPresent(id);
+		if (cached != null && cached.expiresAt - ticker.read() <= 0) {
+			workflowStatuses.asMap()
+					.remove(id, cached);
+		}
+
+		try {
+			return workflowStatuses.get(id, () -> {
+				logger.trace("Reading workflow status for " + analysisSubmission + " from Galaxy");
+				GalaxyWorkflowStatus status = galaxyHistoriesService.getStatusForHistory(
+						analysisSubmission.getRemoteAnalysisId());
+				return new CachedStatus(status, ticker.read() + timeToLiveNanos);
+			}).status;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ExecutionManagerException) {
+				throw (ExecutionManagerException) e.getCause();
+			}
+			throw new ExecutionManagerException("Could not read workflow status for " + analysisSubmission,
+					e.getCause());
+		}
+	}
+
+	/**
+	 * Remove the status of an {@link AnalysisSubmission} that is no longer running
+	 *
+	 * @param analysisSubmission the {@link AnalysisSubmission}
+	 */
+	public void removeWorkflowStatus(AnalysisSubmission analysisSubmission) {
+		workflowStatuses.invalidate(analysisSubmission.getId());
+	}
+
+	/**
+	 * Get the hit and miss statistics of the cached statuses
+	 *
+	 * @return the {@link CacheStats} for the statuses
+	 */
+	public CacheStats getStats() {
+		return workflowStatuses.stats();
+	}
+
+	/**
+	 * A cached status and the time it expires at
+	 */
+	private static class CachedStatus {
+		private final GalaxyWorkflowStatus status;
+		private final long expiresAt;
+
+		CachedStatus(GalaxyWorkflowStatus status, long expiresAt) {
+			this.status = status;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
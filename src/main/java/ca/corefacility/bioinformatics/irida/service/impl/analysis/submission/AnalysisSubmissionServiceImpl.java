@@ -19,7 +19,6 @@ import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSu
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmissionTemplate;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.IridaWorkflowNamedParameters;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.ProjectAnalysisSubmissionJoin;
-import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyHistoriesService;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionTemplateRepository;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.JobErrorRepository;
@@ -36,9 +35,11 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -52,7 +53,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 import java.util.*;
@@ -97,15 +101,22 @@ public class AnalysisSubmissionServiceImpl extends CRUDServiceImpl<Long, Analysi
 	private AnalysisSubmissionTemplateRepository analysisTemplateRepository;
 	private ProjectAnalysisSubmissionJoinRepository pasRepository;
 	private final ReferenceFileRepository referenceFileRepository;
-	private final GalaxyHistoriesService galaxyHistoriesService;
 	private final SequencingObjectService sequencingObjectService;
 	private final IridaWorkflowsService iridaWorkflowsService;
 	private JobErrorRepository jobErrorRepository;
+	private final AnalysisProgressCache analysisProgressCache;
 
 	// required, but not constructor injected because we have circular dependencies :(
 	@Autowired
 	private AnalysisExecutionServiceGalaxyCleanupAsync analysisExecutionService;
 
+	// JDBC batch size for the inserts of a single sample launch, only set on the launch's own session
+	@Value("${pipeline.launch.jdbc.batch.size:50}")
+	private int launchBatchSize = 50;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	/**
 	 * Builds a new AnalysisSubmissionServiceImpl with the given information.
 	 *
@@ -114,29 +125,30 @@ public class AnalysisSubmissionServiceImpl extends CRUDServiceImpl<Long, Analysi
 	 * @param userRepository               A repository for accessing user information.
 	 * @param referenceFileRepository      the reference file repository
 	 * @param sequencingObjectService      the {@link SequencingObject} service.
-	 * @param galaxyHistoriesService       The {@link GalaxyHistoriesService}.
 	 * @param pasRepository                The {@link ProjectAnalysisSubmissionJoinRepository}
 	 * @param jobErrorRepository           A repository for accessing {@link JobError}
 	 * @param iridaWorkflowsService        The {@link IridaWorkflowsService}
+	 * @param analysisProgressCache        The {@link AnalysisProgressCache} for the status of running submissions
 	 * @param validator                    A validator.
 	 */
 	@Autowired
 	public AnalysisSubmissionServiceImpl(AnalysisSubmissionRepository analysisSubmissionRepository,
 			AnalysisSubmissionTemplateRepository analysisTemplateRepository, UserRepository userRepository,
 			final ReferenceFileRepository referenceFileRepository,
-			final SequencingObjectService sequencingObjectService, final GalaxyHistoriesService galaxyHistoriesService,
+			final SequencingObjectService sequencingObjectService,
 			ProjectAnalysisSubmissionJoinRepository pasRepository, JobErrorRepository jobErrorRepository,
-			IridaWorkflowsService iridaWorkflowsService, Validator validator) {
+			IridaWorkflowsService iridaWorkflowsService, AnalysisProgressCache analysisProgressCache,
+			Validator validator) {
 		super(analysisSubmissionRepository, validator, AnalysisSubmission.class);
 		this.userRepository = userRepository;
 		this.analysisSubmissionRepository = analysisSubmissionRepository;
 		this.analysisTemplateRepository = analysisTemplateRepository;
 		this.referenceFileRepository = referenceFileRepository;
-		this.galaxyHistoriesService = galaxyHistoriesService;
 		this.sequencingObjectService = sequencingObjectService;
 		this.pasRepository = pasRepository;
 		this.jobErrorRepository = jobErrorRepository;
 		this.iridaWorkflowsService = iridaWorkflowsService;
+		this.analysisProgressCache = analysisProgressCache;
 	}
 
 	public void setAnalysisExecutionService(final AnalysisExecutionServiceGalaxyCleanupAsync analysisExecutionService) {
@@ -515,6 +527,11 @@ public class AnalysisSubmissionServiceImpl extends CRUDServiceImpl<Long, Analysi
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Submissions are built for the whole sample set before any are saved: read permission on the input files is
+	 * checked once for all of them, the submitter, reference file and named parameters are read once and shared by
+	 * every submission, and the submissions and their project shares are each saved together so their join and audit
+	 * rows can be written in JDBC batches. Every submission is validated before any are saved.
 	 */
 	@Override
 	@Transactional
@@ -523,103 +540,135 @@ public class AnalysisSubmissionServiceImpl extends CRUDServiceImpl<Long, Analysi
 			List<SingleEndSequenceFile> sequenceFiles, List<SequenceFilePair> sequenceFilePairs,
 			Map<String, String> params, IridaWorkflowNamedParameters namedParameters, String name,
 			String analysisDescription, List<Project> projectsToShare, boolean writeResultsToSamples, boolean emailPipelineResult) {
-		final Collection<AnalysisSubmission> createdSubmissions = new HashSet<AnalysisSubmission>();
-
-		// Single end reads
 		IridaWorkflowDescription description = workflow.getWorkflowDescription();
 
+		// read everything the submissions share once
+		ReferenceFile referenceFile = null;
+		if (ref != null && description.requiresReference()) {
+			// Note: This cannot be empty if through the UI if the
+			// pipeline required a reference file.
+			referenceFile = referenceFileRepository.findById(ref)
+					.orElse(null);
+		}
+		UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
+				.getAuthentication()
+				.getPrincipal();
+		User submitter = userRepository.loadUserByUsername(userDetails.getUsername());
+
+		final List<AnalysisSubmission> submissions = new ArrayList<>();
+
+		// Single end reads
 		if (description.acceptsSingleSequenceFiles()) {
 			final Map<Sample, SingleEndSequenceFile> samplesMap = sequencingObjectService
 					.getUniqueSamplesForSequencingObjects(Sets.newHashSet(sequenceFiles));
-			for (final Map.Entry<Sample,SingleEndSequenceFile> entry : samplesMap.entrySet()) {
-				Sample s = entry.getKey();
-				SingleEndSequenceFile file = entry.getValue();
-				// Build the analysis submission
-				AnalysisSubmission.Builder builder = AnalysisSubmission.builder(workflow.getWorkflowIdentifier());
-				builder.name(name + "_" + s.getSampleName());
-				builder.inputFiles(ImmutableSet.of(file));
-				builder.updateSamples(writeResultsToSamples);
-				builder.priority(AnalysisSubmission.Priority.MEDIUM);
-				// Add if user should be emailed on pipeline completion/error
-				builder.emailPipelineResult(emailPipelineResult);
-				// Add reference file
-				if (ref != null && description.requiresReference()) {
-					// Note: This cannot be empty if through the UI if the
-					// pipeline required a reference file.
-					ReferenceFile referenceFile = referenceFileRepository.findById(ref).orElse(null);
-					builder.referenceFile(referenceFile);
-				}
-
-				if (description.acceptsParameters()) {
-					if (namedParameters != null) {
-						builder.withNamedParameters(namedParameters);
-					} else {
-						if (!params.isEmpty()) {
-							// Note: This cannot be empty if through the UI if
-							// the pipeline required params.
-							builder.inputParameters(params);
-						}
-					}
-				}
-
-				// Create the submission
-				createdSubmissions.add(create(builder.build()));
-
+			for (final Map.Entry<Sample, SingleEndSequenceFile> entry : samplesMap.entrySet()) {
+				// single end submissions have never been given the analysis description
+				submissions.add(buildSingleSampleSubmission(workflow, entry.getKey(), entry.getValue(), referenceFile,
+						params, namedParameters, name, null, writeResultsToSamples, emailPipelineResult, submitter));
 			}
-
 		}
 
 		// Paired end reads
 		if (description.acceptsPairedSequenceFiles()) {
 			final Map<Sample, SequenceFilePair> samplesMap = sequencingObjectService
 					.getUniqueSamplesForSequencingObjects(Sets.newHashSet(sequenceFilePairs));
+			for (final Map.Entry<Sample, SequenceFilePair> entry : samplesMap.entrySet()) {
+				submissions.add(buildSingleSampleSubmission(workflow, entry.getKey(), entry.getValue(), referenceFile,
+						params, namedParameters, name, analysisDescription, writeResultsToSamples,
+						emailPipelineResult, submitter));
+			}
+		}
 
-			for (final Map.Entry<Sample,SequenceFilePair> entry : samplesMap.entrySet()) {
-				Sample s = entry.getKey();
-				SequenceFilePair filePair = entry.getValue();
-				// Build the analysis submission
-				AnalysisSubmission.Builder builder = AnalysisSubmission.builder(workflow.getWorkflowIdentifier());
-				builder.name(name + "_" + s.getSampleName());
-				builder.inputFiles(ImmutableSet.of(filePair));
-				builder.updateSamples(writeResultsToSamples);
-				// Add if user should be emailed on pipeline completion/error
-				builder.emailPipelineResult(emailPipelineResult);
-				// Add reference file
-				if (ref != null && description.requiresReference()) {
-					ReferenceFile referenceFile = referenceFileRepository.findById(ref).orElse(null);
-					builder.referenceFile(referenceFile);
-				}
-
-				if (description.acceptsParameters()) {
-					if (namedParameters != null) {
-						builder.withNamedParameters(namedParameters);
-					} else {
-						if (!params.isEmpty()) {
-							// Note: This cannot be empty if through the UI if
-							// the pipeline required params.
-							builder.inputParameters(params);
-						}
-					}
-				}
-
-				// Add description to submission, can be null
-				builder.analysisDescription(analysisDescription);
+		// saving them together skips the validation create() gets, so validate them all before saving any
+		Set<ConstraintViolation<AnalysisSubmission>> constraintViolations = new HashSet<>();
+		for (AnalysisSubmission submission : submissions) {
+			constraintViolations.addAll(validator.validate(submission));
+		}
+		if (!constraintViolations.isEmpty()) {
+			throw new ConstraintViolationException(constraintViolations);
+		}
 
-				// Create the submission
-				createdSubmissions.add(create(builder.build()));
-			}
+		// batch the join, parameter and audit row inserts of this launch.  Only this transaction's session batches, the
+		// rest of the application keeps sending inserts one at a time.
+		if (entityManager != null) {
+			entityManager.unwrap(Session.class)
+					.setJdbcBatchSize(launchBatchSize);
 		}
 
+		// Create the submissions
+		final Collection<AnalysisSubmission> createdSubmissions = Sets.newHashSet(
+				analysisSubmissionRepository.saveAll(submissions));
+
 		// Share with the required projects
+		List<ProjectAnalysisSubmissionJoin> shares = new ArrayList<>();
 		for (AnalysisSubmission submission : createdSubmissions) {
 			for (Project project : projectsToShare) {
-				pasRepository.save(new ProjectAnalysisSubmissionJoin(project, submission));
+				shares.add(new ProjectAnalysisSubmissionJoin(project, submission));
 			}
 		}
+		pasRepository.saveAll(shares);
+
+		logger.debug("Created " + createdSubmissions.size() + " single sample submissions for workflow "
+				+ workflow.getWorkflowIdentifier());
 
 		return createdSubmissions;
 	}
 
+	/**
+	 * Build the {@link AnalysisSubmission} for one sample of a single sample launch
+	 *
+	 * @param workflow              {@link IridaWorkflow} that the files will be run on
+	 * @param sample                the {@link Sample} the input files are from
+	 * @param inputFile             the {@link SequencingObject} to run the workflow on
+	 * @param referenceFile         the {@link ReferenceFile} to use, or null if the workflow doesn't need one
+	 * @param params                {@link Map} of parameters specific for the pipeline
+	 * @param namedParameters       the named parameters to use for the workflow.
+	 * @param name                  {@link String} the name for the analysis, the sample name is appended
+	 * @param analysisDescription   {@link String} the description of the analysis being submitted, can be null
+	 * @param writeResultsToSamples If true, results of this pipeline will be saved back to the samples
+	 * @param emailPipelineResult   If true, user will be emailed when the pipeline completes or errors
+	 * @param submitter             the {@link User} launching the analysis
+	 * @return the unsaved {@link AnalysisSubmission}
+	 */
+	private AnalysisSubmission buildSingleSampleSubmission(IridaWorkflow workflow, Sample sample,
+			SequencingObject inputFile, ReferenceFile referenceFile, Map<String, String> params,
+			IridaWorkflowNamedParameters namedParameters, String name, String analysisDescription,
+			boolean writeResultsToSamples, boolean emailPipelineResult, User submitter) {
+		IridaWorkflowDescription description = workflow.getWorkflowDescription();
+
+		// Build the analysis submission
+		AnalysisSubmission.Builder builder = AnalysisSubmission.builder(workflow.getWorkflowIdentifier());
+		builder.name(name + "_" + sample.getSampleName());
+		builder.inputFiles(ImmutableSet.of(inputFile));
+		builder.updateSamples(writeResultsToSamples);
+		builder.priority(AnalysisSubmission.Priority.MEDIUM);
+		// Add if user should be emailed on pipeline completion/error
+		builder.emailPipelineResult(emailPipelineResult);
+		// Add reference file
+		if (referenceFile != null) {
+			builder.referenceFile(referenceFile);
+		}
+
+		if (description.acceptsParameters()) {
+			if (namedParameters != null) {
+				builder.withNamedParameters(namedParameters);
+			} else {
+				if (!params.isEmpty()) {
+					// Note: This cannot be empty if through the UI if
+					// the pipeline required params.
+					builder.inputParameters(params);
+				}
+			}
+		}
+
+		// Add description to submission, can be null
+		builder.analysisDescription(analysisDescription);
+
+		AnalysisSubmission submission = builder.build();
+		submission.setSubmitter(submitter);
+		return submission;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -717,10 +766,12 @@ public class AnalysisSubmissionServiceImpl extends CRUDServiceImpl<Long, Analysi
 			 * If there are 20 out of 20 jobs finished in Galaxy, then the
 			 * percent complete is: percentComplete = 10 + (90 - 10) * 1.0 =
 			 * 90%.
+			 *
+			 * The status is usually already cached by the analysis monitoring
+			 * task, so this doesn't ask Galaxy on every request.
 			 */
 		case RUNNING:
-			String workflowHistoryId = analysisSubmission.getRemoteAnalysisId();
-			GalaxyWorkflowStatus workflowStatus = galaxyHistoriesService.getStatusForHistory(workflowHistoryId);
+			GalaxyWorkflowStatus workflowStatus = analysisProgressCache.getWorkflowStatus(analysisSubmission);
 			return RUNNING_PERCENT + (FINISHED_RUNNING_PERCENT - RUNNING_PERCENT)
 					* workflowStatus.getProportionComplete();
 
@@ -0,0 +1,291 @@
+package ca.corefacility.bioinformatics.irida.service.impl.analysis.submission;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisAdmissionQueue;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
+import ca.corefacility.bioinformatics.irida.service.AnalysisAdmissionScheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link AnalysisAdmissionScheduler} sharing the available capacity fairly between the submitters or projects with
+ * {@link AnalysisState#NEW} submissions. Free slots are filled one at a time from the waiting submissions with:
+ * <ol>
+ * <li>the highest {@link AnalysisSubmission.Priority}, raised by one level once the oldest submission of the same
+ * owner, workflow and priority has waited an aging interval, so low priority submissions can't wait forever. Aging
+ * raises a priority by one level at most, so a backlog of old submissions can't outrank every new one,</li>
+ * <li>then the owner with the fewest submissions already running or admitted,</li>
+ * <li>then the oldest submission.</li>
+ * </ol>
+ * Workflows with a concurrency limit aren't admitted while that many of their submissions are running. Only the
+ * number of waiting and running submissions for each owner, workflow and priority is read to decide, then the
+ * identifiers of the oldest submissions of each chosen group, so only the submissions to prepare are loaded. When
+ * sharing between projects a submission shared with more than one project is counted once against its workflow and
+ * admitted once.
+ */
+public class FairShareAdmissionScheduler implements AnalysisAdmissionScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(FairShareAdmissionScheduler.class);
+
+	/**
+	 * Who the available capacity is shared between.
+	 */
+	public enum Share {
+		/**
+		 * Share between the users who submitted the analyses.
+		 */
+		SUBMITTER,
+		/**
+		 * Share between the projects the analyses are shared with. Analyses that aren't shared with a project share as
+		 * if they were all from one project.
+		 */
+		PROJECT,
+		/**
+		 * Don't share; admit by priority and age alone.
+		 */
+		NONE;
+	}
+
+	private final AnalysisSubmissionRepository analysisSubmissionRepository;
+	private final Share share;
+	private final long agingMillis;
+	private final int defaultWorkflowLimit;
+	private final Map<UUID, Integer> workflowLimits;
+
+	/**
+	 * Builds a new {@link FairShareAdmissionScheduler}
+	 *
+	 * @param analysisSubmissionRepository the repository to read {@link AnalysisSubmission}s from
+	 * @param share                        who to share capacity between
+	 * @param agingInterval                how long a submission waits for its priority to be raised by one level, or
+	 *                                     {@link Duration#ZERO} to never raise priorities
+	 * @param defaultWorkflowLimit         the most submissions of one workflow that may run at once, or 0 for no limit
+	 * @param workflowLimits               limits for individual workflows overriding the default limit, 0 for no limit
+	 */
+	public FairShareAdmissionScheduler(AnalysisSubmissionRepository analysisSubmissionRepository, Share share,
+			Duration agingInterval, int defaultWorkflowLimit, Map<UUID, Integer> workflowLimits) {
+		checkNotNull(share, "share is null");
+		checkArgument(!agingInterval.isNegative(), "agingInterval must not be negative");
+		checkArgument(defaultWorkflowLimit >= 0, "defaultWorkflowLimit must not be negative");
+		this.analysisSubmissionRepository = analysisSubmissionRepository;
+		this.share = share;
+		this.agingMillis = agingInterval.toMillis();
+		this.defaultWorkflowLimit = defaultWorkflowLimit;
+		this.workflowLimits = new HashMap<>(workflowLimits);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AnalysisSubmission> selectSubmissions(int capacity) {
+		if (capacity <= 0) {
+			return Collections.emptyList();
+		}
+
+		List<AnalysisAdmissionQueue> waiting = countQueues(Collections.singletonList(AnalysisState.NEW));
+		if (waiting.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, Integer> ownerLoad = new HashMap<>();
+		Map<UUID, Integer> workflowLoad = new HashMap<>();
+		List<AnalysisAdmissionQueue> running = countQueues(AnalysisState.getRunningStates());
+		for (AnalysisAdmissionQueue queue : running) {
+			ownerLoad.merge(queue.getOwnerId(), (int) queue.getCount(), Integer::sum);
+		}
+		// a submission shared with more than one project is counted once for each, so count workflows by submitter
+		if (share == Share.PROJECT) {
+			running = analysisSubmissionRepository.countBySubmitterWorkflowAndPriority(
+					AnalysisState.getRunningStates());
+		}
+		for (AnalysisAdmissionQueue queue : running) {
+			workflowLoad.merge(queue.getWorkflowId(), (int) queue.getCount(), Integer::sum);
+		}
+
+		long now = System.currentTimeMillis();
+		List<Slot> slots = waiting.stream()
+				.map(q -> new Slot(q, effectivePriority(q, now)))
+				.collect(Collectors.toList());
+
+		Comparator<Slot> order = Comparator.comparingLong((Slot s) -> -s.effectivePriority);
+		if (share != Share.NONE) {
+			order = order.thenComparingInt(s -> ownerLoad.getOrDefault(s.queue.getOwnerId(), 0));
+		}
+		order = order.thenComparing(s -> s.queue.getOldestCreatedDate())
+				.thenComparing(s -> s.queue.getOwnerId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+		// fill each slot in turn, the order depends on what has already been admitted this cycle
+		Set<Long> admitted = new LinkedHashSet<>();
+		while (admitted.size() < capacity) {
+			Slot next = null;
+			for (Slot slot : slots) {
+				if (slot.hasNext() && !isAtLimit(slot.queue.getWorkflowId(), workflowLoad) && (next == null
+						|| order.compare(slot, next) < 0)) {
+					next = slot;
+				}
+			}
+			if (next == null) {
+				break;
+			}
+
+			// read the oldest identifiers of a slot the first time it is chosen, enough to fill the capacity even if
+			// some were already admitted from another project
+			if (next.ids == null) {
+				next.ids = findIds(next.queue, (int) Math.min(next.queue.getCount(), capacity)).iterator();
+			}
+			Long id = next.nextId(admitted);
+			if (id == null) {
+				continue;
+			}
+
+			admitted.add(id);
+			ownerLoad.merge(next.queue.getOwnerId(), 1, Integer::sum);
+			workflowLoad.merge(next.queue.getWorkflowId(), 1, Integer::sum);
+		}
+
+		logger.debug("Admitting " + admitted.size() + " of " + waiting.stream()
+				.mapToLong(AnalysisAdmissionQueue::getCount)
+				.sum() + " new analysis submissions with capacity " + capacity);
+
+		return loadSubmissions(admitted);
+	}
+
+	/**
+	 * Load the admitted submissions, in the order they were admitted.
+	 *
+	 * @param admitted the identifiers of the submissions to load
+	 * @return the admitted {@link AnalysisSubmission}s
+	 */
+	private List<AnalysisSubmission> loadSubmissions(Set<Long> admitted) {
+		if (admitted.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, AnalysisSubmission> submissions = new HashMap<>();
+		analysisSubmissionRepository.findAllById(admitted)
+				.forEach(s -> submissions.put(s.getId(), s));
+
+		return admitted.stream()
+				.map(submissions::get)
+				.filter(s -> s != null && s.getAnalysisState() == AnalysisState.NEW)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Count the submissions in the given states for each owner, workflow and priority
+	 *
+	 * @param states the {@link AnalysisState}s to count
+	 * @return the {@link AnalysisAdmissionQueue}s for the states
+	 */
+	private List<AnalysisAdmissionQueue> countQueues(List<AnalysisState> states) {
+		if (share == Share.PROJECT) {
+			return analysisSubmissionRepository.countByProjectWorkflowAndPriority(states);
+		} else {
+			return analysisSubmissionRepository.countBySubmitterWorkflowAndPriority(states);
+		}
+	}
+
+	/**
+	 * Get the identifiers of the oldest new submissions of an owner, workflow and priority
+	 *
+	 * @param queue the {@link AnalysisAdmissionQueue} to read from
+	 * @param count the number of identifiers to read
+	 * @return the submission identifiers, oldest first
+	 */
+	private List<Long> findIds(AnalysisAdmissionQueue queue, int count) {
+		PageRequest page = PageRequest.of(0, count);
+		if (share != Share.PROJECT) {
+			return analysisSubmissionRepository.findIdsBySubmitterWorkflowAndPriority(AnalysisState.NEW,
+					queue.getOwnerId(), queue.getWorkflowId(), queue.getPriority(), page);
+		} else if (queue.getOwnerId() == null) {
+			return analysisSubmissionRepository.findIdsWithoutProjectByWorkflowAndPriority(AnalysisState.NEW,
+					queue.getWorkflowId(), queue.getPriority(), page);
+		} else {
+			return analysisSubmissionRepository.findIdsByProjectWorkflowAndPriority(AnalysisState.NEW,
+					queue.getOwnerId(), queue.getWorkflowId(), queue.getPriority(), page);
+		}
+	}
+
+	/**
+	 * Get the priority level of a queue after aging
+	 *
+	 * @param queue the {@link AnalysisAdmissionQueue}
+	 * @param now   the current time in milliseconds
+	 * @return the priority level, the ordinal of the queue's priority or one more once it has aged
+	 */
+	private long effectivePriority(AnalysisAdmissionQueue queue, long now) {
+		int level = queue.getPriority()
+				.ordinal();
+		if (agingMillis > 0 && queue.getOldestCreatedDate() != null
+				&& now - queue.getOldestCreatedDate().getTime() >= agingMillis) {
+			level = Math.min(level + 1, AnalysisSubmission.Priority.HIGH.ordinal());
+		}
+		return level;
+	}
+
+	/**
+	 * Whether a workflow has as many submissions running as it is allowed
+	 *
+	 * @param workflowId   the workflow
+	 * @param workflowLoad the number of running and admitted submissions of each workflow
+	 * @return true if no more submissions of the workflow should be admitted
+	 */
+	private boolean isAtLimit(UUID workflowId, Map<UUID, Integer> workflowLoad) {
+		int limit = workflowLimits.getOrDefault(workflowId, defaultWorkflowLimit);
+		return limit > 0 && workflowLoad.getOrDefault(workflowId, 0) >= limit;
+	}
+
+	/**
+	 * The waiting submissions of an owner, workflow and priority, and the identifiers of the oldest of them once the
+	 * slot has been chosen
+	 */
+	private static class Slot {
+		private final AnalysisAdmissionQueue queue;
+		private final long effectivePriority;
+		private Iterator<Long> ids;
+
+		Slot(AnalysisAdmissionQueue queue, long effectivePriority) {
+			this.queue = queue;
+			this.effectivePriority = effectivePriority;
+		}
+
+		boolean hasNext() {
+			return ids == null ? queue.getCount() > 0 : ids.hasNext();
+		}
+
+		/**
+		 * Get the next identifier of this slot that hasn't already been admitted from another slot
+		 *
+		 * @param admitted the identifiers admitted so far
+		 * @return the identifier, or null if every identifier read for this slot has been admitted
+		 */
+		Long nextId(Set<Long> admitted) {
+			while (ids.hasNext()) {
+				Long id = ids.next();
+				if (!admitted.contains(id)) {
+					return id;
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package ca.corefacility.bioinformatics.irida.service.impl.analysis.submission;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
+import ca.corefacility.bioinformatics.irida.service.AnalysisAdmissionScheduler;
+
+/**
+ * {@link AnalysisAdmissionScheduler} selecting {@link AnalysisState#NEW} submissions by {@link AnalysisSubmission.Priority}
+ * alone, highest first. Every new submission is loaded to be sorted, so this is only suitable for small backlogs.
+ */
+public class PriorityAdmissionScheduler implements AnalysisAdmissionScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(PriorityAdmissionScheduler.class);
+
+	private final AnalysisSubmissionRepository analysisSubmissionRepository;
+
+	/**
+	 * Builds a new {@link PriorityAdmissionScheduler}
+	 *
+	 * @param analysisSubmissionRepository the repository to read new {@link AnalysisSubmission}s from
+	 */
+	public PriorityAdmissionScheduler(AnalysisSubmissionRepository analysisSubmissionRepository) {
+		this.analysisSubmissionRepository = analysisSubmissionRepository;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AnalysisSubmission> selectSubmissions(int capacity) {
+		List<AnalysisSubmission> analysisSubmissions = analysisSubmissionRepository.findByAnalysisState(
+				AnalysisState.NEW);
+
+		// Sort submissions by priority high to low
+		analysisSubmissions.sort((a1, a2) -> {
+			return a2.getPriority()
+					.compareTo(a1.getPriority());
+		});
+
+		if (capacity < analysisSubmissions.size()) {
+			logger.debug("Attempting to submit more jobs than capacity, list will be trimmed: "
+					+ analysisSubmissions.size() + "=>" + capacity);
+			// only submit up to capacity
+			analysisSubmissions = analysisSubmissions.subList(0, capacity);
+		}
+
+		return analysisSubmissions;
+	}
+}
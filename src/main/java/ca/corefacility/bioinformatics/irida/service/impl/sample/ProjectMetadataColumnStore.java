@@ -0,0 +1,283 @@
+package ca.corefacility.bioinformatics.irida.service.impl.sample;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import ca.corefacility.bioinformatics.irida.events.SampleMetadataChangedEvent;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectMetadataColumns;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
+
+/**
+ * Keeps a {@link ProjectMetadataColumns} read model of the sample metadata of recently read {@link Project}s. A
+ * project's columns are built with a single scan of its sample metadata the first time they are read, then kept up to
+ * date from {@link SampleMetadataChangedEvent}s by re-reading only the changed samples.
+ * <p>
+ * Changes made by another IRIDA server don't publish events here, so the version of a project's sample metadata is
+ * checked every few seconds while it is being read and the columns are rebuilt if it has changed. Columns are also
+ * rebuilt after {@code metadata.columns.cache.ttl} seconds, which bounds how long any missed change can be served.
+ * <p>
+ * A project's columns are weighed as their cells plus the distinct values in their dictionaries, and are weighed again
+ * whenever changed samples are replaced in them, so {@code metadata.columns.cache.cells} bounds what is actually kept.
+ * <p>
+ * Callers are responsible for checking that the current user can read the samples.
+ */
+@Component
+public class ProjectMetadataColumnStore {
+	private static final Logger logger = LoggerFactory.getLogger(ProjectMetadataColumnStore.class);
+
+	/**
+	 * How long a project's columns are served before the version of its sample metadata is checked again.
+	 */
+	private static final long VALIDATION_INTERVAL_MILLIS = 5000;
+
+	private final SampleRepository sampleRepository;
+	private final long timeToLiveMillis;
+	private final Cache<Long, CachedColumns> projectColumns;
+	private final Set<Long> changedSamples = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Create a new {@link ProjectMetadataColumnStore}
+	 *
+	 * @param sampleRepository the {@link SampleRepository} to read sample metadata from
+	 * @param timeToLive       the number of seconds to keep a project's columns before rebuilding them
+	 * @param maximumCells     the maximum number of cells (samples times fields) to keep for all projects
+	 */
+	@Autowired
+	public ProjectMetadataColumnStore(SampleRepository sampleRepository,
+			@Value("${metadata.columns.cache.ttl:600}") long timeToLive,
+			@Value("${metadata.columns.cache.cells:20000000}") long maximumCells) {
+		this.sampleRepository = sampleRepository;
+		this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLive);
+		this.projectColumns = CacheBuilder.newBuilder()
+				.expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+				// a single segment so that one large project can use the whole maximum weight
+				.concurrencyLevel(1)
+				.maximumWeight(maximumCells)
+				.weigher((Long projectId, CachedColumns cached) -> cached.columns.getCellCount()
+						+ cached.columns.getDictionarySize())
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Get the metadata columns for a {@link Project}, building them if they aren't kept already.
+	 *
+	 * @param project the {@link Project} to get columns for
+	 * @return the {@link ProjectMetadataColumns} for the project
+	 */
+	public ProjectMetadataColumns getColumns(Project project) {
+		applyChangedSamples();
+
+		CachedColumns cached = projectColumns.getIfPresent(project.getId());
+		if (cached == null || !isCurrent(cached)) {
+			cached = load(project);
+			projectColumns.put(project.getId(), cached);
+		}
+
+		return cached.columns;
+	}
+
+	/**
+	 * Fill the metadata of line list rows for the {@link Sample}s in a {@link Project} from the project's columns.
+	 *
+	 * @param project the {@link Project} the rows are in
+	 * @param rows    the {@link ProjectSampleMetadataRow}s to fill
+	 */
+	public void fill(Project project, List<ProjectSampleMetadataRow> rows) {
+		if (!rows.isEmpty()) {
+			getColumns(project).fill(rows);
+		}
+	}
+
+	/**
+	 * Get the metadata of a set of {@link Sample}s, which may be in different {@link Project}s. Samples in projects
+	 * whose columns are kept are answered from the columns, and the rest with a single query. Columns are not built
+	 * for the other projects as a few samples shouldn't cause whole projects to be read.
+	 *
+	 * @param sampleIds the identifiers of the {@link Sample}s
+	 * @return the metadata values of each sample, keyed by sample id. Samples without metadata are left out.
+	 */
+	public Map<Long, List<SampleMetadataValue>> getMetadataForSamples(Collection<Long> sampleIds) {
+		applyChangedSamples();
+
+		Map<Long, List<SampleMetadataValue>> values = new HashMap<>();
+		Set<Long> remaining = new HashSet<>(sampleIds);
+
+		for (CachedColumns cached : projectColumns.asMap()
+				.values()) {
+			if (remaining.isEmpty()) {
+				break;
+			}
+			if (isCurrent(cached)) {
+				Map<Long, List<SampleMetadataValue>> projectValues = cached.columns.getValues(remaining);
+				values.putAll(projectValues);
+				remaining.removeAll(projectValues.keySet());
+			}
+		}
+
+		if (!remaining.isEmpty()) {
+			// a sample has the same metadata in every project, so only keep the values from one of them
+			Map<Long, Long> projectForSample = new HashMap<>();
+			for (SampleMetadataValue value : sampleRepository.getSampleMetadataValues(remaining)) {
+				Long projectId = projectForSample.computeIfAbsent(value.getSampleId(), s -> value.getProjectId());
+				if (projectId.equals(value.getProjectId())) {
+					values.computeIfAbsent(value.getSampleId(), s -> new ArrayList<>())
+							.add(value);
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Record samples whose metadata or projects have changed. The change is applied to the kept columns the next
+	 * time they're read, so that many changes committed together are read back with one query.
+	 *
+	 * @param event the {@link SampleMetadataChangedEvent}
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void handleSampleMetadataChanged(SampleMetadataChangedEvent event) {
+		logger.trace("Recording changed samples: " + event);
+		changedSamples.addAll(event.getSampleIds());
+	}
+
+	/**
+	 * Remove the columns of every project
+	 */
+	public void invalidateAll() {
+		projectColumns.invalidateAll();
+	}
+
+	/**
+	 * Get the hit and miss statistics of the kept project columns
+	 *
+	 * @return the {@link CacheStats} for the project columns
+	 */
+	public CacheStats getStats() {
+		return projectColumns.stats();
+	}
+
+	/**
+	 * Re-read the samples changed since the columns were last read and replace them in every project's columns.
+	 */
+	private void applyChangedSamples() {
+		if (changedSamples.isEmpty()) {
+			return;
+		}
+
+		Set<Long> sampleIds = new HashSet<>();
+		Iterator<Long> iterator = changedSamples.iterator();
+		while (iterator.hasNext()) {
+			sampleIds.add(iterator.next());
+			iterator.remove();
+		}
+
+		List<SampleMetadataValue> values = sampleRepository.getSampleMetadataValues(sampleIds);
+		Set<Long> projectsWithValues = new HashSet<>();
+		values.forEach(v -> projectsWithValues.add(v.getProjectId()));
+
+		for (CachedColumns cached : projectColumns.asMap()
+				.values()) {
+			ProjectMetadataColumns columns = cached.columns;
+			if (projectsWithValues.contains(columns.getProjectId()) || sampleIds.stream()
+					.anyMatch(columns::containsSample)) {
+				logger.trace("Replacing " + sampleIds.size() + " samples in columns for project "
+						+ columns.getProjectId());
+				columns.replaceSamples(sampleIds, values, sampleRepository.getSampleMetadataVersion(cached.project));
+				cached.validated();
+
+				// put the columns back so they're weighed again with their new size, which may evict them
+				projectColumns.asMap()
+						.replace(columns.getProjectId(), cached, cached);
+			}
+		}
+	}
+
+	/**
+	 * Check that kept columns are for the current version of the project's sample metadata. The version is only read
+	 * again if it hasn't been checked recently. Columns built more than the time to live ago are never current, as
+	 * putting them back after replacing samples restarts the cache's own expiry.
+	 *
+	 * @param cached the kept columns
+	 * @return true if the columns can be served
+	 */
+	private boolean isCurrent(CachedColumns cached) {
+		long now = System.currentTimeMillis();
+		if (now - cached.builtAt >= timeToLiveMillis) {
+			logger.debug("Metadata columns for project " + cached.project.getId() + " have expired, rebuilding columns");
+			projectColumns.invalidate(cached.project.getId());
+			return false;
+		}
+
+		if (now - cached.validatedAt < VALIDATION_INTERVAL_MILLIS) {
+			return true;
+		}
+
+		String version = sampleRepository.getSampleMetadataVersion(cached.project);
+		if (version.equals(cached.columns.getVersion())) {
+			cached.validated();
+			return true;
+		}
+
+		logger.debug("Sample metadata for project " + cached.project.getId() + " has changed, rebuilding columns");
+		projectColumns.invalidate(cached.project.getId());
+		return false;
+	}
+
+	/**
+	 * Build the columns for a project with a single scan of its sample metadata. The version is read first so that
+	 * any change made while the columns are being built is detected when they're next validated.
+	 *
+	 * @param project the {@link Project} to build columns for
+	 * @return the built columns
+	 */
+	private CachedColumns load(Project project) {
+		String version = sampleRepository.getSampleMetadataVersion(project);
+		ProjectMetadataColumns columns = new ProjectMetadataColumns(project.getId(), version);
+
+		sampleRepository.readSampleMetadataForProject(project, columns::put);
+
+		logger.debug("Built metadata columns for project " + project.getId() + ": " + columns.getCellCount()
+				+ " cells, " + columns.getDictionarySize() + " distinct values");
+
+		return new CachedColumns(project, columns);
+	}
+
+	/**
+	 * A project's columns, when they were built and when they were last known to be current.
+	 */
+	private static class CachedColumns {
+		private final Project project;
+		private final ProjectMetadataColumns columns;
+		private final long builtAt;
+		private volatile long validatedAt;
+
+		CachedColumns(Project project, ProjectMetadataColumns columns) {
+			this.project = project;
+			this.columns = columns;
+			this.builtAt = System.currentTimeMillis();
+			validated();
+		}
+
+		void validated() {
+			validatedAt = System.currentTimeMillis();
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package ca.corefacility.bioinformatics.irida.service.impl.sample;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ca.corefacility.bioinformatics.irida.model.sample.CoverageQCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.FileProcessorErrorQCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisRepository;
+import ca.corefacility.bioinformatics.irida.repositories.joins.sample.SampleSequencingObjectJoinRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleQCSummaryRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Keeps the {@link SampleQCSummary} of each {@link Sample} up to date. A sample's summary is calculated again from its
+ * files and {@link QCEntry}s whenever one of its {@link SequencingObject}s is processed or it gains or loses one, in a
+ * transaction of its own holding a lock on the summary so concurrent updates of one sample don't overwrite each
+ * other. Summaries of samples that don't have one yet are calculated the first time they're read.
+ */
+@Component
+public class SampleQCSummaryUpdater {
+	private static final Logger logger = LoggerFactory.getLogger(SampleQCSummaryUpdater.class);
+
+	/**
+	 * The most samples to read the summaries of with one query.
+	 */
+	private static final int READ_BATCH_SIZE = 1000;
+
+	private final SampleQCSummaryRepository summaryRepository;
+	private final SampleSequencingObjectJoinRepository ssoRepository;
+	private final QCEntryRepository qcEntryRepository;
+	private final AnalysisRepository analysisRepository;
+	private final SampleRepository sampleRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	@Autowired
+	public SampleQCSummaryUpdater(SampleQCSummaryRepository summaryRepository,
+			SampleSequencingObjectJoinRepository ssoRepository, QCEntryRepository qcEntryRepository,
+			AnalysisRepository analysisRepository, SampleRepository sampleRepository,
+			PlatformTransactionManager transactionManager) {
+		this.summaryRepository = summaryRepository;
+		this.ssoRepository = ssoRepository;
+		this.qcEntryRepository = qcEntryRepository;
+		this.analysisRepository = analysisRepository;
+		this.sampleRepository = sampleRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Get the {@link SampleQCSummary} of each of a collection of {@link Sample}s, calculating any that don't exist yet.
+	 * Only the samples missing a summary are loaded.
+	 *
+	 * @param sampleIds the identifiers of the samples to get summaries for
+	 * @return the summaries, keyed by sample id
+	 */
+	public Map<Long, SampleQCSummary> getSummaries(Collection<Long> sampleIds) {
+		Set<Long> missing = new HashSet<>(sampleIds);
+
+		Map<Long, SampleQCSummary> summaries = new HashMap<>();
+		for (List<Long> batch : Lists.partition(Lists.newArrayList(missing), READ_BATCH_SIZE)) {
+			summaryRepository.getSummariesForSamples(batch)
+					.forEach(s -> summaries.put(s.getSampleId(), s));
+		}
+		missing.removeAll(summaries.keySet());
+
+		if (!missing.isEmpty()) {
+			for (Sample sample : sampleRepository.findAllById(missing)) {
+				summaries.put(sample.getId(), updateSummary(sample));
+			}
+		}
+
+		return summaries;
+	}
+
+	/**
+	 * Calculate the {@link SampleQCSummary} of the {@link Sample} a {@link SequencingObject} is in
+	 *
+	 * @param sequencingObject the processed {@link SequencingObject}
+	 */
+	public void updateSummaryForSequencingObject(SequencingObject sequencingObject) {
+		SampleSequencingObjectJoin join = ssoRepository.getSampleForSequencingObject(sequencingObject);
+		if (join == null) {
+			logger.trace("Sequencing object " + sequencingObject.getId() + " isn't in a sample, no summary to update");
+			return;
+		}
+		updateSummary(join.getSubject());
+	}
+
+	/**
+	 * Calculate the {@link SampleQCSummary}s of {@link Sample}s once the current transaction commits, or now if there
+	 * is no transaction. Call after adding or removing {@link SequencingObject}s.
+	 *
+	 * @param samples the samples whose sequencing data changed
+	 */
+	public void updateSummariesAfterCommit(Collection<Sample> samples) {
+		Set<Sample> toUpdate = new HashSet<>(samples);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					toUpdate.forEach(SampleQCSummaryUpdater.this::updateSummary);
+				}
+			});
+		} else {
+			toUpdate.forEach(this::updateSummary);
+		}
+	}
+
+	/**
+	 * Calculate the {@link SampleQCSummary} of a {@link Sample} from its files and {@link QCEntry}s and save it
+	 *
+	 * @param sample the sample to summarize
+	 * @return the saved summary
+	 */
+	public SampleQCSummary updateSummary(Sample sample) {
+		try {
+			return transactionTemplate.execute(status -> calculateSummary(sample));
+		} catch (DataIntegrityViolationException e) {
+			// another transaction created the summary first, so it can be locked now
+			logger.trace("Summary of sample " + sample.getId() + " was created concurrently, calculating again");
+			return transactionTemplate.execute(status -> calculateSummary(sample));
+		}
+	}
+
+	/**
+	 * Calculate and save the {@link SampleQCSummary} of a {@link Sample} in the current transaction
+	 *
+	 * @param sample the sample to summarize
+	 * @return the saved summary
+	 */
+	private SampleQCSummary calculateSummary(Sample sample) {
+		SampleQCSummary summary = summaryRepository.getSummaryForUpdate(sample.getId());
+		if (summary == null) {
+			summary = new SampleQCSummary(sample.getId());
+		}
+
+		List<SequenceFile> files = ssoRepository.getSequencesForSample(sample)
+				.stream()
+				.flatMap(j -> j.getObject()
+						.getFiles()
+						.stream())
+				.collect(Collectors.toList());
+
+		Long totalBases = 0L;
+		if (!files.isEmpty()) {
+			Map<Long, Long> fileBases = new HashMap<>();
+			for (Object[] row : analysisRepository.findFastqcTotalBasesForSequenceFiles(files)) {
+				fileBases.put((Long) row[0], (Long) row[1]);
+			}
+
+			// coverage can't be estimated until every file has been counted
+			totalBases = fileBases.size() < files.size() ? null : fileBases.values()
+					.stream()
+					.mapToLong(Long::longValue)
+					.sum();
+		}
+
+		Long minCoverageBases = null;
+		Long maxCoverageBases = null;
+		boolean processingError = false;
+		for (QCEntry entry : qcEntryRepository.getQCEntriesForSample(sample)) {
+			if (entry instanceof CoverageQCEntry) {
+				long bases = ((CoverageQCEntry) entry).getTotalBases();
+				minCoverageBases = minCoverageBases == null ? bases : Math.min(minCoverageBases, bases);
+				maxCoverageBases = maxCoverageBases == null ? bases : Math.max(maxCoverageBases, bases);
+			} else if (entry instanceof FileProcessorErrorQCEntry) {
+				processingError = true;
+			}
+		}
+
+		summary.update(files.size(), totalBases, minCoverageBases, maxCoverageBases, processingError);
+		logger.trace("Updating QC summary of sample " + sample.getId());
+		return summaryRepository.save(summary);
+	}
+}
@@ -12,8 +12,10 @@ import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
@@ -24,6 +26,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
+import ca.corefacility.bioinformatics.irida.events.SampleMetadataChangedEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.InvalidPropertyException;
 import ca.corefacility.bioinformatics.irida.exceptions.SequenceFileAnalysisException;
@@ -34,9 +38,13 @@ import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectUserJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.SampleGenomeAssemblyJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.model.user.User;
@@ -97,6 +105,12 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 
 	private final UserRepository userRepository;
 
+	private final ProjectMetadataColumnStore metadataColumnStore;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final SampleQCSummaryUpdater qcSummaryUpdater;
+
 	/**
 	 * Constructor.
 	 *
@@ -109,6 +123,10 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 	 * @param sampleGenomeAssemblyJoinRepository A {@link SampleGenomeAssemblyJoinRepository}
 	 * @param userRepository                     A {@link UserRepository}
 	 * @param assemblyRepository                 a repository for retreving {@link GenomeAssembly}
+	 * @param metadataColumnStore                the {@link ProjectMetadataColumnStore} to read sample metadata from
+	 * @param eventPublisher                     publisher for {@link SampleMetadataChangedEvent}s and
+	 *                                           {@link PermissionsChangedEvent}s
+	 * @param qcSummaryUpdater                   keeps the {@link SampleQCSummary} of samples up to date
 	 * @param validator                          validator.
 	 */
 	@Autowired
@@ -116,7 +134,8 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 			final AnalysisRepository analysisRepository, SampleSequencingObjectJoinRepository ssoRepository,
 			QCEntryRepository qcEntryRepository, SequencingObjectRepository sequencingObjectRepository,
 			SampleGenomeAssemblyJoinRepository sampleGenomeAssemblyJoinRepository, UserRepository userRepository,
-			GenomeAssemblyRepository assemblyRepository, Validator validator) {
+			GenomeAssemblyRepository assemblyRepository, ProjectMetadataColumnStore metadataColumnStore,
+			ApplicationEventPublisher eventPublisher, SampleQCSummaryUpdater qcSummaryUpdater, Validator validator) {
 		super(sampleRepository, validator, Sample.class);
 		this.sampleRepository = sampleRepository;
 		this.psjRepository = psjRepository;
@@ -127,6 +146,9 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 		this.userRepository = userRepository;
 		this.assemblyRepository = assemblyRepository;
 		this.sampleGenomeAssemblyJoinRepository = sampleGenomeAssemblyJoinRepository;
+		this.metadataColumnStore = metadataColumnStore;
+		this.eventPublisher = eventPublisher;
+		this.qcSummaryUpdater = qcSummaryUpdater;
 	}
 
 	/**
@@ -165,7 +187,9 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 	@PreAuthorize("hasPermission(#id, 'canUpdateSample')")
 	public Sample updateFields(Long id, Map<String, Object> updatedFields) throws ConstraintViolationException,
 			ca.corefacility.bioinformatics.irida.exceptions.EntityExistsException, InvalidPropertyException {
-		return super.updateFields(id, updatedFields);
+		Sample updated = super.updateFields(id, updatedFields);
+		eventPublisher.publishEvent(new SampleMetadataChangedEvent(Collections.singletonList(id)));
+		return updated;
 	}
 
 	/**
@@ -175,7 +199,9 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 	@Override
 	public Sample update(Sample object) {
 		object.setModifiedDate(new Date());
-		return super.update(object);
+		Sample updated = super.update(object);
+		eventPublisher.publishEvent(new SampleMetadataChangedEvent(Collections.singletonList(updated.getId())));
+		return updated;
 	}
 
 	/**
@@ -237,6 +263,7 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 	public void removeSequencingObjectFromSample(Sample sample, SequencingObject object) {
 		SampleSequencingObjectJoin readObjectForSample = ssoRepository.readObjectForSample(sample, object.getId());
 		ssoRepository.delete(readObjectForSample);
+		qcSummaryUpdater.updateSummariesAfterCommit(Collections.singleton(sample));
 	}
 
 	/**
@@ -248,6 +275,30 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 		return psjRepository.getSamplesForProject(project);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional(readOnly = true)
+	@PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#project, 'canReadProject')")
+	@Override
+	public List<ProjectSampleMetadataRow> getSampleMetadataRowsForProject(Project project, long afterSampleId,
+			int limit) {
+		List<ProjectSampleMetadataRow> rows = sampleRepository.getSampleRowsForProject(project, afterSampleId, limit);
+		metadataColumnStore.fill(project, rows);
+		return rows;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_SEQUENCER') or hasPermission(#samples, 'canReadSample')")
+	public Map<Long, List<SampleMetadataValue>> getMetadataValuesForSamples(Collection<Sample> samples) {
+		return metadataColumnStore.getMetadataForSamples(samples.stream()
+				.map(Sample::getId)
+				.collect(Collectors.toSet()));
+	}
+
 	@Transactional(readOnly = true)
 	@PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#project, 'canReadProject')")
 	@Override
@@ -316,6 +367,16 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 			psjRepository.delete(readSampleForProject);
 			sampleRepository.deleteById(s.getId());
 		}
+
+		qcSummaryUpdater.updateSummariesAfterCommit(Collections.singleton(mergeInto));
+
+		eventPublisher.publishEvent(new SampleMetadataChangedEvent(toMerge.stream()
+				.map(Sample::getId)
+				.collect(Collectors.toList())));
+		// the merged samples were removed from the project
+		eventPublisher.publishEvent(new PermissionsChangedEvent(
+				"Samples merged into sample " + mergeInto.getId() + " in project " + project.getId()));
+
 		return mergeInto;
 	}
 
@@ -453,6 +514,34 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 						PageRequest.of(currentPage, pageSize, sort));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN') or hasPermission(#projects, 'canReadProject')")
+	public Page<ProjectSampleRow> getFilteredProjectSampleRows(List<Project> projects, List<String> sampleNames,
+			String sampleName, String searchTerm, String organism, Date minDate, Date maxDate, int currentPage,
+			int pageSize, Sort sort) {
+		return psjRepository.findProjectSampleRows(
+				ProjectSampleSpecification.getSamples(projects, sampleNames, sampleName, searchTerm, organism, minDate,
+						maxDate), PageRequest.of(currentPage, pageSize, sort));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN') or hasPermission(#projects, 'canReadProject')")
+	public Slice<ProjectSampleRow> getFilteredProjectSampleRowsAfter(List<Project> projects, List<String> sampleNames,
+			String sampleName, String searchTerm, String organism, Date minDate, Date maxDate, ProjectSampleRow after,
+			int pageSize, Sort sort) {
+		return psjRepository.findProjectSampleRowsAfter(
+				ProjectSampleSpecification.getSamples(projects, sampleNames, sampleName, searchTerm, organism, minDate,
+						maxDate), sort, after == null ? null : after.getJoinId(), pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -484,6 +573,23 @@ public class SampleServiceImpl extends CRUDServiceImpl<Long, Sample> implements
 		return qcEntryRepository.getQCEntriesForSample(sample);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN') or hasPermission(#projects, 'canReadProject')")
+	public Map<Long, SampleQCSummary> getQCSummariesForProjectSamples(List<Project> projects,
+			Collection<Long> sampleIds) {
+		if (sampleIds.isEmpty()) {
+			return new HashMap<>();
+		}
+		Set<Long> projectIds = projects.stream()
+				.map(Project::getId)
+				.collect(Collectors.toSet());
+		return qcSummaryUpdater.getSummaries(psjRepository.getSampleIdsInProjectsById(sampleIds, projectIds));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
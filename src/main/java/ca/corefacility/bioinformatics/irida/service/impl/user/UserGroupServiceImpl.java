@@ -12,6 +12,7 @@ import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +26,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityExistsException;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.UserGroupWithoutOwnerException;
@@ -52,6 +54,7 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 	private final UserRepository userRepository;
 	private final UserGroupProjectJoinRepository userGroupProjectJoinRepository;
 	private final UserGroupRepository userGroupRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	/**
 	 * Create a new {@link UserGroupServiceImpl}.
@@ -64,18 +67,23 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 	 *            the {@link UserRepository}
 	 * @param userGroupProjectJoinRepository
 	 *            The {@link UserGroupProjectJoinRepository}
+	 * @param eventPublisher
+	 *            publishes a {@link PermissionsChangedEvent} when group
+	 *            membership changes
 	 * @param validator
 	 *            the {@link Validator}
 	 */
 	@Autowired
 	public UserGroupServiceImpl(final UserGroupRepository userGroupRepository,
 			final UserGroupJoinRepository userGroupJoinRepository, final UserRepository userRepository,
-			final UserGroupProjectJoinRepository userGroupProjectJoinRepository, final Validator validator) {
+			final UserGroupProjectJoinRepository userGroupProjectJoinRepository,
+			final ApplicationEventPublisher eventPublisher, final Validator validator) {
 		super(userGroupRepository, validator, UserGroup.class);
 		this.userGroupRepository = userGroupRepository;
 		this.userGroupJoinRepository = userGroupJoinRepository;
 		this.userRepository = userRepository;
 		this.userGroupProjectJoinRepository = userGroupProjectJoinRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -117,6 +125,7 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 	@PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#id, 'canUpdateUserGroup')")
 	public void delete(Long id) throws EntityNotFoundException {
 		super.delete(id);
+		eventPublisher.publishEvent(new PermissionsChangedEvent("User group " + id + " deleted"));
 	}
 
 	/**
@@ -226,9 +235,10 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 	@Override
 	@PreAuthorize("hasRole('ROLE_ADMIN') or hasPermission(#userGroup, 'canUpdateUserGroup')")
 	public UserGroupJoin addUserToGroup(final User user, final UserGroup userGroup, final UserGroupRole role) {
-		final UserGroupJoin join = new UserGroupJoin(user, userGroup, role);
+		final UserGroupJoin join = userGroupJoinRepository.save(new UserGroupJoin(user, userGroup, role));
+		eventPublisher.publishEvent(new PermissionsChangedEvent("User added to user group " + userGroup.getId()));
 
-		return userGroupJoinRepository.save(join);
+		return join;
 	}
 
 	/**
@@ -246,7 +256,10 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 		}
 
 		join.setRole(role);
-		return userGroupJoinRepository.save(join);
+		final UserGroupJoin saved = userGroupJoinRepository.save(join);
+		eventPublisher.publishEvent(new PermissionsChangedEvent("User group role changed in " + userGroup.getId()));
+
+		return saved;
 	}
 
 	/**
@@ -263,6 +276,7 @@ public class UserGroupServiceImpl extends CRUDServiceImpl<Long, UserGroup> imple
 		}
 
 		userGroupJoinRepository.delete(join);
+		eventPublisher.publishEvent(new PermissionsChangedEvent("User removed from user group " + userGroup.getId()));
 	}
 
 	/**
@@ -29,13 +29,22 @@ import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Service class to run a project synchornization task. Ths class will be
  * responsible for communicating with Remote IRIDA installations and pulling
@@ -57,11 +66,19 @@ public class ProjectSynchronizationService {
 	private RemoteAPITokenService tokenService;
 	private EmailController emailController;
 
+	// downloads the samples of the project being synchronized, with the security context of the syncing user
+	private final TaskExecutor syncExecutor;
+	private final int syncAttempts;
+	private final long retryBackoffMillis;
+
 	@Autowired
 	public ProjectSynchronizationService(ProjectService projectService, SampleService sampleService,
 			SequencingObjectService objectService, MetadataTemplateService metadataTemplateService, ProjectRemoteService projectRemoteService,
 			SampleRemoteService sampleRemoteService, SingleEndSequenceFileRemoteService singleEndRemoteService,
-			SequenceFilePairRemoteService pairRemoteService, RemoteAPITokenService tokenService, EmailController emailController) {
+			SequenceFilePairRemoteService pairRemoteService, RemoteAPITokenService tokenService, EmailController emailController,
+			@Qualifier("projectSyncExecutor") TaskExecutor syncExecutor, @Value("${project.sync.attempts:3}") int syncAttempts,
+			@Value("${project.sync.retry.backoff:5}") long retryBackoffSeconds) {
+		checkArgument(syncAttempts > 0, "project.sync.attempts must be positive");
 
 		this.projectService = projectService;
 		this.sampleService = sampleService;
@@ -73,6 +90,9 @@ public class ProjectSynchronizationService {
 		this.pairRemoteService = pairRemoteService;
 		this.tokenService = tokenService;
 		this.emailController = emailController;
+		this.syncExecutor = syncExecutor;
+		this.syncAttempts = syncAttempts;
+		this.retryBackoffMillis = TimeUnit.SECONDS.toMillis(retryBackoffSeconds);
 	}
 
 	/**
@@ -119,13 +139,18 @@ public class ProjectSynchronizationService {
 
 	/**
 	 * Find projects which should be synchronized and launch a synchornization
-	 * task.
+	 * task. Projects left {@link SyncStatus#UPDATING} by an interrupted
+	 * synchronization are resumed first.
 	 */
 	public synchronized void findMarkedProjectsToSync() {
 		// mark any projects which should be synched first
 		findProjectsToMark();
 
-		List<Project> markedProjects = projectService.getProjectsWithRemoteSyncStatus(SyncStatus.MARKED);
+		// only one server synchronizes projects, one at a time, so any project
+		// still updating was interrupted
+		List<Project> markedProjects = new ArrayList<>(
+				projectService.getProjectsWithRemoteSyncStatus(SyncStatus.UPDATING));
+		markedProjects.addAll(projectService.getProjectsWithRemoteSyncStatus(SyncStatus.MARKED));
 
 		logger.trace("Checking for projects to sync");
 
@@ -170,16 +195,27 @@ public class ProjectSynchronizationService {
 	}
 
 	/**
-	 * Synchronize a given {@link Project} to the local installation.
+	 * Synchronize a given {@link Project} to the local installation. Samples
+	 * are downloaded concurrently on the sync executor. A sample that finished synchronizing since the
+	 * synchronization of the project started is a checkpoint: if the project
+	 * is interrupted and resumed, the sample is skipped unless it has changed
+	 * remotely.
 	 * 
 	 * @param project
 	 *            the {@link Project} to synchronize. This should have been read
 	 *            from a remote api.
 	 */
 	private void syncProject(Project project) {
-		project.getRemoteStatus().setSyncStatus(SyncStatus.UPDATING);
-		project.getRemoteStatus().setLastUpdate(new Date());
-		projectService.update(project);
+		RemoteStatus status = project.getRemoteStatus();
+		Date syncStarted = status.getLastUpdate();
+		if (status.getSyncStatus() == SyncStatus.UPDATING && syncStarted != null) {
+			logger.debug("Resuming synchronization of project " + project.getId() + " started at " + syncStarted);
+		} else {
+			syncStarted = new Date();
+			status.setSyncStatus(SyncStatus.UPDATING);
+			status.setLastUpdate(syncStarted);
+			projectService.update(project);
+		}
 
 		String projectURL = project.getRemoteStatus().getURL();
 
@@ -218,7 +254,9 @@ public class ProjectSynchronizationService {
 		});
 
 		//read the remote samples from the remote API
-		List<Sample> readSamplesForProject = sampleRemoteService.getSamplesForProject(readProject);
+		final Project remoteProject = readProject;
+		List<Sample> readSamplesForProject = withRetry("reading samples of " + projectURL,
+				() -> sampleRemoteService.getSamplesForProject(remoteProject));
 
 		//get a list of all remote URLs in the project
 		Set<String> remoteUrls = readSamplesForProject.stream()
@@ -241,14 +279,8 @@ public class ProjectSynchronizationService {
 			samplesByUrl.remove(localUrl);
 		}
 
-		List<ProjectSynchronizationException> syncExceptions = new ArrayList<>();
-		for (Sample s : readSamplesForProject) {
-			s.setId(null);
-			s = syncSampleMetadata(s);
-			List<ProjectSynchronizationException> syncExceptionsSample = syncSample(s, project, samplesByUrl);
-
-			syncExceptions.addAll(syncExceptionsSample);
-		}
+		List<ProjectSynchronizationException> syncExceptions = syncSamples(readSamplesForProject, project,
+				samplesByUrl, syncStarted);
 
 		// re-read project to ensure any updates are reflected
 		project = projectService.read(project.getId());
@@ -265,6 +297,116 @@ public class ProjectSynchronizationService {
 		projectService.update(project);
 	}
 
+	/**
+	 * Synchronize the samples of a project, skipping samples that have already
+	 * been synchronized since the project's synchronization started. Sample
+	 * metadata and files are downloaded concurrently on the sync executor, but
+	 * the samples are saved on this thread as their downloads finish, so the
+	 * workers never write to the project at the same time.
+	 *
+	 * @param remoteSamples   the {@link Sample}s read from the remote api
+	 * @param project         the local {@link Project}
+	 * @param existingSamples the local samples of the project by their URL
+	 * @param syncStarted     when the synchronization of the project started
+	 * @return the {@link ProjectSynchronizationException}s of all samples,
+	 *         empty if no errors
+	 */
+	private List<ProjectSynchronizationException> syncSamples(List<Sample> remoteSamples, Project project,
+			Map<String, Sample> existingSamples, Date syncStarted) {
+		CompletionService<SampleDownload> downloads = new ExecutorCompletionService<>(syncExecutor);
+
+		// the local sample each download is for, or null for new samples
+		Map<Future<SampleDownload>, Sample> results = new HashMap<>();
+		int skipped = 0;
+		for (Sample remoteSample : remoteSamples) {
+			Sample localSample = existingSamples.get(remoteSample.getRemoteStatus()
+					.getURL());
+			if (isCheckpoint(localSample, remoteSample, syncStarted)) {
+				skipped++;
+				continue;
+			}
+
+			results.put(downloads.submit(() -> {
+				remoteSample.setId(null);
+				return downloadSample(remoteSample, localSample);
+			}), localSample);
+		}
+		logger.debug("Synchronizing " + results.size() + " samples of project " + project.getId() + ", " + skipped
+				+ " already synchronized");
+
+		List<ProjectSynchronizationException> syncExceptions = new ArrayList<>();
+		try {
+			for (int i = 0; i < results.size(); i++) {
+				Future<SampleDownload> finished = downloads.take();
+				try {
+					syncExceptions.addAll(saveSample(finished.get(), project, existingSamples));
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IridaOAuthException) {
+						throw (IridaOAuthException) e.getCause();
+					}
+					logger.error("Error synchronizing a sample of project " + project.getId(), e.getCause());
+					syncExceptions.add(new ProjectSynchronizationException(
+							"Could not synchronize a sample of project " + project.getId(), e.getCause()));
+					markSampleError(results.get(finished));
+				} catch (RuntimeException e) {
+					logger.error("Error saving a sample of project " + project.getId(), e);
+					syncExceptions.add(new ProjectSynchronizationException(
+							"Could not synchronize a sample of project " + project.getId(), e));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+					.interrupt();
+			throw new ProjectSynchronizationException("Interrupted synchronizing project " + project.getId(), e);
+		} finally {
+			results.keySet().forEach(r -> r.cancel(true));
+		}
+
+		return syncExceptions;
+	}
+
+	/**
+	 * Set the sync status of a local {@link Sample} that couldn't be
+	 * downloaded to {@link SyncStatus#ERROR}, the same as a sample whose files
+	 * couldn't be synchronized.
+	 *
+	 * @param localSample the local {@link Sample}, or null if it hasn't been
+	 *                    created yet
+	 */
+	private void markSampleError(Sample localSample) {
+		if (localSample == null) {
+			return;
+		}
+
+		logger.error("Setting sample " + localSample.getId() + " sync status to ERROR due to sync errors");
+		localSample.getRemoteStatus().setSyncStatus(SyncStatus.ERROR);
+		try {
+			sampleService.update(localSample);
+		} catch (RuntimeException e) {
+			logger.error("Could not set the sync status of sample " + localSample.getId(), e);
+		}
+	}
+
+	/**
+	 * Check whether a sample has already been synchronized since the project's
+	 * synchronization started, and hasn't changed remotely since
+	 *
+	 * @param localSample  the local {@link Sample}, or null if it hasn't been
+	 *                     created yet
+	 * @param remoteSample the {@link Sample} read from the remote api
+	 * @param syncStarted  when the synchronization of the project started
+	 * @return true if the sample doesn't need to be synchronized again
+	 */
+	private boolean isCheckpoint(Sample localSample, Sample remoteSample, Date syncStarted) {
+		if (localSample == null) {
+			return false;
+		}
+		RemoteStatus localStatus = localSample.getRemoteStatus();
+		return localStatus.getSyncStatus() == SyncStatus.SYNCHRONIZED && localStatus.getLastUpdate() != null
+				&& !localStatus.getLastUpdate()
+				.before(syncStarted) && !checkForChanges(localStatus, remoteSample);
+	}
+
 	/**
 	 * Synchronize a given {@link Sample} to the local installation.
 	 *
@@ -275,8 +417,84 @@ public class ProjectSynchronizationService {
 	 * @return A list of {@link ProjectSynchronizationException}s, empty if no errors.
 	 */
 	public List<ProjectSynchronizationException> syncSample(Sample sample, Project project, Map<String, Sample> existingSamples) {
-		Sample localSample;
+		Sample localSample = existingSamples.get(sample.getRemoteStatus()
+				.getURL());
+		return saveSample(downloadSample(sample, localSample), project, existingSamples);
+	}
+
+	/**
+	 * Read the metadata of a remote {@link Sample} and mirror the sequencing
+	 * objects the local copy of the sample doesn't have yet. Nothing is saved
+	 * to the local installation.
+	 *
+	 * @param sample      the {@link Sample} read from the remote api
+	 * @param localSample the local copy of the {@link Sample}, or null if it
+	 *                    hasn't been created yet
+	 * @return the downloaded metadata and sequencing objects of the sample
+	 */
+	private SampleDownload downloadSample(Sample sample, Sample localSample) {
+		SampleDownload download = new SampleDownload(sample, readSampleMetadata(sample));
+
+		// get the urls of the local files. Files without a remote status may
+		// have been concatenated locally
+		Set<String> localUrls = new HashSet<>();
+		if (localSample != null) {
+			objectService.getSequencingObjectsForSample(localSample)
+					.stream()
+					.map(SampleSequencingObjectJoin::getObject)
+					.filter(o -> o.getRemoteStatus() != null)
+					.forEach(o -> localUrls.add(o.getRemoteStatus()
+							.getURL()));
+		}
+
+		List<SequenceFilePair> sequenceFilePairsForSample = withRetry("reading pairs of " + sample.getSelfHref(),
+				() -> pairRemoteService.getSequenceFilePairsForSample(sample));
+
+		for (SequenceFilePair pair : sequenceFilePairsForSample) {
+			if (!localUrls.contains(pair.getRemoteStatus().getURL())) {
+				pair.setId(null);
+				try {
+					download.objects.add(mirrorSequencingObject(pair, pairRemoteService));
+				} catch (ProjectSynchronizationException e) {
+					download.errors.add(e);
+				}
+			}
+		}
 
+		List<SingleEndSequenceFile> unpairedFilesForSample = withRetry(
+				"reading single end files of " + sample.getSelfHref(),
+				() -> singleEndRemoteService.getUnpairedFilesForSample(sample));
+
+		for (SingleEndSequenceFile file : unpairedFilesForSample) {
+			if (!localUrls.contains(file.getRemoteStatus().getURL())) {
+				file.setId(null);
+				try {
+					download.objects.add(mirrorSequencingObject(file, singleEndRemoteService));
+				} catch (ProjectSynchronizationException e) {
+					download.errors.add(e);
+				}
+			}
+		}
+
+		return download;
+	}
+
+	/**
+	 * Save a downloaded {@link Sample} and its sequencing objects to the
+	 * local installation, creating the sample in the project if it doesn't
+	 * exist yet.
+	 *
+	 * @param download        the downloaded sample
+	 * @param project         The {@link Project} the {@link Sample} belongs in.
+	 * @param existingSamples the local samples of the project by their URL
+	 * @return A list of {@link ProjectSynchronizationException}s, empty if no errors.
+	 */
+	private List<ProjectSynchronizationException> saveSample(SampleDownload download, Project project,
+			Map<String, Sample> existingSamples) {
+		Sample sample = download.sample;
+		sample.setMetadata(metadataTemplateService.getMetadataMap(download.metadata));
+
+		Sample localSample;
 		if (existingSamples.containsKey(sample.getRemoteStatus().getURL())) {
 			// if the sample already exists check if it's been updated
 			localSample = existingSamples.get(sample.getRemoteStatus().getURL());
@@ -299,51 +517,17 @@ public class ProjectSynchronizationService {
 			projectService.addSampleToProject(project, sample, true);
 		}
 
-		// get the local files and organize by their url
-		
-		Collection<SampleSequencingObjectJoin> localObjects = objectService.getSequencingObjectsForSample(localSample);
-
-		Map<String, SequencingObject> objectsByUrl = new HashMap<>();
-		localObjects.forEach(j -> {
-			SequencingObject pair = j.getObject();
-			
-			// check if the file was actually sync'd. Someone may have
-			// concatenated it
-			if (pair.getRemoteStatus() != null) {
-				String url = pair.getRemoteStatus().getURL();
-
-				objectsByUrl.put(url, pair);
-			}
-		});
-
-		List<SequenceFilePair> sequenceFilePairsForSample = pairRemoteService.getSequenceFilePairsForSample(sample);
-		
-		List<ProjectSynchronizationException> syncErrors = new ArrayList<>();
-
-		for (SequenceFilePair pair : sequenceFilePairsForSample) {
-			if (!objectsByUrl.containsKey(pair.getRemoteStatus().getURL())) {
-				pair.setId(null);
-				try {
-					syncSequenceFilePair(pair, localSample);
-				} catch (ProjectSynchronizationException e) {
-					syncErrors.add(e);
-				}
-			}
-		}
-
-		List<SingleEndSequenceFile> unpairedFilesForSample = singleEndRemoteService.getUnpairedFilesForSample(sample);
-
-		for (SingleEndSequenceFile file : unpairedFilesForSample) {
-			if (!objectsByUrl.containsKey(file.getRemoteStatus().getURL())) {
-				file.setId(null);
-				try {
-					syncSingleEndSequenceFile(file, localSample);
-				} catch (ProjectSynchronizationException e) {
-					syncErrors.add(e);
-				}
+		List<ProjectSynchronizationException> syncErrors = new ArrayList<>(download.errors);
+		for (SequencingObject object : download.objects) {
+			try {
+				saveSequencingObject(object, localSample);
+			} catch (ProjectSynchronizationException e) {
+				syncErrors.add(e);
 			}
 		}
 
+		// the time the sample was synchronized is its checkpoint
+		localSample.getRemoteStatus().setLastUpdate(new Date());
 		if (syncErrors.isEmpty()) {
 			localSample.getRemoteStatus().setSyncStatus(SyncStatus.SYNCHRONIZED);
 		} else {
@@ -365,16 +549,28 @@ public class ProjectSynchronizationService {
 	 * @return the synchronized sample
 	 */
 	public Sample syncSampleMetadata(Sample sample){
-		Map<String, MetadataEntry> sampleMetadata = sampleRemoteService.getSampleMetadata(sample);
-		
-		sampleMetadata.values().forEach(e -> e.setId(null));
-		
-		Map<MetadataTemplateField, MetadataEntry> metadata = metadataTemplateService.getMetadataMap(sampleMetadata);
+		Map<MetadataTemplateField, MetadataEntry> metadata = metadataTemplateService.getMetadataMap(
+				readSampleMetadata(sample));
 		sample.setMetadata(metadata);
 		
 		return sample;
 	}
 
+	/**
+	 * Read the metadata of a remote sample
+	 *
+	 * @param sample the {@link Sample} read from the remote api
+	 * @return the sample's metadata entries by their field label
+	 */
+	private Map<String, MetadataEntry> readSampleMetadata(Sample sample) {
+		Map<String, MetadataEntry> sampleMetadata = withRetry("reading metadata of " + sample.getSelfHref(),
+				() -> sampleRemoteService.getSampleMetadata(sample));
+
+		sampleMetadata.values().forEach(e -> e.setId(null));
+
+		return sampleMetadata;
+	}
+
 	/**
 	 * Synchronize a given {@link SingleEndSequenceFile} to the local
 	 * installation
@@ -385,27 +581,7 @@ public class ProjectSynchronizationService {
 	 *            the {@link Sample} to add the file to
 	 */
 	public void syncSingleEndSequenceFile(SingleEndSequenceFile file, Sample sample) {
-		RemoteStatus fileStatus = file.getRemoteStatus();
-		fileStatus.setSyncStatus(SyncStatus.UPDATING);
-		try {
-			file = singleEndRemoteService.mirrorSequencingObject(file);
-
-			file.setProcessingState(SequencingObject.ProcessingState.UNPROCESSED);
-			file.setFileProcessor(null);
-
-			file.getSequenceFile().setId(null);
-			file.getSequenceFile().getRemoteStatus().setSyncStatus(SyncStatus.SYNCHRONIZED);
-
-			objectService.createSequencingObjectInSample(file, sample);
-
-			fileStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
-
-			objectService.updateRemoteStatus(file.getId(), fileStatus);
-		} catch (Exception e) {
-			logger.error("Error transferring file: " + file.getRemoteStatus().getURL(), e);
-			throw new ProjectSynchronizationException("Could not synchronize file " + file.getRemoteStatus().getURL(),
-					e);
-		}
+		saveSequencingObject(mirrorSequencingObject(file, singleEndRemoteService), sample);
 	}
 
 	/**
@@ -418,31 +594,97 @@ public class ProjectSynchronizationService {
 	 *            The {@link Sample} to add the pair to.
 	 */
 	public void syncSequenceFilePair(SequenceFilePair pair, Sample sample) {
-		pair.getRemoteStatus().setSyncStatus(SyncStatus.UPDATING);
+		saveSequencingObject(mirrorSequencingObject(pair, pairRemoteService), sample);
+	}
+
+	/**
+	 * Download the files of a remote sequencing object into the local
+	 * installation without saving the object
+	 *
+	 * @param object        the sequencing object read from the remote api
+	 * @param remoteService the remote service to mirror the object with
+	 * @param <Type>        the type of sequencing object
+	 * @return the mirrored sequencing object, ready to be created in a sample
+	 */
+	private <Type extends SequencingObject> Type mirrorSequencingObject(Type object,
+			SequencingObjectRemoteService<Type> remoteService) {
+		RemoteStatus objectStatus = object.getRemoteStatus();
+		objectStatus.setSyncStatus(SyncStatus.UPDATING);
 		try {
-			pair = pairRemoteService.mirrorSequencingObject(pair);
+			Type mirrored = withRetry("mirroring " + objectStatus.getURL(),
+					() -> remoteService.mirrorSequencingObject(object));
 
-			pair.setProcessingState(SequencingObject.ProcessingState.UNPROCESSED);
-			pair.setFileProcessor(null);
+			mirrored.setProcessingState(SequencingObject.ProcessingState.UNPROCESSED);
+			mirrored.setFileProcessor(null);
 
-			pair.getFiles().forEach(s -> {
+			mirrored.getFiles().forEach(s -> {
 				s.setId(null);
 				s.getRemoteStatus().setSyncStatus(SyncStatus.SYNCHRONIZED);
 			});
 
-			objectService.createSequencingObjectInSample(pair, sample);
+			return mirrored;
+		} catch (Exception e) {
+			logger.error("Error transferring file: " + objectStatus.getURL(), e);
+			throw new ProjectSynchronizationException("Could not synchronize " + objectStatus.getURL(), e);
+		}
+	}
+
+	/**
+	 * Create a mirrored sequencing object in a local {@link Sample}
+	 *
+	 * @param object the mirrored sequencing object
+	 * @param sample the {@link Sample} to add the object to
+	 */
+	private void saveSequencingObject(SequencingObject object, Sample sample) {
+		try {
+			objectService.createSequencingObjectInSample(object, sample);
 
-			RemoteStatus pairStatus = pair.getRemoteStatus();
-			pairStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
+			RemoteStatus objectStatus = object.getRemoteStatus();
+			objectStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
 
-			objectService.updateRemoteStatus(pair.getId(), pairStatus);
+			objectService.updateRemoteStatus(object.getId(), objectStatus);
 		} catch (Exception e) {
-			logger.error("Error transferring file: " + pair.getRemoteStatus().getURL(), e);
-			throw new ProjectSynchronizationException("Could not synchronize pair " + pair.getRemoteStatus().getURL(),
+			logger.error("Error saving file: " + object.getRemoteStatus().getURL(), e);
+			throw new ProjectSynchronizationException("Could not synchronize " + object.getRemoteStatus().getURL(),
 					e);
 		}
 	}
 
+	/**
+	 * Call a remote api, retrying with exponential backoff when the call fails
+	 * with an error that may be temporary. Client errors, like a missing
+	 * resource or an expired token, are not retried.
+	 *
+	 * @param description what the call does, for logging
+	 * @param call        the call to the remote api
+	 * @param <T>         the type returned by the call
+	 * @return the result of the call
+	 */
+	private <T> T withRetry(String description, Supplier<T> call) {
+		long backoff = retryBackoffMillis;
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return call.get();
+			} catch (HttpClientErrorException e) {
+				throw e;
+			} catch (RestClientException e) {
+				if (attempt >= syncAttempts) {
+					throw e;
+				}
+				logger.debug("Failed " + description + " on attempt " + attempt + " of " + syncAttempts
+						+ ", retrying in " + backoff + "ms", e);
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread()
+							.interrupt();
+					throw e;
+				}
+				backoff *= 2;
+			}
+		}
+	}
+
 	/**
 	 * Check if an object has been updated since it was last read
 	 * 
@@ -487,4 +729,20 @@ public class ProjectSynchronizationService {
 		context.setAuthentication(userAuthentication);
 		SecurityContextHolder.setContext(context);
 	}
+
+	/**
+	 * The metadata and mirrored sequencing objects of a remote sample,
+	 * downloaded by a worker and waiting to be saved
+	 */
+	private static class SampleDownload {
+		private final Sample sample;
+		private final Map<String, MetadataEntry> metadata;
+		private final List<SequencingObject> objects = new ArrayList<>();
+		private final List<ProjectSynchronizationException> errors = new ArrayList<>();
+
+		SampleDownload(Sample sample, Map<String, MetadataEntry> metadata) {
+			this.sample = sample;
+			this.metadata = metadata;
+		}
+	}
 }
@@ -12,6 +12,7 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFilePair;
 import ca.corefacility.bioinformatics.irida.repositories.RemoteAPIRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SequenceFilePairRemoteRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SequenceFileRemoteRepository;
+import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.remote.SequenceFilePairRemoteService;
 import ca.corefacility.bioinformatics.irida.web.controller.api.samples.RESTSampleSequenceFilesController;
 
@@ -28,8 +29,9 @@ public class SequenceFilePairRemoteServiceImpl extends SequencingObjectRemoteSer
 
 	@Autowired
 	public SequenceFilePairRemoteServiceImpl(SequenceFilePairRemoteRepository repository,
-			SequenceFileRemoteRepository sequenceFileRemoteRepository, RemoteAPIRepository remoteAPIRepository) {
-		super(repository, sequenceFileRemoteRepository, remoteAPIRepository);
+			SequenceFileRemoteRepository sequenceFileRemoteRepository, SequencingObjectService sequencingObjectService,
+			RemoteAPIRepository remoteAPIRepository) {
+		super(repository, sequenceFileRemoteRepository, sequencingObjectService, remoteAPIRepository);
 		this.repository = repository;
 	}
 
@@ -1,7 +1,16 @@
 package ca.corefacility.bioinformatics.irida.service.remote.impl;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientException;
 
 import ca.corefacility.bioinformatics.irida.model.RemoteAPI;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
@@ -9,20 +18,31 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.repositories.RemoteAPIRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.RemoteRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SequenceFileRemoteRepository;
+import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.remote.SequencingObjectRemoteService;
 
 /**
- * Service to read SequencingObjects from a remote api.
+ * Service to read SequencingObjects from a remote api. A remote file isn't
+ * downloaded when the user synchronizing it can already read a local file
+ * uploaded with the checksum the remote api reports and the remote file has
+ * the same size; the local file is copied instead. The reported checksum alone
+ * is never trusted, so a remote api can't get a copy of a file the user can't
+ * read.
  * @param <Type> The type of sequencing object for this service
  */
 public class SequencingObjectRemoteServiceImpl<Type extends SequencingObject> extends RemoteServiceImpl<Type>
 		implements SequencingObjectRemoteService<Type> {
+	private static final Logger logger = LoggerFactory.getLogger(SequencingObjectRemoteServiceImpl.class);
+
 	public SequenceFileRemoteRepository sequenceFileRemoteRepository;
+	private SequencingObjectService sequencingObjectService;
 
 	public SequencingObjectRemoteServiceImpl(RemoteRepository<Type> repository,
-			SequenceFileRemoteRepository sequenceFileRemoteRepository, RemoteAPIRepository remoteAPIRepository) {
+			SequenceFileRemoteRepository sequenceFileRemoteRepository, SequencingObjectService sequencingObjectService,
+			RemoteAPIRepository remoteAPIRepository) {
 		super(repository, remoteAPIRepository);
 		this.sequenceFileRemoteRepository = sequenceFileRemoteRepository;
+		this.sequencingObjectService = sequencingObjectService;
 	}
 
 	@Override
@@ -33,10 +53,85 @@ public class SequencingObjectRemoteServiceImpl<Type extends SequencingObject> ex
 		for (SequenceFile file : files) {
 			String fileHref = file.getSelfHref();
 			RemoteAPI api = getRemoteApiForURI(fileHref);
+
+			Optional<Path> localFile = copyReadableLocalFile(file, api);
+			if (localFile.isPresent()) {
+				logger.debug("Remote file " + fileHref + " is already stored locally, not downloading it");
+				file.setFile(localFile.get());
+				continue;
+			}
+
 			Path downloadRemoteSequenceFile = sequenceFileRemoteRepository.downloadRemoteSequenceFile(fileHref, api);
 			file.setFile(downloadRemoteSequenceFile);
 		}
 
 		return seqObject;
 	}
+
+	/**
+	 * Copy a local file the current user can read that was uploaded with the
+	 * checksum the remote api reports for a remote file, and has the same size
+	 * as the remote file.
+	 *
+	 * @param remoteFile
+	 *            the remote {@link SequenceFile}
+	 * @param api
+	 *            the {@link RemoteAPI} the file resides on
+	 * @return a temporary copy of the local file, or empty if the file has to
+	 *         be downloaded
+	 */
+	private Optional<Path> copyReadableLocalFile(SequenceFile remoteFile, RemoteAPI api) {
+		String sha256 = remoteFile.getUploadSha256();
+		if (sha256 == null) {
+			return Optional.empty();
+		}
+
+		List<Path> localFiles = sequencingObjectService.getSequencingObjectsWithUploadSha256(sha256)
+				.stream()
+				.flatMap(o -> o.getFiles()
+						.stream())
+				.filter(f -> sha256.equals(f.getUploadSha256()))
+				.map(SequenceFile::getFile)
+				.filter(Files::isRegularFile)
+				.collect(Collectors.toList());
+		if (localFiles.isEmpty()) {
+			return Optional.empty();
+		}
+
+		String fileHref = remoteFile.getSelfHref();
+		try {
+			long remoteSize = sequenceFileRemoteRepository.getRemoteSequenceFileSize(fileHref, api);
+			for (Path localFile : localFiles) {
+				if (Files.size(localFile) == remoteSize) {
+					return Optional.of(copyFile(localFile, remoteFile.getFileName()));
+				}
+			}
+			logger.debug("Local files with the checksum of remote file " + fileHref + " have a different size");
+		} catch (RestClientException | IOException e) {
+			logger.debug("Could not copy a local file for remote file " + fileHref + ", downloading it", e);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Copy a file to a new temporary directory, linking to it where the
+	 * filesystem allows
+	 *
+	 * @param file
+	 *            the file to copy
+	 * @param fileName
+	 *            the name of the copy
+	 * @return the copy
+	 * @throws IOException
+	 *             if the file couldn't be copied
+	 */
+	private static Path copyFile(Path file, String fileName) throws IOException {
+		Path copy = Files.createTempDirectory(null)
+				.resolve(fileName);
+		try {
+			return Files.createLink(copy, file);
+		} catch (IOException | UnsupportedOperationException e) {
+			return Files.copy(file, copy);
+		}
+	}
 }
@@ -12,6 +12,7 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequence
 import ca.corefacility.bioinformatics.irida.repositories.RemoteAPIRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SequenceFileRemoteRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SingleEndSequenceFileRemoteRepository;
+import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.remote.SingleEndSequenceFileRemoteService;
 import ca.corefacility.bioinformatics.irida.web.controller.api.samples.RESTSampleSequenceFilesController;
 
@@ -29,8 +30,8 @@ public class SingleEndSequenceFileRemoteServiceImpl extends SequencingObjectRemo
 
 	@Autowired
 	public SingleEndSequenceFileRemoteServiceImpl(SingleEndSequenceFileRemoteRepository repository, SequenceFileRemoteRepository fileRemoteRepository,
-			RemoteAPIRepository remoteAPIRepository) {
-		super(repository, fileRemoteRepository, remoteAPIRepository);
+			SequencingObjectService sequencingObjectService, RemoteAPIRepository remoteAPIRepository) {
+		super(repository, fileRemoteRepository, sequencingObjectService, remoteAPIRepository);
 		this.repository = repository;
 	}
 
@@ -3,8 +3,10 @@ package ca.corefacility.bioinformatics.irida.service.sample;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 
@@ -14,9 +16,14 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.MetadataEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
@@ -74,6 +81,29 @@ public interface SampleService extends CRUDService<Long, Sample> {
 	 */
 	public List<Sample> getSamplesForProjectShallow(Project project);
 
+	/**
+	 * Get a page of the {@link Sample}s in a {@link Project} with their metadata, ordered by sample id. Pages are
+	 * requested by the last sample id of the previous page rather than an offset so that every page is read from the
+	 * index at the same cost.
+	 *
+	 * @param project       The {@link Project} to get samples for
+	 * @param afterSampleId only return samples with an id greater than this. Use 0 for the first page.
+	 * @param limit         the maximum number of samples to return
+	 * @return a page of {@link ProjectSampleMetadataRow}
+	 */
+	public List<ProjectSampleMetadataRow> getSampleMetadataRowsForProject(Project project, long afterSampleId,
+			int limit);
+
+	/**
+	 * Get the metadata of a collection of {@link Sample}s without reading the {@link MetadataEntry} entities. A sample
+	 * has the same metadata in every {@link Project} it is in.
+	 *
+	 * @param samples the {@link Sample}s to get metadata for
+	 * @return the {@link SampleMetadataValue}s of each sample, keyed by sample id. Samples without metadata are left
+	 * out.
+	 */
+	public Map<Long, List<SampleMetadataValue>> getMetadataValuesForSamples(Collection<Sample> samples);
+
 	/**
 	 * Get a list of {@link Sample} in a {@link Project} given some Sample ids.
 	 * @param project {@link Project} to get samples for.
@@ -243,6 +273,72 @@ public interface SampleService extends CRUDService<Long, Sample> {
 			String sampleName, String searchTerm, String organism,
 			Date minDate, Date maxDate, int currentPage, int pageSize, Sort sort);
 
+	/**
+	 * Get a {@link Page} of the {@link Sample}s in a set of {@link Project}s
+	 * filtered the same way as
+	 * {@link #getFilteredSamplesForProjects(List, List, String, String, String, Date, Date, int, int, Sort)},
+	 * as {@link ProjectSampleRow}s read with a single query instead of loading
+	 * every {@link Sample} and {@link Project} with their eager associations.
+	 *
+	 * @param projects
+	 * 		{@link List} of {@link Project} the {@link Sample}s must be found within.
+	 * @param sampleNames
+	 * 		{@link List} of {@link String} of Sample names to search
+	 * @param sampleName
+	 * 	    {@link String} exact name of a specific {@link Sample}
+	 * @param searchTerm
+	 * 		{@link String} search term to search for.
+	 * @param organism
+	 * 		{@link String} organism ter to search for.
+	 * @param minDate
+	 * 		{@link Date} minimum date the sample was modified.
+	 * @param maxDate
+	 * 		{@link Date} maximum date the sample was modified.
+	 * @param currentPage
+	 * 		{@link Integer} the current page the table is on.
+	 * @param pageSize
+	 * 		{@link Integer} the number of rows in the {@link Page}.
+	 * @param sort
+	 * 		{@link Sort} chained sort definitions to sort page by.
+	 *
+	 * @return a {@link Page} of {@link ProjectSampleRow} that are filtered and sorted.
+	 */
+	public Page<ProjectSampleRow> getFilteredProjectSampleRows(List<Project> projects, List<String> sampleNames,
+			String sampleName, String searchTerm, String organism, Date minDate, Date maxDate, int currentPage,
+			int pageSize, Sort sort);
+
+	/**
+	 * Get the {@link ProjectSampleRow}s of a set of {@link Project}s that come after a given row, for reading every
+	 * filtered sample a page at a time (e.g., for an export). Each page starts after the last row of the previous
+	 * one, so pages never overlap or skip rows and no page is counted.
+	 *
+	 * @param projects
+	 * 		{@link List} of {@link Project} the {@link Sample}s must be found within.
+	 * @param sampleNames
+	 * 		{@link List} of {@link String} of Sample names to search
+	 * @param sampleName
+	 * 	    {@link String} exact name of a specific {@link Sample}
+	 * @param searchTerm
+	 * 		{@link String} search term to search for.
+	 * @param organism
+	 * 		{@link String} organism ter to search for.
+	 * @param minDate
+	 * 		{@link Date} minimum date the sample was modified.
+	 * @param maxDate
+	 * 		{@link Date} maximum date the sample was modified.
+	 * @param after
+	 * 		the last {@link ProjectSampleRow} of the previous page, or null for the first page.
+	 * @param pageSize
+	 * 		{@link Integer} the number of rows to read.
+	 * @param sort
+	 * 		{@link Sort} chained sort definitions to sort the rows by.
+	 *
+	 * @return a {@link Slice} of {@link ProjectSampleRow} that are filtered and sorted.
+	 */
+	public Slice<ProjectSampleRow> getFilteredProjectSampleRowsAfter(List<Project> projects, List<String> sampleNames,
+			String sampleName, String searchTerm, String organism, Date minDate, Date maxDate, ProjectSampleRow after,
+			int pageSize, Sort sort);
+
 	/**
 	 * Get a list of all {@link Sample}s associated with a given
 	 * {@link AnalysisSubmission}
@@ -263,6 +359,22 @@ public interface SampleService extends CRUDService<Long, Sample> {
 	 */
 	public List<QCEntry> getQCEntriesForSample(Sample sample);
 
+	/**
+	 * Get the {@link SampleQCSummary} of each of a collection of
+	 * {@link Sample}s in a set of {@link Project}s, with the total bases, file
+	 * count, and worst QC entries of each sample, reading them together
+	 * instead of every file of every sample. Samples that aren't in any of the
+	 * projects are left out.
+	 * 
+	 * @param projects
+	 *            the {@link Project}s the samples were listed from
+	 * @param sampleIds
+	 *            the identifiers of the {@link Sample}s to get summaries for
+	 * @return the summaries, keyed by sample id
+	 */
+	public Map<Long, SampleQCSummary> getQCSummariesForProjectSamples(List<Project> projects,
+			Collection<Long> sampleIds);
+
 	/**
 	 * Search all {@link Sample}s in projects the current logged in user has
 	 * access to
@@ -0,0 +1,198 @@
+package ca.corefacility.bioinformatics.irida.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Sends a file as the body of an HTTP response, supporting requests for a single byte range (<code>Range</code>,
+ * <code>If-Range</code>) so that clients can resume interrupted downloads. The file's strong <code>ETag</code> is
+ * built from its size and modification time. When the servlet container can send files itself (Tomcat's
+ * <code>sendfile</code> support) it is asked to, otherwise the file is copied to the response from a
+ * {@link FileChannel}.
+ */
+public class ByteRangeFileResponse {
+	private static final Logger logger = LoggerFactory.getLogger(ByteRangeFileResponse.class);
+
+	private static final String BYTES_UNIT = "bytes";
+	private static final String HEAD_METHOD = "HEAD";
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * Write a file, or the byte range of it the client requested, to the response. Headers describing the content,
+	 * like <code>Content-Type</code> and <code>Content-Disposition</code>, should already be set.
+	 *
+	 * @param request  the {@link HttpServletRequest}
+	 * @param response the {@link HttpServletResponse} to write the file to
+	 * @param file     the file to send
+	 * @throws IOException if the file could not be read or the response written
+	 */
+	public static void write(HttpServletRequest request, HttpServletResponse response, Path file) throws IOException {
+		long size = Files.size(file);
+		long lastModified = Files.getLastModifiedTime(file)
+				.toMillis();
+		String eTag = eTag(size, lastModified);
+
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+		response.setHeader(HttpHeaders.ETAG, eTag);
+		response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+
+		long start = 0;
+		long end = size - 1;
+		String range = request.getHeader(HttpHeaders.RANGE);
+		if (range != null && ifRangeMatches(request, eTag, lastModified)) {
+			long[] requested = parseRange(range, size);
+			if (requested == null) {
+				logger.trace("Ignoring unsupported range [" + range + "]");
+			} else if (requested.length == 0) {
+				response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + size);
+				return;
+			} else {
+				start = requested[0];
+				end = requested[1];
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " " + start + "-" + end + "/" + size);
+			}
+		}
+
+		long length = end - start + 1;
+		response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+
+		// a HEAD request only asks for the headers, like the size of the file
+		if (HEAD_METHOD.equals(request.getMethod())) {
+			return;
+		}
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+			// the container sends the file once we return, without copying it through the JVM
+			logger.trace("Sending [" + file + "] bytes " + start + "-" + end + " with sendfile");
+			request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath()
+					.toString());
+			request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+			request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+			return;
+		}
+
+		OutputStream os = response.getOutputStream();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(os);
+			long position = start;
+			long remaining = length;
+			while (remaining > 0) {
+				long transferred = channel.transferTo(position, remaining, target);
+				if (transferred <= 0) {
+					throw new IOException("File [" + file + "] ended before byte " + (end + 1));
+				}
+				position += transferred;
+				remaining -= transferred;
+			}
+		}
+		os.flush();
+		os.close();
+	}
+
+	/**
+	 * Build a strong <code>ETag</code> for a file that is only ever replaced, never changed in place
+	 *
+	 * @param size         the size of the file
+	 * @param lastModified when the file was last modified, in milliseconds
+	 * @return the quoted <code>ETag</code>
+	 */
+	private static String eTag(long size, long lastModified) {
+		return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+
+	/**
+	 * Check whether the <code>If-Range</code> precondition of a request allows sending a range. A missing
+	 * <code>If-Range</code> header always allows it.
+	 *
+	 * @param request      the {@link HttpServletRequest}
+	 * @param eTag         the current <code>ETag</code> of the file
+	 * @param lastModified when the file was last modified, in milliseconds
+	 * @return true if the requested range may be sent, false if the whole file must be sent
+	 */
+	private static boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange == null) {
+			return true;
+		}
+
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// weak entity tags never match
+			return ifRange.equals(eTag);
+		}
+
+		try {
+			return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Parse a <code>Range</code> header asking for a single byte range
+	 *
+	 * @param range the value of the <code>Range</code> header
+	 * @param size  the size of the file
+	 * @return the first and last byte of the range, an empty array if no byte of the range is in the file, or null if
+	 * the header isn't a single byte range and should be ignored
+	 */
+	private static long[] parseRange(String range, long size) {
+		String prefix = BYTES_UNIT + "=";
+		if (!range.startsWith(prefix) || range.indexOf(',') >= 0) {
+			return null;
+		}
+
+		String spec = range.substring(prefix.length())
+				.trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+
+		try {
+			String first = spec.substring(0, dash)
+					.trim();
+			String last = spec.substring(dash + 1)
+					.trim();
+			if (first.isEmpty()) {
+				// the last n bytes
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0 || size == 0) {
+					return new long[0];
+				}
+				return new long[] { Math.max(0, size - suffix), size - 1 };
+			}
+
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+			if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+				return null;
+			}
+			if (start >= size) {
+				return new long[0];
+			}
+			return new long[] { start, end };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
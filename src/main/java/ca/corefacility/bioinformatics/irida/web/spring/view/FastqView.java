@@ -1,29 +1,42 @@
 package ca.corefacility.bioinformatics.irida.web.spring.view;
 
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.servlet.view.AbstractView;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.util.ByteRangeFileResponse;
+import ca.corefacility.bioinformatics.irida.util.FileUtils;
 import ca.corefacility.bioinformatics.irida.web.controller.api.RESTGenericController;
 
 import com.google.common.net.HttpHeaders;
 
 /**
- * Write out FASTQ formatted sequence files to the client.
+ * Write out FASTQ formatted sequence files to the client. Sequence files are sent as they're stored, so a file kept
+ * gzip compressed at rest is sent compressed, with the same name and size as the stored file. Clients that want the
+ * uncompressed content ask for it with the <code>decompress=true</code> request parameter. Files sent unchanged
+ * support byte range requests, so clients can resume interrupted downloads.
  *
  */
 public class FastqView extends AbstractView {
     public static final String DEFAULT_CONTENT_TYPE = "application/fastq";
+    /**
+     * Request parameter asking for a gzip compressed file to be decompressed as it's sent
+     */
+    public static final String DECOMPRESS_PARAMETER = "decompress";
     private static final Logger logger = LoggerFactory.getLogger(FastqView.class);
+    private static final String GZIP_EXTENSION = ".gz";
 
     /**
      * Default constructor
@@ -40,13 +53,26 @@ public class FastqView extends AbstractView {
     	SequenceFile sfr = (SequenceFile) model.get(RESTGenericController.RESOURCE_NAME);
         Path fileContent = sfr.getFile();
         String filename = fileContent.getFileName().toString();
+
+        if (Boolean.parseBoolean(request.getParameter(DECOMPRESS_PARAMETER)) && FileUtils.isGzipped(fileContent)) {
+            if (filename.endsWith(GZIP_EXTENSION)) {
+                filename = filename.substring(0, filename.length() - GZIP_EXTENSION.length());
+            }
+            logger.trace("Sending decompressed file to client [" + filename + "]");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setHeader(HttpHeaders.CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
+            OutputStream os = response.getOutputStream();
+            try (InputStream is = new GZIPInputStream(Files.newInputStream(fileContent))) {
+                IOUtils.copyLarge(is, os);
+            }
+            os.flush();
+            os.close();
+            return;
+        }
+
         logger.trace("Sending file to client [" + filename + "]");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
         response.setHeader(HttpHeaders.CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
-        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(Files.size(fileContent)));
-        OutputStream os = response.getOutputStream();
-        Files.copy(fileContent, os);
-        os.flush();
-        os.close();
+        ByteRangeFileResponse.write(request, response, fileContent);
     }
 }
@@ -405,3 +405,74 @@ export async function deleteAnalysisSubmissions({ ids }) {
 export async function fetchAnalysesQueueCounts() {
   return axios.get(`${ANALYSES_URL}/queue`).then(({ data }) => data);
 }
+
+/**
+ * How often to poll the progress of an analysis when server-sent events
+ * can't be used.
+ */
+const PROGRESS_POLL_INTERVAL = 10000;
+
+/**
+ * Watch the state and percent complete of an analysis.  Progress is pushed by
+ * the server with server-sent events, and polled instead when the browser
+ * doesn't support them or the event stream can't be opened.  Watching stops
+ * once the analysis is completed or in error.
+ * @param {number} submissionId Submission ID
+ * @param {function} onProgress Called with `{ state: { label, value }, percentComplete }`
+ *                              each time the progress changes.
+ * @return {function} Stops watching the analysis.
+ */
+export function watchAnalysisProgress(submissionId, onProgress) {
+  const url = `${ANALYSIS_URL}/${submissionId}/progress`;
+  let source = null;
+  let timeout = null;
+  let stopped = false;
+
+  const isFinal = progress =>
+    progress.state.value === "COMPLETED" || progress.state.value === "ERROR";
+
+  function poll() {
+    axios
+      .get(url, { headers: { Accept: "application/json" } })
+      .then(({ data }) => {
+        if (stopped) return;
+        onProgress(data);
+        if (!isFinal(data)) {
+          timeout = setTimeout(poll, PROGRESS_POLL_INTERVAL);
+        }
+      })
+      .catch(() => {
+        if (!stopped) {
+          timeout = setTimeout(poll, PROGRESS_POLL_INTERVAL);
+        }
+      });
+  }
+
+  if (typeof window.EventSource === "undefined") {
+    poll();
+  } else {
+    source = new window.EventSource(url);
+    source.addEventListener("progress", event => {
+      const progress = JSON.parse(event.data);
+      onProgress(progress);
+      if (isFinal(progress)) {
+        source.close();
+      }
+    });
+    source.onerror = () => {
+      // The browser reconnects by itself unless the stream could not be opened
+      if (source.readyState === window.EventSource.CLOSED && !stopped) {
+        source = null;
+        poll();
+      }
+    };
+  }
+
+  return () => {
+    stopped = true;
+    clearTimeout(timeout);
+    if (source !== null) {
+      source.close();
+    }
+  };
+}
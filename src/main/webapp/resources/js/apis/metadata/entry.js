@@ -6,16 +6,32 @@ import { setBaseUrl } from "../../utilities/url-utilities";
 
 const URL = setBaseUrl(`linelist/entries`);
 
+/**
+ * Parse newline delimited JSON into a list of objects, skipping blank lines.
+ * @param {string} text - one JSON object per line
+ * @returns {Array}
+ */
+function parseNdjson(text) {
+  return text
+    .split("\n")
+    .filter(line => line.trim().length)
+    .map(line => JSON.parse(line));
+}
+
 /**
  * Get all metadata belonging to samples in the current project.
- * These will be the table content
+ * These will be the table content.  Entries are read from the streaming
+ * endpoint, which returns one sample per line instead of building the whole
+ * list in memory on the server.
  * @param {number} projectId
  * @returns {Promise}
  */
 export function fetchMetadataEntries(projectId) {
   return axios({
     method: "get",
-    url: `${URL}?projectId=${projectId}`
+    url: `${URL}/stream?projectId=${projectId}`,
+    responseType: "text",
+    transformResponse: [data => parseNdjson(data)]
   });
 }
 
@@ -2,11 +2,14 @@
  * This file loads basic analysis info from the server.
  */
 
-import React, { useState } from "react";
+import React, { useEffect, useState } from "react";
 import { showNotification } from "../modules/notifications";
 
 // Functions required by context
-import { updateAnalysis } from "../apis/analysis/analysis";
+import {
+  updateAnalysis,
+  watchAnalysisProgress
+} from "../apis/analysis/analysis";
 
 /*
  * Since we are using Steps and only want to display
@@ -36,7 +39,8 @@ const initialContext = {
   isCompleted: window.PAGE.analysisState === "COMPLETED",
   isError: window.PAGE.analysisState.includes("ERROR"),
   previousState: window.PAGE.previousState,
-  duration: window.PAGE.duration
+  duration: window.PAGE.duration,
+  percentComplete: null
 };
 
 const AnalysisContext = React.createContext(initialContext);
@@ -44,6 +48,34 @@ const AnalysisContext = React.createContext(initialContext);
 function AnalysisProvider(props) {
   const [analysisContext, setAnalysisContext] = useState(initialContext);
 
+  /*
+   * Keeps the state and percent complete of an unfinished analysis up to
+   * date.  The page is reloaded once the analysis is finished so that its
+   * results or errors are displayed.
+   */
+  useEffect(() => {
+    if (initialContext.isCompleted || initialContext.isError) {
+      return;
+    }
+
+    return watchAnalysisProgress(
+      initialContext.analysis.identifier,
+      ({ state, percentComplete }) => {
+        if (state.value === "COMPLETED" || state.value === "ERROR") {
+          window.location.reload();
+          return;
+        }
+        setAnalysisContext(analysisContext => {
+          return {
+            ...analysisContext,
+            analysisState: state.value,
+            percentComplete
+          };
+        });
+      }
+    );
+  }, []);
+
   /*
    * Updates the submission name, displays a notification
    * to the user, and updates the `analysisName` state variable.
@@ -69,6 +69,11 @@ export function AnalysisSteps() {
       />
       <Step
         title={i18n("AnalysisSteps.running")}
+        subTitle={
+          analysisState === "RUNNING" && analysisContext.percentComplete !== null
+            ? `${Math.round(analysisContext.percentComplete)}%`
+            : null
+        }
         icon={analysisState === "RUNNING" ? <Running /> : null}
         description={
           analysisState === "RUNNING" ||
@@ -256,7 +256,10 @@ function PipelineController(
         contentType: "application/json; charset=utf-8",
         data: JSON.stringify(params),
         success: function(response, status, request) {
-          if (response.success) {
+          if (response.launchId) {
+            // submissions are created in the background, wait for them
+            pollLaunch(response.launchId);
+          } else if (response.success) {
             vm.success = true;
           } else {
             vm.loading = false;
@@ -301,6 +304,42 @@ function PipelineController(
     }
   };
 
+  /**
+   * Poll the status of a pipeline launch until its analysis submissions
+   * have been created.
+   *
+   * @param launchId the identifier of the launch
+   */
+  function pollLaunch(launchId) {
+    $.getJSON(`${window.PAGE.urls.startUrl}/${launchId}`)
+      .done(function(launch) {
+        if (launch.state === "RUNNING") {
+          setTimeout(() => pollLaunch(launchId), 1000);
+          return;
+        }
+
+        if (launch.state === "COMPLETED") {
+          vm.success = true;
+        } else {
+          vm.loading = false;
+          window.notifications.show({
+            type: "error",
+            text: launch.error,
+            timeout: false,
+            progressBar: false,
+            closeWith: ["button"]
+          });
+        }
+        // trigger Angular digest with the following call
+        $scope.$apply();
+      })
+      .fail(function(response) {
+        vm.loading = false;
+        vm.error = `HTTP ${response.status}`;
+        $scope.$apply();
+      });
+  }
+
   /**
    * Remove a sample from the pipeline to be run.
    *
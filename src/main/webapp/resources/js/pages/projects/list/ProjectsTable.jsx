@@ -135,6 +135,13 @@ export function ProjectsTable() {
       title: i18n("ProjectsTable_th_samples"),
       dataIndex: "samples",
       key: "samples",
+      width: 100,
+      sorter: true
+    },
+    {
+      title: i18n("ProjectsTable_th_members"),
+      dataIndex: "members",
+      key: "members",
       width: 100
     },
     {
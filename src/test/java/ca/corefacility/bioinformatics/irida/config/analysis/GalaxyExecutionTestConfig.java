@@ -51,7 +51,8 @@ public class GalaxyExecutionTestConfig {
 	public GalaxyHistoriesService galaxyHistoriesService() {
 		HistoriesClient historiesClient = localGalaxy.getGalaxyInstanceAdmin().getHistoriesClient();
 		ToolsClient toolsClient = localGalaxy.getGalaxyInstanceAdmin().getToolsClient();
-		return new GalaxyHistoriesService(historiesClient, toolsClient, galaxyLibrariesService());
+		return new GalaxyHistoriesService(historiesClient, toolsClient, galaxyLibrariesService(),
+				localGalaxy.getAdminAPIKey());
 	}
 
 	@Lazy
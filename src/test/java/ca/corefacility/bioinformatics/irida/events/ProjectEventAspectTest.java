@@ -2,27 +2,33 @@ package ca.corefacility.bioinformatics.irida.events;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
 
 import ca.corefacility.bioinformatics.irida.events.annotations.LaunchesProjectEvent;
 import ca.corefacility.bioinformatics.irida.model.event.ProjectEvent;
+import ca.corefacility.bioinformatics.irida.model.event.UserRemovedProjectEvent;
 
 public class ProjectEventAspectTest {
 	private ProjectEventAspect projectEventAspect;
 	private ProjectEventHandler eventHandler;
+	private ApplicationEventPublisher eventPublisher;
 
 	private AnnotatedClass annotatedClass;
 
 	@Before
 	public void setup() {
 		eventHandler = mock(ProjectEventHandler.class);
-		projectEventAspect = new ProjectEventAspect(eventHandler);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		projectEventAspect = new ProjectEventAspect(eventHandler, eventPublisher);
 		annotatedClass = new AnnotatedClass();
 		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(annotatedClass);
 		proxyFactory.addAspect(projectEventAspect);
@@ -44,6 +50,15 @@ public class ProjectEventAspectTest {
 		assertEquals(arg, value.getArgs()[0]);
 		assertNotNull(value.getReturnValue());
 
+		verify(eventPublisher, never()).publishEvent(any(PermissionsChangedEvent.class));
+	}
+
+	@Test
+	public void testMembershipEventChangesPermissions() {
+		annotatedClass.membershipMethod("test");
+
+		verify(eventHandler).delegate(any(MethodEvent.class));
+		verify(eventPublisher).publishEvent(any(PermissionsChangedEvent.class));
 	}
 
 	@Test
@@ -73,6 +88,10 @@ public class ProjectEventAspectTest {
 		public String returningMethod(String arg1) {
 			return "return";
 		}
+
+		@LaunchesProjectEvent(UserRemovedProjectEvent.class)
+		public void membershipMethod(String arg1) {
+		}
 	}
 
 	private static class TestProjectEvent extends ProjectEvent {
@@ -1,19 +1,29 @@
 package ca.corefacility.bioinformatics.irida.events;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ca.corefacility.bioinformatics.irida.model.enums.ProjectRole;
 import ca.corefacility.bioinformatics.irida.model.event.DataAddedToSampleProjectEvent;
@@ -53,74 +63,71 @@ public class ProjectEventHandlerTest {
 		handler = new ProjectEventHandler(eventRepository, psjRepository, projectRepository, sampleRepository);
 	}
 
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
 	@Test
 	public void testDelegateSampleAdded() {
 		Class<? extends ProjectEvent> clazz = SampleAddedProjectEvent.class;
-		Project project = new Project();
+		Project project = project(1L, "p1");
 		Sample sample = new Sample();
 		ProjectSampleJoin returnValue = new ProjectSampleJoin(project, sample, true);
 		Object[] args = { project, sample };
 		MethodEvent methodEvent = new MethodEvent(clazz, returnValue, args);
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(new SampleAddedProjectEvent(returnValue));
-
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository).save(captor.capture());
-		ProjectEvent event = captor.getValue();
-		assertTrue(event instanceof SampleAddedProjectEvent);
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert one event", 1, events.size());
+		assertTrue(events.get(0) instanceof SampleAddedProjectEvent);
 
-		verify(projectRepository).save(any(Project.class));
+		verifyProjectsUpdated(1L);
 	}
 
 	@Test
 	public void testDelegateUserRole() {
 		Class<? extends ProjectEvent> clazz = UserRoleSetProjectEvent.class;
-		Project project = new Project();
+		Project project = project(1L, "p1");
 		User user = new User();
 		ProjectUserJoin returnValue = new ProjectUserJoin(project, user, ProjectRole.PROJECT_USER);
 		Object[] args = { project, user, ProjectRole.PROJECT_USER };
 		MethodEvent methodEvent = new MethodEvent(clazz, returnValue, args);
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(new UserRoleSetProjectEvent(returnValue));
-
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository).save(captor.capture());
-		ProjectEvent event = captor.getValue();
-		assertTrue(event instanceof UserRoleSetProjectEvent);
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert one event", 1, events.size());
+		assertTrue(events.get(0) instanceof UserRoleSetProjectEvent);
 
-		verify(projectRepository).save(any(Project.class));
+		verifyProjectsUpdated(1L);
 	}
 
 	@Test
 	public void testDelegateUserRemoved() {
 		Class<? extends ProjectEvent> clazz = UserRemovedProjectEvent.class;
-		Project project = new Project();
+		Project project = project(1L, "p1");
 		User user = new User();
 		Object[] args = { project, user };
 		MethodEvent methodEvent = new MethodEvent(clazz, null, args);
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(new UserRemovedProjectEvent(project, user));
-
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository).save(captor.capture());
-		ProjectEvent event = captor.getValue();
-		assertTrue(event instanceof UserRemovedProjectEvent);
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert one event", 1, events.size());
+		assertTrue(events.get(0) instanceof UserRemovedProjectEvent);
 
-		verify(projectRepository).save(any(Project.class));
+		verifyProjectsUpdated(1L);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
 	public void testHandleSequenceFileAddedEventSingle() {
 		Class<? extends ProjectEvent> clazz = DataAddedToSampleProjectEvent.class;
-		Project project = new Project();
-		Sample sample = new Sample();
+		Project project = project(1L, "p1");
+		Sample sample = sample(2L);
 		SequenceFile file = new SequenceFile();
 		SingleEndSequenceFile seqObj = new SingleEndSequenceFile(file);
 		SampleSequencingObjectJoin join = new SampleSequencingObjectJoin(sample, seqObj);
@@ -128,29 +135,24 @@ public class ProjectEventHandlerTest {
 		when(psjRepository.getProjectForSample(sample)).thenReturn(
 				Lists.newArrayList(new ProjectSampleJoin(project, sample, true)));
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(
-				new DataAddedToSampleProjectEvent(project, sample));
-
 		Object[] args = {};
 		MethodEvent methodEvent = new MethodEvent(clazz, join, args);
 
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository).save(captor.capture());
-		ProjectEvent event = captor.getValue();
-		assertTrue(event instanceof DataAddedToSampleProjectEvent);
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert one event", 1, events.size());
+		assertTrue(events.get(0) instanceof DataAddedToSampleProjectEvent);
 
-		verify(projectRepository).save(any(Project.class));
-		verify(sampleRepository).save(any(Sample.class));
+		verifyProjectsUpdated(1L);
+		verify(sampleRepository).save(sample);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
 	public void testHandleSequenceFileAddedEventMultipleReturn() {
 		Class<? extends ProjectEvent> clazz = DataAddedToSampleProjectEvent.class;
-		Project project = new Project();
-		Sample sample = new Sample();
+		Project project = project(1L, "p1");
+		Sample sample = sample(2L);
 		SequenceFile file = new SequenceFile();
 		SingleEndSequenceFile seqObj1 = new SingleEndSequenceFile(file);
 		SingleEndSequenceFile seqObj2 = new SingleEndSequenceFile(file);
@@ -160,30 +162,25 @@ public class ProjectEventHandlerTest {
 		when(psjRepository.getProjectForSample(sample)).thenReturn(
 				Lists.newArrayList(new ProjectSampleJoin(project, sample, true)));
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(
-				new DataAddedToSampleProjectEvent(project, sample));
-
 		Object[] args = {};
 		MethodEvent methodEvent = new MethodEvent(clazz, Lists.newArrayList(join1, join2), args);
 
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository).save(captor.capture());
-		ProjectEvent event = captor.getValue();
-		assertTrue(event instanceof DataAddedToSampleProjectEvent);
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert one event", 1, events.size());
+		assertTrue(events.get(0) instanceof DataAddedToSampleProjectEvent);
 
-		verify(projectRepository).save(any(Project.class));
-		verify(sampleRepository).save(any(Sample.class));
+		verifyProjectsUpdated(1L);
+		verify(sampleRepository).save(sample);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Test
 	public void testHandleSequenceFileAddedEventMultipleProjects() {
 		Class<? extends ProjectEvent> clazz = DataAddedToSampleProjectEvent.class;
-		Project project = new Project("p1");
-		Project project2 = new Project("p2");
-		Sample sample = new Sample();
+		Project project = project(1L, "p1");
+		Project project2 = project(2L, "p2");
+		Sample sample = sample(3L);
 		SequenceFile file = new SequenceFile();
 		SingleEndSequenceFile seqObj = new SingleEndSequenceFile(file);
 		SampleSequencingObjectJoin join = new SampleSequencingObjectJoin(sample, seqObj);
@@ -191,17 +188,13 @@ public class ProjectEventHandlerTest {
 		when(psjRepository.getProjectForSample(sample)).thenReturn(
 				Lists.newArrayList(new ProjectSampleJoin(project, sample, true), new ProjectSampleJoin(project2, sample, true)));
 
-		when(eventRepository.save(any(ProjectEvent.class))).thenReturn(
-				new DataAddedToSampleProjectEvent(project, sample));
-
 		Object[] args = {};
 		MethodEvent methodEvent = new MethodEvent(clazz, join, args);
 
 		handler.delegate(methodEvent);
 
-		ArgumentCaptor<ProjectEvent> captor = ArgumentCaptor.forClass(ProjectEvent.class);
-		verify(eventRepository, times(2)).save(captor.capture());
-		List<ProjectEvent> allValues = captor.getAllValues();
+		List<ProjectEvent> allValues = captureInsertedEvents();
+		assertEquals("should insert an event for each project", 2, allValues.size());
 
 		Set<Project> projects = Sets.newHashSet(project, project2);
 		for (ProjectEvent event : allValues) {
@@ -211,7 +204,56 @@ public class ProjectEventHandlerTest {
 			projects.remove(eventProject);
 		}
 
-		verify(projectRepository, times(2)).save(project);
+		verifyProjectsUpdated(1L, 2L);
+		verify(sampleRepository).save(sample);
+	}
+
+	@Test
+	public void testEventsBatchedInTransaction() {
+		Project project = project(1L, "p1");
+		Project project2 = project(2L, "p2");
+
+		TransactionSynchronizationManager.initSynchronization();
+
+		for (int i = 0; i < 3; i++) {
+			Sample sample = sample((long) i + 10);
+			handler.delegate(new MethodEvent(SampleAddedProjectEvent.class,
+					new ProjectSampleJoin(project, sample, true), new Object[] { project, sample }));
+		}
+		Sample sample = sample(20L);
+		handler.delegate(new MethodEvent(SampleAddedProjectEvent.class, new ProjectSampleJoin(project2, sample, true),
+				new Object[] { project2, sample }));
+
+		verifyZeroInteractions(eventRepository);
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertEquals("should register one synchronization for the transaction", 1, synchronizations.size());
+		synchronizations.forEach(s -> s.beforeCommit(false));
+		synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+		List<ProjectEvent> events = captureInsertedEvents();
+		assertEquals("should insert all events of the transaction together", 4, events.size());
+		verifyProjectsUpdated(1L, 2L);
+		assertTrue("batch should be removed from the transaction",
+				!TransactionSynchronizationManager.hasResource(handler));
+	}
+
+	@Test
+	public void testEventsDiscardedOnRollback() {
+		Project project = project(1L, "p1");
+		Sample sample = sample(2L);
+
+		TransactionSynchronizationManager.initSynchronization();
+
+		handler.delegate(new MethodEvent(SampleAddedProjectEvent.class, new ProjectSampleJoin(project, sample, true),
+				new Object[] { project, sample }));
+
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		verify(eventRepository, never()).insertEvents(anyCollectionOf(ProjectEvent.class));
+		assertTrue("batch should be removed from the transaction",
+				!TransactionSynchronizationManager.hasResource(handler));
 	}
 
 	@Test
@@ -226,4 +268,38 @@ public class ProjectEventHandlerTest {
 
 		verifyZeroInteractions(eventRepository);
 	}
+
+	@SuppressWarnings("unchecked")
+	private List<ProjectEvent> captureInsertedEvents() {
+		ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(eventRepository).insertEvents(captor.capture());
+		return Lists.newArrayList((Collection<ProjectEvent>) captor.getValue());
+	}
+
+	private void verifyProjectsUpdated(Long... projectIds) {
+		ArgumentCaptor<Project> captor = ArgumentCaptor.forClass(Project.class);
+		InOrder inOrder = inOrder(projectRepository, eventRepository);
+		inOrder.verify(projectRepository, times(projectIds.length)).save(captor.capture());
+		inOrder.verify(eventRepository).insertEvents(anyCollectionOf(ProjectEvent.class));
+
+		assertEquals("should save each project once in identifier order", Lists.newArrayList(projectIds),
+				captor.getAllValues()
+						.stream()
+						.map(Project::getId)
+						.collect(Collectors.toList()));
+		captor.getAllValues()
+				.forEach(p -> assertNotNull("project should have a modified date", p.getModifiedDate()));
+	}
+
+	private static Project project(Long id, String name) {
+		Project project = new Project(name);
+		project.setId(id);
+		return project;
+	}
+
+	private static Sample sample(Long id) {
+		Sample sample = new Sample();
+		sample.setId(id);
+		return sample;
+	}
 }
@@ -66,6 +66,7 @@ import ca.corefacility.bioinformatics.irida.service.EmailController;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.analysis.execution.AnalysisExecutionService;
 import ca.corefacility.bioinformatics.irida.service.impl.AnalysisExecutionScheduledTaskImpl;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
 
 /**
  * Integration tests for SNVPhyl pipeline.
@@ -119,6 +120,9 @@ public class SNVPhylAnalysisIT {
 
 	@Autowired
 	private EmailController emailController;
+
+	@Autowired
+	private AnalysisProgressCache analysisProgressCache;
 	
 	@Autowired
 	private GzipFileProcessor gzipFileProcessor;
@@ -169,7 +173,8 @@ public class SNVPhylAnalysisIT {
 		Assume.assumeFalse(WindowsPlatformCondition.isWindows());
 
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
-				analysisExecutionService, CleanupAnalysisSubmissionCondition.NEVER_CLEANUP, galaxyJobErrorsService, jobErrorRepository, emailController);
+				analysisExecutionService, CleanupAnalysisSubmissionCondition.NEVER_CLEANUP, galaxyJobErrorsService, jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		Path tempDir = Files.createTempDirectory(rootTempDirectory, "snvphylTest");
 
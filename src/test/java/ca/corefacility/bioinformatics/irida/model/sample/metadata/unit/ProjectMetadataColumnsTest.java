@@ -0,0 +1,145 @@
+package ca.corefacility.bioinformatics.irida.model.sample.metadata.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectMetadataColumns;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
+
+public class ProjectMetadataColumnsTest {
+	private static final Long PROJECT = 1L;
+
+	private ProjectMetadataColumns columns;
+
+	@Before
+	public void setUp() {
+		columns = new ProjectMetadataColumns(PROJECT, "v1");
+	}
+
+	@Test
+	public void testFillRows() {
+		columns.put(value(1L, 10L, "WRHA"));
+		columns.put(value(1L, 11L, "Fred"));
+		columns.put(value(2L, 10L, "WRHA"));
+
+		ProjectSampleMetadataRow first = row(1L);
+		ProjectSampleMetadataRow second = row(2L);
+		ProjectSampleMetadataRow missing = row(3L);
+		columns.fill(ImmutableList.of(first, second, missing));
+
+		assertEquals("WRHA", first.getMetadata()
+				.get("irida-10"));
+		assertEquals("Fred", first.getMetadata()
+				.get("irida-11"));
+		assertEquals("WRHA", second.getMetadata()
+				.get("irida-10"));
+		assertEquals("second sample has no value for field 11", 1, second.getMetadata()
+				.size());
+		assertTrue("sample without values should not be filled", missing.getMetadata()
+				.isEmpty());
+		assertEquals("shared values should be stored once", 2, columns.getDictionarySize());
+	}
+
+	@Test
+	public void testGrowRows() {
+		for (long sample = 1; sample <= 100; sample++) {
+			columns.put(value(sample, 10L, "value" + (sample % 3)));
+		}
+
+		Map<Long, List<SampleMetadataValue>> values = columns.getValues(ImmutableList.of(1L, 50L, 100L));
+
+		assertEquals(3, values.size());
+		assertEquals("value2", values.get(50L)
+				.get(0)
+				.getValue());
+		assertEquals(3, columns.getDictionarySize());
+	}
+
+	@Test
+	public void testReplaceSamples() {
+		columns.put(value(1L, 10L, "WRHA"));
+		columns.put(value(2L, 10L, "WRHA"));
+
+		SampleMetadataValue otherProject = new SampleMetadataValue(2L, 1L, 10L, "irida-10", "field10", "text",
+				"other");
+		columns.replaceSamples(ImmutableList.of(1L, 2L), ImmutableList.of(value(1L, 11L, "Fred"), otherProject),
+				"v2");
+
+		Map<Long, List<SampleMetadataValue>> values = columns.getValues(ImmutableList.of(1L, 2L));
+		assertEquals("only the new value should be kept", 1, values.get(1L)
+				.size());
+		assertEquals("Fred", values.get(1L)
+				.get(0)
+				.getValue());
+		assertFalse("sample without values should be removed", columns.containsSample(2L));
+		assertEquals("v2", columns.getVersion());
+
+		columns.put(value(3L, 10L, "SHA"));
+		assertTrue("removed rows should be reused", columns.containsSample(3L));
+	}
+
+	@Test
+	public void testReplacedValuesDropped() {
+		columns.put(value(1L, 10L, "WRHA"));
+		columns.put(value(2L, 10L, "WRHA"));
+		columns.put(value(2L, 11L, "Fred"));
+		int cells = columns.getCellCount();
+
+		columns.put(value(1L, 10L, "SHA"));
+		assertEquals("value still used by a row should be kept", 3, columns.getDictionarySize());
+
+		columns.replaceSamples(ImmutableList.of(2L), ImmutableList.of(value(2L, 10L, "SHA")), "v2");
+		assertEquals("values no longer used should be dropped", 1, columns.getDictionarySize());
+		assertEquals("column without values should be dropped", cells / 2, columns.getCellCount());
+
+		columns.put(value(1L, 10L, "SHA"));
+		columns.put(value(3L, 10L, "Manitoba"));
+		Map<Long, List<SampleMetadataValue>> values = columns.getValues(ImmutableList.of(1L, 2L, 3L));
+		assertEquals("SHA", values.get(1L)
+				.get(0)
+				.getValue());
+		assertEquals("SHA", values.get(2L)
+				.get(0)
+				.getValue());
+		assertEquals("dropped code should be reused for a new value", "Manitoba", values.get(3L)
+				.get(0)
+				.getValue());
+		assertEquals(2, columns.getDictionarySize());
+	}
+
+	@Test
+	public void testPipelineProvidedValuesKept() {
+		columns.put(value(1L, 10L, "SISTR"));
+		columns.put(new SampleMetadataValue(PROJECT, 2L, 10L, "irida-10", "field10", "text", "SISTR", 5L));
+
+		Map<Long, List<SampleMetadataValue>> values = columns.getValues(ImmutableList.of(1L, 2L));
+		assertNull("value entered by a user has no analysis", values.get(1L)
+				.get(0)
+				.getSubmissionId());
+		assertEquals("value provided by a pipeline should keep its analysis", Long.valueOf(5L), values.get(2L)
+				.get(0)
+				.getSubmissionId());
+		assertEquals("values from different sources should be stored apart", 2, columns.getDictionarySize());
+	}
+
+	private static SampleMetadataValue value(Long sampleId, Long fieldId, String value) {
+		return new SampleMetadataValue(PROJECT, sampleId, fieldId, "irida-" + fieldId, "field" + fieldId, "text",
+				value);
+	}
+
+	private static ProjectSampleMetadataRow row(Long sampleId) {
+		return new ProjectSampleMetadataRow(sampleId, "sample" + sampleId, new Date(), new Date(), false, true);
+	}
+}
@@ -0,0 +1,211 @@
+package ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyDatasetDownloader;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for {@link GalaxyDatasetDownloader}.
+ */
+public class GalaxyDatasetDownloaderTest {
+
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-");
+	private static final int OVERLAP = 64 * 1024;
+	private static final String API_KEY = "secret";
+
+	private HttpServer server;
+	private URL url;
+	private Path directory;
+	private Path destination;
+	private Path partial;
+
+	private byte[] content;
+	private boolean honourRange;
+	private int interruptAfter;
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+	private final List<String> queries = new CopyOnWriteArrayList<>();
+
+	private GalaxyDatasetDownloader downloader;
+
+	@Before
+	public void setup() throws IOException {
+		content = new byte[OVERLAP * 4];
+		new Random(1).nextBytes(content);
+		honourRange = true;
+		interruptAfter = -1;
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/dataset", this::serve);
+		server.start();
+		url = new URL("http://localhost:" + server.getAddress()
+				.getPort() + "/dataset");
+
+		directory = Files.createTempDirectory("dataset-download");
+		destination = directory.resolve("output.dat");
+		partial = directory.resolve("output.dat.part");
+
+		downloader = new GalaxyDatasetDownloader(2, Duration.ZERO);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.stop(0);
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+	@Test
+	public void testDownload() throws IOException {
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertArrayEquals("dataset contents should be downloaded", content, Files.readAllBytes(destination));
+		assertFalse("partial file should be moved", Files.exists(partial));
+		assertEquals("only one request should be made", 1, ranges.size());
+		assertNull("a new download should not request a range", ranges.get(0));
+	}
+
+	@Test
+	public void testApiKeySent() throws IOException {
+		url = new URL(url + "?to_ext=dat");
+
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertEquals("should make a request", 1, queries.size());
+		assertEquals("the API key should be added to the query string", "to_ext=dat&key=" + API_KEY,
+				queries.get(0));
+	}
+
+	@Test
+	public void testResumeAfterInterruptedDownload() throws IOException {
+		interruptAfter = OVERLAP * 2;
+		downloader = new GalaxyDatasetDownloader(1, Duration.ZERO);
+
+		try {
+			downloader.download(url, API_KEY, destination, (long) content.length);
+			throw new AssertionError("interrupted download should fail");
+		} catch (IOException e) {
+			assertFalse("nothing should be written to the destination", Files.exists(destination));
+			assertTrue("partial file should be kept", Files.exists(partial));
+		}
+
+		long downloaded = Files.size(partial);
+		assertTrue("partial file should hold what was sent before the interruption",
+				downloaded > 0 && downloaded <= interruptAfter);
+
+		interruptAfter = -1;
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertArrayEquals("dataset contents should be downloaded", content, Files.readAllBytes(destination));
+		assertEquals("second download should resume the partial file",
+				"bytes=" + Math.max(0, downloaded - OVERLAP) + "-", ranges.get(1));
+		assertEquals("every request should carry the API key", Arrays.asList("key=" + API_KEY, "key=" + API_KEY),
+				queries);
+	}
+
+	@Test
+	public void testResumeDownload() throws IOException {
+		int downloaded = OVERLAP * 2;
+		Files.write(partial, Arrays.copyOf(content, downloaded));
+
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertArrayEquals("dataset contents should be downloaded", content, Files.readAllBytes(destination));
+		assertEquals("should resume from before the end of the partial file",
+				"bytes=" + (downloaded - OVERLAP) + "-", ranges.get(0));
+	}
+
+	@Test
+	public void testResumeChangedDataset() throws IOException {
+		byte[] changed = Arrays.copyOf(content, OVERLAP * 2);
+		changed[changed.length - 1]++;
+		Files.write(partial, changed);
+
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertArrayEquals("dataset should be downloaded again", content, Files.readAllBytes(destination));
+		assertEquals("should try to resume, then start over", 2, ranges.size());
+	}
+
+	@Test
+	public void testServerIgnoresRange() throws IOException {
+		honourRange = false;
+		Files.write(partial, Arrays.copyOf(content, OVERLAP * 2));
+
+		downloader.download(url, API_KEY, destination, (long) content.length);
+
+		assertArrayEquals("dataset should be downloaded from the start", content, Files.readAllBytes(destination));
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongSize() throws IOException {
+		try {
+			downloader.download(url, API_KEY, destination, (long) content.length + 1);
+		} finally {
+			assertEquals("should try each attempt", 2, ranges.size());
+			assertFalse("nothing should be written to the destination", Files.exists(destination));
+			assertTrue("partial file should be kept for the next download", Files.exists(partial));
+		}
+	}
+
+	private void serve(HttpExchange exchange) throws IOException {
+		String range = exchange.getRequestHeaders()
+				.getFirst("Range");
+		ranges.add(range);
+		queries.add(exchange.getRequestURI()
+				.getRawQuery());
+
+		int start = 0;
+		Matcher matcher = range == null ? null : RANGE.matcher(range);
+		if (honourRange && matcher != null && matcher.matches()) {
+			start = Integer.parseInt(matcher.group(1));
+			exchange.getResponseHeaders()
+					.add("Content-Range", "bytes " + start + "-" + (content.length - 1) + "/" + content.length);
+			exchange.sendResponseHeaders(206, content.length - start);
+		} else {
+			exchange.sendResponseHeaders(200, content.length);
+		}
+
+		if (interruptAfter >= 0) {
+			// close the connection part way through the response
+			OutputStream out = exchange.getResponseBody();
+			out.write(content, start, interruptAfter - start);
+			out.flush();
+			try {
+				out.close();
+			} catch (IOException e) {
+				// expected, fewer bytes were sent than the response promised
+			}
+			return;
+		}
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(content, start, content.length - start);
+		}
+	}
+}
@@ -4,9 +4,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -20,6 +24,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerDownloadException;
 import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
 import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerObjectNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.UploadException;
@@ -30,6 +35,7 @@ import ca.corefacility.bioinformatics.irida.exceptions.galaxy.NoGalaxyHistoryExc
 import ca.corefacility.bioinformatics.irida.model.workflow.execution.InputFileType;
 import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowState;
 import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
+import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyDatasetDownloader;
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyHistoriesService;
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyLibrariesService;
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.integration.Util;
@@ -61,6 +67,7 @@ public class GalaxyHistoriesServiceTest {
 	@Mock private ClientResponse invalidResponse;
 	@Mock private ClientResponse okayResponse;
 	@Mock private GalaxyLibrariesService galaxyLibrariesService;
+	@Mock private GalaxyDatasetDownloader datasetDownloader;
 	
 	private GalaxyHistoriesService galaxyHistory;
 	
@@ -77,6 +84,8 @@ public class GalaxyHistoriesServiceTest {
 	private static final String VALID_HISTORY_ID = "1";
 	
 	private static final float delta = 0.00001f;
+
+	private static final String API_KEY = "api-key";
 	
 	private List<HistoryContents> datasetHistoryContents;
 	private History history;
@@ -408,4 +417,43 @@ public class GalaxyHistoriesServiceTest {
 		
 		galaxyHistory.getDatasetForFileInHistory(FILENAME, HISTORY_ID);
 	}
+
+	/**
+	 * Tests streaming a dataset sends the Galaxy API key to the downloader.
+	 * 
+	 * @throws IOException
+	 * @throws ExecutionManagerDownloadException
+	 */
+	@Test
+	public void testDownloadDatasetToSendsApiKey() throws IOException, ExecutionManagerDownloadException {
+		GalaxyHistoriesService keyedHistory = new GalaxyHistoriesService(historiesClient, toolsClient,
+				galaxyLibrariesService, API_KEY);
+		keyedHistory.setDatasetDownloader(datasetDownloader);
+		datasetForFile.setDownloadUrl("/api/histories/" + HISTORY_ID + "/contents/" + DATA_ID + "/display");
+
+		keyedHistory.downloadDatasetTo(HISTORY_ID, datasetForFile, dataFile);
+
+		verify(datasetDownloader).download(
+				eq(new URL("http://fakehost/api/histories/" + HISTORY_ID + "/contents/" + DATA_ID + "/display")),
+				eq(API_KEY), eq(dataFile), any());
+		verify(historiesClient, never()).downloadDataset(any(), any(), any());
+	}
+
+	/**
+	 * Tests a service without a Galaxy API key downloads datasets through
+	 * blend4j, which authenticates the request itself.
+	 * 
+	 * @throws IOException
+	 * @throws ExecutionManagerDownloadException
+	 */
+	@Test
+	public void testDownloadDatasetToWithoutApiKey() throws IOException, ExecutionManagerDownloadException {
+		galaxyHistory.setDatasetDownloader(datasetDownloader);
+		datasetForFile.setDownloadUrl("/api/histories/" + HISTORY_ID + "/contents/" + DATA_ID + "/display");
+
+		galaxyHistory.downloadDatasetTo(HISTORY_ID, datasetForFile, dataFile);
+
+		verify(historiesClient).downloadDataset(HISTORY_ID, DATA_ID, dataFile.toFile());
+		verify(datasetDownloader, never()).download(any(), any(), any(), any());
+	}
 }
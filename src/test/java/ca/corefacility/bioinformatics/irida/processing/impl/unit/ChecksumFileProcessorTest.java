@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.CRC32;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +46,11 @@ public class ChecksumFileProcessorTest {
 		SequenceFile file = fileCaptor.getValue();
 
 		assertEquals("checksums should be equal", CHECKSUM, file.getUploadSha256());
+		CRC32 crc = new CRC32();
+		crc.update(FILE_CONTENTS.getBytes());
+		assertEquals("CRC-32 should be computed in the same read", Long.valueOf(crc.getValue()),
+				file.getFileCrc32());
+		verify(sequenceFileRepository).deduplicateFile(sf.getFile(), CHECKSUM);
 	}
 
 	@Test(expected = FileProcessorException.class)
@@ -24,19 +24,23 @@ import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFast
 import ca.corefacility.bioinformatics.irida.processing.impl.CoverageFileProcessor;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 
 public class CoverageFileProcessorTest {
 
 	private CoverageFileProcessor processor;
 	private QCEntryRepository qcEntryRepository;
 	private AnalysisRepository analysisRepository;
+	private SampleQCSummaryUpdater qcSummaryUpdater;
 
 	@Before
 	public void setup() {
 		qcEntryRepository = mock(QCEntryRepository.class);
 		analysisRepository = mock(AnalysisRepository.class);
 
-		processor = new CoverageFileProcessor(qcEntryRepository, analysisRepository);
+		qcSummaryUpdater = mock(SampleQCSummaryUpdater.class);
+
+		processor = new CoverageFileProcessor(qcEntryRepository, analysisRepository, qcSummaryUpdater);
 	}
 
 	@Test
@@ -123,4 +127,28 @@ public class CoverageFileProcessorTest {
 		assertEquals("should be positive coverage", QCEntryStatus.POSITIVE, qc.getStatus());
 	}
 
+	@Test
+	public void testUpdatesSampleSummary() {
+		SequenceFile file = new SequenceFile();
+		SequencingObject o = new SingleEndSequenceFile(file);
+		AnalysisFastQC fqc = mock(AnalysisFastQC.class);
+
+		when(analysisRepository.findFastqcAnalysisForSequenceFile(file)).thenReturn(fqc);
+		when(fqc.getTotalBases()).thenReturn(300L);
+
+		processor.process(o);
+
+		verify(qcSummaryUpdater).updateSummaryForSequencingObject(o);
+	}
+
+	@Test
+	public void testUpdatesSampleSummaryWithoutFastqc() {
+		SequenceFile file = new SequenceFile();
+		SequencingObject o = new SingleEndSequenceFile(file);
+
+		processor.process(o);
+
+		verify(qcEntryRepository, times(0)).save(any(QCEntry.class));
+		verify(qcSummaryUpdater).updateSummaryForSequencingObject(o);
+	}
 }
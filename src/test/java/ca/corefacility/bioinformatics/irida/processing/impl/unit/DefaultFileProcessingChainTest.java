@@ -3,7 +3,9 @@ package ca.corefacility.bioinformatics.irida.processing.impl.unit;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,15 +21,18 @@ import org.mockito.ArgumentCaptor;
 import com.google.common.collect.Sets;
 
 import ca.corefacility.bioinformatics.irida.exceptions.FileProcessorTimeoutException;
+import ca.corefacility.bioinformatics.irida.model.sample.FileProcessorErrorQCEntry;
 import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessingChain;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorAnalysisException;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
 import ca.corefacility.bioinformatics.irida.processing.impl.DefaultFileProcessingChain;
 import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 
 /**
  * Tests for {@link DefaultFileProcessingChain}.
@@ -56,6 +61,7 @@ public class DefaultFileProcessingChainTest {
 		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository);
 		fileProcessingChain.setTimeout(1);
 		fileProcessingChain.setSleepDuration(0);
+		when(objectRepository.findById(objectId)).thenReturn(Optional.empty());
 
 		fileProcessingChain.launchChain(objectId);
 	}
@@ -68,6 +74,17 @@ public class DefaultFileProcessingChainTest {
 		fileProcessingChain.launchChain(objectId);
 	}
 
+	@Test(timeout = 5000)
+	public void testReadyObjectDoesNotWait() throws FileProcessorTimeoutException {
+		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository);
+		fileProcessingChain.setSleepDuration(10);
+
+		fileProcessingChain.launchChain(objectId);
+
+		assertEquals("object should be finished", SequencingObject.ProcessingState.FINISHED,
+				seqObject.getProcessingState());
+	}
+
 	@Test
 	public void testFailWithContinueChain() throws FileProcessorTimeoutException {
 		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository,
@@ -104,6 +121,58 @@ public class DefaultFileProcessingChainTest {
 		fileProcessingChain.launchChain(1L);
 	}
 
+	@Test
+	public void testAnalysisFailureOfModifyingProcessorContinues() throws FileProcessorTimeoutException {
+		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository,
+				new FailingAnalysisFileProcessor());
+
+		List<Exception> exceptions = fileProcessingChain.launchChain(objectId);
+
+		assertEquals("the analysis failure should have been ignored", 1, exceptions.size());
+		assertEquals("object should be finished", SequencingObject.ProcessingState.FINISHED,
+				seqObject.getProcessingState());
+		verify(qcRepository).save(any(FileProcessorErrorQCEntry.class));
+	}
+
+	@Test(expected = FileProcessorAnalysisException.class)
+	public void testAnalysisFailureFastFail() throws FileProcessorTimeoutException {
+		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository,
+				new FailingAnalysisFileProcessor());
+		fileProcessingChain.setFastFail(true);
+
+		fileProcessingChain.launchChain(objectId);
+	}
+
+	@Test
+	public void testFailUpdatesSampleSummary() throws FileProcessorTimeoutException {
+		DefaultFileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository,
+				qcRepository, new FailingFileProcessor());
+		SampleQCSummaryUpdater qcSummaryUpdater = mock(SampleQCSummaryUpdater.class);
+		fileProcessingChain.setSampleQCSummaryUpdater(qcSummaryUpdater);
+
+		fileProcessingChain.launchChain(objectId);
+
+		verify(qcSummaryUpdater).updateSummaryForSequencingObject(seqObject);
+	}
+
+	@Test
+	public void testFailOnRemovedObjectStopsChain() throws FileProcessorTimeoutException {
+		FileProcessor nextProcessor = mock(FileProcessor.class);
+		DefaultFileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository,
+				qcRepository, new FailingFileProcessor(), nextProcessor);
+		SampleQCSummaryUpdater qcSummaryUpdater = mock(SampleQCSummaryUpdater.class);
+		fileProcessingChain.setSampleQCSummaryUpdater(qcSummaryUpdater);
+		when(objectRepository.findById(objectId)).thenReturn(Optional.of(seqObject), Optional.empty());
+
+		List<Exception> exceptions = fileProcessingChain.launchChain(objectId);
+
+		assertEquals("the failure should be reported", 1, exceptions.size());
+		verify(nextProcessor, never()).shouldProcessFile(any(SequencingObject.class));
+		verify(qcRepository, never()).save(any(QCEntry.class));
+		verify(qcSummaryUpdater, never()).updateSummaryForSequencingObject(any(SequencingObject.class));
+		verify(objectRepository, never()).save(any(SequencingObject.class));
+	}
+
 	@Test
 	public void testFailWriteQCEntry() throws FileProcessorTimeoutException {
 		FileProcessingChain fileProcessingChain = new DefaultFileProcessingChain(objectRepository, qcRepository,
@@ -156,6 +225,19 @@ public class DefaultFileProcessingChainTest {
 
 	}
 
+	private static class FailingAnalysisFileProcessor implements FileProcessor {
+
+		@Override
+		public Boolean modifiesFile() {
+			return true;
+		}
+
+		@Override
+		public void process(SequencingObject sequencingObject) {
+			throw new FileProcessorAnalysisException("I modified the file, but couldn't analyze it.");
+		}
+	}
+
 	/**
 	 * Sequencing object which contains no files for testing
 	 */
@@ -10,6 +10,8 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.Fast5Object;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisOutputFile;
@@ -24,6 +26,7 @@ import org.springframework.util.ReflectionUtils;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.OverrepresentedSequence;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFilePair;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
 import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFastQC;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
@@ -135,6 +138,61 @@ public class FastqcFileProcessorTest {
 
 	}
 
+	@Test
+	public void testHandlePairConcurrently() throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		fileProcessor.setFileExecutor(executor);
+
+		SequenceFile forward = new SequenceFile(createFastq());
+		forward.setId(1L);
+		SequenceFile reverse = new SequenceFile(createFastq());
+		reverse.setId(2L);
+
+		try {
+			fileProcessor.process(new SequenceFilePair(forward, reverse));
+		} finally {
+			executor.shutdown();
+		}
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository, times(2)).saveMetadata(argument.capture());
+		for (SequenceFile updatedFile : argument.getAllValues()) {
+			assertNotNull("FastQC analysis should be set", updatedFile.getFastQCAnalysis());
+			assertEquals("Total sequences was not correct.", Integer.valueOf(2),
+					updatedFile.getFastQCAnalysis().getTotalSequences());
+		}
+
+		verify(outputFileRepository, times(6)).save(any(AnalysisOutputFile.class));
+	}
+
+	@Test(expected = FileProcessorException.class)
+	public void testHandlePairConcurrentlyFails() throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		fileProcessor.setFileExecutor(executor);
+
+		Path fasta = Files.createTempFile(null, null);
+		Files.write(fasta, FASTA_FILE_CONTENTS.getBytes());
+		Runtime.getRuntime().addShutdownHook(new DeleteFileOnExit(fasta));
+
+		SequenceFile forward = new SequenceFile(createFastq());
+		forward.setId(1L);
+		SequenceFile reverse = new SequenceFile(fasta);
+		reverse.setId(2L);
+
+		try {
+			fileProcessor.process(new SequenceFilePair(forward, reverse));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Path createFastq() throws IOException {
+		Path fastq = Files.createTempFile(null, null);
+		Files.write(fastq, FASTQ_FILE_CONTENTS.getBytes());
+		Runtime.getRuntime().addShutdownHook(new DeleteFileOnExit(fastq));
+		return fastq;
+	}
+
 	private static final class DeleteFileOnExit extends Thread {
 
 		private final Path fileToDelete;
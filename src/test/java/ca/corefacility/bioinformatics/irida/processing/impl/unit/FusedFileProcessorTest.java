@@ -0,0 +1,215 @@
+package ca.corefacility.bioinformatics.irida.processing.impl.unit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.MessageSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
+import ca.corefacility.bioinformatics.irida.model.workflow.analysis.AnalysisFastQC;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorAnalysisException;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
+import ca.corefacility.bioinformatics.irida.processing.impl.ChecksumFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.FastqcFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.FusedFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.GzipFileProcessor;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisOutputFileRepository;
+import ca.corefacility.bioinformatics.irida.repositories.filesystem.ContentAddressedFileStore;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+
+/**
+ * Tests for {@link FusedFileProcessor}.
+ */
+public class FusedFileProcessorTest {
+	private FusedFileProcessor fileProcessor;
+	private SequenceFileRepository sequenceFileRepository;
+	private GzipFileProcessor gzipFileProcessor;
+
+	private static final String SEQUENCE = "ACGTACGTN";
+	private static final String FASTQ_FILE_CONTENTS = "@testread\n" + SEQUENCE + "\n+\n?????????\n@testread2\n"
+			+ SEQUENCE + "\n+\n?????????";
+	private static final String FASTA_FILE_CONTENTS = ">test read\n" + SEQUENCE;
+
+	@Before
+	public void setUp() {
+		sequenceFileRepository = mock(SequenceFileRepository.class);
+		when(sequenceFileRepository.save(any(SequenceFile.class))).thenAnswer(i -> i.getArguments()[0]);
+		gzipFileProcessor = new GzipFileProcessor(sequenceFileRepository);
+
+		FastqcFileProcessor fastqcFileProcessor = new FastqcFileProcessor(mock(MessageSource.class),
+				sequenceFileRepository, mock(AnalysisOutputFileRepository.class));
+		fileProcessor = new FusedFileProcessor(sequenceFileRepository, new ChecksumFileProcessor(sequenceFileRepository),
+				gzipFileProcessor, fastqcFileProcessor, mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	public void testHandleFastqFile() throws IOException {
+		Path fastq = Files.createTempFile(null, ".fastq");
+		Files.write(fastq, FASTQ_FILE_CONTENTS.getBytes());
+
+		SequenceFile sf = new SequenceFile(fastq);
+		sf.setId(1L);
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository).saveMetadata(argument.capture());
+		SequenceFile updatedFile = argument.getValue();
+
+		assertEquals("checksums should be equal", DigestUtils.sha256Hex(FASTQ_FILE_CONTENTS.getBytes()),
+				updatedFile.getUploadSha256());
+
+		AnalysisFastQC updated = updatedFile.getFastQCAnalysis();
+		assertNotNull("FastQC analysis should be set", updated);
+		assertEquals("Total sequences was not correct.", Integer.valueOf(2), updated.getTotalSequences());
+		assertEquals("Total number of bases was not correct.", Long.valueOf(SEQUENCE.length() * 2),
+				updated.getTotalBases());
+		assertEquals("GC Content was not set correctly.", Short.valueOf((short) 50), updated.getGcContent());
+
+
+		Files.deleteIfExists(fastq);
+	}
+
+	@Test
+	public void testHandleCompressedFastqFile() throws IOException {
+		Path fastq = Files.createTempFile(null, ".fastq.gz");
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(fastq))) {
+			out.write(FASTQ_FILE_CONTENTS.getBytes());
+		}
+		byte[] compressed = Files.readAllBytes(fastq);
+
+		gzipFileProcessor.setRemoveCompressedFiles(true);
+
+		SequenceFile sf = new SequenceFile(fastq);
+		sf.setId(1L);
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository).save(argument.capture());
+		SequenceFile updatedFile = argument.getValue();
+
+		assertEquals("checksum should be of the uploaded compressed file", DigestUtils.sha256Hex(compressed),
+				updatedFile.getUploadSha256());
+		assertEquals("Total sequences was not correct.", Integer.valueOf(2),
+				updatedFile.getFastQCAnalysis().getTotalSequences());
+
+		Path decompressed = updatedFile.getFile();
+		assertFalse("decompressed file should not have the gzip extension",
+				decompressed.getFileName().toString().endsWith(".gz"));
+		assertEquals("decompressed contents should match the original", FASTQ_FILE_CONTENTS,
+				new String(Files.readAllBytes(decompressed)));
+		assertFalse("compressed file should have been removed", Files.exists(fastq));
+
+		Files.deleteIfExists(decompressed);
+	}
+
+	@Test
+	public void testIdenticalUploadsShareUncompressedRevision() throws IOException {
+		ContentAddressedFileStore contentStore = new ContentAddressedFileStore(Files.createTempDirectory(null), true);
+		when(sequenceFileRepository.deduplicateFile(any(Path.class), anyString())).thenAnswer(
+				i -> contentStore.deduplicate((Path) i.getArguments()[0], (String) i.getArguments()[1]));
+
+		SequenceFile first = compressedFastqFile(1L);
+		SequenceFile second = compressedFastqFile(2L);
+
+		fileProcessor.process(new SingleEndSequenceFile(first));
+		fileProcessor.process(new SingleEndSequenceFile(second));
+
+		assertEquals("the uncompressed checksum should be recorded",
+				DigestUtils.sha256Hex(FASTQ_FILE_CONTENTS.getBytes()), first.getProcessedSha256());
+		assertEquals("decompressed contents should match the original", FASTQ_FILE_CONTENTS,
+				new String(Files.readAllBytes(second.getFile())));
+		assertNotEquals("uploads should be separate revisions", first.getFile(), second.getFile());
+		assertTrue("uncompressed revisions should share stored content",
+				Files.isSameFile(first.getFile(), second.getFile()));
+	}
+
+	@Test
+	public void testKeepCompressedFastqFile() throws IOException {
+		Path fastq = Files.createTempFile(null, null);
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(fastq))) {
+			out.write(FASTQ_FILE_CONTENTS.getBytes());
+		}
+		byte[] compressed = Files.readAllBytes(fastq);
+
+		fileProcessor.setDecompressFiles(false);
+
+		SequenceFile sf = new SequenceFile(fastq);
+		sf.setId(1L);
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository).save(argument.capture());
+		SequenceFile updatedFile = argument.getValue();
+
+		assertEquals("Total sequences was not correct.", Integer.valueOf(2),
+				updatedFile.getFastQCAnalysis().getTotalSequences());
+		assertTrue("file should be renamed with the gzip extension",
+				updatedFile.getFile().getFileName().toString().endsWith(".gz"));
+		assertArrayEquals("file should still be compressed", compressed,
+				Files.readAllBytes(updatedFile.getFile()));
+
+		Files.deleteIfExists(updatedFile.getFile());
+	}
+
+	@Test
+	public void testFastqcFailurePassedToChain() throws IOException {
+		Path fasta = Files.createTempFile(null, null);
+		Files.write(fasta, FASTA_FILE_CONTENTS.getBytes());
+
+		SequenceFile sf = new SequenceFile(fasta);
+		sf.setId(1L);
+		SingleEndSequenceFile so = new SingleEndSequenceFile(sf);
+
+		try {
+			fileProcessor.process(so);
+			fail("the FastQC failure should be passed on to the chain");
+		} catch (FileProcessorAnalysisException e) {
+			// expected
+		}
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository).saveMetadata(argument.capture());
+		assertEquals("checksum should still be set", DigestUtils.sha256Hex(FASTA_FILE_CONTENTS.getBytes()),
+				argument.getValue().getUploadSha256());
+		assertNull("FastQC analysis should not be set", argument.getValue().getFastQCAnalysis());
+
+
+		Files.deleteIfExists(fasta);
+	}
+
+	private SequenceFile compressedFastqFile(Long id) throws IOException {
+		Path fastq = Files.createTempFile(null, ".fastq.gz");
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(fastq))) {
+			out.write(FASTQ_FILE_CONTENTS.getBytes());
+		}
+
+		SequenceFile sf = new SequenceFile(fastq);
+		sf.setId(id);
+		return sf;
+	}
+
+	@Test(expected = FileProcessorException.class)
+	public void testFileNotExists() {
+		SequenceFile sf = new SequenceFile(Paths.get("/reallyfakefile"));
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+	}
+}
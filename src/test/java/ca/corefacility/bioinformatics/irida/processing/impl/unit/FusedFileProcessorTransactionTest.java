@@ -0,0 +1,130 @@
+package ca.corefacility.bioinformatics.irida.processing.impl.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.Fast5Object;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessorAnalysisException;
+import ca.corefacility.bioinformatics.irida.processing.impl.ChecksumFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.FastqcFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.FusedFileProcessor;
+import ca.corefacility.bioinformatics.irida.processing.impl.GzipFileProcessor;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisOutputFileRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+
+/**
+ * Tests for the transactions of {@link FusedFileProcessor}, with the processors proxied by a real transaction
+ * manager.
+ */
+public class FusedFileProcessorTransactionTest {
+	// FastQC reads the file by its extension, and fails on content that isn't FASTQ
+	private static final String FAST5_CONTENTS = "not a fastq file\n";
+
+	// kept out of the context so the mocks aren't proxied
+	private static SequenceFileRepository sequenceFileRepository;
+	private static Connection connection;
+
+	private AnnotationConfigApplicationContext context;
+	private FusedFileProcessor fileProcessor;
+
+	@Before
+	public void setUp() {
+		sequenceFileRepository = mock(SequenceFileRepository.class);
+		when(sequenceFileRepository.saveMetadata(any(SequenceFile.class))).thenAnswer(i -> i.getArguments()[0]);
+		connection = mock(Connection.class);
+
+		context = new AnnotationConfigApplicationContext(TransactionConfig.class);
+		fileProcessor = context.getBean(FusedFileProcessor.class);
+	}
+
+	@After
+	public void tearDown() {
+		context.close();
+	}
+
+	@Test
+	public void testFastqcFailsOnFast5() throws IOException, SQLException {
+		Path fast5 = Files.createTempFile(null, ".fastq");
+		Files.write(fast5, FAST5_CONTENTS.getBytes());
+		SequenceFile sf = new SequenceFile(fast5);
+		sf.setId(1L);
+		Fast5Object fast5Object = new Fast5Object(sf);
+		fast5Object.setFast5Type(Fast5Object.Fast5Type.SINGLE);
+
+		try {
+			fileProcessor.process(fast5Object);
+			fail("the FastQC failure should be passed to the chain");
+		} catch (FileProcessorAnalysisException e) {
+			// expected
+		}
+
+		assertEquals("the checksum should be kept", DigestUtils.sha256Hex(FAST5_CONTENTS), sf.getUploadSha256());
+		verify(sequenceFileRepository).saveMetadata(sf);
+		// only the failed FastQC transaction is rolled back
+		verify(connection).rollback();
+		verify(connection, never()).commit();
+
+		Files.delete(fast5);
+	}
+
+	@Configuration
+	@EnableTransactionManagement(proxyTargetClass = true)
+	static class TransactionConfig {
+		@Bean
+		public PlatformTransactionManager transactionManager() throws SQLException {
+			DataSource dataSource = mock(DataSource.class);
+			when(dataSource.getConnection()).thenReturn(connection);
+			return new DataSourceTransactionManager(dataSource);
+		}
+
+		@Bean
+		public ChecksumFileProcessor checksumFileProcessor() {
+			return new ChecksumFileProcessor(sequenceFileRepository);
+		}
+
+		@Bean
+		public GzipFileProcessor gzipFileProcessor() {
+			return new GzipFileProcessor(sequenceFileRepository);
+		}
+
+		@Bean
+		public FastqcFileProcessor fastqcFileProcessor() {
+			return new FastqcFileProcessor(mock(MessageSource.class), sequenceFileRepository,
+					mock(AnalysisOutputFileRepository.class));
+		}
+
+		@Bean
+		public FusedFileProcessor fusedFileProcessor(ChecksumFileProcessor checksumFileProcessor,
+				GzipFileProcessor gzipFileProcessor, FastqcFileProcessor fastqcFileProcessor,
+				PlatformTransactionManager transactionManager) {
+			return new FusedFileProcessor(sequenceFileRepository, checksumFileProcessor, gzipFileProcessor,
+					fastqcFileProcessor, transactionManager);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package ca.corefacility.bioinformatics.irida.processing.impl.unit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ca.corefacility.bioinformatics.irida.processing.impl.GzipDecompressor;
+
+/**
+ * Compares the previous {@link GZIPInputStream} and {@link Files#copy(InputStream, Path, java.nio.file.CopyOption...)}
+ * decompression against {@link GzipDecompressor} in single stream and parallel BGZF modes. This isn't matched by the
+ * surefire test patterns, so it only runs when asked for:
+ *
+ * <pre>
+ * mvn test -Dtest=GzipDecompressorBenchmark [-Dbenchmark.fastq=/path/to/reads.fastq] [-Dbenchmark.threads=4]
+ * </pre>
+ *
+ * The FASTQ is compressed as both plain gzip and BGZF before timing. Without <code>benchmark.fastq</code> a synthetic
+ * FASTQ of about 200 MB is generated.
+ */
+public class GzipDecompressorBenchmark {
+	private static final Logger logger = LoggerFactory.getLogger(GzipDecompressorBenchmark.class);
+
+	private static final int ITERATIONS = 3;
+
+	@Test
+	public void benchmark() throws IOException {
+		int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime()
+				.availableProcessors());
+		byte[] fastq = loadFastq();
+
+		Path gzip = Files.createTempFile(null, ".fastq.gz");
+		Path bgzf = Files.createTempFile(null, ".fastq.gz");
+		GzipDecompressorTest.writeGzip(gzip, fastq);
+		GzipDecompressorTest.writeBgzf(bgzf, fastq);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			GzipDecompressor single = new GzipDecompressor();
+			GzipDecompressor parallel = new GzipDecompressor(executor);
+
+			logger.info("Decompressing " + fastq.length / (1024 * 1024) + " MiB of FASTQ, best of " + ITERATIONS
+					+ " runs, " + threads + " threads");
+			report("gzip, previous GZIPInputStream copy", fastq.length, time(gzip, this::copyStream));
+			report("gzip, GzipDecompressor single stream", fastq.length, time(gzip, single::decompress));
+			report("bgzf, previous GZIPInputStream copy", fastq.length, time(bgzf, this::copyStream));
+			report("bgzf, GzipDecompressor single stream", fastq.length, time(bgzf, single::decompress));
+			report("bgzf, GzipDecompressor parallel", fastq.length, time(bgzf, parallel::decompress));
+		} finally {
+			executor.shutdown();
+			Files.deleteIfExists(gzip);
+			Files.deleteIfExists(bgzf);
+		}
+	}
+
+	private void copyStream(Path source, Path target) throws IOException {
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(source))) {
+			Files.copy(in, target);
+		}
+	}
+
+	private static long time(Path source, Decompression decompression) throws IOException {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < ITERATIONS; i++) {
+			Path target = Files.createTempDirectory(null)
+					.resolve("decompressed.fastq");
+			long start = System.nanoTime();
+			decompression.decompress(source, target);
+			best = Math.min(best, System.nanoTime() - start);
+			Files.delete(target);
+		}
+		return best;
+	}
+
+	private static void report(String mode, long bytes, long nanos) {
+		double seconds = nanos / 1e9;
+		logger.info(String.format("%-40s %8.3f s %8.1f MiB/s", mode, seconds, bytes / (1024.0 * 1024.0) / seconds));
+	}
+
+	private static byte[] loadFastq() throws IOException {
+		String file = System.getProperty("benchmark.fastq");
+		if (file != null) {
+			return Files.readAllBytes(Paths.get(file));
+		}
+
+		Random random = new Random(42);
+		char[] bases = { 'A', 'C', 'G', 'T' };
+		StringBuilder builder = new StringBuilder();
+		char[] sequence = new char[150];
+		char[] quality = new char[150];
+		for (int read = 0; builder.length() < 200 * 1024 * 1024; read++) {
+			for (int i = 0; i < sequence.length; i++) {
+				sequence[i] = bases[random.nextInt(bases.length)];
+				quality[i] = (char) ('5' + random.nextInt(10));
+			}
+			builder.append("@read").append(read).append('\n').append(sequence).append("\n+\n").append(quality)
+					.append('\n');
+		}
+		return builder.toString()
+				.getBytes();
+	}
+
+	@FunctionalInterface
+	private interface Decompression {
+		void decompress(Path source, Path target) throws IOException;
+	}
+}
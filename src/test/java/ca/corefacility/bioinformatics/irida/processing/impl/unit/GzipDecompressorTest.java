@@ -0,0 +1,192 @@
+package ca.corefacility.bioinformatics.irida.processing.impl.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ca.corefacility.bioinformatics.irida.processing.impl.GzipDecompressor;
+
+/**
+ * Tests for {@link GzipDecompressor}.
+ */
+public class GzipDecompressorTest {
+	private static final int BGZF_BLOCK_INPUT_SIZE = 65280;
+
+	private ExecutorService executor;
+	private byte[] contents;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+
+		StringBuilder fastq = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			fastq.append("@read").append(i).append("\nACGTACGTNACGTTTGA\n+\n?????????????????\n");
+		}
+		contents = fastq.toString().getBytes();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testDecompressGzip() throws IOException {
+		Path compressed = Files.createTempFile(null, ".gz");
+		writeGzip(compressed, contents);
+
+		assertArrayEquals("contents should match", contents, decompress(new GzipDecompressor(executor), compressed));
+		assertArrayEquals("contents should match", contents, decompress(new GzipDecompressor(), compressed));
+	}
+
+	@Test
+	public void testDecompressConcatenatedGzip() throws IOException {
+		Path compressed = Files.createTempFile(null, ".gz");
+		int half = contents.length / 2;
+		try (OutputStream out = Files.newOutputStream(compressed)) {
+			out.write(gzip(Arrays.copyOfRange(contents, 0, half)));
+			out.write(gzip(Arrays.copyOfRange(contents, half, contents.length)));
+		}
+
+		assertArrayEquals("contents should match", contents, decompress(new GzipDecompressor(executor), compressed));
+	}
+
+	@Test
+	public void testDecompressBgzf() throws IOException {
+		Path compressed = Files.createTempFile(null, ".gz");
+		writeBgzf(compressed, contents);
+
+		assertArrayEquals("contents should match", contents, decompress(new GzipDecompressor(executor), compressed));
+		assertArrayEquals("contents should match", contents, decompress(new GzipDecompressor(), compressed));
+	}
+
+	@Test
+	public void testDecompressBgzfFollowedByGzip() throws IOException {
+		Path compressed = Files.createTempFile(null, ".gz");
+		writeBgzf(compressed, contents);
+		byte[] gzipped = gzip(contents);
+		Files.write(compressed, gzipped, StandardOpenOption.APPEND);
+
+		byte[] expected = new byte[contents.length * 2];
+		System.arraycopy(contents, 0, expected, 0, contents.length);
+		System.arraycopy(contents, 0, expected, contents.length, contents.length);
+
+		assertArrayEquals("contents should match", expected, decompress(new GzipDecompressor(executor), compressed));
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptBgzf() throws IOException {
+		Path compressed = Files.createTempFile(null, ".gz");
+		writeBgzf(compressed, contents);
+
+		// flip a bit in the first block's CRC
+		byte[] bytes = Files.readAllBytes(compressed);
+		int firstBlockSize = (Short.toUnsignedInt(ByteBuffer.wrap(bytes, 16, 2)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.getShort())) + 1;
+		bytes[firstBlockSize - 8] ^= 1;
+		Files.write(compressed, bytes);
+
+		decompress(new GzipDecompressor(executor), compressed);
+	}
+
+	private static byte[] decompress(GzipDecompressor decompressor, Path compressed) throws IOException {
+		Path target = Files.createTempDirectory(null)
+				.resolve("decompressed");
+		try {
+			decompressor.decompress(compressed, target);
+			return Files.readAllBytes(target);
+		} finally {
+			Files.deleteIfExists(target);
+		}
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(data);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write data as a single gzip member.
+	 *
+	 * @param file the file to write
+	 * @param data the uncompressed data
+	 * @throws IOException if the file couldn't be written
+	 */
+	static void writeGzip(Path file, byte[] data) throws IOException {
+		Files.write(file, gzip(data));
+	}
+
+	/**
+	 * Write data in the blocked gzip format used by bgzip, including the empty end-of-file block.
+	 *
+	 * @param file the file to write
+	 * @param data the uncompressed data
+	 * @throws IOException if the file couldn't be written
+	 */
+	static void writeBgzf(Path file, byte[] data) throws IOException {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		byte[] compressed = new byte[BGZF_BLOCK_INPUT_SIZE + 1024];
+
+		try (OutputStream out = Files.newOutputStream(file)) {
+			int offset = 0;
+			do {
+				int length = Math.min(BGZF_BLOCK_INPUT_SIZE, data.length - offset);
+
+				deflater.reset();
+				deflater.setInput(data, offset, length);
+				deflater.finish();
+				int compressedLength = 0;
+				while (!deflater.finished()) {
+					compressedLength += deflater.deflate(compressed, compressedLength,
+							compressed.length - compressedLength);
+				}
+
+				CRC32 crc = new CRC32();
+				crc.update(data, offset, length);
+
+				ByteBuffer block = ByteBuffer.allocate(18 + compressedLength + 8)
+						.order(ByteOrder.LITTLE_ENDIAN);
+				block.put(new byte[] { 31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255 });
+				block.putShort((short) 6);
+				block.put((byte) 'B')
+						.put((byte) 'C')
+						.putShort((short) 2);
+				block.putShort((short) (block.capacity() - 1));
+				block.put(compressed, 0, compressedLength);
+				block.putInt((int) crc.getValue());
+				block.putInt(length);
+				out.write(block.array());
+
+				offset += length;
+			} while (offset < data.length);
+
+			// bgzip end-of-file marker
+			out.write(new byte[] { 31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 66, 67, 2, 0, 27, 0, 3, 0,
+					0, 0, 0, 0, 0, 0, 0, 0 });
+		} finally {
+			deflater.end();
+		}
+	}
+}
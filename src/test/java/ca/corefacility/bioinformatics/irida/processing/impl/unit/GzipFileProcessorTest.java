@@ -1,9 +1,11 @@
 package ca.corefacility.bioinformatics.irida.processing.impl.unit;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,10 +20,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
 import ca.corefacility.bioinformatics.irida.processing.FileProcessorException;
 import ca.corefacility.bioinformatics.irida.processing.impl.GzipFileProcessor;
+import ca.corefacility.bioinformatics.irida.repositories.filesystem.ContentAddressedFileStore;
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
 
 /**
@@ -38,6 +43,7 @@ public class GzipFileProcessorTest {
 	@Before
 	public void setUp() {
 		sequenceFileRepository = mock(SequenceFileRepository.class);
+		when(sequenceFileRepository.save(any(SequenceFile.class))).thenAnswer(i -> i.getArguments()[0]);
 		fileProcessor = new GzipFileProcessor(sequenceFileRepository, Boolean.FALSE);
 	}
 
@@ -169,6 +175,90 @@ public class GzipFileProcessorTest {
 		}
 	}
 
+	@Test
+	public void handleKeepCompressedFileWithoutGzExtension() throws IOException {
+		// the file processor should only rename the file, then update the
+		// sequence file in the database.
+		fileProcessor.setKeepCompressedFiles(true);
+		SequenceFile sf = constructSequenceFile();
+		sf.setId(1L);
+
+		Path uncompressed = sf.getFile();
+		Path compressed = Files.createTempFile(null, null);
+		GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed));
+		Files.copy(uncompressed, out);
+		out.close();
+		byte[] compressedContents = Files.readAllBytes(compressed);
+
+		sf.setFile(compressed);
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+
+		ArgumentCaptor<SequenceFile> argument = ArgumentCaptor.forClass(SequenceFile.class);
+		verify(sequenceFileRepository).save(argument.capture());
+		Path renamed = argument.getValue().getFile();
+
+		assertTrue("file should be renamed with the gzip extension", renamed.toString().endsWith(".gz"));
+		assertArrayEquals("file should still be compressed", compressedContents, Files.readAllBytes(renamed));
+		Files.delete(uncompressed);
+		Files.delete(renamed);
+	}
+
+	@Test
+	public void handleKeepCompressedFileWithGzExtension() throws IOException {
+		// the file processor shouldn't need to do anything
+		fileProcessor.setKeepCompressedFiles(true);
+		SequenceFile sf = constructSequenceFile();
+
+		Path uncompressed = sf.getFile();
+		Path compressed = Files.createTempFile(null, ".gz");
+		GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed));
+		Files.copy(uncompressed, out);
+		out.close();
+
+		sf.setFile(compressed);
+
+		fileProcessor.process(new SingleEndSequenceFile(sf));
+
+		verify(sequenceFileRepository, times(0)).save(any(SequenceFile.class));
+		assertEquals("file should not have changed", compressed, sf.getFile());
+		Files.delete(uncompressed);
+		Files.delete(compressed);
+	}
+
+	@Test
+	public void testIdenticalUploadsShareUncompressedRevision() throws IOException {
+		ContentAddressedFileStore contentStore = new ContentAddressedFileStore(Files.createTempDirectory(null), true);
+		when(sequenceFileRepository.deduplicateFile(any(Path.class), anyString())).thenAnswer(
+				i -> contentStore.deduplicate((Path) i.getArguments()[0], (String) i.getArguments()[1]));
+
+		SequenceFile first = constructCompressedSequenceFile();
+		SequenceFile second = constructCompressedSequenceFile();
+
+		fileProcessor.process(new SingleEndSequenceFile(first));
+		fileProcessor.process(new SingleEndSequenceFile(second));
+
+		assertEquals("the uncompressed checksum should be recorded", DigestUtils.sha256Hex(FILE_CONTENTS),
+				first.getProcessedSha256());
+		assertEquals("uncompressed file should have the original contents", FILE_CONTENTS,
+				new String(Files.readAllBytes(second.getFile())));
+		assertFalse("uploads should be separate revisions", first.getFile().equals(second.getFile()));
+		assertTrue("uncompressed revisions should share stored content",
+				Files.isSameFile(first.getFile(), second.getFile()));
+	}
+
+	private SequenceFile constructCompressedSequenceFile() throws IOException {
+		SequenceFile sf = constructSequenceFile();
+		Path uncompressed = sf.getFile();
+		Path compressed = Files.createTempFile(null, ".gz");
+		try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+			Files.copy(uncompressed, out);
+		}
+		Files.delete(uncompressed);
+		sf.setFile(compressed);
+		return sf;
+	}
+
 	private SequenceFile constructSequenceFile() throws IOException {
 		SequenceFile sf = new SequenceFile();
 		Path sequenceFile = Files.createTempFile(null, null);
@@ -0,0 +1,142 @@
+package ca.corefacility.bioinformatics.irida.repositories.filesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ContentAddressedFileStore}.
+ */
+public class ContentAddressedFileStoreTest {
+	private static final String CONTENT = "@read\nACGT\n+\nIIII\n";
+	private static final String SHA256 = DigestUtils.sha256Hex(CONTENT);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path baseDirectory;
+	private ContentAddressedFileStore store;
+
+	@Before
+	public void setUp() throws IOException {
+		baseDirectory = folder.newFolder()
+				.toPath();
+		store = new ContentAddressedFileStore(baseDirectory, true);
+	}
+
+	@Test
+	public void testDeduplicateSharesContent() throws IOException {
+		Path first = writeFile("1", CONTENT);
+		Path second = writeFile("2", CONTENT);
+
+		assertFalse("the first file should be stored", store.deduplicate(first, SHA256));
+		assertTrue("the second file should share the stored content", store.deduplicate(second, SHA256));
+
+		assertTrue("the files should be links to the same content", Files.isSameFile(first, second));
+		assertTrue("the content should be stored", Files.isSameFile(first, blob()));
+		assertEquals("the file content should not change", CONTENT,
+				new String(Files.readAllBytes(second), StandardCharsets.UTF_8));
+		assertTrue("deduplicating again should be harmless", store.deduplicate(second, SHA256));
+	}
+
+	@Test
+	public void testDeduplicateDifferentSize() throws IOException {
+		Path first = writeFile("1", CONTENT);
+		Path second = writeFile("2", CONTENT + CONTENT);
+
+		store.deduplicate(first, SHA256);
+
+		assertFalse("a file with a different size should not be linked", store.deduplicate(second, SHA256));
+		assertFalse("the files should not be linked", Files.isSameFile(first, second));
+	}
+
+	@Test
+	public void testDeduplicateInvalidChecksum() throws IOException {
+		Path file = writeFile("1", CONTENT);
+
+		assertFalse("a checksum that isn't a sha256 should be ignored", store.deduplicate(file, "../../etc"));
+		assertFalse("nothing should be stored", Files.exists(storeDirectory()));
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		store = new ContentAddressedFileStore(baseDirectory, false);
+		Path file = writeFile("1", CONTENT);
+
+		assertFalse("nothing should be stored", store.deduplicate(file, SHA256));
+		assertFalse("nothing should be stored", Files.exists(storeDirectory()));
+	}
+
+	@Test
+	public void testRelease() throws IOException {
+		Path first = writeFile("1", CONTENT);
+		Path second = writeFile("2", CONTENT);
+		store.deduplicate(first, SHA256);
+		store.deduplicate(second, SHA256);
+
+		Files.delete(first);
+		store.release(SHA256);
+		assertTrue("content still used by a file should be kept", Files.exists(blob()));
+
+		Files.delete(second);
+		store.release(SHA256);
+		assertFalse("content no file uses should be deleted", Files.exists(blob()));
+	}
+
+	@Test
+	public void testRemove() throws IOException {
+		Path first = writeFile("1", CONTENT);
+		Path second = writeFile("2", CONTENT);
+		store.deduplicate(first, SHA256);
+		store.deduplicate(second, SHA256);
+
+		store.remove(Paths.get("1"), SHA256);
+		assertFalse("the directory of the deleted file should be removed", Files.exists(baseDirectory.resolve("1")));
+		assertTrue("content still used by a file should be kept", Files.exists(blob()));
+
+		store.remove(Paths.get("2"), SHA256);
+		assertFalse("the directory of the deleted file should be removed", Files.exists(baseDirectory.resolve("2")));
+		assertFalse("content no file uses should be deleted", Files.exists(blob()));
+	}
+
+	@Test
+	public void testRemoveKeepsOtherFiles() throws IOException {
+		Path file = writeFile("1", CONTENT);
+		store.deduplicate(file, SHA256);
+		Path decompressed = Files.write(Files.createDirectories(baseDirectory.resolve("1/2"))
+				.resolve("file.fastq"), "other".getBytes(StandardCharsets.UTF_8));
+
+		store.remove(Paths.get("1"), SHA256);
+
+		assertFalse("the link to stored content should be deleted", Files.exists(file));
+		assertTrue("a revision that doesn't share stored content should be kept", Files.exists(decompressed));
+		assertFalse("content no file uses should be deleted", Files.exists(blob()));
+	}
+
+	private Path storeDirectory() {
+		return baseDirectory.resolve(ContentAddressedFileStore.STORE_DIRECTORY);
+	}
+
+	private Path blob() {
+		return storeDirectory().resolve(SHA256.substring(0, 2))
+				.resolve(SHA256);
+	}
+
+	private Path writeFile(String id, String content) throws IOException {
+		Path directory = Files.createDirectories(baseDirectory.resolve(id)
+				.resolve("1"));
+		return Files.write(directory.resolve("file.fastq"), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -1,6 +1,7 @@
 package ca.corefacility.bioinformatics.irida.repositories.filesystem;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
@@ -15,12 +16,14 @@ import java.util.UUID;
 
 import javax.persistence.EntityManager;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepositoryImpl;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepositoryImpl.StoredContentReleaseListener;
 import ca.corefacility.bioinformatics.irida.util.RecursiveDeleteVisitor;
 
 /**
@@ -33,16 +36,19 @@ public class SequenceFileRepositoryImplTest {
 	private FilesystemSupplementedRepositoryImpl<SequenceFile> repository;
 	private Path baseDirectory;
 	private EntityManager entityManager;
+	private ContentAddressedFileStore contentStore;
 
 	@Before
 	public void setUp() throws IOException {
 		baseDirectory = Files.createTempDirectory(TEMP_FILE_PREFIX);
 		entityManager = mock(EntityManager.class);
-		repository = new SequenceFileRepositoryImpl(entityManager, baseDirectory);
+		contentStore = new ContentAddressedFileStore(baseDirectory, true);
+		repository = new SequenceFileRepositoryImpl(entityManager, baseDirectory, contentStore);
 	}
 
 	@After
 	public void tearDown() throws IOException {
+		StoredContentReleaseListener.setContentStore(null);
 		Files.walkFileTree(baseDirectory, new RecursiveDeleteVisitor());
 	}
 
@@ -175,4 +181,27 @@ public class SequenceFileRepositoryImplTest {
 		Path file = original.getFile();
 		assertTrue(Files.exists(baseDirectory.resolve(file)));
 	}
+
+	@Test
+	public void testDeleteReleasesStoredContent() throws IOException {
+		Long lId = 9999L;
+		SequenceFile original = new SequenceFile(Files.write(getTempFile(), "content".getBytes()));
+		original.setId(lId);
+		when(entityManager.merge(original)).thenReturn(original);
+		original = repository.save(original);
+
+		String sha256 = DigestUtils.sha256Hex(Files.readAllBytes(original.getFile()));
+		original.setUploadSha256(sha256);
+		repository.deduplicateFile(original.getFile(), sha256);
+		Path blob = baseDirectory.resolve(ContentAddressedFileStore.STORE_DIRECTORY)
+				.resolve(sha256.substring(0, 2))
+				.resolve(sha256);
+		assertTrue("the content should be stored", Files.exists(blob));
+
+		StoredContentReleaseListener.setContentStore(contentStore);
+		new StoredContentReleaseListener().releaseStoredContent(original);
+
+		assertFalse("the deleted file should be removed", Files.exists(original.getFile()));
+		assertFalse("content no file uses should be deleted", Files.exists(blob));
+	}
 }
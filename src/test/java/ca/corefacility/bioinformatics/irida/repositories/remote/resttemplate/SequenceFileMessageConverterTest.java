@@ -3,6 +3,7 @@ package ca.corefacility.bioinformatics.irida.repositories.remote.resttemplate;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -83,6 +84,72 @@ public class SequenceFileMessageConverterTest {
 		converter.read(Path.class, inputMessage);
 	}
 
+	@Test
+	public void testResumeRead() throws HttpMessageNotReadableException, IOException {
+		String message = "Some fastq file";
+		byte[] messageBytes = message.getBytes();
+
+		// the connection drops after the first 5 bytes
+		HttpInputMessage inputMessage = new MockHttpInputMessage(Arrays.copyOf(messageBytes, 5));
+		inputMessage.getHeaders()
+				.add("Content-Length", Long.toString(messageBytes.length));
+		inputMessage.getHeaders()
+				.setETag("\"abc\"");
+		try {
+			converter.read(Path.class, inputMessage);
+			fail("a partial file should not be read");
+		} catch (IOException e) {
+			assertEquals("the partial file should be kept", 5, converter.getDownloadedSize());
+			assertEquals("\"abc\"", converter.getETag());
+		}
+
+		inputMessage = new MockHttpInputMessage(Arrays.copyOfRange(messageBytes, 5, messageBytes.length));
+		inputMessage.getHeaders()
+				.add("Content-Length", Long.toString(messageBytes.length - 5));
+		inputMessage.getHeaders()
+				.add("Content-Range", "bytes 5-" + (messageBytes.length - 1) + "/" + messageBytes.length);
+		Path read = converter.read(Path.class, inputMessage);
+
+		assertEquals("the rest of the file should be appended", message, new String(Files.readAllBytes(read)));
+
+		Files.delete(read);
+	}
+
+	@Test
+	public void testRestartRead() throws HttpMessageNotReadableException, IOException {
+		String message = "Some fastq file";
+		byte[] messageBytes = message.getBytes();
+
+		HttpInputMessage inputMessage = new MockHttpInputMessage(Arrays.copyOf(messageBytes, 5));
+		inputMessage.getHeaders()
+				.add("Content-Length", Long.toString(messageBytes.length));
+		try {
+			converter.read(Path.class, inputMessage);
+			fail("a partial file should not be read");
+		} catch (IOException e) {
+			// expected
+		}
+
+		// the server sends the whole file again
+		inputMessage = new MockHttpInputMessage(messageBytes);
+		inputMessage.getHeaders()
+				.add("Content-Length", Long.toString(messageBytes.length));
+		Path read = converter.read(Path.class, inputMessage);
+
+		assertEquals("the file should be replaced", message, new String(Files.readAllBytes(read)));
+
+		Files.delete(read);
+	}
+
+	@Test(expected = IOException.class)
+	public void testResumeReadWrongOffset() throws HttpMessageNotReadableException, IOException {
+		byte[] messageBytes = "Some fastq file".getBytes();
+		HttpInputMessage inputMessage = new MockHttpInputMessage(Arrays.copyOfRange(messageBytes, 5, messageBytes.length));
+		inputMessage.getHeaders()
+				.add("Content-Range", "bytes 5-" + (messageBytes.length - 1) + "/" + messageBytes.length);
+		converter.read(Path.class, inputMessage);
+	}
+
 	@Test
 	public void testGetMediaTypes() {
 		List<MediaType> supportedMediaTypes = converter.getSupportedMediaTypes();
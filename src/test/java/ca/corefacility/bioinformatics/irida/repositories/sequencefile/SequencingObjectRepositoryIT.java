@@ -0,0 +1,115 @@
+package ca.corefacility.bioinformatics.irida.repositories.sequencefile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.DbUnitTestExecutionListener;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import ca.corefacility.bioinformatics.irida.config.data.IridaApiJdbcDataSourceConfig;
+import ca.corefacility.bioinformatics.irida.config.services.IridaApiServicesConfig;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject.ProcessingState;
+
+/**
+ * Tests for claiming {@link ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject}s for file
+ * processing in {@link SequencingObjectRepositoryImpl}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(loader = AnnotationConfigContextLoader.class, classes = { IridaApiServicesConfig.class,
+		IridaApiJdbcDataSourceConfig.class })
+@ActiveProfiles("it")
+@TestExecutionListeners({ DependencyInjectionTestExecutionListener.class, DbUnitTestExecutionListener.class })
+@DatabaseSetup("/ca/corefacility/bioinformatics/irida/repositories/sequencefile/SequencingObjectRepositoryIT.xml")
+@DatabaseTearDown("/ca/corefacility/bioinformatics/irida/test/integration/TableReset.xml")
+public class SequencingObjectRepositoryIT {
+	private static final String PROCESSOR = "this-processor";
+	private static final String OTHER_PROCESSOR = "other-processor";
+
+	@Autowired
+	private SequencingObjectRepository sequencingObjectRepository;
+
+	@Test
+	public void testClaimUnprocessedOldestFirst() {
+		int claimed = sequencingObjectRepository.claimUnprocessedSequencingObjects(PROCESSOR, ProcessingState.QUEUED,
+				2);
+
+		assertEquals("should claim at most the limit", 2, claimed);
+		assertEquals("should claim the oldest objects", Sets.newHashSet(2L, 3L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.QUEUED, PROCESSOR)));
+	}
+
+	@Test
+	public void testClaimUnprocessedSkipsOtherProcessors() {
+		int claimed = sequencingObjectRepository.claimUnprocessedSequencingObjects(PROCESSOR, ProcessingState.QUEUED,
+				10);
+
+		assertEquals("should claim every unprocessed object", 4, claimed);
+		assertEquals("other processor should keep its claim", Sets.newHashSet(1L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.QUEUED, OTHER_PROCESSOR)));
+	}
+
+	@Test
+	public void testClaimUnprocessedReclaimsStaleMark() {
+		int claimed = sequencingObjectRepository.claimUnprocessedSequencingObjects(PROCESSOR, ProcessingState.QUEUED,
+				10);
+
+		assertEquals("should claim every unprocessed object", 4, claimed);
+		assertEquals("should claim the object left unprocessed by another processor", Sets.newHashSet(2L, 3L, 4L, 6L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.QUEUED, PROCESSOR)));
+		assertTrue("no stale marks should be left",
+				sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.UNPROCESSED, OTHER_PROCESSOR).isEmpty());
+	}
+
+	@Test
+	public void testClaimSingleObject() {
+		assertTrue("should claim an unmarked object",
+				sequencingObjectRepository.claimSequencingObject(2L, PROCESSOR, ProcessingState.PROCESSING));
+		assertFalse("should not claim an object twice",
+				sequencingObjectRepository.claimSequencingObject(2L, OTHER_PROCESSOR, ProcessingState.PROCESSING));
+		assertFalse("should not claim an object queued by another processor",
+				sequencingObjectRepository.claimSequencingObject(1L, PROCESSOR, ProcessingState.PROCESSING));
+		assertTrue("should claim an object left unprocessed by another processor",
+				sequencingObjectRepository.claimSequencingObject(6L, PROCESSOR, ProcessingState.PROCESSING));
+
+		assertEquals("only the claimed objects should be processing", Sets.newHashSet(2L, 6L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.PROCESSING, PROCESSOR)));
+	}
+
+	@Test
+	public void testUpdateProcessingStateOnlyOwnedObjects() {
+		sequencingObjectRepository.claimUnprocessedSequencingObjects(PROCESSOR, ProcessingState.QUEUED, 10);
+
+		int updated = sequencingObjectRepository.updateProcessingState(ImmutableList.of(1L, 2L, 3L, 4L, 5L, 6L),
+				PROCESSOR, ProcessingState.QUEUED, ProcessingState.PROCESSING);
+
+		assertEquals("should only update queued objects this processor owns", 4, updated);
+		assertEquals("owned queued objects should be processing", Sets.newHashSet(2L, 3L, 4L, 6L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.PROCESSING, PROCESSOR)));
+		assertEquals("finished object should not change", Sets.newHashSet(5L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.FINISHED, PROCESSOR)));
+		assertEquals("other processor's object should not change", Sets.newHashSet(1L),
+				Sets.newHashSet(sequencingObjectRepository.getSequencingObjectIdsWithProcessingStateAndProcessor(
+						ProcessingState.QUEUED, OTHER_PROCESSOR)));
+	}
+}
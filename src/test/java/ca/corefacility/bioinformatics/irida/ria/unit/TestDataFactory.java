@@ -7,18 +7,15 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageImpl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -31,6 +28,7 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
@@ -230,79 +228,9 @@ public class TestDataFactory {
 		return projects;
 	}
 
-	public static Page<ProjectSampleJoin> getPageOfProjectSampleJoin() {
-		return new Page<ProjectSampleJoin>() {
-			@Override public int getTotalPages() {
-				return 1;
-			}
-
-			@Override public long getTotalElements() {
-				return 1;
-			}
-
-			@Override
-			public <U> Page<U> map(Function<? super ProjectSampleJoin, ? extends U> function) {
-				return null;
-			}
-
-			@Override public int getNumber() {
-				return 1;
-			}
-
-			@Override public int getSize() {
-				return 1;
-			}
-
-			@Override public int getNumberOfElements() {
-				return 1;
-			}
-
-			@Override public List<ProjectSampleJoin> getContent() {
-				Project project = new Project("Joined Project");
-				project.setId(1L);
-				Sample sample = new Sample("Joined Sample");
-				sample.setId(23L);
-				ProjectSampleJoin join = new ProjectSampleJoin(project, sample, true);
-				return ImmutableList.of(
-					join
-				);
-			}
-
-			@Override public boolean hasContent() {
-				return false;
-			}
-
-			@Override public Sort getSort() {
-				return null;
-			}
-
-			@Override public boolean isFirst() {
-				return false;
-			}
-
-			@Override public boolean isLast() {
-				return false;
-			}
-
-			@Override public boolean hasNext() {
-				return false;
-			}
-
-			@Override public boolean hasPrevious() {
-				return false;
-			}
-
-			@Override public Pageable nextPageable() {
-				return null;
-			}
-
-			@Override public Pageable previousPageable() {
-				return null;
-			}
-
-			@Override public Iterator<ProjectSampleJoin> iterator() {
-				return null;
-			}
-		};
+	public static Page<ProjectSampleRow> getPageOfProjectSampleRow() {
+		ProjectSampleRow row = new ProjectSampleRow(1L, 1L, "Joined Project", 23L, "Joined Sample", null, new Date(),
+				new Date(), true);
+		return new PageImpl<>(ImmutableList.of(row));
 	}
 }
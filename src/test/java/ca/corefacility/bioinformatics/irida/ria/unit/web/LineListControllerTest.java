@@ -1,21 +1,37 @@
 package ca.corefacility.bioinformatics.irida.ria.unit.web;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
 
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
 import ca.corefacility.bioinformatics.irida.ria.web.linelist.LineListController;
+import ca.corefacility.bioinformatics.irida.ria.web.linelist.dto.UISampleMetadata;
 import ca.corefacility.bioinformatics.irida.security.permissions.project.ProjectOwnerPermission;
 import ca.corefacility.bioinformatics.irida.security.permissions.sample.UpdateSamplePermission;
 import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.sample.MetadataTemplateService;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Unit test for {@link LineListController}
  */
@@ -52,6 +68,69 @@ public class LineListControllerTest {
 	public void testGetAllProjectMetadataEntries() {
 		long projectId = 1L;
 		lineListController.getProjectSamplesMetadataEntries(projectId);
-		verify(sampleService, times(1)).getSamplesForProject(any(Project.class));
+		verify(sampleService, times(1)).getSampleMetadataRowsForProject(any(Project.class), eq(0L), anyInt());
+	}
+
+	@Test
+	public void testStreamProjectMetadataEntries() throws IOException {
+		long projectId = 1L;
+		Project project = new Project("test");
+		ProjectSampleMetadataRow first = new ProjectSampleMetadataRow(3L, "first", new Date(), new Date(), false,
+				true);
+		first.getMetadata()
+				.put("irida-1", "value");
+		ProjectSampleMetadataRow second = new ProjectSampleMetadataRow(7L, "second", new Date(), new Date(), false,
+				false);
+
+		when(projectService.read(projectId)).thenReturn(project);
+		when(sampleService.getSampleMetadataRowsForProject(project, 0L, 2)).thenReturn(
+				ImmutableList.of(first, second));
+		when(updateSamplePermission.getUpdatableSampleIds(any(Authentication.class), anyCollectionOf(
+				ProjectSampleMetadataRow.class))).thenReturn(ImmutableSet.of(3L));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		lineListController.streamProjectSamplesMetadataEntries(projectId, 0L, 2, response);
+
+		verify(sampleService, times(1)).getSampleMetadataRowsForProject(project, 0L, 2);
+		assertEquals("application/x-ndjson", response.getContentType()
+				.split(";")[0]);
+
+		String[] lines = response.getContentAsString()
+				.split("\n");
+		assertEquals("there should be a line for each sample", 2, lines.length);
+
+		ObjectMapper mapper = new ObjectMapper();
+		Map<?, ?> firstLine = mapper.readValue(lines[0], Map.class);
+		assertEquals("3", firstLine.get(UISampleMetadata.SAMPLE_ID));
+		assertEquals("value", firstLine.get("irida-1"));
+		assertEquals("true", firstLine.get(UISampleMetadata.EDITABLE));
+
+		Map<?, ?> secondLine = mapper.readValue(lines[1], Map.class);
+		assertEquals("7", secondLine.get(UISampleMetadata.SAMPLE_ID));
+		assertEquals("false", secondLine.get(UISampleMetadata.EDITABLE));
+	}
+
+	@Test
+	public void testStreamAllProjectMetadataEntries() throws IOException {
+		long projectId = 1L;
+		Project project = new Project("test");
+		List<ProjectSampleMetadataRow> fullPage = new ArrayList<>();
+		for (long id = 1; id <= 500; id++) {
+			fullPage.add(new ProjectSampleMetadataRow(id, "sample" + id, new Date(), new Date(), false, true));
+		}
+
+		when(projectService.read(projectId)).thenReturn(project);
+		when(sampleService.getSampleMetadataRowsForProject(project, 0L, 500)).thenReturn(fullPage);
+		when(sampleService.getSampleMetadataRowsForProject(project, 500L, 500)).thenReturn(ImmutableList.of());
+		when(updateSamplePermission.getUpdatableSampleIds(any(Authentication.class), anyCollectionOf(
+				ProjectSampleMetadataRow.class))).thenReturn(ImmutableSet.of());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		lineListController.streamProjectSamplesMetadataEntries(projectId, 0L, null, response);
+
+		verify(sampleService, times(1)).getSampleMetadataRowsForProject(project, 0L, 500);
+		verify(sampleService, times(1)).getSampleMetadataRowsForProject(project, 500L, 500);
+		assertEquals("every sample should be streamed", 500, response.getContentAsString()
+				.split("\n").length);
 	}
 }
@@ -0,0 +1,97 @@
+package ca.corefacility.bioinformatics.irida.ria.unit.web.components.datatables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportToFile;
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportTypes;
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportable;
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.export.PagedExportIterator;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Unit tests for {@link DataTablesExportToFile} and {@link PagedExportIterator}
+ */
+public class DataTablesExportToFileTest {
+	private static final List<String> HEADERS = ImmutableList.of("id", "name");
+
+	@Test
+	public void testExportExcelInPages() throws IOException {
+		List<Integer> pagesRead = new ArrayList<>();
+		PagedExportIterator<Row> rows = new PagedExportIterator<>(() -> {
+			int page = pagesRead.size();
+			pagesRead.add(page);
+			List<Row> content = IntStream.range(page * 100, Math.min((page + 1) * 100, 250))
+					.mapToObj(Row::new)
+					.collect(Collectors.toList());
+			return new SliceImpl<>(content, PageRequest.of(page, 100), (page + 1) * 100 < 250);
+		});
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		DataTablesExportToFile.writeFile(DataTablesExportTypes.excel, response, "samples", HEADERS, rows);
+
+		assertEquals("each page should be read once", ImmutableList.of(0, 1, 2), pagesRead);
+		assertEquals("attachment; filename=samples.xlsx", response.getHeader("Content-disposition"));
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals("every row and the header should be written", 250, sheet.getLastRowNum());
+			assertEquals("id", sheet.getRow(0)
+					.getCell(0)
+					.getStringCellValue());
+			assertEquals("rows flushed from memory should be written", "row0", sheet.getRow(1)
+					.getCell(1)
+					.getStringCellValue());
+			assertEquals("the last row should be written", "row249", sheet.getRow(250)
+					.getCell(1)
+					.getStringCellValue());
+		}
+	}
+
+	@Test
+	public void testExportEmptyCsv() throws IOException {
+		PagedExportIterator<Row> rows = new PagedExportIterator<>(
+				() -> new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 100), false));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		DataTablesExportToFile.writeFile(DataTablesExportTypes.csv, response, "samples", HEADERS, rows);
+
+		assertEquals("only the header should be written", "\"id\",\"name\"\n", response.getContentAsString());
+		assertFalse("there should be no rows", rows.hasNext());
+	}
+
+	private static class Row implements DataTablesExportable {
+		private final int id;
+
+		public Row(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public List<String> getExportableTableRow() {
+			return ImmutableList.of(String.valueOf(id), "row" + id);
+		}
+
+		@Override
+		public List<String> getExportableTableHeaders(MessageSource messageSource, Locale locale) {
+			return HEADERS;
+		}
+	}
+}
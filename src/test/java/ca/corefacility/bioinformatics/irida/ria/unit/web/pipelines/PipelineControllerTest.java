@@ -21,6 +21,7 @@ import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyToolDat
 import ca.corefacility.bioinformatics.irida.ria.unit.TestDataFactory;
 import ca.corefacility.bioinformatics.irida.ria.web.cart.CartController;
 import ca.corefacility.bioinformatics.irida.ria.web.pipelines.PipelineController;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIPipelineLaunchService;
 import ca.corefacility.bioinformatics.irida.security.permissions.sample.UpdateSamplePermission;
 import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
 import ca.corefacility.bioinformatics.irida.service.ProjectService;
@@ -70,6 +71,7 @@ public class PipelineControllerTest {
 	private AnalysisSubmissionSampleProcessor analysisSubmissionSampleProcessor;
 	private GalaxyToolDataService galaxyToolDataService;
 	private TestEmailController emailController;
+	private UIPipelineLaunchService pipelineLaunchService;
 
 	@Before
 	public void setUp() {
@@ -85,11 +87,13 @@ public class PipelineControllerTest {
 		updateSamplePermission = mock(UpdateSamplePermission.class);
 		analysisSubmissionSampleProcessor = mock(AnalysisSubmissionSampleProcessor.class);
 		galaxyToolDataService = mock(GalaxyToolDataService.class);
+		pipelineLaunchService = mock(UIPipelineLaunchService.class);
 		emailController = mock(TestEmailController.class);
 
 		controller = new PipelineController(sequencingObjectService, referenceFileService, analysisSubmissionService,
 				workflowsService, projectService, userService, cartController, messageSource, namedParameterService,
-				updateSamplePermission, analysisSubmissionSampleProcessor, galaxyToolDataService, emailController);
+				updateSamplePermission, analysisSubmissionSampleProcessor, galaxyToolDataService, emailController,
+				pipelineLaunchService);
 		when(messageSource.getMessage(any(), any(), any())).thenReturn("");
 	}
 
@@ -18,8 +18,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.MessageSource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -30,6 +33,7 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectUserJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
@@ -37,6 +41,7 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequence
 import ca.corefacility.bioinformatics.irida.model.user.Role;
 import ca.corefacility.bioinformatics.irida.model.user.User;
 import ca.corefacility.bioinformatics.irida.ria.unit.TestDataFactory;
+import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesExportTypes;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesParams;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.DataTablesResponse;
 import ca.corefacility.bioinformatics.irida.ria.web.components.datatables.models.DataTablesResponseModel;
@@ -44,12 +49,15 @@ import ca.corefacility.bioinformatics.irida.ria.web.models.UISampleFilter;
 import ca.corefacility.bioinformatics.irida.ria.web.models.datatables.DTProjectSamples;
 import ca.corefacility.bioinformatics.irida.ria.web.projects.ProjectControllerUtils;
 import ca.corefacility.bioinformatics.irida.ria.web.projects.ProjectSamplesController;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UISequenceFilesZipService;
 import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
 import ca.corefacility.bioinformatics.irida.service.user.UserService;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 public class ProjectSamplesControllerTest {
@@ -78,7 +86,8 @@ public class ProjectSamplesControllerTest {
 		messageSource = mock(MessageSource.class);
 
 		controller = new ProjectSamplesController(projectService, sampleService, sequencingObjectService,
-				projectUtils, messageSource);
+				projectUtils, messageSource, new UISequenceFilesZipService(mock(SequenceFileRepository.class),
+						new SimpleAsyncTaskExecutor()));
 		user.setId(1L);
 
 		mockSidebarInfo();
@@ -306,10 +315,10 @@ public class ProjectSamplesControllerTest {
 		));
 
 		when(sampleService
-				.getFilteredSamplesForProjects(any(List.class), any(List.class), any(String.class), any(String.class), any(String.class), any(Date.class), any(Date.class),
+				.getFilteredProjectSampleRows(any(List.class), any(List.class), any(String.class), any(String.class), any(String.class), any(Date.class), any(Date.class),
 						any(Integer.class), any(Integer.class), any(
 								Sort.class)))
-				.thenReturn(TestDataFactory.getPageOfProjectSampleJoin());
+				.thenReturn(TestDataFactory.getPageOfProjectSampleRow());
 		DataTablesParams params = mock(DataTablesParams.class);
 		when(params.getSort()).thenReturn(Sort.by(Direction.ASC, "sample.sampleName"));
 		DataTablesResponse response = controller
@@ -321,6 +330,50 @@ public class ProjectSamplesControllerTest {
 
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testExportProjectSamplesTableInPages() throws IOException {
+		Project project = getProject();
+		List<ProjectSampleRow> rows = new ArrayList<>();
+		for (long i = 1; i <= 1001; i++) {
+			rows.add(new ProjectSampleRow(i, project.getId(), project.getName(), i, "sample" + i, null, null, null,
+					true));
+		}
+
+		when(sampleService.getFilteredProjectSampleRowsAfter(any(List.class), any(List.class), any(String.class),
+				any(String.class), any(String.class), any(Date.class), any(Date.class), any(ProjectSampleRow.class),
+				any(Integer.class), any(Sort.class))).thenAnswer(invocation -> {
+					ProjectSampleRow after = (ProjectSampleRow) invocation.getArguments()[7];
+					int size = (Integer) invocation.getArguments()[8];
+					int start = after == null ? 0 : rows.indexOf(after) + 1;
+					List<ProjectSampleRow> content = rows.subList(start, Math.min(start + size, rows.size()));
+					return new SliceImpl<>(content, PageRequest.of(0, size), start + size < rows.size());
+				});
+		DataTablesParams params = mock(DataTablesParams.class);
+		Sort sort = Sort.by(Direction.ASC, "sample.sampleName");
+		when(params.getSort()).thenReturn(sort);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		controller.exportProjectSamplesTable(PROJECT_ID, DataTablesExportTypes.csv, params, ImmutableList.of(),
+				ImmutableList.of(), new UISampleFilter(), null, response, Locale.US);
+
+		ArgumentCaptor<ProjectSampleRow> afterCaptor = ArgumentCaptor.forClass(ProjectSampleRow.class);
+		verify(sampleService, times(2)).getFilteredProjectSampleRowsAfter(any(List.class), any(List.class),
+				any(String.class), any(String.class), any(String.class), any(Date.class), any(Date.class),
+				afterCaptor.capture(), any(Integer.class), eq(sort));
+		assertEquals("each page should start after the last row of the previous page",
+				Arrays.asList(null, rows.get(999)), afterCaptor.getAllValues());
+		verify(sampleService, never()).getFilteredProjectSampleRows(any(List.class), any(List.class),
+				any(String.class), any(String.class), any(String.class), any(Date.class), any(Date.class),
+				any(Integer.class), any(Integer.class), any(Sort.class));
+		verify(sampleService, times(2)).getQCSummariesForProjectSamples(any(List.class), any(Collection.class));
+
+		String[] lines = response.getContentAsString()
+				.split("\n");
+		assertEquals("every sample and the header should be exported", 1002, lines.length);
+		assertTrue("the last sample should be exported last", lines[1001].contains("sample1001"));
+	}
+
 	@Test
 	public void testDownloadSamples() throws IOException {
 		Project project = TestDataFactory.constructProject();
@@ -330,18 +383,19 @@ public class ProjectSamplesControllerTest {
 		Path path = Paths.get(FILE_PATH);
 		SequenceFile file = new SequenceFile(path);
 
-		ImmutableList<SampleSequencingObjectJoin> filejoin = ImmutableList.of(new SampleSequencingObjectJoin(sample,
+		List<SampleSequencingObjectJoin> filejoin = ImmutableList.of(new SampleSequencingObjectJoin(sample,
 				new SingleEndSequenceFile(file)));
 
 		when(projectService.read(project.getId())).thenReturn(project);
 		when(sampleService.readMultiple(ImmutableList.of(sample.getId()))).thenReturn(ImmutableList.of(sample));
-		when(sequencingObjectService.getSequencingObjectsForSample(sample)).thenReturn(filejoin);
+		when(sequencingObjectService.getSequencingObjectsForSamples(ImmutableList.of(sample))).thenReturn(
+				ImmutableMap.of(sample.getId(), filejoin));
 
 		controller.downloadSamples(project.getId(), ImmutableList.of(sample.getId()), response);
 
 		verify(projectService).read(project.getId());
 		verify(sampleService).readMultiple(ImmutableList.of(sample.getId()));
-		verify(sequencingObjectService).getSequencingObjectsForSample(sample);
+		verify(sequencingObjectService).getSequencingObjectsForSamples(ImmutableList.of(sample));
 
 		assertTrue("Response should contain a \"Content-Disposition\" header.",
 				response.containsHeader("Content-Disposition"));
@@ -364,20 +418,21 @@ public class ProjectSamplesControllerTest {
 		Path path = Paths.get(FILE_PATH);
 		SequenceFile file = new SequenceFile(path);
 
-		ImmutableList<SampleSequencingObjectJoin> filejoin = ImmutableList.of(new SampleSequencingObjectJoin(sample,
+		List<SampleSequencingObjectJoin> filejoin = ImmutableList.of(new SampleSequencingObjectJoin(sample,
 				new SingleEndSequenceFile(file)), new SampleSequencingObjectJoin(sample,
 				new SingleEndSequenceFile(file)), new SampleSequencingObjectJoin(sample,
 				new SingleEndSequenceFile(file)));
 
 		when(projectService.read(project.getId())).thenReturn(project);
 		when(sampleService.readMultiple(ImmutableList.of(sample.getId()))).thenReturn(ImmutableList.of(sample));
-		when(sequencingObjectService.getSequencingObjectsForSample(sample)).thenReturn(filejoin);
+		when(sequencingObjectService.getSequencingObjectsForSamples(ImmutableList.of(sample))).thenReturn(
+				ImmutableMap.of(sample.getId(), filejoin));
 
 		controller.downloadSamples(project.getId(), ImmutableList.of(sample.getId()), response);
 
 		verify(projectService).read(project.getId());
 		verify(sampleService).readMultiple(ImmutableList.of(sample.getId()));
-		verify(sequencingObjectService).getSequencingObjectsForSample(sample);
+		verify(sequencingObjectService).getSequencingObjectsForSamples(ImmutableList.of(sample));
 
 		assertTrue("Response should contain a \"Content-Disposition\" header.",
 				response.containsHeader("Content-Disposition"));
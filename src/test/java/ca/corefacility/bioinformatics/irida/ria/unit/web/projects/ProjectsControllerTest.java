@@ -30,8 +30,6 @@ import ca.corefacility.bioinformatics.irida.service.ProjectService;
 import ca.corefacility.bioinformatics.irida.service.RemoteAPIService;
 import ca.corefacility.bioinformatics.irida.service.TaxonomyService;
 import ca.corefacility.bioinformatics.irida.service.remote.ProjectRemoteService;
-import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
-import ca.corefacility.bioinformatics.irida.service.user.UserService;
 import ca.corefacility.bioinformatics.irida.service.workflow.IridaWorkflowsService;
 import ca.corefacility.bioinformatics.irida.util.TreeNode;
 
@@ -39,7 +37,6 @@ import com.google.common.collect.Lists;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -57,8 +54,6 @@ public class ProjectsControllerTest {
 	// Services
 	private ProjectService projectService;
 	private ProjectsController controller;
-	private SampleService sampleService;
-	private UserService userService;
 	private ProjectRemoteService projectRemoteService;
 	private ProjectControllerUtils projectUtils;
 	private RemoteAPIService remoteApiService;
@@ -71,17 +66,14 @@ public class ProjectsControllerTest {
 	@Before
 	public void setUp() {
 		projectService = mock(ProjectService.class);
-		sampleService = mock(SampleService.class);
-		userService = mock(UserService.class);
 		projectRemoteService = mock(ProjectRemoteService.class);
 		cartController = mock(CartController.class);
 		taxonomyService = mock(TaxonomyService.class);
 		projectUtils = mock(ProjectControllerUtils.class);
 		updateSamplePermission = mock(UpdateSamplePermission.class);
 		messageSource = mock(MessageSource.class);
-		controller = new ProjectsController(projectService, sampleService, userService, projectRemoteService,
-				projectUtils, taxonomyService, remoteApiService, workflowsService, cartController,
-				updateSamplePermission, messageSource);
+		controller = new ProjectsController(projectService, projectRemoteService, projectUtils, taxonomyService,
+				remoteApiService, workflowsService, cartController, updateSamplePermission, messageSource);
 		user.setId(1L);
 
 		mockSidebarInfo();
@@ -100,8 +92,6 @@ public class ProjectsControllerTest {
 		Long projectId = 1L;
 		Principal principal = () -> USER_NAME;
 		List<Join<Project, User>> projects = getProjectsForUser();
-		when(userService.getUsersForProjectByRole(getProject(), ProjectRole.PROJECT_OWNER)).thenReturn(
-				getUsersForProjectByRole());
 		when(projectService.getProjectsForUser(user)).thenReturn(projects);
 		when(projectService.getRelatedProjects(getProject())).thenReturn(getRelatedProjectJoin(projects));
 
@@ -167,11 +157,7 @@ public class ProjectsControllerTest {
 	 */
 	private void mockSidebarInfo() {
 		Project project = getProject();
-		Collection<Join<Project, User>> ownerList = new ArrayList<>();
-		ownerList.add(new ProjectUserJoin(project, user, ProjectRole.PROJECT_OWNER));
-		when(userService.getUsersForProjectByRole(any(Project.class), any(ProjectRole.class))).thenReturn(ownerList);
 		when(projectService.read(PROJECT_ID)).thenReturn(project);
-		when(userService.getUserByUsername(anyString())).thenReturn(user);
 	}
 
 	private List<Join<Project, User>> getProjectsForUser() {
@@ -210,12 +196,6 @@ public class ProjectsControllerTest {
 		return project;
 	}
 
-	private List<Join<Project, User>> getUsersForProjectByRole() {
-		List<Join<Project, User>> list = new ArrayList<>();
-		list.add(new ProjectUserJoin(getProject(), user, ProjectRole.PROJECT_OWNER));
-		return list;
-	}
-
 	private Page<Project> getProjectUserJoinPage(User user) {
 		return new Page<Project>() {
 			@Override
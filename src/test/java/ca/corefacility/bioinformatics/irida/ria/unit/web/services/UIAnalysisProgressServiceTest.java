@@ -0,0 +1,165 @@
+package ca.corefacility.bioinformatics.irida.ria.unit.web.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.ria.web.analysis.dto.AnalysisProgressModel;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIAnalysisProgressService;
+import ca.corefacility.bioinformatics.irida.security.permissions.analysis.ReadAnalysisSubmissionPermission;
+import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class UIAnalysisProgressServiceTest {
+	private static final Long SUBMISSION_ID = 1L;
+
+	private UIAnalysisProgressService service;
+	private AnalysisSubmissionService analysisSubmissionService;
+	private ReadAnalysisSubmissionPermission readPermission;
+	private TaskScheduler scheduler;
+	private ScheduledFuture<?> pushTask;
+	private AnalysisSubmission submission;
+
+	@Before
+	public void setUp() throws ExecutionManagerException {
+		analysisSubmissionService = mock(AnalysisSubmissionService.class);
+		readPermission = mock(ReadAnalysisSubmissionPermission.class);
+		when(readPermission.isAllowed(any(Authentication.class), eq(SUBMISSION_ID))).thenReturn(true);
+		MessageSource messageSource = mock(MessageSource.class);
+		scheduler = mock(TaskScheduler.class);
+		pushTask = mock(ScheduledFuture.class);
+		doReturn(pushTask).when(scheduler)
+				.scheduleWithFixedDelay(any(Runnable.class), any(Instant.class), any(Duration.class));
+		// push manually in the tests
+		service = new UIAnalysisProgressService(analysisSubmissionService, readPermission, messageSource, scheduler, 5);
+
+		submission = mock(AnalysisSubmission.class);
+		when(submission.getAnalysisState()).thenReturn(AnalysisState.RUNNING);
+		when(analysisSubmissionService.read(SUBMISSION_ID)).thenReturn(submission);
+		when(analysisSubmissionService.getPercentCompleteForAnalysisSubmission(SUBMISSION_ID)).thenReturn(50.0f);
+
+		setUser("fbristow");
+	}
+
+	@After
+	public void tearDown() {
+		service.shutdown();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void testPushScheduledAndCancelled() {
+		verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), any(Instant.class), eq(Duration.ofSeconds(5)));
+
+		service.shutdown();
+
+		verify(pushTask).cancel(false);
+	}
+
+	@Test
+	public void testSubscribeToFinishedAnalysis() throws ExecutionManagerException {
+		when(submission.getAnalysisState()).thenReturn(AnalysisState.COMPLETED);
+
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+
+		assertEquals("A finished analysis should not be watched", 0, service.getWatchedSubmissionCount());
+	}
+
+	@Test
+	public void testGetProgressForPolling() throws ExecutionManagerException {
+		AnalysisProgressModel progress = service.getProgress(SUBMISSION_ID, Locale.ENGLISH);
+
+		assertEquals("should get the state", AnalysisState.RUNNING.name(), progress.getState()
+				.getValue());
+		assertEquals("should get the percent complete", 50.0f, progress.getPercentComplete(), 0.0f);
+		assertEquals("polling should not watch the analysis", 0, service.getWatchedSubmissionCount());
+	}
+
+	@Test
+	public void testPushReadsProgressOncePerAnalysis() throws ExecutionManagerException {
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+		service.subscribe(SUBMISSION_ID, Locale.CANADA_FRENCH);
+		assertEquals("The analysis should be watched", 1, service.getWatchedSubmissionCount());
+
+		service.pushProgress();
+
+		// once for each subscription, then once for the push
+		verify(analysisSubmissionService, times(4)).getPercentCompleteForAnalysisSubmission(SUBMISSION_ID);
+	}
+
+	@Test
+	public void testPushClosesFinishedAnalysis() throws ExecutionManagerException {
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+
+		when(submission.getAnalysisState()).thenReturn(AnalysisState.ERROR);
+		service.pushProgress();
+
+		assertEquals("A finished analysis should no longer be watched", 0, service.getWatchedSubmissionCount());
+		verify(analysisSubmissionService, times(1)).getPercentCompleteForAnalysisSubmission(SUBMISSION_ID);
+	}
+
+	@Test
+	public void testPushSkipsUnreadableStatus() throws ExecutionManagerException {
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+
+		when(analysisSubmissionService.getPercentCompleteForAnalysisSubmission(SUBMISSION_ID)).thenThrow(
+				new ExecutionManagerException("Galaxy is down"));
+		service.pushProgress();
+
+		assertEquals("The analysis should still be watched", 1, service.getWatchedSubmissionCount());
+	}
+
+	@Test
+	public void testPushClosesOnlySubscriptionsThatLostAccess() throws ExecutionManagerException {
+		setUser("fbristow");
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+		setUser("tom");
+		service.subscribe(SUBMISSION_ID, Locale.ENGLISH);
+		SecurityContextHolder.clearContext();
+
+		when(readPermission.isAllowed(argThat(isUser("fbristow")), eq(SUBMISSION_ID))).thenReturn(false);
+		service.pushProgress();
+
+		assertEquals("The analysis should still be watched by the user who can read it", 1,
+				service.getWatchedSubmissionCount());
+		// once for each subscription, then once for the push
+		verify(analysisSubmissionService, times(3)).getPercentCompleteForAnalysisSubmission(SUBMISSION_ID);
+
+		when(readPermission.isAllowed(argThat(isUser("tom")), eq(SUBMISSION_ID))).thenReturn(false);
+		service.pushProgress();
+
+		assertEquals("No one who can read the analysis is watching it", 0, service.getWatchedSubmissionCount());
+		verify(analysisSubmissionService, times(3)).getPercentCompleteForAnalysisSubmission(SUBMISSION_ID);
+	}
+
+	private static void setUser(String username) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(username, "password1"));
+	}
+
+	private static ArgumentMatcher<Authentication> isUser(String username) {
+		return new ArgumentMatcher<Authentication>() {
+			@Override
+			public boolean matches(Object authentication) {
+				return authentication != null && username.equals(((Authentication) authentication).getName());
+			}
+		};
+	}
+}
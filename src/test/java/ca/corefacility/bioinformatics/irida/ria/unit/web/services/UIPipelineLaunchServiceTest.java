@@ -0,0 +1,102 @@
+package ca.corefacility.bioinformatics.irida.ria.unit.web.services;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.ria.web.pipelines.dto.PipelineLaunchStatus;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIPipelineLaunchService;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UIPipelineLaunchServiceTest {
+	private static final String ERROR_MESSAGE = "The pipeline could not be launched";
+
+	private UIPipelineLaunchService service;
+	private ThreadPoolTaskExecutor launchExecutor;
+
+	@Before
+	public void setUp() {
+		MessageSource messageSource = mock(MessageSource.class);
+		when(messageSource.getMessage(eq("pipeline.error.launch-failed"), any(), any(Locale.class))).thenReturn(
+				ERROR_MESSAGE);
+		launchExecutor = new ThreadPoolTaskExecutor();
+		launchExecutor.setCorePoolSize(1);
+		launchExecutor.initialize();
+		service = new UIPipelineLaunchService(messageSource, launchExecutor);
+
+		login("fbristow");
+	}
+
+	@After
+	public void tearDown() {
+		launchExecutor.shutdown();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void testLaunchRunsAsCurrentUser() throws Exception {
+		String launchId = service.launch(() -> {
+			assertEquals("The submissions should be created as the launching user", "fbristow",
+					SecurityContextHolder.getContext()
+							.getAuthentication()
+							.getName());
+			return Collections.nCopies(3, mock(AnalysisSubmission.class));
+		}, Locale.ENGLISH);
+
+		PipelineLaunchStatus status = waitForLaunch(launchId);
+		assertEquals("The launch should be completed", PipelineLaunchStatus.State.COMPLETED, status.getState());
+		assertEquals("The launch should have created every submission", 3, status.getSubmissions());
+	}
+
+	@Test
+	public void testLaunchFailure() throws Exception {
+		String launchId = service.launch(() -> {
+			throw new IllegalStateException("failed");
+		}, Locale.ENGLISH);
+
+		PipelineLaunchStatus status = waitForLaunch(launchId);
+		assertEquals("The launch should have failed", PipelineLaunchStatus.State.ERROR, status.getState());
+		assertEquals("The error should be shown to the user", ERROR_MESSAGE, status.getError());
+	}
+
+	@Test(expected = EntityNotFoundException.class)
+	public void testLaunchOfOtherUser() throws Exception {
+		String launchId = service.launch(Collections::emptyList, Locale.ENGLISH);
+
+		login("tom");
+		service.getLaunchStatus(launchId);
+	}
+
+	@Test(expected = EntityNotFoundException.class)
+	public void testUnknownLaunch() throws Exception {
+		service.getLaunchStatus("not-a-launch");
+	}
+
+	private PipelineLaunchStatus waitForLaunch(String launchId) throws Exception {
+		PipelineLaunchStatus status = service.getLaunchStatus(launchId);
+		for (int i = 0; i < 100 && status.getState() == PipelineLaunchStatus.State.RUNNING; i++) {
+			Thread.sleep(50);
+			status = service.getLaunchStatus(launchId);
+		}
+		return status;
+	}
+
+	private static void login(String username) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(username, "password1"));
+	}
+}
@@ -0,0 +1,79 @@
+package ca.corefacility.bioinformatics.irida.ria.unit.web.services;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
+import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableRequest;
+import ca.corefacility.bioinformatics.irida.ria.web.components.ant.table.TableResponse;
+import ca.corefacility.bioinformatics.irida.ria.web.projects.dto.ProjectModel;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UIProjectsService;
+import ca.corefacility.bioinformatics.irida.service.ProjectService;
+
+import com.google.common.collect.ImmutableList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class UIProjectsServiceTest {
+	private UIProjectsService service;
+	private ProjectService projectService;
+
+	@Before
+	public void setUp() {
+		projectService = mock(ProjectService.class);
+		service = new UIProjectsService(projectService, mock(MessageSource.class));
+
+		ProjectSummary summary = new ProjectSummary(1L, "project", "E. coli", new Date(), new Date(), true, 12L, 3L);
+		PageImpl<ProjectSummary> page = new PageImpl<>(ImmutableList.of(summary), PageRequest.of(0, 10), 11);
+		when(projectService.findProjectSummariesForUser(anyString(), anyInt(), anyInt(), any(Sort.class))).thenReturn(
+				page);
+		when(projectService.findAllProjectSummaries(anyString(), anyInt(), anyInt(), any(Sort.class))).thenReturn(
+				page);
+	}
+
+	@Test
+	public void testGetPagedProjectsSortedBySamples() {
+		TableRequest request = getTableRequest("samples");
+
+		TableResponse response = service.getPagedProjects(request, false);
+
+		verify(projectService).findProjectSummariesForUser("", 0, 10,
+				Sort.by(Sort.Direction.DESC, ProjectSummary.SAMPLES_SORT_PROPERTY));
+		assertEquals("the total should come from the page", Long.valueOf(11), response.getTotal());
+		ProjectModel model = (ProjectModel) response.getModels()
+				.get(0);
+		assertEquals("the sample count should come from the summary", 12L, model.getSamples());
+		assertEquals("the member count should come from the summary", Long.valueOf(3L), model.getMembers());
+		assertTrue(model.isRemote());
+	}
+
+	@Test
+	public void testGetPagedProjectsForAdmin() {
+		service.getPagedProjects(getTableRequest("modifiedDate"), true);
+
+		verify(projectService).findAllProjectSummaries("", 0, 10, Sort.by(Sort.Direction.DESC, "modifiedDate"));
+		verify(projectService, never()).findProjectSummariesForUser(anyString(), anyInt(), anyInt(),
+				any(Sort.class));
+	}
+
+	private TableRequest getTableRequest(String sortField) {
+		TableRequest request = new TableRequest();
+		request.setSearch("");
+		request.setCurrent(0);
+		request.setPageSize(10);
+		request.setSortField(sortField);
+		request.setSortDirection("descend");
+		return request;
+	}
+}
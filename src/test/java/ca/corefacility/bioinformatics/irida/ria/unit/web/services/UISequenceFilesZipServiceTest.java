@@ -0,0 +1,147 @@
+package ca.corefacility.bioinformatics.irida.ria.unit.web.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFileRepository;
+import ca.corefacility.bioinformatics.irida.ria.web.services.UISequenceFilesZipService;
+
+import com.google.common.io.ByteStreams;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class UISequenceFilesZipServiceTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private UISequenceFilesZipService service;
+	private SequenceFileRepository sequenceFileRepository;
+	private ThreadPoolTaskExecutor prefetchExecutor;
+
+	@Before
+	public void setUp() {
+		sequenceFileRepository = mock(SequenceFileRepository.class);
+		prefetchExecutor = new ThreadPoolTaskExecutor();
+		prefetchExecutor.setCorePoolSize(2);
+		prefetchExecutor.initialize();
+		service = new UISequenceFilesZipService(sequenceFileRepository, prefetchExecutor);
+	}
+
+	@After
+	public void tearDown() {
+		prefetchExecutor.shutdown();
+	}
+
+	@Test
+	public void testWriteZip() throws IOException {
+		byte[] fastq = "@read\nACGT\n+\nIIII\n".getBytes(StandardCharsets.UTF_8);
+		Path fastqFile = folder.newFile("reads.fastq")
+				.toPath();
+		Files.write(fastqFile, fastq);
+
+		// larger than the copy buffer, so it is read in more than one piece
+		byte[] random = new byte[600 * 1024];
+		new Random(1).nextBytes(random);
+		Path gzFile = folder.newFile("reads.fastq.gz")
+				.toPath();
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzFile))) {
+			out.write(random);
+		}
+		byte[] gz = Files.readAllBytes(gzFile);
+		SequenceFile gzSequenceFile = sequenceFile(2L, gzFile);
+
+		Map<String, SequenceFile> files = new LinkedHashMap<>();
+		files.put("project/sample/reads.fastq", sequenceFile(1L, fastqFile));
+		files.put("project/sample/reads.fastq.gz", gzSequenceFile);
+		files.put("project/sample/reads (1).fastq", sequenceFile(1L, fastqFile));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		service.writeZip(output, files);
+
+		try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+			assertEntry(zipStream, "project/sample/reads.fastq", ZipEntry.DEFLATED, fastq);
+			assertEntry(zipStream, "project/sample/reads.fastq.gz", ZipEntry.STORED, gz);
+			assertEntry(zipStream, "project/sample/reads (1).fastq", ZipEntry.DEFLATED, fastq);
+			assertNull("There should be no more entries", zipStream.getNextEntry());
+		}
+
+		verify(sequenceFileRepository).setFileCrc32(2L, gzSequenceFile.getFileRevisionNumber(), crc(gz));
+	}
+
+	@Test
+	public void testWriteZipSavedCrc() throws IOException {
+		byte[] gz = "not really gzipped".getBytes(StandardCharsets.UTF_8);
+		Path gzFile = folder.newFile("reads.fastq.gz")
+				.toPath();
+		Files.write(gzFile, gz);
+		SequenceFile sequenceFile = sequenceFile(1L, gzFile);
+		sequenceFile.setFileCrc32(crc(gz));
+
+		Map<String, SequenceFile> files = new LinkedHashMap<>();
+		files.put("project/sample/reads.fastq.gz", sequenceFile);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		service.writeZip(output, files);
+
+		try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+			assertEntry(zipStream, "project/sample/reads.fastq.gz", ZipEntry.STORED, gz);
+		}
+		verify(sequenceFileRepository, never()).setFileCrc32(any(), any(), any());
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteZipMissingFile() throws IOException {
+		Map<String, SequenceFile> files = new LinkedHashMap<>();
+		files.put("project/sample/missing.fastq.gz", sequenceFile(1L, folder.getRoot()
+				.toPath()
+				.resolve("missing.fastq.gz")));
+
+		service.writeZip(new ByteArrayOutputStream(), files);
+	}
+
+	private static SequenceFile sequenceFile(Long id, Path path) {
+		SequenceFile sequenceFile = new SequenceFile(path);
+		sequenceFile.setId(id);
+		return sequenceFile;
+	}
+
+	private static long crc(byte[] contents) {
+		CRC32 crc = new CRC32();
+		crc.update(contents);
+		return crc.getValue();
+	}
+
+	private static void assertEntry(ZipInputStream zipStream, String name, int method, byte[] contents)
+			throws IOException {
+		ZipEntry entry = zipStream.getNextEntry();
+		assertEquals("Entries should be written in order", name, entry.getName());
+		assertEquals("Already compressed files should be stored", method, entry.getMethod());
+		assertArrayEquals("The file should be written unchanged", contents, ByteStreams.toByteArray(zipStream));
+	}
+}
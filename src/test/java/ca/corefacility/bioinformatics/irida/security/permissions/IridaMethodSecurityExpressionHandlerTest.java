@@ -0,0 +1,138 @@
+package ca.corefacility.bioinformatics.irida.security.permissions;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link IridaMethodSecurityExpressionHandler}.
+ */
+public class IridaMethodSecurityExpressionHandlerTest {
+	private IridaMethodSecurityExpressionHandler handler;
+	private EvenPermission permission;
+	private EvaluationContext ctx;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() throws NoSuchMethodException {
+		permission = new EvenPermission(mock(CrudRepository.class));
+		IridaPermissionEvaluator permissionEvaluator = new IridaPermissionEvaluator(permission);
+		permissionEvaluator.init();
+		handler = new IridaMethodSecurityExpressionHandler(permissionEvaluator);
+
+		Authentication auth = new UsernamePasswordAuthenticationToken("fbristow", "password1");
+		ctx = handler.createEvaluationContext(auth,
+				new SimpleMethodInvocation(this, getClass().getMethod("setUp")));
+	}
+
+	@Test
+	public void testFilterInBulk() {
+		List<Number> numbers = Lists.newArrayList(new Number(1), new Number(2), new Number(3), new Number(4));
+
+		filter(numbers, "hasPermission(filterObject, 'canReadEven')");
+
+		assertEquals("only even numbers should remain", Lists.newArrayList(2, 4), values(numbers));
+		assertEquals("permission should be decided once", 1, permission.batches);
+	}
+
+	@Test
+	public void testFilterPropertyInBulk() {
+		List<Wrapper> wrappers = Lists.newArrayList(new Wrapper(new Number(1)), new Wrapper(new Number(2)),
+				new Wrapper(new Number(2)));
+
+		filter(wrappers, "hasPermission(filterObject.number, 'canReadEven')");
+
+		assertEquals("only wrappers of even numbers should remain", 2, wrappers.size());
+		assertEquals("permission should be decided once", 1, permission.batches);
+	}
+
+	@Test
+	public void testFilterOtherExpression() {
+		List<Number> numbers = Lists.newArrayList(new Number(1), new Number(2), new Number(3), new Number(4));
+
+		filter(numbers, "hasPermission(filterObject, 'canReadEven') and filterObject.value > 2");
+
+		assertEquals("only even numbers above 2 should remain", Lists.newArrayList(4), values(numbers));
+		assertEquals("permission should be decided for each element", 4, permission.batches);
+	}
+
+	private void filter(Collection<?> collection, String expression) {
+		Expression filterExpression = handler.getExpressionParser()
+				.parseExpression(expression);
+		handler.filter(collection, filterExpression, ctx);
+	}
+
+	private static List<Integer> values(List<Number> numbers) {
+		List<Integer> values = new ArrayList<>();
+		numbers.forEach(n -> values.add(n.getValue()));
+		return values;
+	}
+
+	/**
+	 * Permission that only allows even numbers and counts the batches it decides.
+	 */
+	private static class EvenPermission extends BasePermission<Number, Long> {
+		private int batches = 0;
+
+		EvenPermission(CrudRepository<Number, Long> repository) {
+			super(Number.class, Long.class, repository);
+		}
+
+		@Override
+		public String getPermissionProvided() {
+			return "canReadEven";
+		}
+
+		@Override
+		protected boolean customPermissionAllowed(Authentication authentication, Number targetDomainObject) {
+			batches++;
+			return targetDomainObject.getValue() % 2 == 0;
+		}
+
+		@Override
+		protected Predicate<Number> customPermissionAllowedBatch(Authentication authentication,
+				Collection<Number> targetDomainObjects) {
+			batches++;
+			return n -> n.getValue() % 2 == 0;
+		}
+	}
+
+	public static class Number {
+		private final int value;
+
+		Number(int value) {
+			this.value = value;
+		}
+
+		public int getValue() {
+			return value;
+		}
+	}
+
+	public static class Wrapper {
+		private final Number number;
+
+		Wrapper(Number number) {
+			this.number = number;
+		}
+
+		public Number getNumber() {
+			return number;
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package ca.corefacility.bioinformatics.irida.security.permissions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
+import ca.corefacility.bioinformatics.irida.model.user.PermissionEpoch;
+import ca.corefacility.bioinformatics.irida.repositories.user.PermissionEpochRepository;
+
+/**
+ * Tests for {@link PermissionDecisionCache}.
+ */
+public class PermissionDecisionCacheTest {
+	private static final String PERMISSION = "canReadThing";
+
+	private PermissionDecisionCache cache;
+	private PermissionEpochRepository epochRepository;
+	private PlatformTransactionManager transactionManager;
+	private AtomicInteger decisions;
+	private AtomicLong time;
+
+	private Authentication user;
+
+	@Before
+	public void setUp() {
+		epochRepository = mock(PermissionEpochRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(epochRepository.getEpoch(PermissionEpoch.ID)).thenReturn(0L);
+		time = new AtomicLong();
+		cache = new PermissionDecisionCache(30, 1000, epochRepository, transactionManager, new Ticker() {
+			@Override
+			public long read() {
+				return time.get();
+			}
+		});
+		decisions = new AtomicInteger();
+		user = new UsernamePasswordAuthenticationToken("fbristow", "password1",
+				ImmutableList.of(new SimpleGrantedAuthority("ROLE_USER")));
+	}
+
+	@After
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+	}
+
+	@Test
+	public void testCachedDecision() {
+		assertTrue(cache.isAllowed(user, PERMISSION, 1L, this::allow));
+		assertTrue(cache.isAllowed(user, PERMISSION, 1L, this::allow));
+
+		assertEquals("decision should only be made once", 1, decisions.get());
+		assertEquals("second decision should be a shared cache hit", 1, cache.getSharedStats()
+				.hitCount());
+	}
+
+	@Test
+	public void testDecisionsKeyedByObjectAndPermission() {
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 2L, this::allow);
+		cache.isAllowed(user, "canUpdateThing", 1L, this::allow);
+
+		assertEquals("each object and permission should be decided", 3, decisions.get());
+	}
+
+	@Test
+	public void testDecisionsKeyedByPrincipalAndAuthorities() {
+		Authentication otherUser = new UsernamePasswordAuthenticationToken("tom", "password1",
+				ImmutableList.of(new SimpleGrantedAuthority("ROLE_USER")));
+		Authentication admin = new UsernamePasswordAuthenticationToken("fbristow", "password1",
+				ImmutableList.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+		assertFalse(cache.isAllowed(user, PERMISSION, 1L, this::deny));
+		assertTrue("another user should not get the cached decision",
+				cache.isAllowed(otherUser, PERMISSION, 1L, this::allow));
+		assertTrue("a change in authorities should not get the cached decision",
+				cache.isAllowed(admin, PERMISSION, 1L, this::allow));
+
+		assertEquals("each user should be decided", 3, decisions.get());
+	}
+
+	@Test
+	public void testPermissionsChangedClearsCache() {
+		assertFalse(cache.isAllowed(user, PERMISSION, 1L, this::deny));
+
+		cache.handlePermissionsChanged(new PermissionsChangedEvent("test"));
+
+		assertTrue("decision should be made again after permissions change",
+				cache.isAllowed(user, PERMISSION, 1L, this::allow));
+		assertEquals(2, decisions.get());
+		verify(epochRepository).incrementEpoch(PermissionEpoch.ID);
+	}
+
+	@Test
+	public void testPermissionsChangedOncePerTransaction() {
+		assertFalse(cache.isAllowed(user, PERMISSION, 1L, this::deny));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.handlePermissionsChanged(new PermissionsChangedEvent("first"));
+		cache.handlePermissionsChanged(new PermissionsChangedEvent("second"));
+		cache.handlePermissionsChanged(new PermissionsChangedEvent("third"));
+
+		verify(epochRepository, never()).incrementEpoch(PermissionEpoch.ID);
+		assertFalse("decisions should be kept until the transaction commits",
+				cache.isAllowed(user, PERMISSION, 1L, this::allow));
+
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+		verify(epochRepository, times(1)).incrementEpoch(PermissionEpoch.ID);
+		assertTrue("decision should be made again after the transaction commits",
+				cache.isAllowed(user, PERMISSION, 1L, this::allow));
+		assertFalse(TransactionSynchronizationManager.hasResource(cache));
+	}
+
+	@Test
+	public void testPermissionsNotChangedOnRollback() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache.handlePermissionsChanged(new PermissionsChangedEvent("test"));
+
+		completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		verify(epochRepository, never()).incrementEpoch(PermissionEpoch.ID);
+		assertFalse(TransactionSynchronizationManager.hasResource(cache));
+	}
+
+	@Test
+	public void testEpochAdvancedByAnotherServer() {
+		assertFalse(cache.isAllowed(user, PERMISSION, 1L, this::deny));
+
+		// another server changed permissions
+		when(epochRepository.getEpoch(PermissionEpoch.ID)).thenReturn(1L);
+		time.addAndGet(TimeUnit.MILLISECONDS.toNanos(PermissionDecisionCache.EPOCH_TTL_MILLIS));
+
+		assertTrue("decisions from an old epoch should not be used",
+				cache.isAllowed(user, PERMISSION, 1L, this::allow));
+		assertTrue(cache.isAllowed(user, PERMISSION, 1L, this::allow));
+		assertEquals("the new decision should be cached", 2, decisions.get());
+	}
+
+	@Test
+	public void testEpochReadOncePerRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 2L, this::allow);
+
+		verify(epochRepository, times(1)).getEpoch(PermissionEpoch.ID);
+	}
+
+	@Test
+	public void testEpochReadOncePerTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 2L, this::allow);
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+		verify(epochRepository, times(1)).getEpoch(PermissionEpoch.ID);
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.isAllowed(user, PERMISSION, 3L, this::allow);
+		completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+		verify(epochRepository, times(2)).getEpoch(PermissionEpoch.ID);
+	}
+
+	@Test
+	public void testEpochKeptOutsideTransaction() {
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 2L, this::allow);
+
+		verify(epochRepository, times(1)).getEpoch(PermissionEpoch.ID);
+
+		time.addAndGet(TimeUnit.MILLISECONDS.toNanos(PermissionDecisionCache.EPOCH_TTL_MILLIS));
+		cache.isAllowed(user, PERMISSION, 3L, this::allow);
+
+		verify(epochRepository, times(2)).getEpoch(PermissionEpoch.ID);
+	}
+
+	@Test
+	public void testSharedCacheDisabled() {
+		cache = new PermissionDecisionCache(0, 1000, epochRepository, transactionManager);
+
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+
+		assertEquals("decisions should not be cached outside a request", 2, decisions.get());
+		verify(epochRepository, never()).getEpoch(PermissionEpoch.ID);
+	}
+
+	@Test
+	public void testRequestCache() {
+		cache = new PermissionDecisionCache(0, 1000, epochRepository, transactionManager);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+
+		assertEquals("decision should be kept for the rest of the request", 1, decisions.get());
+		assertEquals(1, cache.getRequestHitCount());
+		assertEquals(1, cache.getRequestMissCount());
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		cache.isAllowed(user, PERMISSION, 1L, this::allow);
+
+		assertEquals("decision should not be kept for a new request", 2, decisions.get());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testBasePermissionUsesCache() {
+		CrudRepository<Thing, Long> repository = mock(CrudRepository.class);
+		when(repository.findById(1L)).thenReturn(Optional.of(new Thing()));
+
+		ThingPermission permission = new ThingPermission(repository, true);
+		permission.setDecisionCache(cache);
+
+		assertTrue(permission.isAllowed(user, 1L));
+		assertTrue(permission.isAllowed(user, 1L));
+
+		verify(repository, times(1)).findById(1L);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testBasePermissionNotCacheable() {
+		CrudRepository<Thing, Long> repository = mock(CrudRepository.class);
+		when(repository.findById(1L)).thenReturn(Optional.of(new Thing()));
+
+		ThingPermission permission = new ThingPermission(repository, false);
+		permission.setDecisionCache(cache);
+
+		permission.isAllowed(user, 1L);
+		permission.isAllowed(user, 1L);
+
+		verify(repository, times(2)).findById(1L);
+	}
+
+	/**
+	 * Run the registered synchronizations the way a transaction manager would when a transaction completes
+	 */
+	private void completeTransaction(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(sync -> sync.afterCompletion(status));
+	}
+
+	private boolean allow() {
+		decisions.incrementAndGet();
+		return true;
+	}
+
+	private boolean deny() {
+		decisions.incrementAndGet();
+		return false;
+	}
+
+	private static class Thing {
+	}
+
+	private static class ThingPermission extends BasePermission<Thing, Long> {
+		private final boolean cacheable;
+
+		ThingPermission(CrudRepository<Thing, Long> repository, boolean cacheable) {
+			super(Thing.class, Long.class, repository);
+			this.cacheable = cacheable;
+		}
+
+		@Override
+		public String getPermissionProvided() {
+			return PERMISSION;
+		}
+
+		@Override
+		protected boolean isDecisionCacheable() {
+			return cacheable;
+		}
+
+		@Override
+		protected boolean customPermissionAllowed(Authentication authentication, Thing targetDomainObject) {
+			return true;
+		}
+	}
+}
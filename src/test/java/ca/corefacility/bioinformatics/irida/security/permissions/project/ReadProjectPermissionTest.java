@@ -1,5 +1,6 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.project;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -37,6 +38,7 @@ import ca.corefacility.bioinformatics.irida.repositories.user.UserRepository;
 import ca.corefacility.bioinformatics.irida.security.permissions.project.ReadProjectPermission;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Tests for {@link ReadProjectPermission}.
@@ -147,4 +149,42 @@ public class ReadProjectPermissionTest {
 		verify(projectRepository).findById(1L);
 		verify(pujRepository).getUsersForProject(p);
 	}
+
+	@Test
+	public void testFilterAllowed() {
+		final String username = "fbristow";
+		final User u = new User();
+		u.setUsername(username);
+		final Project p1 = new Project();
+		p1.setId(1L);
+		final Project p2 = new Project();
+		p2.setId(2L);
+
+		when(userRepository.loadUserByUsername(username)).thenReturn(u);
+		when(projectRepository.findProjectIdsForUser(u)).thenReturn(ImmutableSet.of(1L));
+
+		Authentication auth = new UsernamePasswordAuthenticationToken("fbristow", "password1");
+
+		assertEquals("only the readable project should be allowed.", ImmutableList.of(p1),
+				readProjectPermission.filterAllowed(auth, ImmutableList.of(p1, p2)));
+
+		verify(projectRepository).findProjectIdsForUser(u);
+		verifyZeroInteractions(pujRepository, ugpjRepository, ugRepository);
+	}
+
+	@Test
+	public void testFilterAllowedSequencer() {
+		final Project p1 = new Project();
+		p1.setId(1L);
+		final Project p2 = new Project();
+		p2.setId(2L);
+
+		Collection<GrantedAuthority> roles = ImmutableList.of(Role.ROLE_SEQUENCER);
+		Authentication auth = new UsernamePasswordAuthenticationToken("sequencer", "password1", roles);
+
+		assertEquals("sequencer should be allowed every project.", ImmutableList.of(p1, p2),
+				readProjectPermission.filterAllowed(auth, ImmutableList.of(p1, p2)));
+
+		verifyZeroInteractions(userRepository, projectRepository);
+	}
 }
@@ -1,10 +1,12 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.sample;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -13,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.swing.text.html.Option;
 
@@ -35,6 +38,9 @@ import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository
 import ca.corefacility.bioinformatics.irida.security.permissions.project.ReadProjectPermission;
 import ca.corefacility.bioinformatics.irida.security.permissions.sample.ReadSamplePermission;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Tests for {@link ReadSamplePermission}.
  * 
@@ -141,4 +147,41 @@ public class ReadSamplePermissionTest {
 		// we should fast pass through to permission granted for administrators.
 		verifyZeroInteractions(psjRepository);
 	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFilterAllowed() {
+		Sample s1 = new Sample();
+		s1.setId(1L);
+		Sample s2 = new Sample();
+		s2.setId(2L);
+		Set<Long> readableProjects = ImmutableSet.of(10L);
+
+		Authentication authentication = new UsernamePasswordAuthenticationToken("fbristow", "password1");
+
+		when(readProjectPermission.getReadableProjectIds(authentication)).thenReturn(readableProjects);
+		when(psjRepository.getSampleIdsInProjects(any(Collection.class), eq(readableProjects)))
+				.thenReturn(ImmutableSet.of(1L));
+
+		assertEquals("only the sample in a readable project should be allowed.", ImmutableList.of(s1),
+				readSamplePermission.filterAllowed(authentication, ImmutableList.of(s1, s2)));
+
+		verify(readProjectPermission).getReadableProjectIds(authentication);
+		verify(psjRepository, never()).getProjectForSample(any(Sample.class));
+	}
+
+	@Test
+	public void testFilterAllowedNoReadableProjects() {
+		Sample s1 = new Sample();
+		s1.setId(1L);
+
+		Authentication authentication = new UsernamePasswordAuthenticationToken("fbristow", "password1");
+
+		when(readProjectPermission.getReadableProjectIds(authentication)).thenReturn(ImmutableSet.of());
+
+		assertTrue("no samples should be allowed.",
+				readSamplePermission.filterAllowed(authentication, ImmutableList.of(s1)).isEmpty());
+
+		verifyZeroInteractions(psjRepository);
+	}
 }
@@ -1,12 +1,19 @@
 package ca.corefacility.bioinformatics.irida.security.permissions.sample;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +24,7 @@ import org.springframework.security.core.GrantedAuthority;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
 import ca.corefacility.bioinformatics.irida.model.user.Role;
 import ca.corefacility.bioinformatics.irida.repositories.joins.project.ProjectSampleJoinRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
@@ -24,6 +32,7 @@ import ca.corefacility.bioinformatics.irida.security.permissions.project.Project
 import ca.corefacility.bioinformatics.irida.security.permissions.sample.UpdateSamplePermission;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 public class UpdateSamplePermissionTest {
 
@@ -99,4 +108,45 @@ public class UpdateSamplePermissionTest {
 
 		assertFalse("Permission to update sample should not be given.", updateSamplePermission.isAllowed(auth, s));
 	}
+
+	@Test
+	public void testGetUpdatableSampleIds() {
+		final List<ProjectSampleMetadataRow> rows = ImmutableList.of(
+				new ProjectSampleMetadataRow(1L, "s1", new Date(), new Date(), false, true),
+				new ProjectSampleMetadataRow(2L, "s2", new Date(), new Date(), false, false));
+		final Set<Long> ownedProjects = ImmutableSet.of(5L);
+
+		when(projectOwnerPermission.getOwnedLocalProjectIds(auth)).thenReturn(ownedProjects);
+		when(projectSampleJoinRepository.getSampleIdsOwnedByProjects(ImmutableList.of(1L, 2L), ownedProjects))
+				.thenReturn(ImmutableSet.of(1L));
+
+		assertEquals("Only the owned sample should be updatable.", ImmutableSet.of(1L),
+				updateSamplePermission.getUpdatableSampleIds(auth, rows));
+	}
+
+	@Test
+	public void testGetUpdatableSampleIdsNoOwnedProjects() {
+		final List<ProjectSampleMetadataRow> rows = ImmutableList.of(
+				new ProjectSampleMetadataRow(1L, "s1", new Date(), new Date(), false, true));
+
+		when(projectOwnerPermission.getOwnedLocalProjectIds(auth)).thenReturn(ImmutableSet.of());
+
+		assertTrue("No samples should be updatable.", updateSamplePermission.getUpdatableSampleIds(auth, rows)
+				.isEmpty());
+		verify(projectSampleJoinRepository, never()).getSampleIdsOwnedByProjects(any(), any());
+	}
+
+	@Test
+	public void testGetUpdatableSampleIdsSequencer() {
+		final Authentication sequencer = new UsernamePasswordAuthenticationToken("sequencer", "password1",
+				ImmutableList.of(Role.ROLE_SEQUENCER));
+		final List<ProjectSampleMetadataRow> rows = ImmutableList.of(
+				new ProjectSampleMetadataRow(1L, "s1", new Date(), new Date(), false, true),
+				new ProjectSampleMetadataRow(2L, "s2", new Date(), new Date(), true, true));
+
+		when(projectOwnerPermission.getOwnedLocalProjectIds(sequencer)).thenReturn(ImmutableSet.of());
+
+		assertEquals("Only local samples should be updatable by a sequencer.", ImmutableSet.of(1L),
+				updateSamplePermission.getUpdatableSampleIds(sequencer, rows));
+	}
 }
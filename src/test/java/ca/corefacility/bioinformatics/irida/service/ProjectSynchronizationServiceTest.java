@@ -1,16 +1,27 @@
 package ca.corefacility.bioinformatics.irida.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import ca.corefacility.bioinformatics.irida.exceptions.IridaOAuthException;
 import ca.corefacility.bioinformatics.irida.service.impl.TestEmailController;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import ca.corefacility.bioinformatics.irida.exceptions.ProjectSynchronizationException;
 import ca.corefacility.bioinformatics.irida.model.RemoteAPI;
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
 import ca.corefacility.bioinformatics.irida.model.project.ProjectSyncFrequency;
 import ca.corefacility.bioinformatics.irida.model.remote.RemoteStatus;
@@ -54,6 +65,7 @@ public class ProjectSynchronizationServiceTest {
 	private EmailController emailController;
 
 	ProjectSynchronizationService syncService;
+	ThreadPoolTaskExecutor syncExecutor;
 
 	Project expired;
 	Project upToDate;
@@ -64,11 +76,16 @@ public class ProjectSynchronizationServiceTest {
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
 
+		syncExecutor = new ThreadPoolTaskExecutor();
+		syncExecutor.setCorePoolSize(2);
+		syncExecutor.setMaxPoolSize(2);
+		syncExecutor.initialize();
 		syncService = new ProjectSynchronizationService(projectService, sampleService, objectService,
 				metadataTemplateService, projectRemoteService, sampleRemoteService, singleEndRemoteService,
-				pairRemoteService, tokenService, emailController);
+				pairRemoteService, tokenService, emailController, syncExecutor, 3, 0);
 
 		api = new RemoteAPI();
+		api.setId(1L);
 		expired = new Project();
 		expired.setId(1L);
 		RemoteStatus expStatus = new RemoteStatus("http://expired", api);
@@ -97,6 +114,11 @@ public class ProjectSynchronizationServiceTest {
 		neverSync.setRemoteStatus(neverSyncStatus);
 	}
 
+	@After
+	public void tearDown() {
+		syncExecutor.shutdown();
+	}
+
 	@Test
 	public void testFindMarkedProjectsToSync() {
 		when(projectService.getRemoteProjects()).thenReturn(Lists.newArrayList(expired, upToDate, neverSync));
@@ -152,6 +174,138 @@ public class ProjectSynchronizationServiceTest {
 		verify(emailController).sendProjectSyncUnauthorizedEmail(expired);
 	}
 
+	@Test
+	public void testSyncProjectSamples() {
+		expired.getRemoteStatus().setSyncStatus(SyncStatus.MARKED);
+		when(projectService.read(expired.getId())).thenReturn(expired);
+		Project remoteProject = new Project();
+		remoteProject.setRemoteStatus(expired.getRemoteStatus());
+		expired.getRemoteStatus().setReadBy(new User());
+		when(projectService.getProjectsWithRemoteSyncStatus(RemoteStatus.SyncStatus.MARKED))
+				.thenReturn(Lists.newArrayList(expired));
+		when(projectRemoteService.read(expired.getRemoteStatus().getURL())).thenReturn(remoteProject);
+		when(projectService.update(remoteProject)).thenReturn(remoteProject);
+
+		List<Sample> remoteSamples = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Sample sample = new Sample("sample" + i);
+			sample.setRemoteStatus(new RemoteStatus("http://sample/" + i, api));
+			remoteSamples.add(sample);
+			when(sampleService.create(sample)).thenReturn(sample);
+		}
+		when(sampleRemoteService.getSamplesForProject(remoteProject)).thenReturn(remoteSamples);
+
+		// the first read of a sample's files fails, then succeeds
+		when(pairRemoteService.getSequenceFilePairsForSample(remoteSamples.get(0))).thenThrow(
+				new ResourceAccessException("connection reset"))
+				.thenReturn(Collections.emptyList());
+
+		// samples are added to the project by the thread synchronizing it
+		Set<Thread> writers = ConcurrentHashMap.newKeySet();
+		when(projectService.addSampleToProject(any(Project.class), any(Sample.class), eq(true))).thenAnswer(i -> {
+			writers.add(Thread.currentThread());
+			return null;
+		});
+
+		syncService.findMarkedProjectsToSync();
+
+		assertEquals(Collections.singleton(Thread.currentThread()), writers);
+
+		for (Sample sample : remoteSamples) {
+			verify(projectService).addSampleToProject(remoteProject, sample, true);
+			assertEquals(SyncStatus.SYNCHRONIZED, sample.getRemoteStatus().getSyncStatus());
+		}
+		verify(pairRemoteService, times(2)).getSequenceFilePairsForSample(remoteSamples.get(0));
+		assertEquals(SyncStatus.SYNCHRONIZED, remoteProject.getRemoteStatus().getSyncStatus());
+	}
+
+	@Test
+	public void testResumeProjectSkipsSynchronizedSamples() {
+		Date syncStarted = new Date(System.currentTimeMillis() - 60000);
+		expired.getRemoteStatus().setSyncStatus(SyncStatus.UPDATING);
+		expired.getRemoteStatus().setLastUpdate(syncStarted);
+		when(projectService.read(expired.getId())).thenReturn(expired);
+		Project remoteProject = new Project();
+		remoteProject.setRemoteStatus(expired.getRemoteStatus());
+		expired.getRemoteStatus().setReadBy(new User());
+		when(projectService.getProjectsWithRemoteSyncStatus(RemoteStatus.SyncStatus.UPDATING))
+				.thenReturn(Lists.newArrayList(expired));
+		when(projectRemoteService.read(expired.getRemoteStatus().getURL())).thenReturn(remoteProject);
+		when(projectService.update(remoteProject)).thenReturn(remoteProject);
+
+		// synchronized before the project was interrupted
+		Sample doneRemote = new Sample("done");
+		doneRemote.setRemoteStatus(new RemoteStatus("http://sample/done", api));
+		doneRemote.getRemoteStatus().setRemoteHashCode(doneRemote.hashCode());
+		Sample done = new Sample("done");
+		RemoteStatus doneStatus = new RemoteStatus("http://sample/done", api);
+		doneStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
+		doneStatus.setLastUpdate(new Date());
+		doneStatus.setRemoteHashCode(doneRemote.hashCode());
+		done.setRemoteStatus(doneStatus);
+
+		// synchronized by an earlier synchronization of the project
+		Sample oldRemote = new Sample("old");
+		oldRemote.setRemoteStatus(new RemoteStatus("http://sample/old", api));
+		Sample old = new Sample("old");
+		RemoteStatus oldStatus = new RemoteStatus("http://sample/old", api);
+		oldStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
+		oldStatus.setLastUpdate(new Date(1));
+		oldStatus.setRemoteHashCode(oldRemote.hashCode());
+		old.setRemoteStatus(oldStatus);
+
+		when(sampleService.getSamplesForProject(remoteProject)).thenReturn(
+				Lists.newArrayList(new ProjectSampleJoin(remoteProject, done, true),
+						new ProjectSampleJoin(remoteProject, old, true)));
+		when(sampleRemoteService.getSamplesForProject(remoteProject)).thenReturn(
+				Lists.newArrayList(doneRemote, oldRemote));
+		when(sampleService.update(any(Sample.class))).thenAnswer(i -> i.getArguments()[0]);
+
+		syncService.findMarkedProjectsToSync();
+
+		verify(sampleRemoteService, never()).getSampleMetadata(doneRemote);
+		verify(pairRemoteService, never()).getSequenceFilePairsForSample(doneRemote);
+		verify(sampleRemoteService).getSampleMetadata(oldRemote);
+		verify(pairRemoteService).getSequenceFilePairsForSample(oldRemote);
+		assertEquals("the interrupted synchronization should keep its start time", syncStarted,
+				remoteProject.getRemoteStatus().getLastUpdate());
+		assertEquals(SyncStatus.SYNCHRONIZED, remoteProject.getRemoteStatus().getSyncStatus());
+	}
+
+	@Test
+	public void testSampleDownloadErrorMarksSample() {
+		expired.getRemoteStatus().setSyncStatus(SyncStatus.MARKED);
+		when(projectService.read(expired.getId())).thenReturn(expired);
+		Project remoteProject = new Project();
+		remoteProject.setRemoteStatus(expired.getRemoteStatus());
+		expired.getRemoteStatus().setReadBy(new User());
+		when(projectService.getProjectsWithRemoteSyncStatus(RemoteStatus.SyncStatus.MARKED))
+				.thenReturn(Lists.newArrayList(expired));
+		when(projectRemoteService.read(expired.getRemoteStatus().getURL())).thenReturn(remoteProject);
+		when(projectService.update(remoteProject)).thenReturn(remoteProject);
+
+		Sample remoteSample = new Sample("broken");
+		remoteSample.setRemoteStatus(new RemoteStatus("http://sample/broken", api));
+		Sample localSample = new Sample("broken");
+		RemoteStatus localStatus = new RemoteStatus("http://sample/broken", api);
+		localStatus.setSyncStatus(SyncStatus.SYNCHRONIZED);
+		localStatus.setLastUpdate(new Date(1));
+		localSample.setRemoteStatus(localStatus);
+
+		when(sampleService.getSamplesForProject(remoteProject)).thenReturn(
+				Lists.newArrayList(new ProjectSampleJoin(remoteProject, localSample, true)));
+		when(sampleRemoteService.getSamplesForProject(remoteProject)).thenReturn(Lists.newArrayList(remoteSample));
+		when(pairRemoteService.getSequenceFilePairsForSample(remoteSample)).thenThrow(
+				new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+		syncService.findMarkedProjectsToSync();
+
+		assertEquals("the sample that couldn't be downloaded should be marked", SyncStatus.ERROR,
+				localSample.getRemoteStatus().getSyncStatus());
+		verify(sampleService).update(localSample);
+		assertEquals(SyncStatus.ERROR, remoteProject.getRemoteStatus().getSyncStatus());
+	}
+
 	@Test
 	public void testSyncNewSample() {
 		Sample sample = new Sample();
@@ -0,0 +1,117 @@
+package ca.corefacility.bioinformatics.irida.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject.ProcessingState;
+import ca.corefacility.bioinformatics.irida.processing.FileProcessingChain;
+import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.processor.SequenceFileProcessorLauncher;
+
+/**
+ * Tests for {@link SequencingObjectProcessingService}.
+ */
+public class SequencingObjectProcessingServiceTest {
+
+	@Mock
+	private SequencingObjectRepository sequencingObjectRepository;
+	@Mock
+	private ThreadPoolTaskExecutor executor;
+	@Mock
+	private ThreadPoolExecutor threadPoolExecutor;
+	@Mock
+	private FileProcessingChain fileProcessingChain;
+
+	private SequencingObjectProcessingService processingService;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		when(executor.getCorePoolSize()).thenReturn(2);
+		when(executor.getActiveCount()).thenReturn(0);
+		when(executor.getThreadPoolExecutor()).thenReturn(threadPoolExecutor);
+		when(threadPoolExecutor.getQueue()).thenReturn(new LinkedBlockingQueue<>());
+
+		processingService = new SequencingObjectProcessingService(sequencingObjectRepository, executor,
+				fileProcessingChain);
+	}
+
+	@After
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void testDispatchLaunchesAfterCommit() {
+		when(sequencingObjectRepository.claimSequencingObject(eq(1L), anyString(), eq(ProcessingState.PROCESSING)))
+				.thenReturn(true);
+
+		TransactionSynchronizationManager.initSynchronization();
+		processingService.dispatchSequencingObject(1L);
+
+		verify(sequencingObjectRepository).claimSequencingObject(eq(1L), anyString(), eq(ProcessingState.PROCESSING));
+		verify(executor, never()).execute(any(Runnable.class));
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertEquals("the launch should be registered for after commit", 1, synchronizations.size());
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		verify(executor).execute(any(SequenceFileProcessorLauncher.class));
+	}
+
+	@Test
+	public void testDispatchWithoutTransactionLaunchesImmediately() {
+		when(sequencingObjectRepository.claimSequencingObject(eq(1L), anyString(), eq(ProcessingState.PROCESSING)))
+				.thenReturn(true);
+
+		processingService.dispatchSequencingObject(1L);
+
+		verify(executor).execute(any(SequenceFileProcessorLauncher.class));
+	}
+
+	@Test
+	public void testDispatchSkipsClaimWhenQueueFull() {
+		when(executor.getActiveCount()).thenReturn(2);
+
+		TransactionSynchronizationManager.initSynchronization();
+		processingService.dispatchSequencingObject(1L);
+
+		verify(sequencingObjectRepository, never()).claimSequencingObject(anyLong(), anyString(),
+				any(ProcessingState.class));
+		assertEquals("nothing should be launched after commit", 0,
+				TransactionSynchronizationManager.getSynchronizations().size());
+		verify(executor, never()).execute(any(Runnable.class));
+	}
+
+	@Test
+	public void testDispatchAlreadyClaimedNotLaunched() {
+		when(sequencingObjectRepository.claimSequencingObject(eq(1L), anyString(), eq(ProcessingState.PROCESSING)))
+				.thenReturn(false);
+
+		TransactionSynchronizationManager.initSynchronization();
+		processingService.dispatchSequencingObject(1L);
+
+		assertEquals("nothing should be launched after commit", 0,
+				TransactionSynchronizationManager.getSynchronizations().size());
+		verify(executor, never()).execute(any(Runnable.class));
+	}
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -22,9 +23,13 @@ import ca.corefacility.bioinformatics.irida.exceptions.*;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
 import com.github.jmchilton.blend4j.galaxy.beans.HistoryDeleteResponse;
 import com.google.common.collect.Maps;
@@ -91,6 +96,8 @@ public class AnalysisExecutionServiceGalaxyTest {
 	private IridaWorkflowStructure iridaWorkflowStructure;
 	@Mock
 	private Path workflowFile;
+	@Mock
+	private PlatformTransactionManager transactionManager;
 
 	private AnalysisSubmission analysisSubmission;
 	private AnalysisSubmission analysisPreparing;
@@ -148,7 +155,7 @@ public class AnalysisExecutionServiceGalaxyTest {
 
 		AnalysisExecutionServiceGalaxyAsync workflowManagementAsync = new AnalysisExecutionServiceGalaxyAsync(
 				analysisSubmissionService, analysisService, galaxyWorkflowService, analysisWorkspaceService,
-				iridaWorkflowsService, analysisSubmissionSampleProcessor);
+				iridaWorkflowsService, analysisSubmissionSampleProcessor, transactionManager);
 		AnalysisExecutionServiceGalaxyCleanupAsync analysisExecutionServiceGalaxyCleanupAsync = new AnalysisExecutionServiceGalaxyCleanupAsync(
 				analysisSubmissionService, galaxyWorkflowService, galaxyHistoriesService, galaxyLibrariesService);
 		workflowManagement = new AnalysisExecutionServiceGalaxy(analysisSubmissionService, galaxyHistoriesService,
@@ -488,8 +495,35 @@ public class AnalysisExecutionServiceGalaxyTest {
 
 		verify(analysisService).create(analysisResults);
 		verify(analysisSubmissionService, times(2)).update(any(AnalysisSubmission.class));
+		verify(analysisWorkspaceService).cleanupAnalysisResults(analysisCompleting);
 	}
 	
+	/**
+	 * Tests that analysis results are downloaded before the transaction saving them is started.
+	 */
+	@Test
+	public void testTransferAnalysisResultsSavedAfterDownload() throws ExecutionManagerException, IOException,
+			IridaWorkflowNotFoundException, InterruptedException, ExecutionException, IridaWorkflowAnalysisTypeException {
+		when(analysisSubmissionService.exists(INTERNAL_ANALYSIS_ID)).thenReturn(true);
+		when(analysisSubmissionService.update(analysisFinishedRunning)).thenReturn(analysisCompleting);
+		when(analysisSubmissionService.update(analysisCompleting)).thenReturn(analysisCompleted);
+
+		workflowManagement.transferAnalysisResults(analysisFinishedRunning)
+				.get();
+
+		InOrder inOrder = inOrder(analysisWorkspaceService, transactionManager, analysisService);
+		inOrder.verify(analysisWorkspaceService)
+				.getAnalysisResults(analysisCompleting);
+		inOrder.verify(transactionManager)
+				.getTransaction(any(TransactionDefinition.class));
+		inOrder.verify(analysisService)
+				.create(analysisResults);
+		inOrder.verify(transactionManager)
+				.commit(any(TransactionStatus.class));
+		inOrder.verify(analysisWorkspaceService)
+				.cleanupAnalysisResults(analysisCompleting);
+	}
+
 	/**
 	 * Tests successfully getting analysis results even if updating samples failed.
 	 */
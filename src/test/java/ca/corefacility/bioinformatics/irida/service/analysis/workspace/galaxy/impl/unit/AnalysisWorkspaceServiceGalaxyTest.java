@@ -33,6 +33,8 @@ import com.github.jmchilton.blend4j.galaxy.beans.collection.response.CollectionR
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -40,6 +42,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
@@ -143,6 +146,8 @@ public class AnalysisWorkspaceServiceGalaxyTest {
 	private Set<SequencingObject> singleInputFiles;
 	private Set<SequencingObject> pairedInputFiles;
 
+	private Path downloadDirectory;
+
 	/**
 	 * Sets up variables for testing.
 	 * 
@@ -965,4 +970,85 @@ public class AnalysisWorkspaceServiceGalaxyTest {
 
 		workflowPreparation.getAnalysisResults(submission);
 	}
+
+	/**
+	 * Tests that a download interrupted part way through is resumed from the
+	 * same submission directory by the next attempt, and that the directory
+	 * is removed once the results are saved.
+	 * 
+	 * @throws IridaWorkflowNotFoundException
+	 * @throws IOException
+	 * @throws ExecutionManagerException
+	 * @throws IridaWorkflowAnalysisTypeException
+	 */
+	@Test
+	public void testGetAnalysisResultsResumesInSubmissionDirectory() throws IridaWorkflowNotFoundException,
+			IridaWorkflowAnalysisTypeException, ExecutionManagerException, IOException {
+		Set<SingleEndSequenceFile> singleFiles = Sets.newHashSet(sampleSingleSequenceFileMap.values());
+
+		submission = AnalysisSubmission.builder(workflowId).name("my analysis").inputFiles(singleInputFiles)
+				.referenceFile(referenceFile).build();
+		submission.setId(1L);
+		submission.setRemoteWorkflowId(WORKFLOW_ID);
+		submission.setRemoteAnalysisId(HISTORY_ID);
+
+		downloadDirectory = Files.createTempDirectory("analysis-downloads");
+		workflowPreparation.setDownloadDirectory(downloadDirectory);
+
+		when(sequencingObjectService.getSequencingObjectsForAnalysisSubmission(submission))
+				.thenReturn(Sets.newHashSet(singleFiles));
+		when(sequencingObjectService.getUniqueSamplesForSequencingObjects(singleFiles))
+				.thenReturn(sampleSingleSequenceFileMap);
+		when(iridaWorkflowsService.getIridaWorkflow(workflowId)).thenReturn(iridaWorkflowSingle);
+		when(galaxyHistoriesService.getDatasetForFileInHistory(output1Filename, HISTORY_ID)).thenReturn(output1Dataset);
+		when(galaxyHistoriesService.getDatasetForFileInHistory(output2Filename, HISTORY_ID)).thenReturn(output2Dataset);
+
+		// the first attempt is interrupted after writing part of each file
+		doAnswer(i -> {
+			Path destination = (Path) i.getArguments()[2];
+			Files.write(destination.resolveSibling(destination.getFileName() + ".part"), "partial".getBytes());
+			throw new ExecutionManagerDownloadException("interrupted", new IOException());
+		}).when(galaxyHistoriesService).downloadDatasetTo(eq(HISTORY_ID), any(Dataset.class), any(Path.class));
+
+		try {
+			workflowPreparation.getAnalysisResults(submission);
+			fail("interrupted download should fail");
+		} catch (ExecutionManagerDownloadException e) {
+		}
+
+		// the next attempt finds the partial file where the first one left it
+		List<Path> resumed = new ArrayList<>();
+		doAnswer(i -> {
+			Path destination = (Path) i.getArguments()[2];
+			Path partial = destination.resolveSibling(destination.getFileName() + ".part");
+			if (Files.exists(partial)) {
+				resumed.add(destination);
+				Files.move(partial, destination);
+			} else {
+				Files.write(destination, "complete".getBytes());
+			}
+			return null;
+		}).when(galaxyHistoriesService).downloadDatasetTo(eq(HISTORY_ID), any(Dataset.class), any(Path.class));
+
+		Analysis analysis = workflowPreparation.getAnalysisResults(submission);
+
+		Path submissionDirectory = downloadDirectory.resolve("submission-1");
+		assertFalse("a partial file should be resumed", resumed.isEmpty());
+		for (Path destination : resumed) {
+			assertEquals("partial file should be resumed in the submission directory", submissionDirectory,
+					destination.getParent());
+		}
+		assertEquals("output should be in the submission directory", submissionDirectory,
+				analysis.getAnalysisOutputFile("output1").getFile().getParent());
+
+		workflowPreparation.cleanupAnalysisResults(submission);
+		assertFalse("submission directory should be removed", Files.exists(submissionDirectory));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		if (downloadDirectory != null) {
+			FileUtils.deleteDirectory(downloadDirectory.toFile());
+		}
+	}
 }
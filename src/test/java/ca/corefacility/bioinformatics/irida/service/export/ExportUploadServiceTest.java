@@ -13,9 +13,11 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequence
 import ca.corefacility.bioinformatics.irida.service.impl.TestEmailController;
 import ca.corefacility.bioinformatics.irida.service.sample.MetadataTemplateService;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 import org.junit.Test;
 import org.mockftpserver.fake.FakeFtpServer;
 import org.mockftpserver.fake.UserAccount;
@@ -24,15 +26,23 @@ import org.mockftpserver.fake.filesystem.FileEntry;
 import org.mockftpserver.fake.filesystem.FileSystem;
 import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
 import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -58,8 +68,8 @@ public class ExportUploadServiceTest {
 		// finds an open port
 		server.setServerControlPort(0);
 
-		ExportUploadService exportUploadService = new ExportUploadService(null, null, null, null,
-				new TestEmailController());
+		ExportUploadService exportUploadService = new ExportUploadService(savingSubmissionService(), null, null,
+				null, new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -81,7 +91,11 @@ public class ExportUploadServiceTest {
 		assertTrue("submit.ready created", fileSystem.exists(createdDirectory + "/submit.ready"));
 		SequenceFile createdFile = submission.getBioSampleFiles().iterator().next().getFiles().iterator().next()
 				.getSequenceFile();
-		assertTrue("seqfile created", fileSystem.exists(createdDirectory + "/" + createdFile.getId() + ".fastq"));
+		assertTrue("seqfile should be uploaded compressed",
+				fileSystem.exists(createdDirectory + "/" + createdFile.getId() + ".fastq.gz"));
+		assertEquals("the directory should be saved", createdDirectory, submission.getDirectoryPath());
+		assertTrue("the upload should be recorded",
+				submission.getUploadedFiles().containsKey(createdFile.getId() + ".fastq.gz"));
 	}
 
 	@Test
@@ -103,8 +117,8 @@ public class ExportUploadServiceTest {
 		// finds an open port
 		server.setServerControlPort(0);
 
-		ExportUploadService exportUploadService = new ExportUploadService(null, null, null, null,
-				new TestEmailController());
+		ExportUploadService exportUploadService = new ExportUploadService(savingSubmissionService(), null, null,
+				null, new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -129,6 +143,102 @@ public class ExportUploadServiceTest {
 		assertTrue("seqfile created", fileSystem.exists(createdDirectory + "/" + createdFile.getId() + ".fastq.gz"));
 	}
 
+	@Test
+	public void testUploadSubmissionCompressesFiles() throws UploadException, IOException {
+		byte[] fastq = "@read1\nACGT\n+\nIIII\n@read2\nTTGA\n+\nIIII\n".getBytes();
+		NcbiExportSubmission submission = createFakeSubmission(".fastq", fastq, 5);
+
+		String ftpUser = "test";
+		String ftpPassword = "password";
+		String baseDirectory = "/home/test/submit/Test";
+
+		FakeFtpServer server = new FakeFtpServer();
+		server.addUserAccount(new UserAccount(ftpUser, ftpPassword, "/home/test"));
+
+		FileSystem fileSystem = new UnixFakeFileSystem();
+		fileSystem.add(new DirectoryEntry(baseDirectory));
+		server.setFileSystem(fileSystem);
+		server.setServerControlPort(0);
+
+		NcbiExportSubmissionService exportSubmissionService = savingSubmissionService();
+		ExportUploadService exportUploadService = new ExportUploadService(exportSubmissionService, null, null, null,
+				new TestEmailController(), uploadExecutor());
+		try {
+			server.start();
+			exportUploadService.setConnectionDetails("localhost", server.getServerControlPort(), ftpUser,
+					ftpPassword, baseDirectory);
+
+			exportUploadService.uploadSubmission(submission, "<xml></xml>");
+		} finally {
+			server.stop();
+		}
+
+		String createdDirectory = submission.getDirectoryPath();
+		for (long id = 1; id <= 5; id++) {
+			FileEntry uploaded = (FileEntry) fileSystem.getEntry(createdDirectory + "/" + id + ".fastq.gz");
+			try (InputStream stream = new GZIPInputStream(uploaded.createInputStream())) {
+				assertArrayEquals("file " + id + " should be gzipped while uploaded", fastq,
+						ByteStreams.toByteArray(stream));
+			}
+			assertEquals("the compressed size should be recorded", Long.valueOf(uploaded.getSize()),
+					submission.getUploadedFiles().get(id + ".fastq.gz"));
+		}
+		assertTrue("submit.ready created", fileSystem.exists(createdDirectory + "/submit.ready"));
+		// once for the directory and once for each file
+		verify(exportSubmissionService, times(6)).update(submission);
+	}
+
+	@Test
+	public void testUploadSubmissionResumes() throws UploadException, IOException {
+		byte[] gzipped = new byte[100_000];
+		new Random(1).nextBytes(gzipped);
+		NcbiExportSubmission submission = createFakeSubmission(".fastq.gz", gzipped, 3);
+
+		String ftpUser = "test";
+		String ftpPassword = "password";
+		String baseDirectory = "/home/test/submit/Test";
+		String submissionDirectory = baseDirectory + "/1-1234";
+		submission.setDirectoryPath(submissionDirectory);
+		// file 1 was uploaded before the upload was interrupted partway through file 2
+		submission.addUploadedFile("1.fastq.gz", gzipped.length);
+
+		FakeFtpServer server = new FakeFtpServer();
+		server.addUserAccount(new UserAccount(ftpUser, ftpPassword, "/home/test"));
+
+		FileSystem fileSystem = new UnixFakeFileSystem();
+		fileSystem.add(new DirectoryEntry(submissionDirectory));
+		FileEntry partial = new FileEntry(submissionDirectory + "/2.fastq.gz");
+		partial.setContents(Arrays.copyOf(gzipped, 40_000));
+		fileSystem.add(partial);
+		server.setFileSystem(fileSystem);
+		server.setServerControlPort(0);
+
+		ExportUploadService exportUploadService = new ExportUploadService(savingSubmissionService(), null, null,
+				null, new TestEmailController(), uploadExecutor());
+		try {
+			server.start();
+			exportUploadService.setConnectionDetails("localhost", server.getServerControlPort(), ftpUser,
+					ftpPassword, baseDirectory);
+
+			exportUploadService.uploadSubmission(submission, "<xml></xml>");
+		} finally {
+			server.stop();
+		}
+
+		assertEquals("the existing directory should be reused", ImmutableList.of("1-1234"),
+				fileSystem.listNames(baseDirectory));
+		assertFalse("the recorded file should not be uploaded again",
+				fileSystem.exists(submissionDirectory + "/1.fastq.gz"));
+		for (String name : ImmutableList.of("2.fastq.gz", "3.fastq.gz")) {
+			FileEntry uploaded = (FileEntry) fileSystem.getEntry(submissionDirectory + "/" + name);
+			try (InputStream stream = uploaded.createInputStream()) {
+				assertArrayEquals(name + " should be complete", gzipped, ByteStreams.toByteArray(stream));
+			}
+		}
+		assertEquals(3, submission.getUploadedFiles().size());
+		assertTrue("submit.ready created", fileSystem.exists(submissionDirectory + "/submit.ready"));
+	}
+
 	@Test(expected = UploadException.class)
 	public void testUploadSubmissionNoBaseDirectory() throws UploadException, IOException {
 		NcbiExportSubmission submission = createFakeSubmission(".fastq");
@@ -149,7 +259,7 @@ public class ExportUploadServiceTest {
 		server.setServerControlPort(0);
 
 		ExportUploadService exportUploadService = new ExportUploadService(null, null, null, null,
-				new TestEmailController());
+				new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -178,7 +288,7 @@ public class ExportUploadServiceTest {
 		server.setServerControlPort(0);
 
 		ExportUploadService exportUploadService = new ExportUploadService(null, null, null, null,
-				new TestEmailController());
+				new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -203,7 +313,7 @@ public class ExportUploadServiceTest {
 		int ftpPort = 1;
 
 		ExportUploadService exportUploadService = new ExportUploadService(null, null, null, null,
-				new TestEmailController());
+				new TestEmailController(), uploadExecutor());
 
 		exportUploadService.setConnectionDetails(ftpHost, ftpPort, ftpUser, ftpPassword, baseDirectory);
 		String xml = "<xml></xml>";
@@ -253,7 +363,7 @@ public class ExportUploadServiceTest {
 		server.setServerControlPort(0);
 
 		ExportUploadService exportUploadService = new ExportUploadService(exportSubmissionService, null, null, null,
-				new TestEmailController());
+				new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -326,7 +436,7 @@ public class ExportUploadServiceTest {
 		server.setServerControlPort(0);
 
 		ExportUploadService exportUploadService = new ExportUploadService(exportSubmissionService, sampleService,
-				metadataTemplateService, null, new TestEmailController());
+				metadataTemplateService, null, new TestEmailController(), uploadExecutor());
 		try {
 			server.start();
 			int ftpPort = server.getServerControlPort();
@@ -351,6 +461,63 @@ public class ExportUploadServiceTest {
 		assertTrue("saved sample shuold contain accession", savedSample.getMetadata().containsKey(field));
 	}
 
+	/**
+	 * Create a service which saves submissions by returning them
+	 *
+	 * @return a mock {@link NcbiExportSubmissionService}
+	 */
+	private NcbiExportSubmissionService savingSubmissionService() {
+		NcbiExportSubmissionService exportSubmissionService = mock(NcbiExportSubmissionService.class);
+		when(exportSubmissionService.update(any(NcbiExportSubmission.class))).thenAnswer(i -> i.getArguments()[0]);
+		return exportSubmissionService;
+	}
+
+	/**
+	 * Create an executor to upload files on, as configured by default
+	 *
+	 * @return an initialized {@link ThreadPoolTaskExecutor}
+	 */
+	private ThreadPoolTaskExecutor uploadExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.setMaxPoolSize(4);
+		executor.setDaemon(true);
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * Create a fake submission with a number of single end files with the same content
+	 *
+	 * @param sequenceFileExtension {@link String} File extension for sequence files (".fastq" or ".fastq.gz")
+	 * @param content               the content of every sequence file
+	 * @param fileCount             the number of files
+	 * @return a {@link NcbiExportSubmission}
+	 * @throws IOException if the test files couldn't be created
+	 */
+	private NcbiExportSubmission createFakeSubmission(String sequenceFileExtension, byte[] content, int fileCount)
+			throws IOException {
+		NcbiExportSubmission submission = new NcbiExportSubmission();
+		submission.setId(1L);
+
+		NcbiBioSampleFiles ncbiBioSampleFiles = new NcbiBioSampleFiles();
+		Set<SingleEndSequenceFile> files = new HashSet<>();
+		for (long id = 1; id <= fileCount; id++) {
+			Path tempFile = Files.createTempFile("sequencefile", sequenceFileExtension);
+			Files.write(tempFile, content);
+			SequenceFile sequenceFile = new SequenceFile(tempFile);
+			sequenceFile.setId(id);
+			SingleEndSequenceFile singleFile = new SingleEndSequenceFile(sequenceFile);
+			singleFile.setId(id);
+			files.add(singleFile);
+		}
+		ncbiBioSampleFiles.setFiles(files);
+
+		submission.setBioSampleFiles(Lists.newArrayList(ncbiBioSampleFiles));
+
+		return submission;
+	}
+
 	/**
 	 * Create a fake submission for test uploads
 	 *
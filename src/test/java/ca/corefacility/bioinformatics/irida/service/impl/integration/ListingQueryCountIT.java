@@ -0,0 +1,147 @@
+package ca.corefacility.bioinformatics.irida.service.impl.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.context.support.WithSecurityContextTestExecutionListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.DbUnitTestExecutionListener;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.google.common.collect.ImmutableList;
+
+import ca.corefacility.bioinformatics.irida.config.data.IridaApiJdbcDataSourceConfig;
+import ca.corefacility.bioinformatics.irida.config.services.IridaApiServicesConfig;
+import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.ProjectSampleRow;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
+import ca.corefacility.bioinformatics.irida.service.ProjectService;
+import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
+import ca.corefacility.bioinformatics.irida.utils.QueryCounter;
+
+/**
+ * Checks the number of statements run to read a page of a listing doesn't grow with the number of rows on the page.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(loader = AnnotationConfigContextLoader.class, classes = { IridaApiServicesConfig.class,
+		IridaApiJdbcDataSourceConfig.class })
+@ActiveProfiles("it")
+@TestExecutionListeners({ DependencyInjectionTestExecutionListener.class, DbUnitTestExecutionListener.class,
+		WithSecurityContextTestExecutionListener.class })
+@DatabaseSetup("/ca/corefacility/bioinformatics/irida/service/impl/SampleServiceImplIT.xml")
+@DatabaseTearDown("/ca/corefacility/bioinformatics/irida/test/integration/TableReset.xml")
+public class ListingQueryCountIT {
+	private static final Sort SORT = Sort.by(Direction.ASC, "sample.sampleName");
+
+	@Autowired
+	private SampleService sampleService;
+	@Autowired
+	private ProjectService projectService;
+	@Autowired
+	private AnalysisSubmissionService analysisSubmissionService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private QueryCounter queryCounter;
+
+	@Before
+	public void setUp() {
+		queryCounter = new QueryCounter(entityManagerFactory);
+	}
+
+	@Test
+	@WithMockUser(username = "fbristow", roles = "ADMIN")
+	public void testProjectSampleRowsReadWithOneQuery() {
+		List<Project> projects = getProjects();
+		queryCounter.reset();
+
+		Page<ProjectSampleRow> page = sampleService.getFilteredProjectSampleRows(projects, ImmutableList.of(), null,
+				null, null, null, null, 0, 2, SORT);
+
+		assertEquals("the page should be full", 2, page.getNumberOfElements());
+		assertEquals("every sample in both projects should be counted", 6, page.getTotalElements());
+		queryCounter.assertAtMost("the rows and the count should be read with one query each", 2);
+	}
+
+	@Test
+	@WithMockUser(username = "fbristow", roles = "ADMIN")
+	public void testProjectSampleRowsReadAfterPreviousPage() {
+		List<Project> projects = getProjects();
+		Sort sort = Sort.by(Direction.DESC, "sample.organism");
+		List<String> sampleNames = new ArrayList<>();
+		ProjectSampleRow last = null;
+		Slice<ProjectSampleRow> page;
+		do {
+			queryCounter.reset();
+			page = sampleService.getFilteredProjectSampleRowsAfter(projects, ImmutableList.of(), null, null, null,
+					null, null, last, 2, sort);
+			queryCounter.assertAtMost("a page should be read without counting the rows", last == null ? 1 : 2);
+
+			page.forEach(row -> sampleNames.add(row.getSampleName()));
+			last = page.getContent()
+					.get(page.getNumberOfElements() - 1);
+		} while (page.hasNext());
+
+		assertEquals("every sample should be read once, in order with ties broken by id",
+				ImmutableList.of("sample4", "sample8", "sample9", "sample3", "sample1", "sample2"), sampleNames);
+	}
+
+	@Test
+	@WithMockUser(username = "fbristow", roles = "ADMIN")
+	public void testProjectSampleJoinsDoNotLoadPerRow() {
+		List<Project> projects = getProjects();
+		queryCounter.reset();
+		sampleService.getFilteredSamplesForProjects(projects, ImmutableList.of(), null, null, null, null, null, 0, 1,
+				SORT);
+		long onePage = queryCounter.getCount();
+
+		queryCounter.reset();
+		Page<ProjectSampleJoin> page = sampleService.getFilteredSamplesForProjects(projects, ImmutableList.of(), null,
+				null, null, null, null, 0, 100, SORT);
+
+		assertEquals(6, page.getNumberOfElements());
+		queryCounter.assertAtMost("a page of every join should take no more queries than a page of one", onePage);
+	}
+
+	@Test
+	@WithMockUser(username = "fbristow", roles = "ADMIN")
+	public void testAnalysisSubmissionsDoNotLoadPerRow() {
+		queryCounter.reset();
+		analysisSubmissionService.listAllSubmissions(null, null, null, null, PageRequest.of(0, 1));
+		long onePage = queryCounter.getCount();
+
+		queryCounter.reset();
+		Page<AnalysisSubmission> page = analysisSubmissionService.listAllSubmissions(null, null, null, null,
+				PageRequest.of(0, 100));
+
+		assertEquals(3, page.getNumberOfElements());
+		queryCounter.assertAtMost("a page of every submission should take no more queries than a page of one",
+				onePage);
+	}
+
+	private List<Project> getProjects() {
+		return ImmutableList.of(projectService.read(1L), projectService.read(2L));
+	}
+}
@@ -40,6 +40,7 @@ import ca.corefacility.bioinformatics.irida.model.joins.Join;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.ProjectSampleJoin;
 import ca.corefacility.bioinformatics.irida.model.joins.impl.RelatedProjectJoin;
 import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.project.ProjectSummary;
 import ca.corefacility.bioinformatics.irida.model.project.ReferenceFile;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
 import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
@@ -141,6 +142,36 @@ public class ProjectServiceImplIT {
 		assertEquals("User should have 4 projects, two user two group.", 4, projects.getNumberOfElements());
 	}
 
+	@Test
+	@WithMockUser(username = "admin", roles = "ADMIN")
+	public void testGetProjectSummariesSortedBySamples() {
+		final Page<ProjectSummary> summaries = projectService.findAllProjectSummaries("", 0, 3,
+				Sort.by(Direction.DESC, ProjectSummary.SAMPLES_SORT_PROPERTY));
+
+		assertEquals("Every project should be counted", 11, summaries.getTotalElements());
+		assertEquals("Projects with the same number of samples should be ordered by id",
+				ImmutableList.of(2L, 3L, 11L), summaries.getContent()
+						.stream()
+						.map(ProjectSummary::getId)
+						.collect(Collectors.toList()));
+		ProjectSummary project2 = summaries.getContent()
+				.get(0);
+		assertEquals("Project 2 should have 2 samples", 2, project2.getSamples());
+		assertEquals("Project 2 should have 2 members", 2, project2.getMembers());
+		assertTrue("Project 11 should be remote", summaries.getContent()
+				.get(2)
+				.isRemote());
+	}
+
+	@Test
+	@WithMockUser(username = "groupuser", roles = "USER")
+	public void testGetProjectSummariesForUser() {
+		final Page<ProjectSummary> summaries = projectService.findProjectSummariesForUser("", 0, 10,
+				Sort.by(Direction.ASC, "id"));
+
+		assertEquals("User should have 4 projects, two user two group.", 4, summaries.getNumberOfElements());
+	}
+
 	@Test
 	@WithMockUser(username = "admin", roles = "ADMIN")
 	public void testGetUnassociatedProjectsForAdmin() {
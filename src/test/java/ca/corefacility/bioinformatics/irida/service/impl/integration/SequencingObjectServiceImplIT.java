@@ -16,6 +16,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.FileUtils;
@@ -151,6 +152,18 @@ public class SequencingObjectServiceImplIT {
 		assertTrue(createSequenceFilePair.getFiles().contains(file2));
 	}
 
+	@Test
+	@WithMockUser(username = "fbristow1", roles = "USER")
+	public void testGetSequencingObjectsWithUploadSha256() {
+		Set<SequencingObject> objects = objectService.getSequencingObjectsWithUploadSha256(
+				"9c56cc51b374c3ba189210d5b6d4bf57790d351c96c47c02190ecf1e430635ab");
+
+		Set<Long> objectIds = objects.stream()
+				.map(SequencingObject::getId)
+				.collect(Collectors.toSet());
+		assertEquals("only the objects in the user's project should be found", Sets.newHashSet(1L, 2L), objectIds);
+	}
+
 	@Test
 	@WithMockUser(username = "admin", roles = "ADMIN")
 	public void testGetSequenceFilePairForSample() {
@@ -240,6 +253,21 @@ public class SequencingObjectServiceImplIT {
 		assertEquals(1, sequencingObjectsForSample.size());
 	}
 
+	@Test
+	@WithMockUser(username = "admin", roles = "ADMIN")
+	public void testGetSequencingObjectsForSamples() {
+		Sample s1 = sampleService.read(1L);
+		Sample s2 = sampleService.read(2L);
+
+		Map<Long, List<SampleSequencingObjectJoin>> sequencingObjects = objectService
+				.getSequencingObjectsForSamples(Lists.newArrayList(s1, s2));
+
+		assertEquals("should have the sequencing objects of both samples", 2, sequencingObjects.size());
+		assertEquals(1, sequencingObjects.get(1L).size());
+		assertEquals(Long.valueOf(2), sequencingObjects.get(1L).get(0).getObject().getId());
+		assertEquals(2, sequencingObjects.get(2L).size());
+	}
+
 	@Test
 	@WithMockUser(username = "admin", roles = "ADMIN")
 	public void testGetUnpairedFilesForSample() {
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -17,6 +18,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import com.github.jmchilton.blend4j.galaxy.HistoriesClient;
 import com.google.common.collect.Sets;
@@ -37,11 +39,14 @@ import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyJobErro
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.integration.Util;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
 import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.JobErrorRepository;
+import ca.corefacility.bioinformatics.irida.service.AnalysisAdmissionScheduler;
 import ca.corefacility.bioinformatics.irida.service.AnalysisExecutionScheduledTask;
 import ca.corefacility.bioinformatics.irida.service.AnalysisSubmissionService;
 import ca.corefacility.bioinformatics.irida.service.CleanupAnalysisSubmissionCondition;
 import ca.corefacility.bioinformatics.irida.service.analysis.execution.AnalysisExecutionService;
 import ca.corefacility.bioinformatics.irida.service.impl.AnalysisExecutionScheduledTaskImpl;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisMonitoringSchedule;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
 import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.CleanupAnalysisSubmissionConditionAge;
 import ca.corefacility.bioinformatics.irida.service.impl.TestEmailController;
 
@@ -84,6 +89,9 @@ public class AnalysisExecutionScheduledTaskImplTest {
 	@Mock
 	private TestEmailController emailController;
 
+	@Mock
+	private AnalysisProgressCache analysisProgressCache;
+
 	private static final String ANALYSIS_ID = "1";
 	private static final Long INTERNAL_ID = 1L;
 	private AnalysisSubmission analysisSubmission;
@@ -101,7 +109,8 @@ public class AnalysisExecutionScheduledTaskImplTest {
 
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
 				analysisExecutionService, CleanupAnalysisSubmissionCondition.ALWAYS_CLEANUP, galaxyJobErrorsService,
-				jobErrorRepository, emailController);
+				jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		analysisSubmission = AnalysisSubmission.builder(workflowId)
 				.name("my analysis")
@@ -167,6 +176,29 @@ public class AnalysisExecutionScheduledTaskImplTest {
 		verify(analysisExecutionService, times(0)).prepareSubmission(low);
 	}
 
+	/**
+	 * Tests preparing the analyses chosen by the admission scheduler.
+	 *
+	 * @throws ExecutionManagerException
+	 * @throws IridaWorkflowNotFoundException
+	 * @throws IOException
+	 */
+	@Test
+	public void testPrepareAnalysesFromAdmissionScheduler()
+			throws ExecutionManagerException, IridaWorkflowNotFoundException, IOException {
+		analysisSubmission.setAnalysisState(AnalysisState.NEW);
+		AnalysisAdmissionScheduler admissionScheduler = mock(AnalysisAdmissionScheduler.class);
+		((AnalysisExecutionScheduledTaskImpl) analysisExecutionScheduledTask).setAdmissionScheduler(admissionScheduler);
+
+		when(admissionScheduler.selectSubmissions(3)).thenReturn(Arrays.asList(analysisSubmission));
+		when(analysisExecutionService.getCapacity()).thenReturn(3);
+
+		analysisExecutionScheduledTask.prepareAnalyses();
+
+		verify(analysisExecutionService).prepareSubmission(analysisSubmission);
+		verify(analysisSubmissionRepository, never()).findByAnalysisState(AnalysisState.NEW);
+	}
+
 	/**
 	 * Tests no analysis to prepare.
 	 *
@@ -249,6 +281,7 @@ public class AnalysisExecutionScheduledTaskImplTest {
 		assertEquals(AnalysisState.FINISHED_RUNNING, analysisSubmission.getAnalysisState());
 		verify(analysisSubmissionRepository).save(analysisSubmission);
 		verify(emailController, never()).sendPipelineStatusEmail(analysisSubmission);
+		verify(analysisProgressCache).removeWorkflowStatus(analysisSubmission);
 	}
 
 	/**
@@ -295,13 +328,14 @@ public class AnalysisExecutionScheduledTaskImplTest {
 
 		when(analysisSubmissionRepository.findByAnalysisState(AnalysisState.RUNNING)).thenReturn(
 				Arrays.asList(analysisSubmission));
-		when(analysisExecutionService.getWorkflowStatus(analysisSubmission)).thenReturn(
-				new GalaxyWorkflowStatus(GalaxyWorkflowState.RUNNING, stateIds));
+		GalaxyWorkflowStatus galaxyWorkflowStatus = new GalaxyWorkflowStatus(GalaxyWorkflowState.RUNNING, stateIds);
+		when(analysisExecutionService.getWorkflowStatus(analysisSubmission)).thenReturn(galaxyWorkflowStatus);
 
 		analysisExecutionScheduledTask.monitorRunningAnalyses();
 
 		assertEquals(AnalysisState.RUNNING, analysisSubmission.getAnalysisState());
 		verify(analysisSubmissionRepository, never()).save(analysisSubmission);
+		verify(analysisProgressCache).putWorkflowStatus(analysisSubmission, galaxyWorkflowStatus, Duration.ZERO);
 	}
 
 	/**
@@ -460,6 +494,81 @@ public class AnalysisExecutionScheduledTaskImplTest {
 		verify(analysisSubmissionRepository).save(analysisSubmission);
 	}
 
+	/**
+	 * Tests that a running analysis isn't checked again until the schedule says it is due.
+	 *
+	 * @throws ExecutionManagerException
+	 */
+	@Test
+	public void testMonitorRunningAnalysesDeferredUntilDue() throws ExecutionManagerException {
+		AnalysisMonitoringSchedule schedule = new AnalysisMonitoringSchedule(Duration.ofHours(1), Duration.ofHours(2));
+		((AnalysisExecutionScheduledTaskImpl) analysisExecutionScheduledTask).setMonitoringSchedule(schedule);
+
+		analysisSubmission.setAnalysisState(AnalysisState.RUNNING);
+		Map<GalaxyWorkflowState, Set<String>> stateIds = Util.buildStateIdsWithStateFilled(GalaxyWorkflowState.RUNNING,
+				Sets.newHashSet("1"));
+		when(analysisSubmissionRepository.findByAnalysisState(AnalysisState.RUNNING)).thenReturn(
+				Arrays.asList(analysisSubmission));
+		GalaxyWorkflowStatus galaxyWorkflowStatus = new GalaxyWorkflowStatus(GalaxyWorkflowState.RUNNING, stateIds);
+		when(analysisExecutionService.getWorkflowStatus(analysisSubmission)).thenReturn(galaxyWorkflowStatus);
+
+		analysisExecutionScheduledTask.monitorRunningAnalyses();
+		Set<Future<AnalysisSubmission>> submissions = analysisExecutionScheduledTask.monitorRunningAnalyses();
+
+		assertEquals("the analysis should not be checked before it is due", 0, submissions.size());
+		verify(analysisExecutionService, times(1)).getWorkflowStatus(analysisSubmission);
+		verify(analysisProgressCache).putWorkflowStatus(analysisSubmission, galaxyWorkflowStatus, Duration.ofHours(1));
+		assertEquals(1, schedule.getLastCycle()
+				.getDeferred());
+		assertEquals(0, schedule.getLastCycle()
+				.getChecked());
+	}
+
+	/**
+	 * Tests checking the status of running analyses concurrently.
+	 *
+	 * @throws ExecutionManagerException
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testMonitorRunningAnalysesConcurrently() throws ExecutionManagerException, InterruptedException {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.initialize();
+		AnalysisMonitoringSchedule schedule = AnalysisMonitoringSchedule.everyCycle();
+		((AnalysisExecutionScheduledTaskImpl) analysisExecutionScheduledTask).setStatusCheckExecutor(executor);
+		((AnalysisExecutionScheduledTaskImpl) analysisExecutionScheduledTask).setMonitoringSchedule(schedule);
+
+		List<AnalysisSubmission> running = new ArrayList<>();
+		for (long i = 1; i <= 10; i++) {
+			AnalysisSubmission submission = mock(AnalysisSubmission.class);
+			when(submission.getId()).thenReturn(i);
+			running.add(submission);
+		}
+		AnalysisSubmission failing = running.get(0);
+		when(failing.getEmailPipelineResult()).thenReturn(false);
+		when(analysisSubmissionRepository.save(failing)).thenReturn(failing);
+
+		Map<GalaxyWorkflowState, Set<String>> stateIds = Util.buildStateIdsWithStateFilled(GalaxyWorkflowState.RUNNING,
+				Sets.newHashSet("1"));
+		when(analysisSubmissionRepository.findByAnalysisState(AnalysisState.RUNNING)).thenReturn(running);
+		when(analysisExecutionService.getWorkflowStatus(any(AnalysisSubmission.class))).thenReturn(
+				new GalaxyWorkflowStatus(GalaxyWorkflowState.RUNNING, stateIds));
+		when(analysisExecutionService.getWorkflowStatus(failing)).thenThrow(
+				new ExecutionManagerException("Galaxy is down"));
+
+		Set<Future<AnalysisSubmission>> submissions = analysisExecutionScheduledTask.monitorRunningAnalyses();
+		executor.shutdown();
+
+		assertEquals("every running analysis should be returned", 10, submissions.size());
+		verify(analysisExecutionService, times(10)).getWorkflowStatus(any(AnalysisSubmission.class));
+		verify(failing).setAnalysisState(AnalysisState.ERROR);
+		verify(analysisSubmissionRepository).save(failing);
+		assertEquals(10, schedule.getLastCycle()
+				.getChecked());
+	}
+
 	/**
 	 * Tests successfully transferring results for a submitted analysis.
 	 *
@@ -631,7 +740,8 @@ public class AnalysisExecutionScheduledTaskImplTest {
 	public void testCleanupAnalysisSubmissionsCompletedOverOneDaySuccess() throws ExecutionManagerException {
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
 				analysisExecutionService, new CleanupAnalysisSubmissionConditionAge(Duration.ofDays(1)),
-				galaxyJobErrorsService, jobErrorRepository, emailController);
+				galaxyJobErrorsService, jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		when(analysisSubmissionMock.getAnalysisState()).thenReturn(AnalysisState.COMPLETED);
 		when(analysisSubmissionMock.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
@@ -658,7 +768,8 @@ public class AnalysisExecutionScheduledTaskImplTest {
 	public void testCleanupAnalysisSubmissionsCompletedCleanupZeroSuccess() throws ExecutionManagerException {
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
 				analysisExecutionService, new CleanupAnalysisSubmissionConditionAge(Duration.ZERO),
-				galaxyJobErrorsService, jobErrorRepository, emailController);
+				galaxyJobErrorsService, jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		when(analysisSubmissionMock.getAnalysisState()).thenReturn(AnalysisState.COMPLETED);
 		when(analysisSubmissionMock.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
@@ -685,7 +796,8 @@ public class AnalysisExecutionScheduledTaskImplTest {
 	public void testCleanupAnalysisSubmissionsCompletedUnderOneDaySuccess() throws ExecutionManagerException {
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
 				analysisExecutionService, new CleanupAnalysisSubmissionConditionAge(Duration.ofDays(1)),
-				galaxyJobErrorsService, jobErrorRepository, emailController);
+				galaxyJobErrorsService, jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		when(analysisSubmissionMock.getAnalysisState()).thenReturn(AnalysisState.COMPLETED);
 		when(analysisSubmissionMock.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
@@ -712,7 +824,8 @@ public class AnalysisExecutionScheduledTaskImplTest {
 	public void testCleanupAnalysisSubmissionsCompletedOverUnderOneDaySuccess() throws ExecutionManagerException {
 		analysisExecutionScheduledTask = new AnalysisExecutionScheduledTaskImpl(analysisSubmissionRepository,
 				analysisExecutionService, new CleanupAnalysisSubmissionConditionAge(Duration.ofDays(1)),
-				galaxyJobErrorsService, jobErrorRepository, emailController);
+				galaxyJobErrorsService, jobErrorRepository, emailController,
+				analysisProgressCache);
 
 		when(analysisSubmissionMock.getAnalysisState()).thenReturn(AnalysisState.COMPLETED);
 		when(analysisSubmissionMock.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
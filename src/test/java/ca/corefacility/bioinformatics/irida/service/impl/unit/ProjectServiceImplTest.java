@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -25,6 +26,7 @@ import javax.validation.Validator;
 import org.hibernate.validator.internal.engine.ConstraintViolationImpl;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -38,6 +40,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityExistsException;
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.ProjectWithoutOwnerException;
@@ -84,6 +87,7 @@ public class ProjectServiceImplTest {
 	private SampleSequencingObjectJoinRepository ssoRepository;
 	private ProjectAnalysisSubmissionJoinRepository pasRepository;
 	private SequencingObjectRepository sequencingObjectRepository;
+	private ApplicationEventPublisher eventPublisher;
 
 	private Validator validator;
 
@@ -100,9 +104,10 @@ public class ProjectServiceImplTest {
 		prfjRepository = mock(ProjectReferenceFileJoinRepository.class);
 		ugpjRepository = mock(UserGroupProjectJoinRepository.class);
 		sequencingObjectRepository = mock(SequencingObjectRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
 		projectService = new ProjectServiceImpl(projectRepository, sampleRepository, userRepository, pujRepository,
 				psjRepository, relatedProjectRepository, referenceFileRepository, prfjRepository, ugpjRepository,
-				ssoRepository, pasRepository, sequencingObjectRepository, validator);
+				ssoRepository, pasRepository, sequencingObjectRepository, eventPublisher, validator);
 	}
 
 	@Test
@@ -398,6 +403,29 @@ public class ProjectServiceImplTest {
 		verify(relatedProjectRepository).delete(join);
 	}
 
+	@Test
+	public void testDeleteProjectPublishesPermissionsChanged() {
+		Long projectId = 2222L;
+		when(projectRepository.existsById(projectId)).thenReturn(true);
+
+		projectService.delete(projectId);
+
+		verify(projectRepository).deleteById(projectId);
+		verify(eventPublisher).publishEvent(any(PermissionsChangedEvent.class));
+	}
+
+	@Test(expected = EntityNotFoundException.class)
+	public void testDeleteMissingProjectDoesNotPublishPermissionsChanged() {
+		Long projectId = 2222L;
+		when(projectRepository.existsById(projectId)).thenReturn(false);
+
+		try {
+			projectService.delete(projectId);
+		} finally {
+			verify(eventPublisher, never()).publishEvent(any(PermissionsChangedEvent.class));
+		}
+	}
+
 	private Project project() {
 		Project p = new Project("project");
 		p.setId(2222L);
@@ -1,5 +1,6 @@
 package ca.corefacility.bioinformatics.irida.service.impl.unit;
 
+import ca.corefacility.bioinformatics.irida.events.SequencingObjectCreatedEvent;
 import ca.corefacility.bioinformatics.irida.model.run.SequencingRun;
 import ca.corefacility.bioinformatics.irida.model.run.SequencingRun.LayoutType;
 import ca.corefacility.bioinformatics.irida.model.sample.Sample;
@@ -12,9 +13,11 @@ import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequenceFi
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.impl.SequencingObjectServiceImpl;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 import ca.corefacility.bioinformatics.irida.web.controller.test.unit.TestDataFactory;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import javax.validation.Validator;
 import java.io.IOException;
@@ -29,6 +32,7 @@ public class SequencingObjectServiceTest {
 	SequenceFileRepository sequenceFileRepository;
 	SampleSequencingObjectJoinRepository ssoRepository;
 	SequenceConcatenationRepository concatenationRepository;
+	ApplicationEventPublisher eventPublisher;
 	Validator validator;
 
 	@Before
@@ -38,9 +42,10 @@ public class SequencingObjectServiceTest {
 		ssoRepository = mock(SampleSequencingObjectJoinRepository.class);
 
 		concatenationRepository = mock(SequenceConcatenationRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
 
 		service = new SequencingObjectServiceImpl(repository, sequenceFileRepository, ssoRepository,
-				concatenationRepository, validator);
+				concatenationRepository, eventPublisher, mock(SampleQCSummaryUpdater.class), validator);
 	}
 
 	@Test
@@ -54,6 +59,7 @@ public class SequencingObjectServiceTest {
 		service.createSequencingObjectInSample(sf, s);
 
 		verify(sequenceFileRepository, times(1)).save(any(SequenceFile.class));
+		verify(eventPublisher).publishEvent(any(SequencingObjectCreatedEvent.class));
 	}
 
 	@Test(expected = IllegalArgumentException.class)
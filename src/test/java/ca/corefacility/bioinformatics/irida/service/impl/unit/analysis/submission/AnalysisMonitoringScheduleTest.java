@@ -0,0 +1,113 @@
+package ca.corefacility.bioinformatics.irida.service.impl.unit.analysis.submission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisMonitoringSchedule;
+
+/**
+ * Tests for {@link AnalysisMonitoringSchedule}.
+ */
+public class AnalysisMonitoringScheduleTest {
+
+	private static final long MIN = 10000;
+	private static final long MAX = 120000;
+
+	private AnalysisMonitoringSchedule schedule;
+	private AnalysisSubmission submission;
+
+	@Before
+	public void setup() {
+		schedule = new AnalysisMonitoringSchedule(Duration.ofMillis(MIN), Duration.ofMillis(MAX));
+		submission = mock(AnalysisSubmission.class);
+		when(submission.getId()).thenReturn(1L);
+	}
+
+	@Test
+	public void testNewSubmissionIsDue() {
+		assertTrue("a submission that hasn't been checked should be due", schedule.isDue(submission, 0));
+		assertEquals("a submission that hasn't been checked should be due now", 5, schedule.getDueTime(submission, 5));
+	}
+
+	@Test
+	public void testFirstCheckWaitsMinimum() {
+		schedule.recordStatus(submission, status(0.1f), 0);
+
+		assertFalse("should not be due before the minimum interval", schedule.isDue(submission, MIN - 1));
+		assertTrue("should be due after the minimum interval", schedule.isDue(submission, MIN));
+	}
+
+	@Test
+	public void testStalledSubmissionBacksOff() {
+		long now = 0;
+		schedule.recordStatus(submission, status(0.5f), now);
+
+		long[] expectedIntervals = { MIN * 2, MIN * 4, MIN * 8, MAX, MAX };
+		for (long expected : expectedIntervals) {
+			now = schedule.getDueTime(submission, now);
+			schedule.recordStatus(submission, status(0.5f), now);
+			assertEquals("interval should double up to the maximum", now + expected,
+					schedule.getDueTime(submission, now));
+		}
+	}
+
+	@Test
+	public void testProgressingSubmissionCheckedBeforeExpectedCompletion() {
+		schedule.recordStatus(submission, status(0.1f), 0);
+		// 10% in 10 seconds, 80 seconds expected to remain
+		schedule.recordStatus(submission, status(0.2f), MIN);
+
+		assertEquals("should check again at half the expected remaining time", MIN + 40000,
+				schedule.getDueTime(submission, MIN), 1);
+	}
+
+	@Test
+	public void testNearlyCompleteSubmissionCheckedFrequently() {
+		long now = 0;
+		schedule.recordStatus(submission, status(0.5f), now);
+		now = schedule.getDueTime(submission, now);
+		schedule.recordStatus(submission, status(0.5f), now);
+		now = schedule.getDueTime(submission, now);
+		schedule.recordStatus(submission, status(0.9f), now);
+
+		assertEquals("should return to the minimum interval when nearly complete", now + MIN,
+				schedule.getDueTime(submission, now));
+	}
+
+	@Test
+	public void testRetainRunning() {
+		schedule.recordStatus(submission, status(0.5f), 0);
+		assertEquals(1, schedule.size());
+
+		schedule.retainAll(Collections.emptyList());
+
+		assertEquals("submissions that are no longer running should be removed", 0, schedule.size());
+		assertTrue("a removed submission should be due", schedule.isDue(submission, 0));
+	}
+
+	@Test
+	public void testEveryCycle() {
+		schedule = AnalysisMonitoringSchedule.everyCycle();
+		schedule.recordStatus(submission, status(0.5f), 0);
+		schedule.recordStatus(submission, status(0.5f), 0);
+
+		assertTrue("should be due on every cycle", schedule.isDue(submission, 0));
+	}
+
+	private static GalaxyWorkflowStatus status(float proportionComplete) {
+		GalaxyWorkflowStatus status = mock(GalaxyWorkflowStatus.class);
+		when(status.getProportionComplete()).thenReturn(proportionComplete);
+		return status;
+	}
+}
@@ -0,0 +1,100 @@
+package ca.corefacility.bioinformatics.irida.service.impl.unit.analysis.submission;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
+import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyHistoriesService;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
+
+/**
+ * Tests for {@link AnalysisProgressCache}.
+ */
+public class AnalysisProgressCacheTest {
+
+	private static final long TTL = 30;
+	private static final long MAX_INTERVAL = 120;
+	private static final String HISTORY_ID = "history";
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private GalaxyHistoriesService galaxyHistoriesService;
+	private AnalysisSubmission submission;
+	private GalaxyWorkflowStatus monitoredStatus;
+	private GalaxyWorkflowStatus galaxyStatus;
+
+	private AnalysisProgressCache cache;
+
+	@Before
+	public void setup() throws ExecutionManagerException {
+		galaxyHistoriesService = mock(GalaxyHistoriesService.class);
+		submission = mock(AnalysisSubmission.class);
+		when(submission.getId()).thenReturn(1L);
+		when(submission.getRemoteAnalysisId()).thenReturn(HISTORY_ID);
+
+		monitoredStatus = mock(GalaxyWorkflowStatus.class);
+		galaxyStatus = mock(GalaxyWorkflowStatus.class);
+		when(galaxyHistoriesService.getStatusForHistory(HISTORY_ID)).thenReturn(galaxyStatus);
+
+		cache = new AnalysisProgressCache(galaxyHistoriesService, TTL, MAX_INTERVAL, 100, new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		});
+	}
+
+	@Test
+	public void testDeferredSubmissionKeptUntilNextCheck() throws ExecutionManagerException {
+		cache.putWorkflowStatus(submission, monitoredStatus, Duration.ofSeconds(MAX_INTERVAL));
+
+		advance(MAX_INTERVAL);
+		assertSame("status should be kept while the monitor defers the submission", monitoredStatus,
+				cache.getWorkflowStatus(submission));
+		verify(galaxyHistoriesService, never()).getStatusForHistory(HISTORY_ID);
+
+		advance(TTL);
+		assertSame("status should be read from Galaxy once the monitor is overdue", galaxyStatus,
+				cache.getWorkflowStatus(submission));
+		verify(galaxyHistoriesService, times(1)).getStatusForHistory(HISTORY_ID);
+	}
+
+	@Test
+	public void testStatusReadFromGalaxyKeptForTimeToLive() throws ExecutionManagerException {
+		cache.getWorkflowStatus(submission);
+		advance(TTL - 1);
+		cache.getWorkflowStatus(submission);
+		verify(galaxyHistoriesService, times(1)).getStatusForHistory(HISTORY_ID);
+
+		advance(1);
+		cache.getWorkflowStatus(submission);
+		verify(galaxyHistoriesService, times(2)).getStatusForHistory(HISTORY_ID);
+	}
+
+	@Test
+	public void testRemovedStatusReadFromGalaxy() throws ExecutionManagerException {
+		cache.putWorkflowStatus(submission, monitoredStatus, Duration.ofSeconds(MAX_INTERVAL));
+		cache.removeWorkflowStatus(submission);
+
+		assertSame("removed status should be read from Galaxy", galaxyStatus, cache.getWorkflowStatus(submission));
+	}
+
+	private void advance(long seconds) {
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
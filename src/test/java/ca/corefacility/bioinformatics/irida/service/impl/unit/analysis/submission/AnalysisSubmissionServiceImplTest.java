@@ -1,12 +1,19 @@
 package ca.corefacility.bioinformatics.irida.service.impl.unit.analysis.submission;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import ca.corefacility.bioinformatics.irida.exceptions.EntityNotFoundException;
 import ca.corefacility.bioinformatics.irida.exceptions.ExecutionManagerException;
 import ca.corefacility.bioinformatics.irida.exceptions.NoPercentageCompleteException;
 import ca.corefacility.bioinformatics.irida.model.enums.AnalysisCleanedState;
 import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
+import ca.corefacility.bioinformatics.irida.model.user.User;
+import ca.corefacility.bioinformatics.irida.model.workflow.IridaWorkflow;
+import ca.corefacility.bioinformatics.irida.model.workflow.description.IridaWorkflowDescription;
 import ca.corefacility.bioinformatics.irida.model.workflow.execution.galaxy.GalaxyWorkflowStatus;
 import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
 import ca.corefacility.bioinformatics.irida.pipeline.upload.galaxy.GalaxyHistoriesService;
@@ -18,16 +25,28 @@ import ca.corefacility.bioinformatics.irida.repositories.referencefile.Reference
 import ca.corefacility.bioinformatics.irida.repositories.user.UserRepository;
 import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.analysis.execution.galaxy.AnalysisExecutionServiceGalaxyCleanupAsync;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisProgressCache;
 import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.AnalysisSubmissionServiceImpl;
 import ca.corefacility.bioinformatics.irida.service.workflow.IridaWorkflowsService;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -85,10 +104,12 @@ public class AnalysisSubmissionServiceImplTest {
 
 		analysisSubmissionServiceImpl = new AnalysisSubmissionServiceImpl(analysisSubmissionRepository,
 				analysisTemplateRepository, userRepository, referenceFileRepository, sequencingObjectService,
-				galaxyHistoriesService, pasRepository, jobErrorRepository, iridaWorkflowsService, validator);
+				pasRepository, jobErrorRepository, iridaWorkflowsService,
+				new AnalysisProgressCache(galaxyHistoriesService, 30, 120, 100), validator);
 		analysisSubmissionServiceImpl.setAnalysisExecutionService(analysisExecutionService);
 
 		when(analysisSubmissionRepository.findById(ID)).thenReturn(Optional.of(analysisSubmission));
+		when(analysisSubmission.getId()).thenReturn(ID);
 		when(analysisSubmission.getRemoteAnalysisId()).thenReturn(HISTORY_ID);
 	}
 
@@ -209,6 +230,26 @@ public class AnalysisSubmissionServiceImplTest {
 				analysisSubmissionServiceImpl.getPercentCompleteForAnalysisSubmission(ID), DELTA);
 	}
 
+	/**
+	 * Tests that the status of a running workflow is only read from Galaxy once
+	 * for repeated requests.
+	 * 
+	 * @throws EntityNotFoundException
+	 * @throws ExecutionManagerException
+	 */
+	@Test
+	public void testGetPercentageCompleteStateRunningCached() throws EntityNotFoundException,
+			ExecutionManagerException {
+		when(analysisSubmission.getAnalysisState()).thenReturn(AnalysisState.RUNNING);
+		when(galaxyHistoriesService.getStatusForHistory(HISTORY_ID)).thenReturn(galaxyWorkflowStatus);
+		when(galaxyWorkflowStatus.getProportionComplete()).thenReturn(0.5f);
+
+		analysisSubmissionServiceImpl.getPercentCompleteForAnalysisSubmission(ID);
+		analysisSubmissionServiceImpl.getPercentCompleteForAnalysisSubmission(ID);
+
+		verify(galaxyHistoriesService, times(1)).getStatusForHistory(HISTORY_ID);
+	}
+
 	/**
 	 * Tests getting the percent complete in the finished running state.
 	 * 
@@ -273,6 +314,7 @@ public class AnalysisSubmissionServiceImplTest {
 	@Test
 	public void testDeleteSubmission() throws ExecutionManagerException {
 		when(analysisSubmissionRepository.findById(ID)).thenReturn(Optional.of(analysisSubmission));
+		when(analysisSubmission.getId()).thenReturn(ID);
 		when(analysisSubmissionRepository.existsById(ID)).thenReturn(true);
 		when(analysisSubmission.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
 		analysisSubmissionServiceImpl.delete(ID);
@@ -288,6 +330,7 @@ public class AnalysisSubmissionServiceImplTest {
 	@Test
 	public void testDeleteSubmissionWorkflowError() throws ExecutionManagerException {
 		when(analysisSubmissionRepository.findById(ID)).thenReturn(Optional.of(analysisSubmission));
+		when(analysisSubmission.getId()).thenReturn(ID);
 		when(analysisSubmissionRepository.existsById(ID)).thenReturn(true);
 		when(analysisExecutionService.cleanupSubmission(analysisSubmission)).thenThrow(new ExecutionManagerException());
 		when(analysisSubmission.getAnalysisCleanedState()).thenReturn(AnalysisCleanedState.NOT_CLEANED);
@@ -295,4 +338,38 @@ public class AnalysisSubmissionServiceImplTest {
 		verify(analysisExecutionService).cleanupSubmission(analysisSubmission);
 		verify(analysisSubmissionRepository).deleteById(ID);
 	}
+
+	/**
+	 * Tests that single sample submissions are validated before any are saved.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test(expected = ConstraintViolationException.class)
+	public void testCreateSingleSampleSubmissionInvalid() {
+		IridaWorkflow workflow = mock(IridaWorkflow.class);
+		IridaWorkflowDescription description = mock(IridaWorkflowDescription.class);
+		when(workflow.getWorkflowDescription()).thenReturn(description);
+		when(workflow.getWorkflowIdentifier()).thenReturn(UUID.randomUUID());
+		when(description.acceptsSingleSequenceFiles()).thenReturn(true);
+
+		Sample sample = new Sample("sample");
+		SingleEndSequenceFile file = new SingleEndSequenceFile(new SequenceFile());
+		when(sequencingObjectService.getUniqueSamplesForSequencingObjects(ImmutableSet.of(file))).thenReturn(
+				ImmutableMap.of(sample, file));
+
+		User user = new User("user", "user@example.com", "Password1!", "user", "user", "1234");
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(user, null));
+		when(userRepository.loadUserByUsername("user")).thenReturn(user);
+
+		ConstraintViolation<AnalysisSubmission> violation = mock(ConstraintViolation.class);
+		when(validator.validate(any(AnalysisSubmission.class))).thenReturn(ImmutableSet.of(violation));
+
+		try {
+			analysisSubmissionServiceImpl.createSingleSampleSubmission(workflow, null, ImmutableList.of(file),
+					ImmutableList.of(), ImmutableMap.of(), null, "test", null, ImmutableList.of(), false, false);
+		} finally {
+			SecurityContextHolder.clearContext();
+			verify(analysisSubmissionRepository, never()).saveAll(any());
+		}
+	}
 }
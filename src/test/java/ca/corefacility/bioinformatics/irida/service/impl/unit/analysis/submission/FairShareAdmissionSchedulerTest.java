@@ -0,0 +1,258 @@
+package ca.corefacility.bioinformatics.irida.service.impl.unit.analysis.submission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import ca.corefacility.bioinformatics.irida.model.enums.AnalysisState;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisAdmissionQueue;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission;
+import ca.corefacility.bioinformatics.irida.model.workflow.submission.AnalysisSubmission.Priority;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.submission.AnalysisSubmissionRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.FairShareAdmissionScheduler;
+import ca.corefacility.bioinformatics.irida.service.impl.analysis.submission.FairShareAdmissionScheduler.Share;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for {@link FairShareAdmissionScheduler}.
+ */
+public class FairShareAdmissionSchedulerTest {
+
+	private static final UUID WORKFLOW_A = UUID.randomUUID();
+	private static final UUID WORKFLOW_B = UUID.randomUUID();
+	private static final Long USER_1 = 1L;
+	private static final Long USER_2 = 2L;
+	private static final long HOUR = Duration.ofHours(1)
+			.toMillis();
+
+	private AnalysisSubmissionRepository analysisSubmissionRepository;
+	private List<AnalysisAdmissionQueue> waiting;
+	private List<AnalysisAdmissionQueue> running;
+	private List<AnalysisAdmissionQueue> runningByProject;
+
+	@Before
+	public void setup() {
+		analysisSubmissionRepository = mock(AnalysisSubmissionRepository.class);
+		waiting = new ArrayList<>();
+		running = new ArrayList<>();
+		runningByProject = new ArrayList<>();
+
+		when(analysisSubmissionRepository.countBySubmitterWorkflowAndPriority(anyCollectionOf(AnalysisState.class)))
+				.thenAnswer(invocation -> {
+					return ((List<?>) invocation.getArguments()[0]).contains(AnalysisState.NEW) ? waiting : running;
+				});
+		when(analysisSubmissionRepository.countByProjectWorkflowAndPriority(anyCollectionOf(AnalysisState.class)))
+				.thenAnswer(invocation -> {
+					return ((List<?>) invocation.getArguments()[0]).contains(AnalysisState.NEW) ?
+							waiting :
+							runningByProject;
+				});
+		when(analysisSubmissionRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<AnalysisSubmission> submissions = new ArrayList<>();
+			for (Object id : (Iterable<?>) invocation.getArguments()[0]) {
+				submissions.add(submission((Long) id));
+			}
+			return submissions;
+		});
+	}
+
+	@Test
+	public void testNoCapacity() {
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ZERO).selectSubmissions(0);
+
+		assertTrue("nothing should be selected", selected.isEmpty());
+		verifyZeroInteractions(analysisSubmissionRepository);
+	}
+
+	@Test
+	public void testSharedBetweenSubmitters() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.MEDIUM, 3000, 10 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.MEDIUM, 2, HOUR));
+		ids(USER_1, Priority.MEDIUM, 100L, 101L);
+		ids(USER_2, Priority.MEDIUM, 200L, 201L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ZERO).selectSubmissions(4);
+
+		assertEquals("submitters should take turns", Arrays.asList(100L, 200L, 101L, 201L), ids(selected));
+	}
+
+	@Test
+	public void testRunningSubmissionsCountTowardsShare() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.MEDIUM, 3000, 10 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.MEDIUM, 2, HOUR));
+		running.add(queue(USER_1, WORKFLOW_A, Priority.MEDIUM, 2, 10 * HOUR));
+		ids(USER_2, Priority.MEDIUM, 200L, 201L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ZERO).selectSubmissions(2);
+
+		assertEquals("the submitter without running analyses should be admitted", Arrays.asList(200L, 201L),
+				ids(selected));
+	}
+
+	@Test
+	public void testNoShareAdmitsOldestFirst() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.MEDIUM, 3000, 10 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.MEDIUM, 2, HOUR));
+		ids(USER_1, Priority.MEDIUM, 100L, 101L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.NONE, Duration.ZERO).selectSubmissions(2);
+
+		assertEquals("the oldest submissions should be admitted", Arrays.asList(100L, 101L), ids(selected));
+	}
+
+	@Test
+	public void testHigherPriorityFirst() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.LOW, 10, 10 * HOUR));
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.HIGH, 1, HOUR));
+		ids(USER_1, Priority.HIGH, 300L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ZERO).selectSubmissions(1);
+
+		assertEquals("the high priority submission should be admitted", Collections.singletonList(300L),
+				ids(selected));
+	}
+
+	@Test
+	public void testAgingRaisesPriority() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.LOW, 10, 30 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.MEDIUM, 1, HOUR));
+		ids(USER_1, Priority.LOW, 400L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ofHours(10)).selectSubmissions(1);
+
+		assertEquals("the older low priority submission raised to medium should be admitted",
+				Collections.singletonList(400L), ids(selected));
+	}
+
+	@Test
+	public void testAgingRaisesPriorityByOneLevel() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.LOW, 3000, 100 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.HIGH, 1, HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_A, Priority.MEDIUM, 1, HOUR));
+		running.add(queue(USER_1, WORKFLOW_A, Priority.LOW, 2, 100 * HOUR));
+		ids(USER_1, Priority.LOW, 400L, 401L);
+		ids(USER_2, Priority.HIGH, 300L);
+		ids(USER_2, Priority.MEDIUM, 200L);
+
+		List<AnalysisSubmission> selected = scheduler(Share.SUBMITTER, Duration.ofHours(10)).selectSubmissions(3);
+
+		assertEquals("aged submissions shouldn't outrank high priority or the fair share of medium priority",
+				Arrays.asList(300L, 200L, 400L), ids(selected));
+	}
+
+	@Test
+	public void testWorkflowLimit() {
+		waiting.add(queue(USER_1, WORKFLOW_A, Priority.HIGH, 10, 10 * HOUR));
+		waiting.add(queue(USER_2, WORKFLOW_B, Priority.LOW, 10, HOUR));
+		running.add(queue(USER_1, WORKFLOW_A, Priority.HIGH, 1, 10 * HOUR));
+		ids(USER_2, Priority.LOW, 500L, 501L, 502L);
+
+		List<AnalysisSubmission> selected = new FairShareAdmissionScheduler(analysisSubmissionRepository,
+				Share.SUBMITTER, Duration.ZERO, 0, ImmutableMap.of(WORKFLOW_A, 1)).selectSubmissions(3);
+
+		assertEquals("only the workflow below its limit should be admitted", Arrays.asList(500L, 501L, 502L),
+				ids(selected));
+	}
+
+	@Test
+	public void testSharedBetweenProjects() {
+		waiting.add(queue(10L, WORKFLOW_A, Priority.MEDIUM, 5, 10 * HOUR));
+		waiting.add(queue(null, WORKFLOW_A, Priority.MEDIUM, 5, HOUR));
+		when(analysisSubmissionRepository.findIdsByProjectWorkflowAndPriority(AnalysisState.NEW, 10L, WORKFLOW_A,
+				Priority.MEDIUM, PageRequest.of(0, 2))).thenReturn(Arrays.asList(600L, 601L));
+		when(analysisSubmissionRepository.findIdsWithoutProjectByWorkflowAndPriority(AnalysisState.NEW, WORKFLOW_A,
+				Priority.MEDIUM, PageRequest.of(0, 2))).thenReturn(Arrays.asList(700L, 701L));
+
+		List<AnalysisSubmission> selected = scheduler(Share.PROJECT, Duration.ZERO).selectSubmissions(2);
+
+		assertEquals("the project and submissions without a project should take turns", Arrays.asList(600L, 700L),
+				ids(selected));
+		verify(analysisSubmissionRepository).findIdsWithoutProjectByWorkflowAndPriority(eq(AnalysisState.NEW),
+				eq(WORKFLOW_A), eq(Priority.MEDIUM), any(Pageable.class));
+	}
+
+	@Test
+	public void testSubmissionSharedWithProjectsAdmittedOnce() {
+		waiting.add(queue(10L, WORKFLOW_A, Priority.MEDIUM, 1, 10 * HOUR));
+		waiting.add(queue(11L, WORKFLOW_A, Priority.MEDIUM, 2, 10 * HOUR));
+		when(analysisSubmissionRepository.findIdsByProjectWorkflowAndPriority(AnalysisState.NEW, 10L, WORKFLOW_A,
+				Priority.MEDIUM, PageRequest.of(0, 1))).thenReturn(Collections.singletonList(600L));
+		when(analysisSubmissionRepository.findIdsByProjectWorkflowAndPriority(AnalysisState.NEW, 11L, WORKFLOW_A,
+				Priority.MEDIUM, PageRequest.of(0, 2))).thenReturn(Arrays.asList(600L, 601L));
+
+		List<AnalysisSubmission> selected = scheduler(Share.PROJECT, Duration.ZERO).selectSubmissions(2);
+
+		assertEquals("a submission shared with both projects should only take one slot", Arrays.asList(600L, 601L),
+				ids(selected));
+	}
+
+	@Test
+	public void testProjectWorkflowLimitCountsSubmissionsOnce() {
+		waiting.add(queue(10L, WORKFLOW_A, Priority.MEDIUM, 5, 10 * HOUR));
+		runningByProject.add(queue(10L, WORKFLOW_A, Priority.MEDIUM, 1, 10 * HOUR));
+		runningByProject.add(queue(11L, WORKFLOW_A, Priority.MEDIUM, 1, 10 * HOUR));
+		running.add(queue(USER_1, WORKFLOW_A, Priority.MEDIUM, 1, 10 * HOUR));
+		when(analysisSubmissionRepository.findIdsByProjectWorkflowAndPriority(AnalysisState.NEW, 10L, WORKFLOW_A,
+				Priority.MEDIUM, PageRequest.of(0, 2))).thenReturn(Arrays.asList(600L, 601L));
+
+		List<AnalysisSubmission> selected = new FairShareAdmissionScheduler(analysisSubmissionRepository,
+				Share.PROJECT, Duration.ZERO, 2, Collections.emptyMap()).selectSubmissions(2);
+
+		assertEquals("the running submission shared with two projects should count once against the limit",
+				Collections.singletonList(600L), ids(selected));
+	}
+
+	private FairShareAdmissionScheduler scheduler(Share share, Duration aging) {
+		return new FairShareAdmissionScheduler(analysisSubmissionRepository, share, aging, 0,
+				Collections.emptyMap());
+	}
+
+	private void ids(Long submitterId, Priority priority, Long... ids) {
+		when(analysisSubmissionRepository.findIdsBySubmitterWorkflowAndPriority(eq(AnalysisState.NEW),
+				eq(submitterId), any(UUID.class), eq(priority), any(Pageable.class))).thenAnswer(invocation -> {
+			Pageable page = (Pageable) invocation.getArguments()[4];
+			return Arrays.asList(ids)
+					.subList(0, Math.min(ids.length, page.getPageSize()));
+		});
+	}
+
+	private static List<Long> ids(List<AnalysisSubmission> submissions) {
+		return submissions.stream()
+				.map(AnalysisSubmission::getId)
+				.collect(Collectors.toList());
+	}
+
+	private static AnalysisAdmissionQueue queue(Long ownerId, UUID workflowId, Priority priority, long count,
+			long ageMillis) {
+		return new AnalysisAdmissionQueue(ownerId, workflowId, priority, count,
+				new Date(System.currentTimeMillis() - ageMillis));
+	}
+
+	private static AnalysisSubmission submission(Long id) {
+		AnalysisSubmission submission = mock(AnalysisSubmission.class);
+		when(submission.getId()).thenReturn(id);
+		when(submission.getAnalysisState()).thenReturn(AnalysisState.NEW);
+		return submission;
+	}
+}
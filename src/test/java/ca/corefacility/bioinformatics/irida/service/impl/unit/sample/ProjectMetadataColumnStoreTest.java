@@ -0,0 +1,146 @@
+package ca.corefacility.bioinformatics.irida.service.impl.unit.sample;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import ca.corefacility.bioinformatics.irida.events.SampleMetadataChangedEvent;
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.ProjectSampleMetadataRow;
+import ca.corefacility.bioinformatics.irida.model.sample.metadata.SampleMetadataValue;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.ProjectMetadataColumnStore;
+
+/**
+ * Unit tests for {@link ProjectMetadataColumnStore}
+ */
+public class ProjectMetadataColumnStoreTest {
+	private SampleRepository sampleRepository;
+	private ProjectMetadataColumnStore store;
+	private Project project;
+
+	@Before
+	public void setUp() {
+		sampleRepository = mock(SampleRepository.class);
+		store = new ProjectMetadataColumnStore(sampleRepository, 600, 1000);
+
+		project = new Project("test");
+		project.setId(1L);
+
+		when(sampleRepository.getSampleMetadataVersion(project)).thenReturn("v1");
+		doRead(value(1L, 1L, "WRHA"), value(1L, 2L, "AB-1001"));
+	}
+
+	@Test
+	public void testFillFromSingleScan() {
+		ProjectSampleMetadataRow row = row(1L);
+		store.fill(project, ImmutableList.of(row));
+		store.fill(project, ImmutableList.of(row(1L)));
+
+		assertEquals("WRHA", row.getMetadata()
+				.get("irida-1"));
+		assertEquals("AB-1001", row.getMetadata()
+				.get("irida-2"));
+		verify(sampleRepository, times(1)).readSampleMetadataForProject(any(Project.class), any());
+	}
+
+	@Test
+	public void testChangedSamplesReplaced() {
+		store.getColumns(project);
+
+		store.handleSampleMetadataChanged(new SampleMetadataChangedEvent(ImmutableList.of(1L)));
+		store.handleSampleMetadataChanged(new SampleMetadataChangedEvent(ImmutableList.of(2L)));
+		when(sampleRepository.getSampleMetadataValues(ImmutableSet.of(1L, 2L))).thenReturn(
+				ImmutableList.of(value(1L, 1L, "SHA"), value(2L, 1L, "WRHA")));
+		when(sampleRepository.getSampleMetadataVersion(project)).thenReturn("v2");
+
+		ProjectSampleMetadataRow first = row(1L);
+		ProjectSampleMetadataRow second = row(2L);
+		store.fill(project, ImmutableList.of(first, second));
+
+		assertEquals("changed value should be read", "SHA", first.getMetadata()
+				.get("irida-1"));
+		assertEquals("removed value should be gone", 1, first.getMetadata()
+				.size());
+		assertEquals("added sample should be read", "WRHA", second.getMetadata()
+				.get("irida-1"));
+		verify(sampleRepository, times(1)).getSampleMetadataValues(anyCollectionOf(Long.class));
+		verify(sampleRepository, times(1)).readSampleMetadataForProject(any(Project.class), any());
+	}
+
+	@Test
+	public void testMetadataForSamples() {
+		store.getColumns(project);
+		when(sampleRepository.getSampleMetadataValues(ImmutableSet.of(5L))).thenReturn(
+				ImmutableList.of(value(5L, 1L, "WRHA"),
+						new SampleMetadataValue(2L, 5L, 1L, "irida-1", "field1", "text", "WRHA")));
+
+		Map<Long, List<SampleMetadataValue>> values = store.getMetadataForSamples(ImmutableList.of(1L, 5L));
+
+		assertEquals("sample in kept columns should be read from them", 2, values.get(1L)
+				.size());
+		assertEquals("sample in two projects should only have its values once", 1, values.get(5L)
+				.size());
+		verify(sampleRepository, never()).getSampleMetadataValues(ImmutableSet.of(1L, 5L));
+	}
+
+	@Test
+	public void testReplacedColumnsWeighedAgain() {
+		// 16 rows and 2 columns, plus 2 distinct values
+		store = new ProjectMetadataColumnStore(sampleRepository, 600, 40);
+		store.getColumns(project);
+
+		List<SampleMetadataValue> values = new ArrayList<>();
+		for (long sample = 1; sample <= 20; sample++) {
+			values.add(value(sample, 1L, "value" + sample));
+		}
+		store.handleSampleMetadataChanged(new SampleMetadataChangedEvent(ImmutableList.of(1L)));
+		when(sampleRepository.getSampleMetadataValues(ImmutableSet.of(1L))).thenReturn(values);
+
+		store.getColumns(project);
+
+		assertEquals("grown columns should be evicted", 1, store.getStats()
+				.evictionCount());
+		verify(sampleRepository, times(2)).readSampleMetadataForProject(any(Project.class), any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private void doRead(SampleMetadataValue... values) {
+		doAnswer((InvocationOnMock invocation) -> {
+			Consumer<SampleMetadataValue> consumer = (Consumer<SampleMetadataValue>) invocation.getArguments()[1];
+			for (SampleMetadataValue value : values) {
+				consumer.accept(value);
+			}
+			return null;
+		})
+				.when(sampleRepository)
+				.readSampleMetadataForProject(any(Project.class), any(Consumer.class));
+	}
+
+	private static SampleMetadataValue value(Long sampleId, Long fieldId, String value) {
+		return new SampleMetadataValue(1L, sampleId, fieldId, "irida-" + fieldId, "field" + fieldId, "text", value);
+	}
+
+	private static ProjectSampleMetadataRow row(Long sampleId) {
+		return new ProjectSampleMetadataRow(sampleId, "sample" + sampleId, new Date(), new Date(), false, true);
+	}
+}
@@ -0,0 +1,188 @@
+package ca.corefacility.bioinformatics.irida.service.impl.unit.sample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import ca.corefacility.bioinformatics.irida.model.project.Project;
+import ca.corefacility.bioinformatics.irida.model.sample.CoverageQCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.FileProcessorErrorQCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.QCEntry;
+import ca.corefacility.bioinformatics.irida.model.sample.QCEntry.QCEntryStatus;
+import ca.corefacility.bioinformatics.irida.model.sample.Sample;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleQCSummary;
+import ca.corefacility.bioinformatics.irida.model.sample.SampleSequencingObjectJoin;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequencingObject;
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequenceFile;
+import ca.corefacility.bioinformatics.irida.repositories.analysis.AnalysisRepository;
+import ca.corefacility.bioinformatics.irida.repositories.joins.sample.SampleSequencingObjectJoinRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleQCSummaryRepository;
+import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
+
+/**
+ * Unit tests for {@link SampleQCSummaryUpdater} and the {@link SampleQCSummary}s it calculates
+ */
+public class SampleQCSummaryUpdaterTest {
+	private SampleQCSummaryRepository summaryRepository;
+	private SampleSequencingObjectJoinRepository ssoRepository;
+	private QCEntryRepository qcEntryRepository;
+	private AnalysisRepository analysisRepository;
+	private SampleRepository sampleRepository;
+	private SampleQCSummaryUpdater updater;
+
+	private Sample sample;
+	private SequenceFile file1;
+	private SequenceFile file2;
+	private SequencingObject object1;
+	private SequencingObject object2;
+
+	@Before
+	public void setUp() {
+		summaryRepository = mock(SampleQCSummaryRepository.class);
+		ssoRepository = mock(SampleSequencingObjectJoinRepository.class);
+		qcEntryRepository = mock(QCEntryRepository.class);
+		analysisRepository = mock(AnalysisRepository.class);
+		sampleRepository = mock(SampleRepository.class);
+		updater = new SampleQCSummaryUpdater(summaryRepository, ssoRepository, qcEntryRepository,
+				analysisRepository, sampleRepository, mock(PlatformTransactionManager.class));
+
+		sample = new Sample("sample");
+		sample.setId(1L);
+
+		file1 = new SequenceFile();
+		file1.setId(1L);
+		file2 = new SequenceFile();
+		file2.setId(2L);
+		object1 = new SingleEndSequenceFile(file1);
+		object1.setId(1L);
+		object2 = new SingleEndSequenceFile(file2);
+		object2.setId(2L);
+
+		when(ssoRepository.getSequencesForSample(sample)).thenReturn(
+				Lists.newArrayList(new SampleSequencingObjectJoin(sample, object1),
+						new SampleSequencingObjectJoin(sample, object2)));
+		when(summaryRepository.save(any(SampleQCSummary.class))).thenAnswer(i -> i.getArguments()[0]);
+	}
+
+	@Test
+	public void testUpdateSummary() {
+		when(analysisRepository.findFastqcTotalBasesForSequenceFiles(anyCollectionOf(SequenceFile.class)))
+				.thenReturn(ImmutableList.of(new Object[] { 1L, 300L }, new Object[] { 2L, 500L }));
+		when(qcEntryRepository.getQCEntriesForSample(sample)).thenReturn(
+				ImmutableList.of(new CoverageQCEntry(object1, 300L), new CoverageQCEntry(object2, 500L)));
+
+		SampleQCSummary summary = updater.updateSummary(sample);
+
+		assertEquals("the summary should be of the sample", sample.getId(), summary.getSampleId());
+		assertEquals("both files should be counted", 2, summary.getFileCount());
+		assertEquals("the bases of both files should be added", Long.valueOf(800L), summary.getTotalBases());
+		assertEquals("coverage should be estimated from the total bases", 8.0, summary.getCoverage(100L), 0.000001);
+		assertEquals(Long.valueOf(300L), summary.getMinCoverageBases());
+		assertEquals(Long.valueOf(500L), summary.getMaxCoverageBases());
+		assertFalse("no file failed processing", summary.isProcessingError());
+	}
+
+	@Test
+	public void testUpdateSummaryMissingFastqc() {
+		when(analysisRepository.findFastqcTotalBasesForSequenceFiles(anyCollectionOf(SequenceFile.class)))
+				.thenReturn(ImmutableList.<Object[]> of(new Object[] { 1L, 300L }));
+		when(qcEntryRepository.getQCEntriesForSample(sample)).thenReturn(
+				ImmutableList.of(new CoverageQCEntry(object1, 300L), new FileProcessorErrorQCEntry(object2)));
+
+		SampleQCSummary summary = updater.updateSummary(sample);
+
+		assertNull("bases can't be counted until every file has FastQC results", summary.getTotalBases());
+		assertNull("coverage can't be estimated without total bases", summary.getCoverage(100L));
+		assertTrue("the failed file should be summarized", summary.isProcessingError());
+	}
+
+	@Test
+	public void testUpdateExistingSummary() {
+		SampleQCSummary existing = new SampleQCSummary(sample.getId());
+		existing.update(1, 300L, 300L, 300L, true);
+		when(summaryRepository.getSummaryForUpdate(sample.getId())).thenReturn(existing);
+		when(ssoRepository.getSequencesForSample(sample)).thenReturn(Lists.newArrayList());
+
+		SampleQCSummary summary = updater.updateSummary(sample);
+
+		assertTrue("the locked summary should be updated", existing == summary);
+		assertEquals("the removed file should not be counted", 0, summary.getFileCount());
+		assertEquals("an empty sample has no bases", Long.valueOf(0L), summary.getTotalBases());
+		assertNull("an empty sample has no coverage entries", summary.getMinCoverageBases());
+		assertFalse("the removed error should not be summarized", summary.isProcessingError());
+		verify(analysisRepository, never()).findFastqcTotalBasesForSequenceFiles(
+				anyCollectionOf(SequenceFile.class));
+	}
+
+	@Test
+	public void testGetSummariesCalculatesMissing() {
+		Sample other = new Sample("other");
+		other.setId(2L);
+		SampleQCSummary otherSummary = new SampleQCSummary(other.getId());
+		when(summaryRepository.getSummariesForSamples(anyCollectionOf(Long.class))).thenReturn(
+				ImmutableList.of(otherSummary));
+		when(analysisRepository.findFastqcTotalBasesForSequenceFiles(anyCollectionOf(SequenceFile.class)))
+				.thenReturn(ImmutableList.of(new Object[] { 1L, 300L }, new Object[] { 2L, 500L }));
+		when(sampleRepository.findAllById(ImmutableSet.of(sample.getId()))).thenReturn(ImmutableList.of(sample));
+
+		Map<Long, SampleQCSummary> summaries = updater.getSummaries(ImmutableList.of(sample.getId(), other.getId()));
+
+		assertTrue("the stored summary should be returned", otherSummary == summaries.get(other.getId()));
+		assertEquals("the missing summary should be calculated", Long.valueOf(800L), summaries.get(sample.getId())
+				.getTotalBases());
+		verify(ssoRepository, never()).getSequencesForSample(other);
+		verify(sampleRepository, never()).findAllById(ImmutableSet.of(sample.getId(), other.getId()));
+	}
+
+	@Test
+	public void testUpdateSummaryForSequencingObjectNotInSample() {
+		updater.updateSummaryForSequencingObject(object1);
+
+		verify(summaryRepository, never()).save(any(SampleQCSummary.class));
+	}
+
+	@Test
+	public void testWorstQCEntries() {
+		Project project = new Project("project");
+		project.setGenomeSize(100L);
+		project.setMinimumCoverage(2);
+		project.setMaximumCoverage(4);
+
+		SampleQCSummary summary = new SampleQCSummary(sample.getId());
+		summary.update(3, 900L, 100L, 500L, true);
+
+		List<QCEntry> entries = summary.getWorstQCEntries();
+		entries.forEach(e -> e.addProjectSettings(project));
+
+		assertEquals("the error and both coverage extremes should be returned", 3, entries.size());
+		assertTrue("every entry should fail the project's settings", entries.stream()
+				.allMatch(e -> e.getStatus() == QCEntryStatus.NEGATIVE));
+		assertEquals(ImmutableList.of("1x", "5x"), entries.stream()
+				.filter(e -> e instanceof CoverageQCEntry)
+				.map(QCEntry::getMessage)
+				.collect(Collectors.toList()));
+		assertNull("there is no coverage without a genome size", summary.getCoverage(null));
+	}
+}
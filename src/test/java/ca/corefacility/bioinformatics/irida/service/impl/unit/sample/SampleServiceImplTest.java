@@ -2,6 +2,7 @@ package ca.corefacility.bioinformatics.irida.service.impl.unit.sample;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,6 +11,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +21,11 @@ import javax.validation.ValidatorFactory;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.google.common.collect.Lists;
 
+import ca.corefacility.bioinformatics.irida.events.PermissionsChangedEvent;
 import ca.corefacility.bioinformatics.irida.exceptions.AnalysisAlreadySetException;
 import ca.corefacility.bioinformatics.irida.exceptions.SequenceFileAnalysisException;
 import ca.corefacility.bioinformatics.irida.model.joins.Join;
@@ -41,6 +45,8 @@ import ca.corefacility.bioinformatics.irida.repositories.sample.QCEntryRepositor
 import ca.corefacility.bioinformatics.irida.repositories.sample.SampleRepository;
 import ca.corefacility.bioinformatics.irida.repositories.sequencefile.SequencingObjectRepository;
 import ca.corefacility.bioinformatics.irida.repositories.user.UserRepository;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.ProjectMetadataColumnStore;
+import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleQCSummaryUpdater;
 import ca.corefacility.bioinformatics.irida.service.impl.sample.SampleServiceImpl;
 import ca.corefacility.bioinformatics.irida.service.sample.SampleService;
 
@@ -59,6 +65,8 @@ public class SampleServiceImplTest {
 	private SequencingObjectRepository sequencingObjectRepository;
 	private SampleGenomeAssemblyJoinRepository sampleGenomeAssemblyJoinRepository;
 	private UserRepository userRepository;
+	private SampleQCSummaryUpdater qcSummaryUpdater;
+	private ApplicationEventPublisher eventPublisher;
 	private Validator validator;
 
 	/**
@@ -75,11 +83,15 @@ public class SampleServiceImplTest {
 		qcEntryRepository = mock(QCEntryRepository.class);
 		sequencingObjectRepository = mock(SequencingObjectRepository.class);
 		sampleGenomeAssemblyJoinRepository = mock(SampleGenomeAssemblyJoinRepository.class);
+		qcSummaryUpdater = mock(SampleQCSummaryUpdater.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
 
 		ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
 		validator = factory.getValidator();
 		sampleService = new SampleServiceImpl(sampleRepository, psjRepository, analysisRepository,
-				ssoRepository, qcEntryRepository, sequencingObjectRepository, sampleGenomeAssemblyJoinRepository, userRepository, null, validator);
+				ssoRepository, qcEntryRepository, sequencingObjectRepository, sampleGenomeAssemblyJoinRepository, userRepository, null,
+				new ProjectMetadataColumnStore(sampleRepository, 600, 1000), eventPublisher,
+				qcSummaryUpdater, validator);
 	}
 
 	@Test
@@ -114,6 +126,7 @@ public class SampleServiceImplTest {
 		sampleService.removeSequencingObjectFromSample(s, obj);
 
 		verify(ssoRepository).delete(join);
+		verify(qcSummaryUpdater).updateSummariesAfterCommit(Collections.singleton(s));
 	}
 
 	@Test
@@ -182,6 +195,8 @@ public class SampleServiceImplTest {
 			verify(psjRepository).getProjectForSample(toMerge[i]);
 			verify(psjRepository).delete(p_s_joins[i]);
 		}
+		verify(qcSummaryUpdater).updateSummariesAfterCommit(Collections.singleton(s));
+		verify(eventPublisher).publishEvent(isA(PermissionsChangedEvent.class));
 		assertEquals("The saved sample should be the same as the sample to merge into.", s, saved);
 	}
 
@@ -1,14 +1,24 @@
 package ca.corefacility.bioinformatics.irida.service.remote.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.hateoas.Link;
 
 import com.google.common.collect.Lists;
@@ -21,19 +31,38 @@ import ca.corefacility.bioinformatics.irida.model.sequenceFile.SingleEndSequence
 import ca.corefacility.bioinformatics.irida.repositories.RemoteAPIRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SequenceFileRemoteRepository;
 import ca.corefacility.bioinformatics.irida.repositories.remote.SingleEndSequenceFileRemoteRepository;
+import ca.corefacility.bioinformatics.irida.service.SequencingObjectService;
 import ca.corefacility.bioinformatics.irida.service.remote.SingleEndSequenceFileRemoteService;
 
 public class SingleEndSequenceFileRemoteServiceImplTest {
+	private static final String FILE_HREF = "http://somewhere/projects/1/samples/2/sequencefiles/3";
+	private static final String SHA256 = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+	private static final String CONTENTS = "@read\nACGTACGT\n+\nIIIIIIII\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	SingleEndSequenceFileRemoteService service;
 	SingleEndSequenceFileRemoteRepository repository;
 	SequenceFileRemoteRepository fileRepository;
+	SequencingObjectService sequencingObjectService;
 	RemoteAPIRepository apiRepo;
+	RemoteAPI api;
+	Path downloaded;
 
 	@Before
 	public void setUp() {
 		repository = mock(SingleEndSequenceFileRemoteRepository.class);
+		fileRepository = mock(SequenceFileRemoteRepository.class);
+		sequencingObjectService = mock(SequencingObjectService.class);
 		apiRepo = mock(RemoteAPIRepository.class);
-		service = new SingleEndSequenceFileRemoteServiceImpl(repository, fileRepository, apiRepo);
+		service = new SingleEndSequenceFileRemoteServiceImpl(repository, fileRepository, sequencingObjectService,
+				apiRepo);
+
+		api = new RemoteAPI();
+		downloaded = Paths.get("/tmp/downloaded.fastq");
+		when(apiRepo.getRemoteAPIForUrl(FILE_HREF)).thenReturn(api);
+		when(fileRepository.downloadRemoteSequenceFile(FILE_HREF, api)).thenReturn(downloaded);
 	}
 
 	@Test
@@ -55,4 +84,64 @@ public class SingleEndSequenceFileRemoteServiceImplTest {
 		assertEquals(filesList, sequenceFilesForSample);
 		verify(repository).list(seqFilesHref, api);
 	}
+
+	@Test
+	public void testMirrorDownloadsFileWithoutReadableLocalFile() {
+		when(sequencingObjectService.getSequencingObjectsWithUploadSha256(SHA256)).thenReturn(
+				Collections.emptySet());
+
+		SingleEndSequenceFile mirrored = service.mirrorSequencingObject(remoteObject());
+
+		assertEquals("the file should be downloaded", downloaded, mirrored.getSequenceFile()
+				.getFile());
+		verify(fileRepository, never()).getRemoteSequenceFileSize(any(), any());
+	}
+
+	@Test
+	public void testMirrorCopiesReadableLocalFile() throws IOException {
+		Path localFile = localFile();
+		when(fileRepository.getRemoteSequenceFileSize(FILE_HREF, api)).thenReturn((long) CONTENTS.length());
+
+		SingleEndSequenceFile mirrored = service.mirrorSequencingObject(remoteObject());
+
+		Path copy = mirrored.getSequenceFile()
+				.getFile();
+		assertNotEquals("the local file should be copied, not reused", localFile, copy);
+		assertEquals("the copy should be named like the remote file", "remote.fastq", copy.getFileName()
+				.toString());
+		assertEquals(CONTENTS, new String(Files.readAllBytes(copy)));
+		verify(fileRepository, never()).downloadRemoteSequenceFile(any(), any());
+	}
+
+	@Test
+	public void testMirrorDownloadsFileWithDifferentSize() throws IOException {
+		localFile();
+		when(fileRepository.getRemoteSequenceFileSize(FILE_HREF, api)).thenReturn(CONTENTS.length() + 1L);
+
+		SingleEndSequenceFile mirrored = service.mirrorSequencingObject(remoteObject());
+
+		assertEquals("the file should be downloaded", downloaded, mirrored.getSequenceFile()
+				.getFile());
+	}
+
+	/**
+	 * Create a local file the user can read with the checksum the remote file reports
+	 */
+	private Path localFile() throws IOException {
+		Path localFile = folder.newFile("local.fastq")
+				.toPath();
+		Files.write(localFile, CONTENTS.getBytes());
+		SequenceFile local = new SequenceFile(localFile);
+		local.setUploadSha256(SHA256);
+		when(sequencingObjectService.getSequencingObjectsWithUploadSha256(SHA256)).thenReturn(
+				Collections.singleton(new SingleEndSequenceFile(local)));
+		return localFile;
+	}
+
+	private static SingleEndSequenceFile remoteObject() {
+		SequenceFile file = new SequenceFile(Paths.get("/remote/path/remote.fastq"));
+		file.setUploadSha256(SHA256);
+		file.add(new Link(FILE_HREF, Link.REL_SELF));
+		return new SingleEndSequenceFile(file);
+	}
 }
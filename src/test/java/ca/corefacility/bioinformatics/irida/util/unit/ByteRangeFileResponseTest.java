@@ -0,0 +1,149 @@
+package ca.corefacility.bioinformatics.irida.util.unit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ca.corefacility.bioinformatics.irida.util.ByteRangeFileResponse;
+
+import com.google.common.net.HttpHeaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link ByteRangeFileResponse}
+ */
+public class ByteRangeFileResponseTest {
+	private static final String CONTENTS = "@read\nACGTACGT\n+\nIIIIIIII\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path file;
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+
+	@Before
+	public void setUp() throws IOException {
+		file = folder.newFile("reads.fastq")
+				.toPath();
+		Files.write(file, CONTENTS.getBytes(StandardCharsets.UTF_8));
+		request = new MockHttpServletRequest();
+		response = new MockHttpServletResponse();
+	}
+
+	@Test
+	public void testWholeFile() throws IOException {
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+		assertEquals(String.valueOf(CONTENTS.length()), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(CONTENTS, response.getContentAsString());
+	}
+
+	@Test
+	public void testHead() throws IOException {
+		request.setMethod("HEAD");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(String.valueOf(CONTENTS.length()), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+		assertEquals("", response.getContentAsString());
+	}
+
+	@Test
+	public void testRange() throws IOException {
+		request.addHeader(HttpHeaders.RANGE, "bytes=6-13");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 6-13/" + CONTENTS.length(), response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("8", response.getHeader(HttpHeaders.CONTENT_LENGTH));
+		assertEquals("ACGTACGT", response.getContentAsString());
+	}
+
+	@Test
+	public void testOpenEndedRangeWithMatchingETag() throws IOException {
+		ByteRangeFileResponse.write(request, response, file);
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+
+		request = new MockHttpServletRequest();
+		response = new MockHttpServletResponse();
+		request.addHeader(HttpHeaders.RANGE, "bytes=15-");
+		request.addHeader(HttpHeaders.IF_RANGE, eTag);
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(CONTENTS.substring(15), response.getContentAsString());
+	}
+
+	@Test
+	public void testSuffixRange() throws IOException {
+		request.addHeader(HttpHeaders.RANGE, "bytes=-9");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("IIIIIIII\n", response.getContentAsString());
+	}
+
+	@Test
+	public void testChangedFileIgnoresRange() throws IOException {
+		request.addHeader(HttpHeaders.RANGE, "bytes=6-13");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"old-file\"");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals("the whole file should be sent when it has changed", 200, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(CONTENTS, response.getContentAsString());
+	}
+
+	@Test
+	public void testMultipleRangesIgnored() throws IOException {
+		request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENTS, response.getContentAsString());
+	}
+
+	@Test
+	public void testUnsatisfiableRange() throws IOException {
+		request.addHeader(HttpHeaders.RANGE, "bytes=" + CONTENTS.length() + "-");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */" + CONTENTS.length(), response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("", response.getContentAsString());
+	}
+
+	@Test
+	public void testSendfile() throws IOException {
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader(HttpHeaders.RANGE, "bytes=6-13");
+
+		ByteRangeFileResponse.write(request, response, file);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(file.toAbsolutePath()
+				.toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(14L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals("the container should write the file", "", response.getContentAsString());
+	}
+}
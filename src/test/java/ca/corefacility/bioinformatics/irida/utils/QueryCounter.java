@@ -0,0 +1,56 @@
+package ca.corefacility.bioinformatics.irida.utils;
+
+import static org.junit.Assert.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a test runs, so tests can fail when a listing starts loading its
+ * rows one query at a time again.
+ */
+public class QueryCounter {
+	private final Statistics statistics;
+
+	/**
+	 * Start counting the statements prepared by an {@link EntityManagerFactory}
+	 *
+	 * @param entityManagerFactory the factory to count statements of
+	 */
+	public QueryCounter(EntityManagerFactory entityManagerFactory) {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+
+	/**
+	 * Start counting again from zero
+	 */
+	public void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * Get the number of statements prepared since counting started
+	 *
+	 * @return the number of statements
+	 */
+	public long getCount() {
+		return statistics.getPrepareStatementCount();
+	}
+
+	/**
+	 * Assert that at most a number of statements were prepared since counting started
+	 *
+	 * @param message  the message to fail with
+	 * @param expected the most statements allowed
+	 */
+	public void assertAtMost(String message, long expected) {
+		long count = getCount();
+		assertTrue(message + ": expected at most " + expected + " statements but " + count + " were run",
+				count <= expected);
+	}
+}
@@ -0,0 +1,108 @@
+package ca.corefacility.bioinformatics.irida.web.spring.view.unit;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ca.corefacility.bioinformatics.irida.model.sequenceFile.SequenceFile;
+import ca.corefacility.bioinformatics.irida.web.controller.api.RESTGenericController;
+import ca.corefacility.bioinformatics.irida.web.spring.view.FastqView;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link FastqView}
+ */
+public class FastqViewTest {
+	private static final String CONTENTS = "@read\nACGTACGT\n+\nIIIIIIII\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private FastqView view;
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+
+	private Path compressed;
+	private byte[] compressedBytes;
+
+	@Before
+	public void setUp() throws IOException {
+		view = new FastqView();
+		request = new MockHttpServletRequest();
+		response = new MockHttpServletResponse();
+
+		compressed = folder.newFile("reads.fastq.gz")
+				.toPath();
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+			out.write(CONTENTS.getBytes(StandardCharsets.UTF_8));
+		}
+		compressedBytes = Files.readAllBytes(compressed);
+	}
+
+	@Test
+	public void testCompressedFileSentAsStored() throws Exception {
+		// clients that don't accept gzip still get the stored file
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+
+		view.render(model(compressed), request, response);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("attachment; filename=\"reads.fastq.gz\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+		assertEquals(String.valueOf(compressedBytes.length), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+		assertArrayEquals("the stored bytes should be sent", compressedBytes, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void testCompressedFileRange() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+
+		view.render(model(compressed), request, response);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("10", response.getHeader(HttpHeaders.CONTENT_LENGTH));
+	}
+
+	@Test
+	public void testDecompressParameter() throws Exception {
+		request.setParameter(FastqView.DECOMPRESS_PARAMETER, "true");
+
+		view.render(model(compressed), request, response);
+
+		assertEquals("attachment; filename=\"reads.fastq\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+		assertEquals("the file should be decompressed", CONTENTS, response.getContentAsString());
+	}
+
+	@Test
+	public void testDecompressParameterUncompressedFile() throws Exception {
+		Path uncompressed = folder.newFile("reads.fastq")
+				.toPath();
+		Files.write(uncompressed, CONTENTS.getBytes(StandardCharsets.UTF_8));
+		request.setParameter(FastqView.DECOMPRESS_PARAMETER, "true");
+
+		view.render(model(uncompressed), request, response);
+
+		assertEquals("attachment; filename=\"reads.fastq\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+		assertEquals(String.valueOf(CONTENTS.length()), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(CONTENTS, response.getContentAsString());
+	}
+
+	private Map<String, Object> model(Path file) {
+		return ImmutableMap.of(RESTGenericController.RESOURCE_NAME, new SequenceFile(file));
+	}
+}